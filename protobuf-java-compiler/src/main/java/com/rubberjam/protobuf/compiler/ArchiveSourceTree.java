@@ -0,0 +1,133 @@
+package com.rubberjam.protobuf.compiler;
+
+import com.rubberjam.protobuf.compiler.Importer.SourceTree;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * A SourceTree that reads .proto files straight out of jar and zip
+ * archives, without extracting them.
+ *
+ * <p>Each archive's central directory is read once, when it is added, and
+ * its .proto entries go into a single index. Looking a file up is then one
+ * hash lookup however many archives there are, and reading it inflates just
+ * that entry. When several archives have the same file, the one added first
+ * wins, as with the -I order of {@link Importer.DiskSourceTree}.
+ *
+ * <p>The archives stay open until the tree is closed. Archives must be
+ * added before the tree is used; lookups may then come from any thread.
+ */
+public class ArchiveSourceTree implements SourceTree, Closeable {
+
+    private final List<ZipFile> archives = new ArrayList<>();
+    private final Map<String, Entry> index = new HashMap<>();
+    private volatile String lastErrorMessage = "";
+
+    /** Adds the .proto files of an archive, at the root of the source tree. */
+    public void addArchive(File archive) throws IOException {
+        addArchive("", archive);
+    }
+
+    /**
+     * Adds the .proto files of an archive, so that an entry "a/b.proto" is
+     * found at {@code virtualPath + "/a/b.proto"}, or at "a/b.proto" if
+     * {@code virtualPath} is empty.
+     */
+    public void addArchive(String virtualPath, File archive) throws IOException {
+        ZipFile zipFile = new ZipFile(archive);
+        archives.add(zipFile);
+        String prefix = virtualPath.isEmpty() ? "" : virtualPath + "/";
+        Enumeration<? extends ZipEntry> entries = zipFile.entries();
+        while (entries.hasMoreElements()) {
+            ZipEntry entry = entries.nextElement();
+            if (!entry.isDirectory() && entry.getName().endsWith(".proto")) {
+                index.putIfAbsent(prefix + entry.getName(), new Entry(zipFile, entry));
+            }
+        }
+    }
+
+    /** The number of .proto files the archives provide. */
+    public int size() {
+        return index.size();
+    }
+
+    @Override
+    public InputStream open(String filename) {
+        Entry entry = find(filename);
+        if (entry == null) {
+            return null;
+        }
+        try {
+            return entry.archive.getInputStream(entry.entry);
+        } catch (IOException e) {
+            lastErrorMessage = "Error opening file: " + entry.archive.getName() + "!/" + entry.entry.getName()
+                    + " (" + e.getMessage() + ")";
+            return null;
+        }
+    }
+
+    @Override
+    public ByteBuffer read(String filename) throws IOException {
+        Entry entry = find(filename);
+        if (entry == null) {
+            return null;
+        }
+        try (InputStream in = entry.archive.getInputStream(entry.entry)) {
+            // The central directory gives the size, so the buffer is allocated once.
+            long size = entry.entry.getSize();
+            return ByteBuffer.wrap(size >= 0 && size < Integer.MAX_VALUE
+                    ? in.readNBytes((int) size)
+                    : in.readAllBytes());
+        }
+    }
+
+    @Override
+    public String getLastErrorMessage() {
+        return lastErrorMessage;
+    }
+
+    @Override
+    public void close() throws IOException {
+        IOException failure = null;
+        for (ZipFile archive : archives) {
+            try {
+                archive.close();
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+        archives.clear();
+        index.clear();
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private Entry find(String filename) {
+        Entry entry = index.get(filename);
+        if (entry == null) {
+            lastErrorMessage = "File not found: " + filename;
+        }
+        return entry;
+    }
+
+    private static final class Entry {
+        final ZipFile archive;
+        final ZipEntry entry;
+
+        Entry(ZipFile archive, ZipEntry entry) {
+            this.archive = archive;
+            this.entry = entry;
+        }
+    }
+}
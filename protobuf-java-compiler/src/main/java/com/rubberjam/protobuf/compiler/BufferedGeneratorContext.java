@@ -0,0 +1,53 @@
+package com.rubberjam.protobuf.compiler;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A GeneratorContext that keeps every opened file in memory, so that output
+ * produced on a worker thread can later be written to the real context in a
+ * deterministic order.
+ */
+final class BufferedGeneratorContext implements GeneratorContext
+{
+	private final List<String> filenames = new ArrayList<>();
+	private final List<ByteArrayOutputStream> contents = new ArrayList<>();
+
+	@Override
+	public OutputStream open(String filename)
+	{
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		filenames.add(filename);
+		contents.add(output);
+		return output;
+	}
+
+	@Override
+	public void discard(OutputStream output)
+	{
+		int index = contents.indexOf(output);
+		if (index >= 0)
+		{
+			filenames.remove(index);
+			contents.remove(index);
+		}
+	}
+
+	/**
+	 * Opens each buffered file on {@code target}, in the order they were
+	 * opened here, and writes its contents.
+	 */
+	void writeTo(GeneratorContext target) throws IOException
+	{
+		for (int i = 0; i < filenames.size(); i++)
+		{
+			try (OutputStream output = target.open(filenames.get(i)))
+			{
+				contents.get(i).writeTo(output);
+			}
+		}
+	}
+}
@@ -1,7 +1,12 @@
 package com.rubberjam.protobuf.compiler;
 
 import com.google.protobuf.Descriptors.FileDescriptor;
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
 /**
  * The abstract interface to a class which generates code implementing a
@@ -49,6 +54,112 @@ public abstract class CodeGenerator
 		}
 	}
 
+	/**
+	 * Generates code for all given proto files on up to {@code parallelism}
+	 * threads. Each file is generated into its own buffer, and the buffers are
+	 * written to {@code generatorContext} from the calling thread in the order
+	 * of {@code files}. The outputs, and the order in which they are opened,
+	 * are therefore the same as those of
+	 * {@link #generateAll(List, String, GeneratorContext)}, and the context
+	 * does not have to be thread-safe.
+	 *
+	 * <p>Subclasses using this method must implement {@link #generate} without
+	 * mutable shared state.
+	 *
+	 * @param parallelism
+	 *            The maximum number of files to generate concurrently. Values
+	 *            of one or less generate serially.
+	 * @throws GenerationException
+	 *             if an error occurred during generation. When several files
+	 *             fail, the error of the first one in {@code files} is thrown.
+	 */
+	public void generateAll(
+			List<FileDescriptor> files, String parameter, GeneratorContext generatorContext,
+			int parallelism)
+			throws GenerationException
+	{
+		if (parallelism <= 1 || files.size() <= 1)
+		{
+			generateAll(files, parameter, generatorContext);
+			return;
+		}
+
+		try
+		{
+			for (BufferedGeneratorContext buffer : generateBuffered(files, parameter, parallelism))
+			{
+				buffer.writeTo(generatorContext);
+			}
+		}
+		catch (IOException e)
+		{
+			throw new GenerationException(e);
+		}
+	}
+
+	/**
+	 * Generates each of the given files into its own buffer, on up to
+	 * {@code parallelism} threads.
+	 *
+	 * @return The buffers, in the order of {@code files}.
+	 * @throws GenerationException
+	 *             if an error occurred during generation. When several files
+	 *             fail, the error of the first one in {@code files} is thrown.
+	 */
+	List<BufferedGeneratorContext> generateBuffered(
+			List<FileDescriptor> files, String parameter, int parallelism)
+			throws GenerationException
+	{
+		List<BufferedGeneratorContext> buffers = new ArrayList<>(files.size());
+		if (parallelism <= 1 || files.size() <= 1)
+		{
+			for (FileDescriptor file : files)
+			{
+				BufferedGeneratorContext buffer = new BufferedGeneratorContext();
+				generate(file, parameter, buffer);
+				buffers.add(buffer);
+			}
+			return buffers;
+		}
+
+		ForkJoinPool pool = new ForkJoinPool(Math.min(parallelism, files.size()));
+		try
+		{
+			List<Future<BufferedGeneratorContext>> results = new ArrayList<>(files.size());
+			for (FileDescriptor file : files)
+			{
+				results.add(pool.submit(() ->
+				{
+					BufferedGeneratorContext buffer = new BufferedGeneratorContext();
+					generate(file, parameter, buffer);
+					return buffer;
+				}));
+			}
+			for (Future<BufferedGeneratorContext> result : results)
+			{
+				buffers.add(result.get());
+			}
+			return buffers;
+		}
+		catch (ExecutionException e)
+		{
+			if (e.getCause() instanceof GenerationException)
+			{
+				throw (GenerationException) e.getCause();
+			}
+			throw new GenerationException(e.getCause());
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			throw new GenerationException(e);
+		}
+		finally
+		{
+			pool.shutdownNow();
+		}
+	}
+
 	/**
 	 * An exception that occurred during code generation.
 	 */
@@ -5,14 +5,23 @@ import com.google.protobuf.Descriptors.FileDescriptor;
 import com.rubberjam.protobuf.compiler.CodeGenerator.GenerationException;
 import com.rubberjam.protobuf.compiler.Importer.DiskSourceTree;
 import com.rubberjam.protobuf.compiler.Importer.MultiFileErrorCollector;
+import com.rubberjam.protobuf.compiler.Importer.SourceTree;
 
+import java.io.BufferedOutputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
+import java.io.FilterOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.AbstractMap;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -32,6 +41,24 @@ public class CommandLineInterface {
     // We store the raw flag value to handle options (e.g. "lite:outdir")
     private final List<Map.Entry<String, String>> outputDirectives = new ArrayList<>();
 
+    // Maximum number of files generated concurrently per output directive.
+    private int jobs = 1;
+
+    // Directory of cached parses, or null to parse every file.
+    private String parseCacheDir;
+
+    // Skip unchanged files and outputs when generating into a directory.
+    private boolean incremental;
+
+    // Only parse and link the inputs; no output directive is needed.
+    private boolean validateOnly;
+
+    // Syntax errors after which a file is abandoned, or 0 for no limit.
+    private int maxErrors;
+
+    // Where the inputs of the current run are looked up.
+    private SourceTree sourceTree;
+
     public CommandLineInterface() {
     }
 
@@ -72,39 +99,74 @@ public class CommandLineInterface {
             return 1;
         }
 
-        if (outputDirectives.isEmpty()) {
+        if (outputDirectives.isEmpty() && !validateOnly) {
             System.err.println("Missing output directive.");
             return 1;
         }
 
-        DiskSourceTree sourceTree = new DiskSourceTree();
+        // Consecutive directories share a DiskSourceTree and consecutive
+        // archives an ArchiveSourceTree, so that lookups keep the -I order.
+        List<SourceTree> sourceTrees = new ArrayList<>();
+        List<ArchiveSourceTree> archiveTrees = new ArrayList<>();
         // If no proto_path is specified, default to current directory.
-        if (protoPath.isEmpty()) {
-            sourceTree.mapPath("", ".");
-        } else {
-            for (String path : protoPath) {
-                // Handle "virtual=physical" syntax
-                int equals = path.indexOf('=');
-                if (equals > 0) {
-                    sourceTree.mapPath(path.substring(0, equals), path.substring(equals + 1));
-                } else {
-                    sourceTree.mapPath("", path);
+        for (String path : protoPath.isEmpty() ? Collections.singletonList(".") : protoPath) {
+            // Handle "virtual=physical" syntax
+            int equals = path.indexOf('=');
+            String virtualPath = equals > 0 ? path.substring(0, equals) : "";
+            String diskPath = equals > 0 ? path.substring(equals + 1) : path;
+            SourceTree last = sourceTrees.isEmpty() ? null : sourceTrees.get(sourceTrees.size() - 1);
+            if ((diskPath.endsWith(".jar") || diskPath.endsWith(".zip")) && new File(diskPath).isFile()) {
+                if (!(last instanceof ArchiveSourceTree)) {
+                    last = new ArchiveSourceTree();
+                    sourceTrees.add(last);
+                    archiveTrees.add((ArchiveSourceTree) last);
+                }
+                try {
+                    ((ArchiveSourceTree) last).addArchive(virtualPath, new File(diskPath));
+                } catch (IOException e) {
+                    System.err.println(diskPath + ": " + e.getMessage());
+                    closeAll(archiveTrees);
+                    return 1;
                 }
+            } else {
+                if (!(last instanceof DiskSourceTree)) {
+                    last = new DiskSourceTree();
+                    sourceTrees.add(last);
+                }
+                ((DiskSourceTree) last).mapPath(virtualPath, diskPath);
             }
         }
+        sourceTree = sourceTrees.size() == 1 ? sourceTrees.get(0) : new ChainedSourceTree(sourceTrees);
 
         ErrorCollector errorCollector = new ErrorCollector();
-        Importer importer = new Importer(sourceTree, errorCollector);
+        Importer importer = new Importer(sourceTree, errorCollector, DescriptorPool.shared());
+        if (parseCacheDir != null) {
+            importer.setParseCache(new ParseCache(Paths.get(parseCacheDir)));
+        }
+        importer.setMaxErrors(maxErrors);
+        if (validateOnly) {
+            // Nothing is generated, so comments and source positions are not needed.
+            importer.setRecordSourceLocations(false);
+        }
 
-        List<FileDescriptor> parsedFiles = new ArrayList<>();
-        for (String inputFile : inputFiles) {
-            FileDescriptor fd = importer.importFile(inputFile);
-            if (fd == null) {
-                return 1; // Error already reported
-            }
-            parsedFiles.add(fd);
+        List<FileDescriptor> parsedFiles = importer.importFiles(inputFiles, jobs);
+        // The returned descriptors stay usable; the pool keeps them for later runs in this JVM.
+        importer.close();
+        if (parsedFiles == null || validateOnly) {
+            closeAll(archiveTrees);
+            return parsedFiles == null ? 1 : 0; // Errors already reported
+        }
+
+        // The archives stay open while generating: incremental output asks
+        // whether the inputs of earlier builds are still there.
+        try {
+            return generateAll(parsedFiles);
+        } finally {
+            closeAll(archiveTrees);
         }
+    }
 
+    private int generateAll(List<FileDescriptor> parsedFiles) {
         for (Map.Entry<String, String> directive : outputDirectives) {
             String generatorName = directive.getKey();
             String outputLocation = directive.getValue();
@@ -160,6 +222,16 @@ public class CommandLineInterface {
         return 0;
     }
 
+    private static void closeAll(List<ArchiveSourceTree> trees) {
+        for (ArchiveSourceTree tree : trees) {
+            try {
+                tree.close();
+            } catch (IOException e) {
+                // Ignore
+            }
+        }
+    }
+
     private boolean parseArguments(String[] args) {
         for (int i = 0; i < args.length; i++) {
             String arg = args[i];
@@ -184,6 +256,32 @@ public class CommandLineInterface {
                     System.err.println("Missing value for flag: " + arg);
                     return false;
                 }
+            } else if (arg.startsWith("--jobs=")) {
+                try {
+                    jobs = Integer.parseInt(arg.substring("--jobs=".length()));
+                } catch (NumberFormatException e) {
+                    jobs = 0;
+                }
+                if (jobs < 1) {
+                    System.err.println("Invalid value for --jobs: " + arg.substring("--jobs=".length()));
+                    return false;
+                }
+            } else if (arg.equals("--incremental")) {
+                incremental = true;
+            } else if (arg.equals("--validate_only")) {
+                validateOnly = true;
+            } else if (arg.startsWith("--max_errors=")) {
+                try {
+                    maxErrors = Integer.parseInt(arg.substring("--max_errors=".length()));
+                } catch (NumberFormatException e) {
+                    maxErrors = -1;
+                }
+                if (maxErrors < 0) {
+                    System.err.println("Invalid value for --max_errors: " + arg.substring("--max_errors=".length()));
+                    return false;
+                }
+            } else if (arg.startsWith("--parse_cache_dir=")) {
+                parseCacheDir = arg.substring("--parse_cache_dir=".length());
             } else if (arg.startsWith("--plugin=")) {
                 String val = arg.substring("--plugin=".length());
                 int equals = val.indexOf('=');
@@ -247,11 +345,14 @@ public class CommandLineInterface {
             if (outputLocation.endsWith(".zip") || outputLocation.endsWith(".jar")) {
                 ZipWriter zipWriter = new ZipWriter(new FileOutputStream(outputLocation));
                 context = new ZipGeneratorContext(zipWriter);
-                generator.generateAll(files, parameter, context);
+                generator.generateAll(files, parameter, context, jobs);
                 zipWriter.writeDirectory(); // finish
+            } else if (incremental) {
+                new IncrementalOutput(new File(outputLocation), generatorName, this::inputExists)
+                        .generate(generator, files, parameter, jobs);
             } else {
                 context = new DirectoryGeneratorContext(new File(outputLocation));
-                generator.generateAll(files, parameter, context);
+                generator.generateAll(files, parameter, context, jobs);
             }
             return true;
         } catch (IOException | GenerationException e) {
@@ -260,6 +361,19 @@ public class CommandLineInterface {
         }
     }
 
+    private boolean inputExists(String filename) {
+        InputStream stream = sourceTree.open(filename);
+        if (stream == null) {
+            return false;
+        }
+        try {
+            stream.close();
+        } catch (IOException e) {
+            // Ignore
+        }
+        return true;
+    }
+
     private boolean generatePluginOutput(String pluginPath, String parameter, String outputLocation, List<FileDescriptor> files) {
         // TODO: Implement plugin execution using Subprocess
         // For now, we only support built-in generators in this Phase.
@@ -272,6 +386,13 @@ public class CommandLineInterface {
 
     private void printHelp() {
         System.out.println("Usage: protoc [OPTION] PROTO_FILES");
+        System.out.println("  -IPATH, --proto_path=PATH   Directory, jar or zip in which to search for imports.");
+        System.out.println("  --jobs=N                    Parse and generate up to N files concurrently.");
+        System.out.println("  --parse_cache_dir=DIR       Reuse the parses of unchanged files stored in DIR.");
+        System.out.println("  --incremental               Only regenerate output directories for changed files,");
+        System.out.println("                              and only rewrite outputs whose contents changed.");
+        System.out.println("  --validate_only             Parse and link the inputs without generating anything.");
+        System.out.println("  --max_errors=N              Give up on a file after N syntax errors (0: no limit).");
         // Add more help text
     }
 
@@ -294,6 +415,45 @@ public class CommandLineInterface {
         }
     }
 
+    // Looks a file up in each tree in turn.
+    private static class ChainedSourceTree implements SourceTree {
+        private final List<SourceTree> trees;
+        private String lastErrorMessage = "";
+
+        ChainedSourceTree(List<SourceTree> trees) {
+            this.trees = trees;
+        }
+
+        @Override
+        public InputStream open(String filename) {
+            for (SourceTree tree : trees) {
+                InputStream stream = tree.open(filename);
+                if (stream != null) {
+                    return stream;
+                }
+                lastErrorMessage = tree.getLastErrorMessage();
+            }
+            return null;
+        }
+
+        @Override
+        public ByteBuffer read(String filename) throws IOException {
+            for (SourceTree tree : trees) {
+                ByteBuffer contents = tree.read(filename);
+                if (contents != null) {
+                    return contents;
+                }
+                lastErrorMessage = tree.getLastErrorMessage();
+            }
+            return null;
+        }
+
+        @Override
+        public String getLastErrorMessage() {
+            return lastErrorMessage;
+        }
+    }
+
     private static class DirectoryGeneratorContext implements GeneratorContext {
         private final File outputDir;
 
@@ -301,14 +461,71 @@ public class CommandLineInterface {
             this.outputDir = outputDir;
         }
 
+        // A file is written to a uniquely named temporary file next to it,
+        // which replaces it when the stream is closed; a discarded file
+        // leaves the old one alone.
         @Override
         public OutputStream open(String filename) throws IOException {
-            File file = new File(outputDir, filename);
-            File parent = file.getParentFile();
-            if (parent != null && !parent.exists()) {
-                parent.mkdirs();
+            Path target = new File(outputDir, filename).toPath();
+            Path temp = OutputFiles.createTemp(target);
+            try {
+                return new PendingFile(target, temp);
+            } catch (IOException | RuntimeException e) {
+                Files.deleteIfExists(temp);
+                throw e;
+            }
+        }
+
+        @Override
+        public void discard(OutputStream output) throws IOException {
+            if (output instanceof PendingFile) {
+                ((PendingFile) output).discard();
+            } else {
+                output.close();
+            }
+        }
+
+        private static class PendingFile extends FilterOutputStream {
+            private final Path target;
+            private final Path temp;
+            private boolean closed;
+
+            PendingFile(Path target, Path temp) throws IOException {
+                super(new BufferedOutputStream(Files.newOutputStream(temp)));
+                this.target = target;
+                this.temp = temp;
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                out.write(b, off, len);
+            }
+
+            @Override
+            public void close() throws IOException {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                try {
+                    out.close();
+                    OutputFiles.replace(temp, target);
+                } finally {
+                    Files.deleteIfExists(temp);
+                }
+            }
+
+            void discard() throws IOException {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                try {
+                    out.close();
+                } finally {
+                    Files.deleteIfExists(temp);
+                }
             }
-            return new FileOutputStream(file);
         }
     }
 
@@ -321,13 +538,38 @@ public class CommandLineInterface {
 
         @Override
         public OutputStream open(final String filename) throws IOException {
-            return new ByteArrayOutputStream() {
-                @Override
-                public void close() throws IOException {
+            return new PendingEntry(filename);
+        }
+
+        @Override
+        public void discard(OutputStream output) throws IOException {
+            if (output instanceof PendingEntry) {
+                ((PendingEntry) output).discarded = true;
+            }
+            output.close();
+        }
+
+        // An entry is added to the archive when its stream is closed, unless it was discarded.
+        private class PendingEntry extends ByteArrayOutputStream {
+            private final String filename;
+            private boolean discarded;
+            private boolean closed;
+
+            PendingEntry(String filename) {
+                this.filename = filename;
+            }
+
+            @Override
+            public void close() throws IOException {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                if (!discarded) {
                     zipWriter.write(filename, this.toByteArray());
-                    super.close();
                 }
-            };
+                super.close();
+            }
         }
     }
 }
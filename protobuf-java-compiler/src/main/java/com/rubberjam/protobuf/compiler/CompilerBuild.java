@@ -0,0 +1,87 @@
+package com.rubberjam.protobuf.compiler;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.CodeSource;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Identifies the build of the running compiler, for the caches that keep
+ * its results across runs. The id is a SHA-256 hash of the compiler's own
+ * classes, taken from the jar they were loaded from or from every file under
+ * their classes directory, so any change to the compiler invalidates those
+ * caches even when its version string stays the same.
+ */
+final class CompilerBuild {
+
+    private CompilerBuild() {
+    }
+
+    /** The id of the running compiler, as a hex string. */
+    static String id() {
+        return Holder.ID;
+    }
+
+    private static final class Holder {
+        static final String ID = compute();
+    }
+
+    private static String compute() {
+        try {
+            CodeSource source = CompilerBuild.class.getProtectionDomain().getCodeSource();
+            if (source != null && source.getLocation() != null) {
+                Path location = Paths.get(source.getLocation().toURI());
+                MessageDigest digest = MessageDigest.getInstance("SHA-256");
+                if (Files.isRegularFile(location)) {
+                    update(digest, location);
+                    return hex(digest.digest());
+                }
+                if (Files.isDirectory(location)) {
+                    List<Path> files;
+                    try (Stream<Path> walk = Files.walk(location)) {
+                        files = walk.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+                    }
+                    for (Path file : files) {
+                        digest.update((location.relativize(file).toString() + '\0').getBytes(StandardCharsets.UTF_8));
+                        update(digest, file);
+                    }
+                    return hex(digest.digest());
+                }
+            }
+        } catch (IOException | URISyntaxException | SecurityException | IllegalArgumentException e) {
+            // Fall through.
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        // The compiler's classes cannot be read: use an id no earlier run had,
+        // so the caches miss rather than return results of another build.
+        return "unknown-" + UUID.randomUUID();
+    }
+
+    private static void update(MessageDigest digest, Path file) throws IOException {
+        byte[] buffer = new byte[8192];
+        try (InputStream in = Files.newInputStream(file)) {
+            for (int n = in.read(buffer); n >= 0; n = in.read(buffer)) {
+                digest.update(buffer, 0, n);
+            }
+        }
+    }
+
+    static String hex(byte[] bytes) {
+        StringBuilder result = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            result.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+        }
+        return result.toString();
+    }
+}
@@ -0,0 +1,178 @@
+package com.rubberjam.protobuf.compiler;
+
+import com.google.protobuf.Descriptors.FileDescriptor;
+import java.lang.ref.SoftReference;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * File descriptors shared by {@link Importer}s, which may run on different
+ * threads. An entry is keyed by the file's name in its source tree and a
+ * SHA-256 hash of its contents, so a file is only parsed again when it
+ * changed.
+ *
+ * <p>Each Importer holds a reference to the entries it used until it is
+ * closed. Entries nobody references are kept softly: later Importers can
+ * still reuse them, but the garbage collector may drop them when memory runs
+ * low. Once a file has changed, the entry of its older contents is dropped
+ * as soon as nobody references it, so a long-running pool holds at most one
+ * unreferenced version of each file.
+ */
+public final class DescriptorPool {
+
+    private static final DescriptorPool SHARED = new DescriptorPool();
+
+    private final ConcurrentHashMap<Key, Entry> entries = new ConcurrentHashMap<>();
+    /** The most recently acquired key of each file. */
+    private final ConcurrentHashMap<String, Key> latest = new ConcurrentHashMap<>();
+
+    /** The pool shared by all Importers of this JVM that ask for it. */
+    public static DescriptorPool shared() {
+        return SHARED;
+    }
+
+    /**
+     * Returns the pooled descriptor of the file, or null if there is none.
+     * The caller must check that the descriptor's dependencies are the ones
+     * it resolved before using it, and then {@link #acquire} it. On a hit the
+     * messages the file's parse reported are added to {@code messages}.
+     */
+    FileDescriptor lookup(Key key, List<ParseCache.Message> messages) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        FileDescriptor descriptor = entry.descriptor();
+        if (descriptor == null) {
+            entries.remove(key, entry);
+        } else {
+            messages.addAll(entry.messages);
+        }
+        return descriptor;
+    }
+
+    /**
+     * Takes a reference to the pooled descriptor of the file, adding
+     * {@code descriptor} and the messages its parse reported if the file is
+     * not pooled yet. An entry built against
+     * other imports is replaced once nobody references it.
+     *
+     * @return The entry to {@link Entry#release release} when done with it,
+     *         or null if the pool holds a descriptor of the file with other
+     *         imports, which is still in use.
+     */
+    Entry acquire(Key key, FileDescriptor descriptor, List<ParseCache.Message> messages) {
+        while (true) {
+            Entry entry = entries.computeIfAbsent(key, k -> new Entry(k, descriptor, messages));
+            FileDescriptor pooled = entry.acquire();
+            if (pooled != null && (pooled == descriptor || pooled.getDependencies().equals(descriptor.getDependencies()))) {
+                Key previous = latest.put(key.filename, key);
+                if (previous != null && !previous.equals(key)) {
+                    entries.computeIfPresent(previous, (k, old) -> old.isUnused() ? null : old);
+                }
+                return entry;
+            }
+            if (pooled != null && !entry.release()) {
+                return null;
+            }
+            // Collected, or stale and unused; replace it.
+            entries.remove(key, entry);
+        }
+    }
+
+    /**
+     * Drops a reference taken by {@link #acquire}. The entry is removed once
+     * it is unused if a newer version of the file has been acquired since.
+     */
+    void release(Entry entry) {
+        if (entry.release() && !entry.key.equals(latest.get(entry.key.filename))) {
+            entries.computeIfPresent(entry.key, (k, current) -> current == entry && current.isUnused() ? null : current);
+        }
+    }
+
+    /** The number of files in the pool, including ones that may have been collected. */
+    public int size() {
+        return entries.size();
+    }
+
+    static Key key(String filename, String content) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return new Key(filename, digest.digest(content.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static final class Key {
+        private final String filename;
+        private final byte[] contentHash;
+        private final int hash;
+
+        private Key(String filename, byte[] contentHash) {
+            this.filename = filename;
+            this.contentHash = contentHash;
+            this.hash = 31 * filename.hashCode() + Arrays.hashCode(contentHash);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return filename.equals(other.filename) && Arrays.equals(contentHash, other.contentHash);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /** A pooled descriptor, strongly reachable while referenced and softly reachable otherwise. */
+    static final class Entry {
+        private final Key key;
+        private final List<ParseCache.Message> messages;
+        private final SoftReference<FileDescriptor> soft;
+        private FileDescriptor strong;
+        private int references;
+
+        Entry(Key key, FileDescriptor descriptor, List<ParseCache.Message> messages) {
+            this.key = key;
+            this.messages = new ArrayList<>(messages);
+            this.soft = new SoftReference<>(descriptor);
+        }
+
+        synchronized FileDescriptor descriptor() {
+            return strong != null ? strong : soft.get();
+        }
+
+        synchronized FileDescriptor acquire() {
+            FileDescriptor descriptor = descriptor();
+            if (descriptor != null) {
+                strong = descriptor;
+                references++;
+            }
+            return descriptor;
+        }
+
+        synchronized boolean isUnused() {
+            return references == 0;
+        }
+
+        /** Drops a reference taken by {@link DescriptorPool#acquire}, returning true if it was the last. */
+        synchronized boolean release() {
+            if (references > 0 && --references == 0) {
+                strong = null;
+                return true;
+            }
+            return false;
+        }
+    }
+}
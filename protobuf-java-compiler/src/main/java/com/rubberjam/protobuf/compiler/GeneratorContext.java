@@ -16,4 +16,15 @@ public interface GeneratorContext
 	 * returned object.
 	 */
 	OutputStream open(String filename) throws IOException;
+
+	/**
+	 * Gives up on a file returned by {@link #open} whose generation failed, in
+	 * place of closing it. Contexts that only store a file once its stream is
+	 * closed drop it, so no partial output is left behind. The default closes
+	 * the stream, keeping what was written.
+	 */
+	default void discard(OutputStream output) throws IOException
+	{
+		output.close();
+	}
 }
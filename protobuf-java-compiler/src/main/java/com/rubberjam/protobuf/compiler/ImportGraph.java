@@ -0,0 +1,227 @@
+package com.rubberjam.protobuf.compiler;
+
+import com.google.protobuf.Descriptors.FileDescriptor;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * The import graph of a set of .proto files, with a hash of each file's
+ * parsed contents. A graph can be saved after a build and loaded by the
+ * next one, which then asks which files are affected by what changed in
+ * between: the changed files and everything that imports them, directly or
+ * transitively.
+ *
+ * <p>A saved graph records the {@linkplain CompilerBuild compiler build} that
+ * wrote it. A graph from another build loads as an empty one, so that every
+ * file counts as changed once the compiler changes.
+ *
+ * <p>Build tools can use {@link #affected} to hand only those files to
+ * {@link CodeGenerator#generateAll}.
+ */
+public final class ImportGraph {
+
+    private static final String HEADER = "import-graph\t2";
+    private static final String COMPILER_PREFIX = "compiler\t";
+
+    private final Map<String, Node> nodes;
+    private Map<String, Set<String>> importers;
+
+    private ImportGraph(Map<String, Node> nodes) {
+        this.nodes = nodes;
+    }
+
+    /** An empty graph, which treats every file as changed. */
+    public static ImportGraph empty() {
+        return new ImportGraph(new TreeMap<>());
+    }
+
+    /** Builds the graph of the given files and everything they import. */
+    public static ImportGraph of(Collection<FileDescriptor> files) {
+        Map<String, Node> nodes = new TreeMap<>();
+        Deque<FileDescriptor> pending = new ArrayDeque<>(files);
+        while (!pending.isEmpty()) {
+            FileDescriptor file = pending.pop();
+            if (nodes.containsKey(file.getName())) {
+                continue;
+            }
+            List<String> imports = new ArrayList<>(file.getDependencies().size());
+            for (FileDescriptor dependency : file.getDependencies()) {
+                imports.add(dependency.getName());
+                pending.push(dependency);
+            }
+            nodes.put(file.getName(), new Node(hash(file), imports));
+        }
+        return new ImportGraph(nodes);
+    }
+
+    /**
+     * Reads a graph written by {@link #save}. A missing file, or one written
+     * in another format or by another compiler build, reads as an empty graph.
+     */
+    public static ImportGraph load(Path path) throws IOException {
+        Map<String, Node> nodes = new TreeMap<>();
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            if (!HEADER.equals(reader.readLine())
+                    || !(COMPILER_PREFIX + CompilerBuild.id()).equals(reader.readLine())) {
+                return empty();
+            }
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] parts = line.split("\t");
+                if (parts.length < 2) {
+                    return empty();
+                }
+                nodes.put(parts[0], new Node(parts[1], Arrays.asList(parts).subList(2, parts.length)));
+            }
+        } catch (NoSuchFileException e) {
+            return empty();
+        }
+        return new ImportGraph(nodes);
+    }
+
+    /** Writes the graph to {@code path}, replacing it atomically where supported. */
+    public void save(Path path) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temp = Files.createTempFile(parent, path.getFileName().toString(), ".tmp");
+        try {
+            try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                writer.write(HEADER);
+                writer.write('\n');
+                writer.write(COMPILER_PREFIX + CompilerBuild.id());
+                writer.write('\n');
+                for (Map.Entry<String, Node> entry : nodes.entrySet()) {
+                    writer.write(entry.getKey());
+                    writer.write('\t');
+                    writer.write(entry.getValue().hash);
+                    for (String imported : entry.getValue().imports) {
+                        writer.write('\t');
+                        writer.write(imported);
+                    }
+                    writer.write('\n');
+                }
+            }
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /** The names of the files in the graph, sorted. */
+    public Set<String> getFiles() {
+        return Collections.unmodifiableSet(nodes.keySet());
+    }
+
+    /** The files {@code filename} imports directly, in declaration order. */
+    public List<String> getImports(String filename) {
+        Node node = nodes.get(filename);
+        return node == null ? Collections.emptyList() : Collections.unmodifiableList(node.imports);
+    }
+
+    /** The files that import {@code filename} directly, sorted. */
+    public Set<String> getImporters(String filename) {
+        if (importers == null) {
+            Map<String, Set<String>> reverse = new HashMap<>();
+            for (Map.Entry<String, Node> entry : nodes.entrySet()) {
+                for (String imported : entry.getValue().imports) {
+                    reverse.computeIfAbsent(imported, k -> new TreeSet<>()).add(entry.getKey());
+                }
+            }
+            importers = reverse;
+        }
+        Set<String> result = importers.get(filename);
+        return result == null ? Collections.emptySet() : Collections.unmodifiableSet(result);
+    }
+
+    /**
+     * Returns the given files and every file that imports one of them,
+     * directly or transitively.
+     */
+    public Set<String> getDependents(Collection<String> filenames) {
+        Set<String> result = new LinkedHashSet<>(filenames);
+        Deque<String> pending = new ArrayDeque<>(filenames);
+        while (!pending.isEmpty()) {
+            for (String importer : getImporters(pending.pop())) {
+                if (result.add(importer)) {
+                    pending.push(importer);
+                }
+            }
+        }
+        return result;
+    }
+
+    /** The files of this graph that are new or whose contents differ in {@code previous}. */
+    public Set<String> changedSince(ImportGraph previous) {
+        Set<String> changed = new TreeSet<>();
+        for (Map.Entry<String, Node> entry : nodes.entrySet()) {
+            Node old = previous.nodes.get(entry.getKey());
+            if (old == null || !old.hash.equals(entry.getValue().hash)) {
+                changed.add(entry.getKey());
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Selects the files that have to be generated again since the build that
+     * produced {@code previous}: those of {@code files} that changed, or that
+     * import a changed file, directly or transitively. The files must be part
+     * of this graph.
+     *
+     * @return The selected files, in the order of {@code files}.
+     */
+    public List<FileDescriptor> affected(List<FileDescriptor> files, ImportGraph previous) {
+        Set<String> dependents = getDependents(changedSince(previous));
+        List<FileDescriptor> result = new ArrayList<>();
+        for (FileDescriptor file : files) {
+            if (dependents.contains(file.getName())) {
+                result.add(file);
+            }
+        }
+        return result;
+    }
+
+    private static String hash(FileDescriptor file) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(file.toProto().toByteArray());
+            StringBuilder result = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                result.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+            }
+            return result.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class Node {
+        final String hash;
+        final List<String> imports;
+
+        Node(String hash, List<String> imports) {
+            this.hash = hash;
+            this.imports = imports;
+        }
+    }
+}
@@ -8,16 +8,26 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
-public class Importer {
+public class Importer implements AutoCloseable {
 
     public interface MultiFileErrorCollector {
         void recordError(String filename, int line, int column, String message);
@@ -34,10 +44,33 @@ public class Importer {
         InputStream open(String filename);
 
         String getLastErrorMessage();
+
+        /**
+         * Returns the whole contents of the given file, or null if not found.
+         * Trees that can do better than reading {@link #open}'s stream to the
+         * end override this.
+         */
+        default ByteBuffer read(String filename) throws IOException {
+            InputStream stream = open(filename);
+            if (stream == null) {
+                return null;
+            }
+            try (InputStream in = stream) {
+                return ByteBuffer.wrap(in.readAllBytes());
+            }
+        }
     }
 
+    /**
+     * A SourceTree that maps virtual paths onto directories on disk.
+     *
+     * <p>Where a virtual path resolves to is looked up once: both found and
+     * missing paths are remembered, so a file created after a path was
+     * found missing is not seen.
+     */
     public static class DiskSourceTree implements SourceTree {
         private final List<Mapping> mappings = new ArrayList<>();
+        private final Map<String, File> resolved = new HashMap<>();
         private String lastErrorMessage = "";
 
         private static class Mapping {
@@ -52,15 +85,52 @@ public class Importer {
 
         public void mapPath(String virtualPath, String diskPath) {
             mappings.add(new Mapping(virtualPath, diskPath));
+            resolved.clear();
         }
 
         @Override
         public InputStream open(String filename) {
+            File file = resolve(filename);
+            if (file == null) {
+                return null;
+            }
+            try {
+                return new FileInputStream(file);
+            } catch (IOException e) {
+                lastErrorMessage = "Error opening file: " + file.getPath() + " (" + e.getMessage() + ")";
+                return null;
+            }
+        }
+
+        @Override
+        public ByteBuffer read(String filename) throws IOException {
+            File file = resolve(filename);
+            if (file == null) {
+                return null;
+            }
+            return ByteBuffer.wrap(Files.readAllBytes(file.toPath()));
+        }
+
+        @Override
+        public String getLastErrorMessage() {
+            return lastErrorMessage;
+        }
+
+        /** Returns the disk file of a virtual path, or null if none of the mappings has it. */
+        private synchronized File resolve(String filename) {
             if (filename.contains("..")) {
                 lastErrorMessage = "Invalid filename: " + filename;
                 return null;
             }
+            if (resolved.containsKey(filename)) {
+                File file = resolved.get(filename);
+                if (file == null) {
+                    lastErrorMessage = "File not found: " + filename;
+                }
+                return file;
+            }
 
+            File result = null;
             for (Mapping mapping : mappings) {
                 // If virtualPath is empty, it maps to root.
                 // Otherwise check if filename starts with virtualPath.
@@ -74,34 +144,86 @@ public class Importer {
 
                 if (diskPath != null) {
                     File file = new File(diskPath);
-                    if (file.exists() && file.isFile()) {
-                        try {
-                            return new FileInputStream(file);
-                        } catch (IOException e) {
-                            lastErrorMessage = "Error opening file: " + diskPath + " (" + e.getMessage() + ")";
-                            return null;
-                        }
+                    if (file.isFile()) {
+                        result = file;
+                        break;
                     }
                 }
             }
-            lastErrorMessage = "File not found: " + filename;
-            return null;
-        }
-
-        @Override
-        public String getLastErrorMessage() {
-            return lastErrorMessage;
+            resolved.put(filename, result);
+            if (result == null) {
+                lastErrorMessage = "File not found: " + filename;
+            }
+            return result;
         }
     }
 
+    /** Top-level keywords after which {@link #scanImports} stops looking. */
+    private static final Set<String> HEADER_END = new HashSet<>(
+            Arrays.asList("message", "enum", "service", "extend", "option"));
+
     private final SourceTree sourceTree;
     private final MultiFileErrorCollector errorCollector;
     private final Map<String, FileDescriptor> descriptorCache = new HashMap<>();
     private final Set<String> currentlyLoading = new HashSet<>();
+    private final DescriptorPool descriptorPool;
+    private final List<DescriptorPool.Entry> poolEntries = new ArrayList<>();
+    private ParseCache parseCache;
+    private boolean recordSourceLocations = true;
+    private int maxErrors = 0;
 
     public Importer(SourceTree sourceTree, MultiFileErrorCollector errorCollector) {
+        this(sourceTree, errorCollector, null);
+    }
+
+    /**
+     * Creates an importer that reuses the descriptors of unchanged files from
+     * {@code descriptorPool}, and adds the ones it builds, until it is
+     * {@link #close closed}.
+     */
+    public Importer(SourceTree sourceTree, MultiFileErrorCollector errorCollector, DescriptorPool descriptorPool) {
         this.sourceTree = sourceTree;
         this.errorCollector = errorCollector;
+        this.descriptorPool = descriptorPool;
+    }
+
+    /**
+     * Reads the parse of unchanged files from {@code parseCache} instead of
+     * parsing them, and stores the files it does parse there. Null disables
+     * the cache.
+     */
+    public void setParseCache(ParseCache parseCache) {
+        this.parseCache = parseCache;
+    }
+
+    /**
+     * Sets whether the files this importer parses get a SourceCodeInfo; see
+     * {@link Parser#setRecordSourceLocations}. Files parsed without one are
+     * not added to the descriptor pool or the parse cache, though pooled and
+     * cached files that have one are still used. On by default.
+     */
+    public void setRecordSourceLocations(boolean recordSourceLocations) {
+        this.recordSourceLocations = recordSourceLocations;
+    }
+
+    /**
+     * Stops parsing a file after {@code maxErrors} syntax errors in it; see
+     * {@link Parser#setMaxErrors}. 0, the default, means no limit.
+     */
+    public void setMaxErrors(int maxErrors) {
+        this.maxErrors = maxErrors;
+    }
+
+    /**
+     * Releases the pooled descriptors this importer used. The descriptors it
+     * returned stay valid.
+     */
+    @Override
+    public void close() {
+        for (DescriptorPool.Entry entry : poolEntries) {
+            descriptorPool.release(entry);
+        }
+        poolEntries.clear();
     }
 
     public FileDescriptor importFile(String filename) {
@@ -116,30 +238,33 @@ public class Importer {
             return null;
         }
 
-        InputStream stream = sourceTree.open(filename);
-        if (stream == null) {
-            if (errorCollector != null) {
-                errorCollector.recordError(filename, -1, -1, "File not found: " + filename);
-            }
+        String content = readSource(filename, errorCollector);
+        if (content == null) {
             return null;
         }
 
+        DescriptorPool.Key key = descriptorPool != null ? DescriptorPool.key(filename, content) : null;
+        List<ParseCache.Message> messages = new ArrayList<>();
+        FileDescriptor pooled = key != null ? descriptorPool.lookup(key, messages) : null;
+
         currentlyLoading.add(filename);
         try {
-            SingleFileErrorCollector simpleCollector = new SingleFileErrorCollector(filename, errorCollector);
-            Tokenizer tokenizer = new Tokenizer(new InputStreamReader(stream, StandardCharsets.UTF_8), simpleCollector);
-            Parser parser = new Parser();
-            FileDescriptorProto.Builder protoBuilder = FileDescriptorProto.newBuilder();
-
-            // Set name to filename as expected by DescriptorPool
-            protoBuilder.setName(filename);
-
-            if (!parser.parse(tokenizer, protoBuilder)) {
+            FileDescriptorProto proto;
+            if (pooled != null) {
+                // Report what parsing the file reported, as a parse would.
+                SingleFileErrorCollector collector = new SingleFileErrorCollector(filename, errorCollector);
+                for (ParseCache.Message message : messages) {
+                    message.reportTo(collector);
+                }
+                proto = pooled.toProto();
+            } else {
+                proto = parseSource(filename, content, errorCollector, messages);
+            }
+            if (proto == null) {
                 // Parser already reported errors
                 return null;
             }
 
-            FileDescriptorProto proto = protoBuilder.build();
             List<FileDescriptor> dependencies = new ArrayList<>();
             for (String dependencyName : proto.getDependencyList()) {
                 FileDescriptor dependency = importFile(dependencyName);
@@ -158,7 +283,10 @@ public class Importer {
             // FileDescriptor.buildFrom handles them if passed correctly.
 
             try {
-                FileDescriptor result = FileDescriptor.buildFrom(proto, dependencies.toArray(new FileDescriptor[0]));
+                FileDescriptor result = pooled != null && pooled.getDependencies().equals(dependencies)
+                        ? pooled
+                        : FileDescriptor.buildFrom(proto, dependencies.toArray(new FileDescriptor[0]));
+                result = share(key, result, messages);
                 descriptorCache.put(filename, result);
                 return result;
             } catch (DescriptorValidationException e) {
@@ -170,17 +298,389 @@ public class Importer {
 
         } finally {
             currentlyLoading.remove(filename);
-            try {
-                stream.close();
-            } catch (IOException e) {
-                // Ignore
+        }
+    }
+
+    /**
+     * Imports the given files and everything they import, parsing up to
+     * {@code parallelism} files at a time.
+     *
+     * <p>This works in phases. First, every reachable file is read on this
+     * thread, and its import statements are scanned to find more files.
+     * Then all files are parsed concurrently. Next, the import graph is
+     * walked in the same order as {@link #importFile} walks it. Finally, the
+     * descriptors are built in waves, where each wave holds the files whose
+     * imports are all built.
+     *
+     * <p>Errors are reported from the calling thread in a fixed order: read,
+     * parse, missing-file and import-cycle errors in the walk order, then
+     * validation errors wave by wave. A file that fails is reported once,
+     * even if several files import it.
+     *
+     * @param parallelism
+     *            The maximum number of files to parse concurrently. Values of
+     *            one or less import the files one after the other with
+     *            {@link #importFile}, stopping at the first failure.
+     * @return The descriptors of {@code filenames} in order, or null if any of
+     *         them could not be imported.
+     */
+    public List<FileDescriptor> importFiles(List<String> filenames, int parallelism) {
+        List<FileDescriptor> result = new ArrayList<>(filenames.size());
+        if (parallelism <= 1) {
+            for (String filename : filenames) {
+                FileDescriptor fd = importFile(filename);
+                if (fd == null) {
+                    return null;
+                }
+                result.add(fd);
+            }
+            return result;
+        }
+
+        // Phase one: read everything reachable. Sources are only opened on this
+        // thread, as a SourceTree need not be thread-safe.
+        Map<String, SourceFile> files = new LinkedHashMap<>();
+        Deque<String> pending = new ArrayDeque<>(filenames);
+        while (!pending.isEmpty()) {
+            String filename = pending.pop();
+            if (descriptorCache.containsKey(filename) || files.containsKey(filename)) {
+                continue;
+            }
+            SourceFile file = new SourceFile();
+            file.content = readSource(filename, file.errors);
+            files.put(filename, file);
+            if (file.content != null && descriptorPool != null) {
+                file.key = DescriptorPool.key(filename, file.content);
+                file.pooled = descriptorPool.lookup(file.key, file.messages);
+            }
+            if (file.pooled != null) {
+                SingleFileErrorCollector collector = new SingleFileErrorCollector(filename, file.errors);
+                for (ParseCache.Message message : file.messages) {
+                    message.reportTo(collector);
+                }
+                file.proto = file.pooled.toProto();
+                pending.addAll(file.proto.getDependencyList());
+            } else if (file.content != null) {
+                pending.addAll(scanImports(file.content));
+            }
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            // Phase two: parse every file.
+            List<Future<?>> parses = new ArrayList<>(files.size());
+            for (Map.Entry<String, SourceFile> entry : files.entrySet()) {
+                SourceFile file = entry.getValue();
+                if (file.content != null && file.proto == null) {
+                    parses.add(pool.submit(() -> {
+                        file.proto = parseSource(entry.getKey(), file.content, file.errors, file.messages);
+                    }));
+                }
+            }
+            for (Future<?> parse : parses) {
+                parse.get();
+            }
+
+            // Phase three: walk the import graph as importFile would.
+            Set<String> order = new LinkedHashSet<>();
+            Set<String> failed = new HashSet<>();
+            for (String filename : filenames) {
+                plan(filename, files, order, failed);
+            }
+
+            // Phase four: build the descriptors, one wave of independent files at a time.
+            for (List<String> wave : waves(order, files)) {
+                List<Future<FileDescriptor>> builds = new ArrayList<>(wave.size());
+                for (String filename : wave) {
+                    SourceFile file = files.get(filename);
+                    FileDescriptorProto proto = file.proto;
+                    FileDescriptor[] dependencies = new FileDescriptor[proto.getDependencyCount()];
+                    for (int i = 0; i < dependencies.length; i++) {
+                        dependencies[i] = descriptorCache.get(proto.getDependency(i));
+                    }
+                    if (Arrays.asList(dependencies).contains(null)) {
+                        // A dependency failed validation, which was already reported.
+                        builds.add(null);
+                    } else if (file.pooled != null && file.pooled.getDependencies().equals(Arrays.asList(dependencies))) {
+                        builds.add(CompletableFuture.completedFuture(file.pooled));
+                    } else {
+                        builds.add(pool.submit(() -> FileDescriptor.buildFrom(proto, dependencies)));
+                    }
+                }
+                for (int i = 0; i < wave.size(); i++) {
+                    if (builds.get(i) == null) {
+                        continue;
+                    }
+                    try {
+                        SourceFile file = files.get(wave.get(i));
+                        descriptorCache.put(wave.get(i), share(file.key, builds.get(i).get(), file.messages));
+                    } catch (ExecutionException e) {
+                        if (!(e.getCause() instanceof DescriptorValidationException)) {
+                            throw e;
+                        }
+                        if (errorCollector != null) {
+                            errorCollector.recordError(wave.get(i), -1, -1,
+                                    "Validation failed: " + e.getCause().getMessage());
+                        }
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+
+        for (String filename : filenames) {
+            FileDescriptor fd = descriptorCache.get(filename);
+            if (fd == null) {
+                return null;
+            }
+            result.add(fd);
+        }
+        return result;
+    }
+
+    /**
+     * Visits {@code filename} and its imports in the order importFile would,
+     * reporting the file's deferred errors, and appends the files that can be
+     * built to {@code order} after their imports.
+     */
+    private boolean plan(String filename, Map<String, SourceFile> files, Set<String> order, Set<String> failed) {
+        if (descriptorCache.containsKey(filename) || order.contains(filename)) {
+            return true;
+        }
+        if (failed.contains(filename)) {
+            return false;
+        }
+        if (currentlyLoading.contains(filename)) {
+            if (errorCollector != null) {
+                errorCollector.recordError(filename, -1, -1, "File recursively imports itself: " + filename);
+            }
+            return false;
+        }
+
+        SourceFile file = files.get(filename);
+        if (file == null) {
+            // Imported in a way the header scan did not see; load it now.
+            file = new SourceFile();
+            file.content = readSource(filename, file.errors);
+            if (file.content != null) {
+                file.proto = parseSource(filename, file.content, file.errors, file.messages);
+                file.key = descriptorPool != null ? DescriptorPool.key(filename, file.content) : null;
+            }
+            files.put(filename, file);
+        }
+        file.errors.replayTo(errorCollector);
+        if (file.proto == null) {
+            failed.add(filename);
+            return false;
+        }
+
+        currentlyLoading.add(filename);
+        try {
+            for (String dependencyName : file.proto.getDependencyList()) {
+                if (!plan(dependencyName, files, order, failed)) {
+                    failed.add(filename);
+                    return false;
+                }
+            }
+        } finally {
+            currentlyLoading.remove(filename);
+        }
+        order.add(filename);
+        return true;
+    }
+
+    /**
+     * Takes a reference to the pooled copy of a descriptor that was just
+     * looked up or built, adding it to the pool with the messages its parse
+     * reported if needed.
+     */
+    private FileDescriptor share(DescriptorPool.Key key, FileDescriptor descriptor, List<ParseCache.Message> messages) {
+        if (key == null || !descriptor.toProto().hasSourceCodeInfo()) {
+            return descriptor;
+        }
+        DescriptorPool.Entry entry = descriptorPool.acquire(key, descriptor, messages);
+        if (entry == null) {
+            return descriptor;
+        }
+        poolEntries.add(entry);
+        return entry.descriptor();
+    }
+
+    /** Groups {@code order} into waves whose files only import files of earlier waves. */
+    private List<List<String>> waves(Set<String> order, Map<String, SourceFile> files) {
+        Map<String, Integer> depths = new HashMap<>();
+        List<List<String>> waves = new ArrayList<>();
+        for (String filename : order) {
+            int depth = 0;
+            for (String dependencyName : files.get(filename).proto.getDependencyList()) {
+                Integer dependencyDepth = depths.get(dependencyName);
+                if (dependencyDepth != null) {
+                    depth = Math.max(depth, dependencyDepth + 1);
+                }
+            }
+            depths.put(filename, depth);
+            if (depth == waves.size()) {
+                waves.add(new ArrayList<>());
+            }
+            waves.get(depth).add(filename);
+        }
+        return waves;
+    }
+
+    /**
+     * Returns the files named by the import statements of a .proto file's
+     * header, without parsing it. The scan stops at the first definition or
+     * option, so it only tokenizes the top of the file; an import placed after
+     * that is picked up when the file is planned.
+     */
+    static List<String> scanImports(String content) {
+        List<String> imports = new ArrayList<>();
+        Tokenizer tokenizer = new Tokenizer(content, (line, column, message) -> { });
+        boolean more = tokenizer.next();
+        while (more) {
+            Tokenizer.Token token = tokenizer.current();
+            if (token.type == Tokenizer.TokenType.IDENTIFIER && HEADER_END.contains(token.text)) {
+                break;
+            }
+            more = tokenizer.next();
+            if (token.type != Tokenizer.TokenType.IDENTIFIER || !token.text.equals("import") || !more) {
+                continue;
+            }
+            if (tokenizer.current().text.equals("weak") || tokenizer.current().text.equals("public")) {
+                more = tokenizer.next();
+            }
+            // Adjacent string literals are concatenated, as the parser does.
+            StringBuilder path = null;
+            while (more && tokenizer.current().type == Tokenizer.TokenType.STRING) {
+                if (path == null) {
+                    path = new StringBuilder();
+                }
+                path.append(tokenizer.current().text);
+                more = tokenizer.next();
+            }
+            if (path != null) {
+                imports.add(path.toString());
+            }
+        }
+        return imports;
+    }
+
+    /** Reads the whole file, or reports why it cannot be read and returns null. */
+    private String readSource(String filename, MultiFileErrorCollector errors) {
+        // Read the whole file up front so the tokenizer scans it in memory and
+        // the file is not held open while the imports are loaded.
+        ByteBuffer bytes;
+        try {
+            bytes = sourceTree.read(filename);
+        } catch (IOException e) {
+            if (errors != null) {
+                errors.recordError(filename, -1, -1, "Error reading file: " + e.getMessage());
+            }
+            return null;
+        }
+        if (bytes == null) {
+            if (errors != null) {
+                errors.recordError(filename, -1, -1, "File not found: " + filename);
+            }
+            return null;
+        }
+        if (bytes.hasArray()) {
+            return new String(bytes.array(), bytes.arrayOffset() + bytes.position(), bytes.remaining(),
+                    StandardCharsets.UTF_8);
+        }
+        return StandardCharsets.UTF_8.decode(bytes).toString();
+    }
+
+    /**
+     * Parses the file, or reports its syntax errors and returns null. What the
+     * parse reported is also added to {@code messages}.
+     */
+    private FileDescriptorProto parseSource(String filename, String content, MultiFileErrorCollector errors,
+            List<ParseCache.Message> messages) {
+        SingleFileErrorCollector simpleCollector = new SingleFileErrorCollector(filename, errors);
+        ParseCache cache = parseCache;
+        if (cache != null) {
+            FileDescriptorProto cached = cache.get(filename, content, simpleCollector);
+            if (cached != null) {
+                messages.addAll(simpleCollector.messages);
+                return cached;
+            }
+        }
+
+        Tokenizer tokenizer = new Tokenizer(content, simpleCollector);
+        Parser parser = new Parser();
+        parser.setErrorCollector(simpleCollector);
+        parser.setRecordSourceLocations(recordSourceLocations);
+        parser.setMaxErrors(maxErrors);
+        FileDescriptorProto.Builder protoBuilder = FileDescriptorProto.newBuilder();
+
+        // Set name to filename as expected by DescriptorPool
+        protoBuilder.setName(filename);
+
+        boolean parsed = parser.parse(tokenizer, protoBuilder);
+        messages.addAll(simpleCollector.messages);
+        if (!parsed) {
+            return null;
+        }
+        FileDescriptorProto proto = protoBuilder.build();
+        if (cache != null) {
+            if (recordSourceLocations) {
+                cache.put(filename, content, proto, simpleCollector.messages);
+            }
+        }
+        return proto;
+    }
+
+    // A file read for importFiles, with the errors it produced so far.
+    private static class SourceFile {
+        String content;
+        FileDescriptorProto proto;
+        DescriptorPool.Key key;
+        FileDescriptor pooled;
+        final DeferredErrors errors = new DeferredErrors();
+        final List<ParseCache.Message> messages = new ArrayList<>();
+    }
+
+    // Holds back errors so they can be reported in a deterministic order.
+    private static class DeferredErrors implements MultiFileErrorCollector {
+        private final List<Runnable> records = new ArrayList<>();
+        private MultiFileErrorCollector target;
+
+        @Override
+        public void recordError(String filename, int line, int column, String message) {
+            records.add(() -> target.recordError(filename, line, column, message));
+        }
+
+        @Override
+        public void recordWarning(String filename, int line, int column, String message) {
+            records.add(() -> target.recordWarning(filename, line, column, message));
+        }
+
+        void replayTo(MultiFileErrorCollector target) {
+            if (target != null) {
+                this.target = target;
+                for (Runnable record : records) {
+                    record.run();
+                }
             }
+            records.clear();
         }
     }
 
+    // Reports a file's messages, and keeps them for the parse cache.
     private static class SingleFileErrorCollector implements ErrorCollector {
         private final String filename;
         private final MultiFileErrorCollector delegate;
+        final List<ParseCache.Message> messages = new ArrayList<>();
 
         SingleFileErrorCollector(String filename, MultiFileErrorCollector delegate) {
             this.filename = filename;
@@ -189,6 +689,7 @@ public class Importer {
 
         @Override
         public void recordError(int line, int column, String message) {
+            messages.add(new ParseCache.Message(line, column, message));
             if (delegate != null) {
                 delegate.recordError(filename, line, column, message);
             }
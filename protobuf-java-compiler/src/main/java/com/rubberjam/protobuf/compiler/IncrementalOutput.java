@@ -0,0 +1,246 @@
+package com.rubberjam.protobuf.compiler;
+
+import com.google.protobuf.Descriptors.FileDescriptor;
+import com.rubberjam.protobuf.compiler.CodeGenerator.GenerationException;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Predicate;
+
+/**
+ * Generates into an output directory incrementally. The directory holds the
+ * {@link ImportGraph} of the previous build, and a manifest of the files each
+ * .proto file produced and the settings it was generated with: the
+ * {@linkplain CompilerBuild compiler build}, the generator and its parameter.
+ *
+ * <p>A file is generated again only if it or one of its transitive imports
+ * changed, its settings changed, or one of its outputs is missing. An output
+ * whose bytes did not change is not rewritten, so its modification time
+ * stays the same for the build tools downstream. Outputs are written to a
+ * temporary file and moved into place, and the manifest is written only once
+ * they all are, so an interrupted build never leaves a partial output that
+ * the next one takes as done.
+ *
+ * <p>Build tools may generate into one directory with several invocations,
+ * each with its own files, so the entries of files left out of a build are
+ * kept. A file's outputs are deleted only once the file itself is gone from
+ * the source tree.
+ */
+final class IncrementalOutput {
+
+    private static final String MANIFEST_PREFIX = ".protoc-manifest-";
+    private static final String IMPORT_GRAPH_PREFIX = ".protoc-imports-";
+
+    private final File outputDir;
+    private final File manifestFile;
+    private final File importGraphFile;
+    private final String generatorName;
+    private final Predicate<String> inputExists;
+
+    /**
+     * @param inputExists Whether a .proto file, by its name in the source
+     *     tree, still exists. The outputs of files for which it returns false
+     *     are deleted.
+     */
+    IncrementalOutput(File outputDir, String generatorName, Predicate<String> inputExists) {
+        this.outputDir = outputDir;
+        this.manifestFile = new File(outputDir, MANIFEST_PREFIX + generatorName);
+        this.importGraphFile = new File(outputDir, IMPORT_GRAPH_PREFIX + generatorName);
+        this.generatorName = generatorName;
+        this.inputExists = inputExists;
+    }
+
+    /**
+     * Generates the files affected by changes since the previous build,
+     * writes the outputs whose contents changed, deletes the outputs that no
+     * file produces any more, and updates the manifest and import graph.
+     */
+    void generate(CodeGenerator generator, List<FileDescriptor> files, String parameter, int parallelism)
+            throws GenerationException, IOException {
+        Map<String, ManifestEntry> manifest = readManifest();
+        ImportGraph graph = ImportGraph.of(files);
+        Set<FileDescriptor> affected = new HashSet<>(graph.affected(files, readImportGraph()));
+        String settings = settingsFingerprint(parameter);
+
+        List<FileDescriptor> changed = new ArrayList<>();
+        for (FileDescriptor file : files) {
+            ManifestEntry previous = manifest.get(file.getName());
+            if (affected.contains(file) || previous == null || !previous.settings.equals(settings)
+                    || !outputsExist(previous)) {
+                changed.add(file);
+            }
+        }
+
+        // Files left out of this build may belong to another invocation into
+        // the same directory; only the outputs of deleted files go.
+        Set<String> names = new HashSet<>();
+        for (FileDescriptor file : files) {
+            names.add(file.getName());
+        }
+        Set<String> dropped = new HashSet<>();
+        boolean pruned = false;
+        for (Iterator<Map.Entry<String, ManifestEntry>> it = manifest.entrySet().iterator(); it.hasNext();) {
+            Map.Entry<String, ManifestEntry> entry = it.next();
+            if (!names.contains(entry.getKey()) && !inputExists.test(entry.getKey())) {
+                dropped.addAll(entry.getValue().outputs);
+                it.remove();
+                pruned = true;
+            }
+        }
+
+        List<BufferedGeneratorContext> buffers = generator.generateBuffered(changed, parameter, parallelism);
+        for (int i = 0; i < changed.size(); i++) {
+            WritingContext context = new WritingContext();
+            buffers.get(i).writeTo(context);
+            ManifestEntry previous = manifest.put(changed.get(i).getName(),
+                    new ManifestEntry(settings, context.outputs));
+            if (previous != null) {
+                dropped.addAll(previous.outputs);
+            }
+        }
+        if (changed.isEmpty() && !pruned) {
+            return;
+        }
+
+        // Every output is in place; delete what the regenerated and removed
+        // files no longer produce, unless another file does now.
+        for (ManifestEntry entry : manifest.values()) {
+            dropped.removeAll(entry.outputs);
+        }
+        for (String output : dropped) {
+            Files.deleteIfExists(new File(outputDir, output).toPath());
+        }
+        writeManifest(manifest);
+        // Only the files of this build are kept: a file left out of it may
+        // have missed a change to one of its imports.
+        graph.save(importGraphFile.toPath());
+    }
+
+    private String settingsFingerprint(String parameter) {
+        try {
+            return CompilerBuild.hex(MessageDigest.getInstance("SHA-256").digest(
+                    (CompilerBuild.id() + '\0' + generatorName + '\0' + parameter)
+                            .getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private ImportGraph readImportGraph() {
+        try {
+            return ImportGraph.load(importGraphFile.toPath());
+        } catch (IOException e) {
+            return ImportGraph.empty();
+        }
+    }
+
+    private boolean outputsExist(ManifestEntry entry) {
+        for (String output : entry.outputs) {
+            if (!new File(outputDir, output).isFile()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Manifest lines: "file <tab> name <tab> settings", followed by one
+    // "output <tab> path" line per output of that file.
+    private Map<String, ManifestEntry> readManifest() {
+        Map<String, ManifestEntry> manifest = new TreeMap<>();
+        if (!manifestFile.isFile()) {
+            return manifest;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(manifestFile.toPath(), StandardCharsets.UTF_8)) {
+            ManifestEntry current = null;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] parts = line.split("\t");
+                if (parts.length == 3 && parts[0].equals("file")) {
+                    current = new ManifestEntry(parts[2], new ArrayList<>());
+                    manifest.put(parts[1], current);
+                } else if (parts.length == 2 && parts[0].equals("output") && current != null) {
+                    current.outputs.add(parts[1]);
+                } else {
+                    // Not written by this version; regenerate everything.
+                    return new TreeMap<>();
+                }
+            }
+        } catch (IOException e) {
+            return new TreeMap<>();
+        }
+        return manifest;
+    }
+
+    private void writeManifest(Map<String, ManifestEntry> manifest) throws IOException {
+        Path temp = OutputFiles.createTemp(manifestFile.toPath());
+        try {
+            try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                for (Map.Entry<String, ManifestEntry> entry : manifest.entrySet()) {
+                    writer.write("file\t" + entry.getKey() + "\t" + entry.getValue().settings + "\n");
+                    for (String output : entry.getValue().outputs) {
+                        writer.write("output\t" + output + "\n");
+                    }
+                }
+            }
+            OutputFiles.replace(temp, manifestFile.toPath());
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static class ManifestEntry {
+        final String settings;
+        final List<String> outputs;
+
+        ManifestEntry(String settings, List<String> outputs) {
+            this.settings = settings;
+            this.outputs = outputs;
+        }
+    }
+
+    // Writes an output only if its contents differ from the file on disk.
+    private class WritingContext implements GeneratorContext {
+        final List<String> outputs = new ArrayList<>();
+
+        @Override
+        public OutputStream open(String filename) {
+            outputs.add(filename);
+            File file = new File(outputDir, filename);
+            return new ByteArrayOutputStream() {
+                @Override
+                public void close() throws IOException {
+                    byte[] contents = toByteArray();
+                    if (file.length() == contents.length && file.isFile()
+                            && Arrays.equals(Files.readAllBytes(file.toPath()), contents)) {
+                        return;
+                    }
+                    Path temp = OutputFiles.createTemp(file.toPath());
+                    try {
+                        try (OutputStream out = Files.newOutputStream(temp)) {
+                            writeTo(out);
+                        }
+                        OutputFiles.replace(temp, file.toPath());
+                    } finally {
+                        Files.deleteIfExists(temp);
+                    }
+                }
+            };
+        }
+    }
+}
@@ -1,11 +1,13 @@
 package com.rubberjam.protobuf.compiler;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 
 import com.google.protobuf.Descriptors.FileDescriptor;
+import com.rubberjam.protobuf.compiler.java.Context;
 import com.rubberjam.protobuf.compiler.java.FileGenerator;
 import com.rubberjam.protobuf.compiler.java.Options;
 import com.rubberjam.protobuf.io.Printer;
@@ -16,10 +18,28 @@ public class JavaCodeGenerator extends CodeGenerator
 	public List<GeneratedJavaFile> generateJavaFiles(FileDescriptor file, String parameter, GeneratorContext generatorContext)
 	throws GenerationException
 	{
-		
 		List<GeneratedJavaFile> target = new ArrayList<>();
-		Options fileOptions = Options.fromParameter(parameter);
+		for (FileGenerator fileGenerator : createFileGenerators(file, Options.fromParameter(parameter)))
+		{
+			// Generate main java file using another.compiler's Printer (buffer then write).
+			Printer.Options printerOptions = new Printer.Options();
+			Printer printer = new Printer(printerOptions);
+			fileGenerator.generate(printer);
+
+			GeneratedJavaFile f = new GeneratedJavaFile(javaFilename(fileGenerator), fileGenerator.getJavaPackage(), fileGenerator.getClassName(), printer.toString());
+			target.add(f);
+		}
+		return target;
+
+	}
 
+	private List<FileGenerator> createFileGenerators(FileDescriptor file, Options fileOptions)
+	throws GenerationException
+	{
+		if (fileOptions.getParameterError() != null)
+		{
+			throw new GenerationException(fileOptions.getParameterError());
+		}
 		if (fileOptions.isEnforceLite() && fileOptions.isGenerateMutableCode())
 		{
 			throw new GenerationException(
@@ -35,18 +55,18 @@ public class JavaCodeGenerator extends CodeGenerator
 			fileOptions.setGenerateSharedCode(true);
 		}
 
-		List<String> allFiles = new ArrayList<>();
-		List<String> allAnnotations = new ArrayList<>();
-
+		// One context per file: building it computes the field names of every
+		// message, so all generators for this file share it.
+		Context context = new Context(file, fileOptions);
 		List<FileGenerator> fileGenerators = new ArrayList<>();
 		if (fileOptions.isGenerateImmutableCode())
 		{
-			fileGenerators.add(new FileGenerator(file, fileOptions));
+			fileGenerators.add(new FileGenerator(file, fileOptions, context));
 		}
 		if (fileOptions.isGenerateMutableCode() && !fileOptions.isGenerateImmutableCode())
 		{
 			// another.compiler.java FileGenerator currently only supports immutable API.
-			fileGenerators.add(new FileGenerator(file, fileOptions));
+			fileGenerators.add(new FileGenerator(file, fileOptions, context));
 		}
 
 		List<String> validationErrors = new ArrayList<>();
@@ -61,68 +81,52 @@ public class JavaCodeGenerator extends CodeGenerator
 		{
 			throw new GenerationException(validationErrors.get(0));
 		}
+		return fileGenerators;
+	}
 
-
-		for (FileGenerator fileGenerator : fileGenerators)
-		{
-			String packageDir = fileGenerator.getJavaPackage().replace('.', '/');
-			String javaFilename = packageDir + "/" + fileGenerator.getClassName() + ".java";
-			allFiles.add(javaFilename);
-			String infoFullPath = javaFilename + ".pb.meta";
-			if (fileOptions.isAnnotateCode())
-			{
-				allAnnotations.add(infoFullPath);
-			}
-
-			// Generate main java file using another.compiler's Printer (buffer then write).
-			Printer.Options printerOptions = new Printer.Options();
-			Printer printer = new Printer(printerOptions);
-			fileGenerator.generate(printer);
-
-			GeneratedJavaFile f = new GeneratedJavaFile(javaFilename, fileGenerator.getJavaPackage(), fileGenerator.getClassName(), printer.toString());
-			target.add(f);
-
-			
-		}
-		return target;
-
+	private static String javaFilename(FileGenerator fileGenerator)
+	{
+		String packageDir = fileGenerator.getJavaPackage().replace('.', '/');
+		return packageDir + "/" + fileGenerator.getClassName() + ".java";
 	}
-	
+
 	@Override
 	public void generate(FileDescriptor file, String parameter, GeneratorContext generatorContext)
 			throws GenerationException
 	{
-		List<GeneratedJavaFile> javaFiles = generateJavaFiles(file, parameter, generatorContext);
-
-		
 		Options fileOptions = Options.fromParameter(parameter);
-
-		if (fileOptions.isEnforceLite() && fileOptions.isGenerateMutableCode())
-		{
-			throw new GenerationException(
-					"lite runtime generator option cannot be used with mutable API.");
-		}
-
-		// By default we generate immutable code and shared code for immutable API.
-		if (!fileOptions.isGenerateImmutableCode()
-				&& !fileOptions.isGenerateMutableCode()
-				&& !fileOptions.isGenerateSharedCode())
-		{
-			fileOptions.setGenerateImmutableCode(true);
-			fileOptions.setGenerateSharedCode(true);
-		}
+		List<FileGenerator> fileGenerators = createFileGenerators(file, fileOptions);
+		List<String> javaFilenames = new ArrayList<>();
 
 		try
 		{
-			for (GeneratedJavaFile f : javaFiles)
+			for (FileGenerator fileGenerator : fileGenerators)
 			{
-				byte[] bytes = f.getSource().getBytes(StandardCharsets.UTF_8);
-				
-				
-				try (java.io.OutputStream out = generatorContext.open(f.getFileName()))
+				String javaFilename = javaFilename(fileGenerator);
+				javaFilenames.add(javaFilename);
+
+				// Print straight into the output rather than building the whole
+				// file as a String first. A file that fails is discarded.
+				java.io.OutputStream out = generatorContext.open(javaFilename);
+				try
 				{
-					out.write(bytes);
+					Printer printer = new Printer(new Printer.Options(), out);
+					fileGenerator.generate(printer);
+					printer.flush();
 				}
+				catch (IOException | RuntimeException | Error e)
+				{
+					try
+					{
+						generatorContext.discard(out);
+					}
+					catch (IOException suppressed)
+					{
+						e.addSuppressed(suppressed);
+					}
+					throw e;
+				}
+				out.close();
 			}
 
 			// Generate output list if requested.
@@ -132,9 +136,9 @@ public class JavaCodeGenerator extends CodeGenerator
 				try (java.io.PrintWriter writer = new java.io.PrintWriter(
 						new java.io.OutputStreamWriter(generatorContext.open(outputListFile), StandardCharsets.UTF_8)))
 				{
-					for (GeneratedJavaFile f : javaFiles)
+					for (String javaFilename : javaFilenames)
 					{
-						writer.println(f.getFileName());
+						writer.println(javaFilename);
 					}
 				}
 			}
@@ -145,16 +149,20 @@ public class JavaCodeGenerator extends CodeGenerator
 				try (java.io.PrintWriter writer = new java.io.PrintWriter(
 						new java.io.OutputStreamWriter(generatorContext.open(annotationListFile), StandardCharsets.UTF_8)))
 				{
-					for (GeneratedJavaFile f : javaFiles)
+					for (String javaFilename : javaFilenames)
 					{
 						if (fileOptions.isAnnotateCode())
 						{
-							writer.println(f.getFileName());
+							writer.println(javaFilename);
 						}
 					}
 				}
 			}
 		}
+		catch (UncheckedIOException e)
+		{
+			throw new GenerationException(e.getCause());
+		}
 		catch (IOException e)
 		{
 			throw new GenerationException(e);
@@ -0,0 +1,57 @@
+package com.rubberjam.protobuf.compiler;
+
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Set;
+
+/**
+ * Replaces generated files atomically: an output is written to a temporary
+ * file next to it, which is then moved over it, so that readers and
+ * interrupted builds never see a partly written output.
+ */
+final class OutputFiles {
+
+    // What a file created with the usual umask of 022 gets.
+    private static final Set<PosixFilePermission> DEFAULT_PERMISSIONS =
+            PosixFilePermissions.fromString("rw-r--r--");
+
+    private OutputFiles() {
+    }
+
+    /**
+     * Creates a uniquely named temporary file in the directory of
+     * {@code target}, creating the directory if needed. The file gets the
+     * permissions of {@code target}, or those of an ordinary new file, rather
+     * than the owner-only ones of {@link Files#createTempFile}.
+     */
+    static Path createTemp(Path target) throws IOException {
+        Path parent = target.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temp = Files.createTempFile(parent, "." + target.getFileName(), ".tmp");
+        try {
+            if (Files.getFileAttributeView(temp, PosixFileAttributeView.class) != null) {
+                Files.setPosixFilePermissions(temp, Files.exists(target)
+                        ? Files.getPosixFilePermissions(target) : DEFAULT_PERMISSIONS);
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        return temp;
+    }
+
+    /** Moves {@code temp} over {@code target}, atomically where supported. */
+    static void replace(Path temp, Path target) throws IOException {
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
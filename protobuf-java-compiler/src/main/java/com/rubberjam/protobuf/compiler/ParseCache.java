@@ -0,0 +1,162 @@
+package com.rubberjam.protobuf.compiler;
+
+import com.google.protobuf.DescriptorProtos.FileDescriptorProto;
+import com.google.protobuf.InvalidProtocolBufferException;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A directory of parsed .proto files, so that an unchanged file is not
+ * tokenized and parsed again by the next build. Each entry is the serialized
+ * {@link FileDescriptorProto} of a file, including its SourceCodeInfo, with
+ * the messages its parse reported. It is stored under a hash of the
+ * {@linkplain CompilerBuild compiler build}, the file's name and its
+ * contents.
+ *
+ * <p>The cache may be shared by concurrent builds. Entries are written to a
+ * temporary file and moved into place, and an entry that cannot be read is
+ * treated as a miss.
+ */
+public final class ParseCache {
+
+    // Bump when the layout of an entry changes.
+    private static final String FORMAT = "2";
+
+    private final Path directory;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public ParseCache(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Returns the cached parse of the file, or null if there is none. On a hit
+     * the messages recorded with the entry are reported to {@code errors}
+     * again, as the parse would have.
+     */
+    public FileDescriptorProto get(String filename, String content, ErrorCollector errors) {
+        Path entry = entryPath(filename, content);
+        try (FileChannel channel = FileChannel.open(entry, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            Message[] messages = new Message[buffer.getInt()];
+            for (int i = 0; i < messages.length; i++) {
+                int line = buffer.getInt();
+                int column = buffer.getInt();
+                byte[] text = new byte[buffer.getInt()];
+                buffer.get(text);
+                messages[i] = new Message(line, column, new String(text, StandardCharsets.UTF_8));
+            }
+            FileDescriptorProto proto = FileDescriptorProto.parseFrom(buffer);
+            hits.incrementAndGet();
+            if (errors != null) {
+                for (Message message : messages) {
+                    message.reportTo(errors);
+                }
+            }
+            return proto;
+        } catch (InvalidProtocolBufferException | BufferUnderflowException | NegativeArraySizeException e) {
+            // A damaged entry; the next put replaces it.
+        } catch (IOException e) {
+            // Not cached.
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * Stores the parse of the file and the messages it reported. Failures to
+     * write are ignored.
+     */
+    public void put(String filename, String content, FileDescriptorProto proto, List<Message> messages) {
+        Path entry = entryPath(filename, content);
+        Path temp = null;
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(proto.getSerializedSize() + 64);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(messages.size());
+            for (Message message : messages) {
+                byte[] text = message.text.getBytes(StandardCharsets.UTF_8);
+                out.writeInt(message.line);
+                out.writeInt(message.column);
+                out.writeInt(text.length);
+                out.write(text);
+            }
+            proto.writeTo(out);
+            out.flush();
+
+            Files.createDirectories(directory);
+            temp = Files.createTempFile(directory, entry.getFileName().toString(), ".tmp");
+            Files.write(temp, bytes.toByteArray());
+            try {
+                Files.move(temp, entry, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, entry, StandardCopyOption.REPLACE_EXISTING);
+            }
+            temp = null;
+        } catch (IOException e) {
+            // The cache is an optimization only.
+        } finally {
+            if (temp != null) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException e) {
+                    // Ignore
+                }
+            }
+        }
+    }
+
+    /** The number of {@link #get} calls that found an entry. */
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    /** The number of {@link #get} calls that did not find a usable entry. */
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    private Path entryPath(String filename, String content) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update((FORMAT + '\0' + CompilerBuild.id() + '\0' + filename + '\0')
+                    .getBytes(StandardCharsets.UTF_8));
+            digest.update(content.getBytes(StandardCharsets.UTF_8));
+            return directory.resolve(CompilerBuild.hex(digest.digest()) + ".pb");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /** A message the tokenizer or parser reported for a file that still parsed. */
+    public static final class Message {
+        private final int line;
+        private final int column;
+        private final String text;
+
+        public Message(int line, int column, String text) {
+            this.line = line;
+            this.column = column;
+            this.text = text;
+        }
+
+        void reportTo(ErrorCollector errors) {
+            errors.recordError(line, column, text);
+        }
+    }
+}
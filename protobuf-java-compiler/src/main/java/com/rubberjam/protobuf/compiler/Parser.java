@@ -8,6 +8,7 @@ import com.google.protobuf.DescriptorProtos.EnumDescriptorProto;
 import com.google.protobuf.DescriptorProtos.EnumValueDescriptorProto;
 import com.google.protobuf.DescriptorProtos.FieldDescriptorProto;
 import com.google.protobuf.DescriptorProtos.FileDescriptorProto;
+import com.google.protobuf.DescriptorProtos.FileOptions;
 import com.google.protobuf.DescriptorProtos.MethodDescriptorProto;
 import com.google.protobuf.DescriptorProtos.OneofDescriptorProto;
 import com.google.protobuf.DescriptorProtos.ServiceDescriptorProto;
@@ -23,44 +24,63 @@ import com.rubberjam.protobuf.io.Tokenizer.Token;
 public class Parser {
 
   private Tokenizer input;
-  private SourceCodeInfo.Builder sourceCodeInfo;
   private String syntaxIdentifier = "";
   private boolean hadErrors = false;
   private int recursionDepth = 0;
+  // Where syntax errors go; printed to System.err when null.
+  private ErrorCollector errorCollector;
+  // Syntax errors after which parse() gives up on the file, or 0 for no limit.
+  private int maxErrors = 0;
+  private int errorCount = 0;
   
   // Accumulated comments to be attached to the next declaration
   private String upcomingDocComments = "";
   private List<String> upcomingDetachedComments = new ArrayList<>();
+  // Map key/value fields whose named type is resolved once the whole file is parsed.
+  private List<FieldDescriptorProto.Builder> deferredTypeFields = new ArrayList<>();
+
+  // Whether parse() fills in the file's SourceCodeInfo.
+  private boolean recordSourceLocations = true;
+  // The file's locations; null when they are not recorded.
+  private SourceCodeInfo.Builder sourceCodeInfo;
 
-  // Helpers for source location tracking
+  // Helpers for source location tracking. With locations turned off a
+  // recorder has no location and records nothing.
   private static class LocationRecorder {
     private final Parser parser;
     private final SourceCodeInfo.Location.Builder location;
 
     LocationRecorder(Parser parser) {
       this.parser = parser;
-      this.location = parser.sourceCodeInfo.addLocationBuilder();
+      this.location = parser.sourceCodeInfo != null ? parser.sourceCodeInfo.addLocationBuilder() : null;
       recordStart();
     }
 
     LocationRecorder(LocationRecorder parent, int path1) {
       this.parser = parent.parser;
-      this.location = parser.sourceCodeInfo.addLocationBuilder();
-      this.location.addAllPath(parent.location.getPathList());
-      this.location.addPath(path1);
+      this.location = parser.sourceCodeInfo != null ? parser.sourceCodeInfo.addLocationBuilder() : null;
+      if (location != null) {
+        this.location.addAllPath(parent.location.getPathList());
+        this.location.addPath(path1);
+      }
       recordStart();
     }
 
     LocationRecorder(LocationRecorder parent, int path1, int path2) {
       this.parser = parent.parser;
-      this.location = parser.sourceCodeInfo.addLocationBuilder();
-      this.location.addAllPath(parent.location.getPathList());
-      this.location.addPath(path1);
-      this.location.addPath(path2);
+      this.location = parser.sourceCodeInfo != null ? parser.sourceCodeInfo.addLocationBuilder() : null;
+      if (location != null) {
+        this.location.addAllPath(parent.location.getPathList());
+        this.location.addPath(path1);
+        this.location.addPath(path2);
+      }
       recordStart();
     }
 
     private void recordStart() {
+      if (location == null) {
+        return;
+      }
       Token current = parser.input.current();
       location.addSpan(current.line);
       location.addSpan(current.column);
@@ -77,6 +97,9 @@ public class Parser {
     }
 
     void endAt(Token token) {
+      if (location == null) {
+        return;
+      }
       if (token.line != location.getSpan(0)) {
         location.addSpan(token.line);
       }
@@ -88,19 +111,45 @@ public class Parser {
     
     // Attaches comments consumed by the parser to this location
     void attachComments(String leading, String trailing, List<String> detached) {
+      if (location == null) return;
       if (!leading.isEmpty()) location.setLeadingComments(leading);
       if (!trailing.isEmpty()) location.setTrailingComments(trailing);
       if (!detached.isEmpty()) location.addAllLeadingDetachedComments(detached);
     }
   }
 
+  /**
+   * Sets whether {@link #parse} fills in the file's SourceCodeInfo. Callers
+   * that need no comments or source positions, such as lite generation or
+   * validation, can turn it off to save the time and memory of tracking
+   * every declaration's location. On by default.
+   */
+  public void setRecordSourceLocations(boolean recordSourceLocations) {
+    this.recordSourceLocations = recordSourceLocations;
+  }
+
+  /** Sends syntax errors to {@code errorCollector} rather than System.err. */
+  public void setErrorCollector(ErrorCollector errorCollector) {
+    this.errorCollector = errorCollector;
+  }
+
+  /**
+   * Makes {@link #parse} give up on a file after {@code maxErrors} syntax
+   * errors, instead of reporting every error in it. 0, the default, means
+   * no limit.
+   */
+  public void setMaxErrors(int maxErrors) {
+    this.maxErrors = maxErrors;
+  }
 
   public boolean parse(Tokenizer input, FileDescriptorProto.Builder file) {
     this.input = input;
-    this.sourceCodeInfo = SourceCodeInfo.newBuilder();
+    this.sourceCodeInfo = recordSourceLocations ? SourceCodeInfo.newBuilder() : null;
     this.hadErrors = false;
+    this.errorCount = 0;
     this.syntaxIdentifier = "";
     this.recursionDepth = 0;
+    this.deferredTypeFields = new ArrayList<>();
 
     // Prime the pump
     input.next(); 
@@ -118,13 +167,21 @@ public class Parser {
 
     while (!atEnd()) {
       if (!parseTopLevelStatement(file, rootLocation)) {
-        // Skip statement logic would go here
-        input.next(); // Simple recovery
+        // This statement failed to parse. Skip it, but keep looping to
+        // parse the other statements.
+        skipStatement();
+        if (!atEnd() && lookingAt("}")) {
+          recordError("Unmatched \"}\".");
+          input.next();
+        }
       }
     }
 
     if (file != null) {
-      file.setSourceCodeInfo(sourceCodeInfo.build());
+      resolveDeferredFieldTypes(file);
+      if (sourceCodeInfo != null) {
+        file.setSourceCodeInfo(sourceCodeInfo.build());
+      }
     }
     return !hadErrors;
   }
@@ -139,8 +196,13 @@ public class Parser {
     return input.current().type == type;
   }
 
+  // Also true once the file has had maxErrors errors, which unwinds every loop.
   private boolean atEnd() {
-    return input.current().type == Tokenizer.TokenType.END;
+    return input.current().type == Tokenizer.TokenType.END || gaveUp();
+  }
+
+  private boolean gaveUp() {
+    return maxErrors > 0 && errorCount >= maxErrors;
   }
 
   private boolean consume(String text) {
@@ -172,15 +234,14 @@ public class Parser {
 
   private boolean consumeInteger(int[] output) {
     if (lookingAtType(Tokenizer.TokenType.INTEGER)) {
-      try {
-        long val = parseInteger(input.current().text);
-        output[0] = (int) val;
-        input.next();
-        return true;
-      } catch (NumberFormatException e) {
-        recordError("Invalid integer: " + input.current().text);
+      Token token = input.current();
+      if (!token.intValueValid) {
+        recordError("Invalid integer: " + token.text);
         return false;
       }
+      output[0] = (int) token.intValue;
+      input.next();
+      return true;
     }
     recordError("Expected integer.");
     return false;
@@ -241,8 +302,59 @@ public class Parser {
   }
 
   private void recordError(String message) {
-    System.err.println(input.current().line + ":" + input.current().column + ": " + message);
     hadErrors = true;
+    if (gaveUp()) {
+      return;
+    }
+    errorCount++;
+    reportError(message);
+    if (gaveUp()) {
+      reportError("Too many errors; skipping the rest of the file.");
+    }
+  }
+
+  private void reportError(String message) {
+    Token token = input.current();
+    if (errorCollector != null) {
+      errorCollector.recordError(token.line, token.column, message);
+    } else {
+      System.err.println(token.line + ":" + token.column + ": " + message);
+    }
+  }
+
+  // Skips the rest of a statement that failed to parse: up to and including
+  // the next ";", or the block that starts next, or up to the "}" that
+  // closes the enclosing block.
+  private void skipStatement() {
+    while (!atEnd()) {
+      if (lookingAtType(Tokenizer.TokenType.SYMBOL)) {
+        if (tryConsume(";")) {
+          return;
+        } else if (tryConsume("{")) {
+          skipRestOfBlock();
+          return;
+        } else if (lookingAt("}")) {
+          return;
+        }
+      }
+      input.next();
+    }
+  }
+
+  // Skips up to and including the "}" that closes the block just entered.
+  private void skipRestOfBlock() {
+    int depth = 1;
+    while (!atEnd()) {
+      if (lookingAtType(Tokenizer.TokenType.SYMBOL)) {
+        if (lookingAt("}") && --depth == 0) {
+          input.next();
+          return;
+        } else if (lookingAt("{")) {
+          depth++;
+        }
+      }
+      input.next();
+    }
   }
 
   // --- Grammar Rules ---
@@ -311,8 +423,7 @@ public class Parser {
       if (!consumeString(importPath)) return false;
       file.addDependency(importPath.toString());
 
-      consumeEndOfDeclaration(";", location);
-      return true;
+      return consumeEndOfDeclaration(";", location);
   }
 
   private boolean parseFileExtend(FileDescriptorProto.Builder file, LocationRecorder root) {
@@ -320,14 +431,14 @@ public class Parser {
       StringBuilder extendee = new StringBuilder();
       if (!parseType(extendee)) return false;
 
-      consume("{");
+      if (!consume("{")) return false;
       while (!lookingAt("}")) {
           if (atEnd()) return false;
           LocationRecorder location = new LocationRecorder(root, FileDescriptorProto.EXTENSION_FIELD_NUMBER, file.getExtensionCount());
           FieldDescriptorProto.Builder extension = file.addExtensionBuilder();
           extension.setExtendee(extendee.toString());
           if (!parseMessageField(extension, location, null, file, -1)) {
-              input.next();
+              skipStatement();
           }
       }
       consume("}");
@@ -344,8 +455,7 @@ public class Parser {
       pkg.append(".");
     }
     file.setPackage(pkg.toString());
-    consumeEndOfDeclaration(";", location);
-    return true;
+    return consumeEndOfDeclaration(";", location);
   }
 
   private boolean parseMessageDefinition(FileDescriptorProto.Builder file, DescriptorProto.Builder message, LocationRecorder messageLocation) {
@@ -354,14 +464,15 @@ public class Parser {
     if (!consumeIdentifier(name)) return false;
     message.setName(name.toString());
 
-    consume("{");
+    if (!consume("{")) return false;
     while (!lookingAt("}")) {
       if (atEnd()) {
         recordError("Unexpected end of file in message definition.");
         return false;
       }
       if (!parseMessageStatement(file, message, messageLocation)) {
-          input.next();
+          // Skip the statement, but keep parsing the rest of the message.
+          skipStatement();
       }
     }
     consume("}");
@@ -397,20 +508,20 @@ public class Parser {
 
   private boolean parseMapField(FileDescriptorProto.Builder file, DescriptorProto.Builder message, LocationRecorder location) {
       consume("map");
-      consume("<");
+      if (!consume("<")) return false;
       StringBuilder keyType = new StringBuilder();
       if (!parseType(keyType)) return false;
-      consume(",");
+      if (!consume(",")) return false;
       StringBuilder valueType = new StringBuilder();
       if (!parseType(valueType)) return false;
-      consume(">");
+      if (!consume(">")) return false;
 
       StringBuilder name = new StringBuilder();
-      consumeIdentifier(name);
+      if (!consumeIdentifier(name)) return false;
 
-      consume("=");
+      if (!consume("=")) return false;
       int[] number = new int[1];
-      consumeInteger(number);
+      if (!consumeInteger(number)) return false;
 
       // Create synthetic entry message
       String entryName = mapEntryName(name.toString());
@@ -438,33 +549,43 @@ public class Parser {
       field.setType(FieldDescriptorProto.Type.TYPE_MESSAGE);
       field.setTypeName(entryName);
 
-      if (lookingAt("[")) {
-          parseFieldOptions(field);
+      if (lookingAt("[") && !parseFieldOptions(field)) {
+          return false;
       }
 
-      consumeEndOfDeclaration(";", location);
-      return true;
+      return consumeEndOfDeclaration(";", location);
   }
 
   private void setFieldType(FileDescriptorProto.Builder file, FieldDescriptorProto.Builder field, String type) {
       if (isPrimitiveType(type)) {
           field.setType(FieldDescriptorProto.Type.valueOf("TYPE_" + type.toUpperCase()));
-      } else if (file != null && isEnumTypeInFile(type, file)) {
-          field.setType(FieldDescriptorProto.Type.TYPE_ENUM);
-          field.setTypeName(type);
       } else {
           field.setTypeName(type);
           field.setType(FieldDescriptorProto.Type.TYPE_MESSAGE);
+          if (file != null) {
+              // The enum may be declared further down the file.
+              deferredTypeFields.add(field);
+          }
       }
   }
 
   /**
-   * Returns true if {@code typeName} refers to an enum defined in {@code file} (or nested in its messages).
+   * Marks deferred fields as enums if their type names an enum defined in {@code file} (or nested in its messages).
    * Handles simple names (e.g. "TestEnumV3") and qualified names (e.g. "ComprehensiveTest.V3Minimal.TestEnumV3").
    */
-  private boolean isEnumTypeInFile(String typeName, FileDescriptorProto.Builder file) {
-      String simpleName = typeName.contains(".") ? typeName.substring(typeName.lastIndexOf('.') + 1) : typeName;
-      return enumSimpleNamesInFile(file).contains(simpleName);
+  private void resolveDeferredFieldTypes(FileDescriptorProto.Builder file) {
+      if (deferredTypeFields.isEmpty()) {
+          return;
+      }
+      java.util.Set<String> enumNames = enumSimpleNamesInFile(file);
+      for (FieldDescriptorProto.Builder field : deferredTypeFields) {
+          String typeName = field.getTypeName();
+          String simpleName = typeName.substring(typeName.lastIndexOf('.') + 1);
+          if (enumNames.contains(simpleName)) {
+              field.setType(FieldDescriptorProto.Type.TYPE_ENUM);
+          }
+      }
+      deferredTypeFields.clear();
   }
 
   private java.util.Set<String> enumSimpleNamesInFile(FileDescriptorProto.Builder file) {
@@ -521,21 +642,23 @@ public class Parser {
   private boolean parseOneof(DescriptorProto.Builder message, LocationRecorder messageLocation) {
       consume("oneof");
       StringBuilder name = new StringBuilder();
-      consumeIdentifier(name);
+      if (!consumeIdentifier(name)) return false;
 
       OneofDescriptorProto.Builder oneof = message.addOneofDeclBuilder();
       oneof.setName(name.toString());
       int oneofIndex = message.getOneofDeclCount() - 1;
 
-      consume("{");
+      if (!consume("{")) return false;
       while (!lookingAt("}") && !atEnd()) {
           if (lookingAt("option")) {
-              parseOption(oneof.getOptionsBuilder(), messageLocation);
+              if (!parseOption(oneof.getOptionsBuilder(), messageLocation)) {
+                  skipStatement();
+              }
           } else {
               LocationRecorder location = new LocationRecorder(messageLocation, DescriptorProto.FIELD_FIELD_NUMBER, message.getFieldCount());
               FieldDescriptorProto.Builder field = message.addFieldBuilder();
               if (!parseMessageField(field, location, message, null, oneofIndex)) {
-                  input.next();
+                  skipStatement();
               }
           }
       }
@@ -563,8 +686,7 @@ public class Parser {
               range.setEnd(start[0] + 1);
           }
       } while (tryConsume(","));
-      consume(";");
-      return true;
+      return consume(";");
   }
 
   private boolean parseReserved(DescriptorProto.Builder message, LocationRecorder parent) {
@@ -573,7 +695,7 @@ public class Parser {
           // Reserved names
            do {
               StringBuilder name = new StringBuilder();
-              consumeString(name);
+              if (!consumeString(name)) return false;
               message.addReservedName(name.toString());
            } while (tryConsume(","));
       } else {
@@ -597,8 +719,7 @@ public class Parser {
               }
           } while (tryConsume(","));
       }
-      consume(";");
-      return true;
+      return consume(";");
   }
 
   private boolean parseNestedExtend(DescriptorProto.Builder message, LocationRecorder root) {
@@ -606,14 +727,14 @@ public class Parser {
       StringBuilder extendee = new StringBuilder();
       if (!parseType(extendee)) return false;
 
-      consume("{");
+      if (!consume("{")) return false;
       while (!lookingAt("}")) {
           if (atEnd()) return false;
           LocationRecorder location = new LocationRecorder(root, DescriptorProto.EXTENSION_FIELD_NUMBER, message.getExtensionCount());
           FieldDescriptorProto.Builder extension = message.addExtensionBuilder();
           extension.setExtendee(extendee.toString());
           if (!parseMessageField(extension, location, message, null, -1)) {
-              input.next();
+              skipStatement();
           }
       }
       consume("}");
@@ -622,17 +743,19 @@ public class Parser {
   }
 
   private boolean parseType(StringBuilder type) {
-      if (lookingAtType(Tokenizer.TokenType.IDENTIFIER)) {
-          type.append(input.current().text);
-          input.next();
-          while (tryConsume(".")) {
-              type.append(".");
-              StringBuilder part = new StringBuilder();
-              if(consumeIdentifier(part)) type.append(part);
-          }
-          return true;
+      // A leading "." makes the name fully-qualified.
+      if (tryConsume(".")) {
+          type.append(".");
+      } else if (!lookingAtType(Tokenizer.TokenType.IDENTIFIER)) {
+          recordError("Expected type name.");
+          return false;
       }
-      return false;
+      if (!consumeIdentifier(type)) return false;
+      while (tryConsume(".")) {
+          type.append(".");
+          if (!consumeIdentifier(type)) return false;
+      }
+      return true;
   }
 
   private boolean parseMessageField(FieldDescriptorProto.Builder field, LocationRecorder fieldLocation, DescriptorProto.Builder containingMessage, FileDescriptorProto.Builder containingFile, int oneofIndex) {
@@ -655,25 +778,25 @@ public class Parser {
 
     if (tryConsume("group")) {
         StringBuilder name = new StringBuilder();
-        consumeIdentifier(name);
+        if (!consumeIdentifier(name)) return false;
         field.setType(FieldDescriptorProto.Type.TYPE_GROUP);
         field.setTypeName(name.toString());
         field.setName(name.toString().toLowerCase());
 
-        consume("=");
+        if (!consume("=")) return false;
         int[] number = new int[1];
-        consumeInteger(number);
+        if (!consumeInteger(number)) return false;
         field.setNumber(number[0]);
 
-        if (lookingAt("[")) {
-            parseFieldOptions(field);
+        if (lookingAt("[") && !parseFieldOptions(field)) {
+            return false;
         }
 
         if (oneofIndex != -1) {
             field.setOneofIndex(oneofIndex);
         }
 
-        consume("{");
+        if (!consume("{")) return false;
 
         DescriptorProto.Builder nestedType;
         if (containingMessage != null) {
@@ -692,7 +815,7 @@ public class Parser {
                  return false;
              }
              if (!parseMessageStatement(containingFile, nestedType, fieldLocation)) {
-                 input.next();
+                 skipStatement();
              }
         }
         consume("}");
@@ -700,16 +823,8 @@ public class Parser {
     }
 
     StringBuilder type = new StringBuilder();
-    if (lookingAtType(Tokenizer.TokenType.IDENTIFIER)) {
-        type.append(input.current().text);
-        input.next();
-        while (tryConsume(".")) {
-            type.append(".");
-            StringBuilder part = new StringBuilder();
-            if(consumeIdentifier(part)) type.append(part);
-        }
-    }
-    
+    if (!parseType(type)) return false;
+
     if (isPrimitiveType(type.toString())) {
         field.setType(FieldDescriptorProto.Type.valueOf("TYPE_" + type.toString().toUpperCase()));
     } else {
@@ -717,7 +832,7 @@ public class Parser {
     }
 
     StringBuilder name = new StringBuilder();
-    consumeIdentifier(name);
+    if (!consumeIdentifier(name)) return false;
     field.setName(name.toString());
 
     if (isProto3Optional && containingMessage != null) {
@@ -726,22 +841,21 @@ public class Parser {
         field.setOneofIndex(containingMessage.getOneofDeclCount() - 1);
     }
 
-    consume("=");
+    if (!consume("=")) return false;
 
     int[] number = new int[1];
-    consumeInteger(number);
+    if (!consumeInteger(number)) return false;
     field.setNumber(number[0]);
 
-    if (lookingAt("[")) {
-        parseFieldOptions(field);
+    if (lookingAt("[") && !parseFieldOptions(field)) {
+        return false;
     }
 
     if (oneofIndex != -1) {
         field.setOneofIndex(oneofIndex);
     }
 
-    consumeEndOfDeclaration(";", fieldLocation);
-    return true;
+    return consumeEndOfDeclaration(";", fieldLocation);
   }
 
   private boolean parseFieldOptions(FieldDescriptorProto.Builder field) {
@@ -763,31 +877,30 @@ public class Parser {
                       input.next();
                   } else {
                       StringBuilder sb = new StringBuilder();
-                      if (consumeNumber(sb)) {
-                          field.setDefaultValue(sb.toString());
-                      } else {
+                      if (!consumeNumber(sb)) {
                           // consumeNumber already records an error.
+                          return false;
                       }
+                      field.setDefaultValue(sb.toString());
                   }
               }
-          } else {
-              parseOptionEntry(field.getOptionsBuilder());
+          } else if (!parseOptionEntry(field.getOptionsBuilder())) {
+              return false;
           }
       } while (tryConsume(","));
-      consume("]");
-      return true;
+      return consume("]");
   }
 
   private boolean parseEnumDefinition(EnumDescriptorProto.Builder enumType, LocationRecorder enumLocation) {
     consume("enum");
     StringBuilder name = new StringBuilder();
-    consumeIdentifier(name);
+    if (!consumeIdentifier(name)) return false;
     enumType.setName(name.toString());
 
-    consume("{");
+    if (!consume("{")) return false;
     while (!lookingAt("}") && !atEnd()) {
       if (!parseEnumStatement(enumType, enumLocation)) {
-          input.next();
+          skipStatement();
       }
     }
     consume("}");
@@ -805,25 +918,24 @@ public class Parser {
       EnumValueDescriptorProto.Builder val = enumType.addValueBuilder();
       
       StringBuilder name = new StringBuilder();
-      consumeIdentifier(name);
+      if (!consumeIdentifier(name)) return false;
       val.setName(name.toString());
       
-      consume("=");
+      if (!consume("=")) return false;
       
       int[] number = new int[1];
-      consumeSignedInteger(number);
+      if (!consumeSignedInteger(number)) return false;
       val.setNumber(number[0]);
       
       if (lookingAt("[")) {
           consume("[");
           do {
-             parseOptionEntry(val.getOptionsBuilder());
+             if (!parseOptionEntry(val.getOptionsBuilder())) return false;
           } while (tryConsume(","));
-          consume("]");
+          if (!consume("]")) return false;
       }
 
-      consumeEndOfDeclaration(";", location);
-      return true;
+      return consumeEndOfDeclaration(";", location);
   }
   
   private boolean parseEnumReserved(EnumDescriptorProto.Builder enumType, LocationRecorder enumLocation) {
@@ -832,14 +944,14 @@ public class Parser {
       if (lookingAtType(Tokenizer.TokenType.STRING)) {
           do {
               StringBuilder name = new StringBuilder();
-              consumeString(name);
+              if (!consumeString(name)) return false;
               enumType.addReservedName(name.toString());
           } while (tryConsume(","));
       } else {
           do {
               int[] start = new int[1];
               boolean negative = tryConsume("-");
-              consumeInteger(start);
+              if (!consumeInteger(start)) return false;
               if (negative) start[0] = -start[0];
               int end = start[0];
               if (tryConsume("to")) {
@@ -849,7 +961,7 @@ public class Parser {
                   } else {
                       int[] endVal = new int[1];
                       boolean negEnd = tryConsume("-");
-                      consumeInteger(endVal);
+                      if (!consumeInteger(endVal)) return false;
                       if (negEnd) endVal[0] = -endVal[0];
                       end = endVal[0];
                   }
@@ -860,22 +972,25 @@ public class Parser {
           } while (tryConsume(","));
       }
 
-      consume(";");
-      return true;
+      return consume(";");
   }
 
   private boolean parseServiceDefinition(ServiceDescriptorProto.Builder service, LocationRecorder location) {
       consume("service");
       StringBuilder name = new StringBuilder();
-      consumeIdentifier(name);
+      if (!consumeIdentifier(name)) return false;
       service.setName(name.toString());
       
-      consume("{");
+      if (!consume("{")) return false;
       while(!lookingAt("}") && !atEnd()) {
           if (lookingAt("rpc")) {
-              parseServiceMethod(service.addMethodBuilder(), location);
+              if (!parseServiceMethod(service.addMethodBuilder(), location)) {
+                  skipStatement();
+              }
           } else if (lookingAt("option")) {
-              parseOption(service.getOptionsBuilder(), location);
+              if (!parseOption(service.getOptionsBuilder(), location)) {
+                  skipStatement();
+              }
           } else {
               input.next();
           }
@@ -888,49 +1003,48 @@ public class Parser {
   private boolean parseServiceMethod(MethodDescriptorProto.Builder method, LocationRecorder parentLocation) {
       consume("rpc");
       StringBuilder name = new StringBuilder();
-      consumeIdentifier(name);
+      if (!consumeIdentifier(name)) return false;
       method.setName(name.toString());
       
-      consume("(");
+      if (!consume("(")) return false;
       if (tryConsume("stream")) {
           method.setClientStreaming(true);
       }
       StringBuilder inputType = new StringBuilder();
-      parseType(inputType);
+      if (!parseType(inputType)) return false;
       method.setInputType(inputType.toString());
-      consume(")");
+      if (!consume(")")) return false;
       
-      consume("returns");
+      if (!consume("returns")) return false;
       
-      consume("(");
+      if (!consume("(")) return false;
       if (tryConsume("stream")) {
           method.setServerStreaming(true);
       }
       StringBuilder outputType = new StringBuilder();
-      parseType(outputType);
+      if (!parseType(outputType)) return false;
       method.setOutputType(outputType.toString());
-      consume(")");
+      if (!consume(")")) return false;
       
       if (tryConsume("{")) {
           while (!lookingAt("}") && !atEnd()) {
               if (lookingAt("option")) {
-                  parseOption(method.getOptionsBuilder(), parentLocation);
+                  if (!parseOption(method.getOptionsBuilder(), parentLocation)) {
+                      skipStatement();
+                  }
               } else {
                   input.next();
               }
           }
-          consume("}");
-      } else {
-          consume(";");
+          return consume("}");
       }
-      return true;
+      return consume(";");
   }
 
   private boolean parseOption(com.google.protobuf.GeneratedMessage.Builder<?> optionsBuilder, LocationRecorder location) {
       consume("option");
       if (!parseOptionEntry(optionsBuilder)) return false;
-      consume(";");
-      return true;
+      return consume(";");
   }
 
   private boolean parseOptionEntry(com.google.protobuf.GeneratedMessage.Builder<?> optionsBuilder) {
@@ -938,20 +1052,21 @@ public class Parser {
 
       if (!parseOptionName(uninterpreted)) return false;
 
-      consume("=");
+      if (!consume("=")) return false;
 
       if (!parseOptionValue(uninterpreted)) return false;
 
-      UninterpretedOption option = uninterpreted.build();
-
-      try {
-          java.lang.reflect.Method m = optionsBuilder.getClass().getMethod("addUninterpretedOption", UninterpretedOption.class);
-          m.invoke(optionsBuilder, option);
-      } catch (Exception e) {
-          recordError("Could not add option: " + e.getMessage());
+      // Every options message keeps its uninterpreted options in field 999,
+      // which is found through the descriptor rather than a reflective lookup
+      // of addUninterpretedOption for each option.
+      com.google.protobuf.Descriptors.FieldDescriptor field = optionsBuilder.getDescriptorForType()
+          .findFieldByNumber(FileOptions.UNINTERPRETED_OPTION_FIELD_NUMBER);
+      if (field == null) {
+          recordError("Could not add option: " + optionsBuilder.getDescriptorForType().getFullName()
+              + " has no uninterpreted_option field.");
           return false;
       }
-
+      optionsBuilder.addRepeatedField(field, uninterpreted.build());
       return true;
   }
 
@@ -1040,11 +1155,11 @@ public class Parser {
               StringBuilder name = new StringBuilder();
               if (!parseType(name)) return false;
               part.setNamePart(name.toString());
-              consume(")");
+              if (!consume(")")) return false;
           } else {
               part.setIsExtension(false);
               StringBuilder name = new StringBuilder();
-              consumeIdentifier(name);
+              if (!consumeIdentifier(name)) return false;
               part.setNamePart(name.toString());
           }
       } while (tryConsume("."));
@@ -1056,28 +1171,23 @@ public class Parser {
           uninterpreted.setIdentifierValue(input.current().text);
           input.next();
       } else if (lookingAtType(Tokenizer.TokenType.INTEGER)) {
-          try {
-             long val = parseInteger(input.current().text);
-             uninterpreted.setPositiveIntValue(val);
-          } catch (NumberFormatException e) {
+          if (!input.current().intValueValid) {
              recordError("Invalid integer value: " + input.current().text);
              return false;
           }
+          uninterpreted.setPositiveIntValue(input.current().intValue);
           input.next();
       } else if (lookingAt("-")) {
           consume("-");
           if (lookingAtType(Tokenizer.TokenType.INTEGER)) {
-              try {
-                  long val = parseInteger(input.current().text);
-                  uninterpreted.setNegativeIntValue(-val);
-              } catch (NumberFormatException e) {
+              if (!input.current().intValueValid) {
                   recordError("Invalid integer value: -" + input.current().text);
                   return false;
               }
+              uninterpreted.setNegativeIntValue(-input.current().intValue);
               input.next();
           } else if (lookingAtType(Tokenizer.TokenType.FLOAT)) {
-              double val = Double.parseDouble(input.current().text);
-              uninterpreted.setDoubleValue(-val);
+              uninterpreted.setDoubleValue(-input.current().floatValue);
               input.next();
           } else if (lookingAt("inf")) {
               uninterpreted.setDoubleValue(Double.NEGATIVE_INFINITY);
@@ -1087,8 +1197,7 @@ public class Parser {
               input.next();
           }
       } else if (lookingAtType(Tokenizer.TokenType.FLOAT)) {
-           double val = Double.parseDouble(input.current().text);
-           uninterpreted.setDoubleValue(val);
+           uninterpreted.setDoubleValue(input.current().floatValue);
            input.next();
       } else if (lookingAtType(Tokenizer.TokenType.STRING)) {
           StringBuilder sb = new StringBuilder();
@@ -1139,16 +1248,6 @@ public class Parser {
       return sb.toString();
   }
 
-  private long parseInteger(String text) throws NumberFormatException {
-      if (text.startsWith("0x") || text.startsWith("0X")) {
-          return Long.parseUnsignedLong(text.substring(2), 16);
-      } else if (text.startsWith("0") && text.length() > 1) {
-          return Long.parseUnsignedLong(text.substring(1), 8);
-      } else {
-          return Long.parseUnsignedLong(text, 10);
-      }
-  }
-
   private boolean isPrimitiveType(String type) {
       return type.equals("double") || type.equals("float") || type.equals("int32") || type.equals("int64") ||
              type.equals("uint32") || type.equals("uint64") || type.equals("sint32") || type.equals("sint64") ||
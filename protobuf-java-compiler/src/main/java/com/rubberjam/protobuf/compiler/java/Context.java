@@ -4,6 +4,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.google.protobuf.Descriptors.Descriptor;
 import com.google.protobuf.Descriptors.FieldDescriptor;
@@ -12,6 +13,8 @@ import com.google.protobuf.DescriptorProtos.FileOptions;
 import com.google.protobuf.Descriptors.OneofDescriptor;
 import com.rubberjam.protobuf.compiler.java.FieldCommon.FieldGeneratorInfo;
 import com.rubberjam.protobuf.compiler.java.FieldCommon.OneofGeneratorInfo;
+import com.rubberjam.protobuf.compiler.java.full.ImmutableGeneratorFactory;
+import com.rubberjam.protobuf.compiler.java.lite.ImmutableLiteGeneratorFactory;
 
 /**
  * A context object holds the information that is shared among all code
@@ -23,11 +26,17 @@ public class Context {
   private final Map<FieldDescriptor, FieldGeneratorInfo> fieldGeneratorInfoMap = new HashMap<>();
   private final Map<OneofDescriptor, OneofGeneratorInfo> oneofGeneratorInfoMap = new HashMap<>();
   private final Options options;
+  private final GeneratorRegistry generators;
+  // Generators of one file may run on several threads (see FileGenerator).
+  private final Map<FileDescriptor, FileFacts> fileFacts = new ConcurrentHashMap<>();
 
   public Context(FileDescriptor file, Options options) {
     this.nameResolver = new ClassNameResolver();
     this.options = options;
     initializeFieldGeneratorInfo(file);
+    this.generators = new GeneratorRegistry(options.isEnforceLite()
+        ? new ImmutableLiteGeneratorFactory(this)
+        : new ImmutableGeneratorFactory(this));
   }
 
   public ClassNameResolver getNameResolver() {
@@ -50,6 +59,19 @@ public class Context {
     return info;
   }
 
+  /**
+   * Returns the factory for message, enum, extension and service generators of
+   * this file. Each generator is created once and shared by all phases.
+   */
+  public GeneratorFactory getGeneratorFactory() {
+    return generators;
+  }
+
+  /** Returns the facts for the given file, computing them on first use. */
+  public FileFacts getFileFacts(FileDescriptor file) {
+    return fileFacts.computeIfAbsent(file, FileFacts::new);
+  }
+
   public Options getOptions() {
     return options;
   }
@@ -59,11 +81,11 @@ public class Context {
   }
 
   public boolean hasGeneratedMethods(Descriptor descriptor) {
-    return descriptor.getFile().getOptions().getOptimizeFor() != com.google.protobuf.DescriptorProtos.FileOptions.OptimizeMode.CODE_SIZE && !options.isEnforceLite();
+    return hasGeneratedMethods(descriptor.getFile());
   }
 
   public boolean hasGeneratedMethods(FileDescriptor file) {
-    return file.getOptions().getOptimizeFor() != com.google.protobuf.DescriptorProtos.FileOptions.OptimizeMode.CODE_SIZE && !options.isEnforceLite();
+    return getFileFacts(file).getOptimizeFor() != com.google.protobuf.DescriptorProtos.FileOptions.OptimizeMode.CODE_SIZE && !options.isEnforceLite();
   }
 
   public boolean hasGeneratedMethods(com.google.protobuf.Descriptors.EnumDescriptor descriptor) {
@@ -96,29 +118,56 @@ public class Context {
     }
   }
 
+  private static final String[] CONFLICT_SUFFIXES = {"Count", "List", "Value"};
+
   private void initializeFieldGeneratorInfoForFields(List<FieldDescriptor> fields) {
-    boolean[] isConflict = new boolean[fields.size()];
-    String[] conflictReason = new String[fields.size()];
+    int size = fields.size();
+    String[] names = new String[size];
+    Map<String, List<Integer>> fieldsByName = new HashMap<>(size * 4 / 3 + 1);
+    for (int i = 0; i < size; ++i) {
+      names[i] = Names.capitalizedFieldName(fields.get(i));
+      fieldsByName.computeIfAbsent(names[i], k -> new ArrayList<>(1)).add(i);
+    }
 
-    for (int i = 0; i < fields.size(); ++i) {
-      FieldDescriptor field = fields.get(i);
-      String name = Names.capitalizedFieldName(field);
-      for (int j = i + 1; j < fields.size(); ++j) {
-        FieldDescriptor other = fields.get(j);
-        String otherName = Names.capitalizedFieldName(other);
-        if (name.equals(otherName)) {
-          isConflict[i] = isConflict[j] = true;
-          conflictReason[i] = conflictReason[j] =
-              "capitalized name of field \"" + field.getName() +
-              "\" conflicts with field \"" + other.getName() + "\"";
-        } else if (isConflicting(field, name, other, otherName, conflictReason, j)) {
-          isConflict[i] = isConflict[j] = true;
-          // conflictReason[j] is set by isConflicting
-          conflictReason[i] = conflictReason[j];
+    // Two fields can only conflict if their capitalized names are equal or
+    // differ by one of the suffixes, so only those candidates are checked.
+    boolean[] isConflict = new boolean[size];
+    String[] conflictReason = new String[size];
+    for (int i = 0; i < size; ++i) {
+      String name = names[i];
+      // Like the pairwise scan this replaces, report the last conflicting
+      // field declared after this one, or else the last one declared before.
+      int reasonRank = -1;
+      List<String> candidates = new ArrayList<>(7);
+      candidates.add(name);
+      for (String suffix : CONFLICT_SUFFIXES) {
+        candidates.add(name + suffix);
+        if (name.endsWith(suffix)) {
+          candidates.add(name.substring(0, name.length() - suffix.length()));
+        }
+      }
+      for (String candidate : candidates) {
+        List<Integer> others = fieldsByName.get(candidate);
+        if (others == null) {
+          continue;
+        }
+        for (int j : others) {
+          int rank = j > i ? size + j : j;
+          if (j == i || rank <= reasonRank) {
+            continue;
+          }
+          String reason = j > i
+              ? conflictReason(fields.get(i), name, fields.get(j), names[j])
+              : conflictReason(fields.get(j), names[j], fields.get(i), name);
+          if (reason != null) {
+            isConflict[i] = true;
+            conflictReason[i] = reason;
+            reasonRank = rank;
+          }
         }
       }
       if (isConflict[i]) {
-        System.err.println("WARNING: field \"" + field.getFullName() +
+        System.err.println("WARNING: field \"" + fields.get(i).getFullName() +
                            "\" is conflicting with another field: " + conflictReason[i]);
       }
     }
@@ -126,7 +175,7 @@ public class Context {
     for (int i = 0; i < fields.size(); ++i) {
       FieldDescriptor field = fields.get(i);
       String name = Helpers.camelCaseFieldName(field);
-      String capitalizedName = Names.capitalizedFieldName(field);
+      String capitalizedName = names[i];
 
       String disambiguatedReason = null;
       if (isConflict[i]) {
@@ -140,6 +189,20 @@ public class Context {
     }
   }
 
+  /**
+   * Returns why {@code field1} and {@code field2}, declared in that order,
+   * conflict, or null if they do not.
+   */
+  private String conflictReason(FieldDescriptor field1, String name1,
+                                FieldDescriptor field2, String name2) {
+    if (name1.equals(name2)) {
+      return "capitalized name of field \"" + field1.getName() +
+             "\" conflicts with field \"" + field2.getName() + "\"";
+    }
+    String[] info = new String[1];
+    return isConflicting(field1, name1, field2, name2, info, 0) ? info[0] : null;
+  }
+
   // Helper for checking suffix equality
   private boolean equalWithSuffix(String name1, String suffix, String name2) {
     if (name2.endsWith(suffix)) {
@@ -173,7 +236,7 @@ public class Context {
                                          FieldDescriptor field2, String name2,
                                          String[] info, int index) {
     if (field1.getType() == FieldDescriptor.Type.ENUM &&
-        InternalHelpers.supportUnknownEnumValue(field1) &&
+        InternalHelpers.supportUnknownEnumValue(field1, this) &&
         equalWithSuffix(name1, "Value", name2)) {
       info[index] = "both enum field \"" + field1.getName() +
                     "\" and regular field \"" + field2.getName() +
@@ -1,8 +1,5 @@
 package com.rubberjam.protobuf.compiler.java;
 
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
 import java.util.Map;
 
 import com.google.protobuf.DescriptorProtos.SourceCodeInfo;
@@ -10,9 +7,7 @@ import com.google.protobuf.Descriptors.Descriptor;
 import com.google.protobuf.Descriptors.EnumDescriptor;
 import com.google.protobuf.Descriptors.EnumValueDescriptor;
 import com.google.protobuf.Descriptors.FieldDescriptor;
-import com.google.protobuf.Descriptors.FileDescriptor;
 import com.google.protobuf.Descriptors.GenericDescriptor;
-import com.google.protobuf.Descriptors.MethodDescriptor;
 import com.google.protobuf.Descriptors.ServiceDescriptor;
 import com.rubberjam.protobuf.io.Printer;
 
@@ -194,102 +189,20 @@ public final class DocComment {
   }
 
   public static void writeDocCommentBody(
-      Printer printer, GenericDescriptor descriptor, Options options, boolean kdoc) {
-    SourceCodeInfo.Location location = getLocation(descriptor);
+      Printer printer, GenericDescriptor descriptor, Context context, boolean kdoc) {
+    SourceCodeInfo.Location location = getLocation(descriptor, context);
     if (location != null) {
-      writeDocCommentBodyForLocation(printer, location, options, kdoc);
+      writeDocCommentBodyForLocation(printer, location, context.getOptions(), kdoc);
     }
   }
 
-  private static SourceCodeInfo.Location getLocation(GenericDescriptor descriptor) {
-    List<Integer> path = getPath(descriptor);
-    if (path == null)
-      return null;
-
-    FileDescriptor file = descriptor.getFile();
-    SourceCodeInfo sourceCodeInfo = file.toProto().getSourceCodeInfo();
-
-    for (SourceCodeInfo.Location loc : sourceCodeInfo.getLocationList()) {
-      if (loc.getPathList().equals(path)) {
-        return loc;
-      }
-    }
-    return null;
-  }
-
-  private static List<Integer> getPath(GenericDescriptor descriptor) {
-    List<Integer> path = new ArrayList<>();
-    getPathRecursive(descriptor, path);
-    return path;
-  }
-
-  private static void getPathRecursive(GenericDescriptor descriptor, List<Integer> path) {
-    if (descriptor instanceof FileDescriptor) {
-      return; // Base case
-    }
-
-    GenericDescriptor parent = null;
-    if (descriptor instanceof Descriptor) {
-      parent = ((Descriptor) descriptor).getContainingType();
-    } else if (descriptor instanceof FieldDescriptor) {
-      parent = ((FieldDescriptor) descriptor).getContainingType();
-    } else if (descriptor instanceof EnumDescriptor) {
-      parent = ((EnumDescriptor) descriptor).getContainingType();
-    } else if (descriptor instanceof EnumValueDescriptor) {
-      parent = ((EnumValueDescriptor) descriptor).getType();
-    } else if (descriptor instanceof ServiceDescriptor) {
-      // Top level usually
-      parent = null;
-    } else if (descriptor instanceof MethodDescriptor) {
-      parent = ((MethodDescriptor) descriptor).getService();
-    }
-
-    if (parent != null) {
-      getPathRecursive(parent, path);
-    }
-
-    // Append current descriptor's path component
-    if (descriptor instanceof Descriptor) {
-      if (parent == null) {
-        path.add(com.google.protobuf.DescriptorProtos.FileDescriptorProto.MESSAGE_TYPE_FIELD_NUMBER);
-      } else {
-        path.add(com.google.protobuf.DescriptorProtos.DescriptorProto.NESTED_TYPE_FIELD_NUMBER);
-      }
-      path.add(((Descriptor) descriptor).getIndex());
-    } else if (descriptor instanceof FieldDescriptor) {
-      FieldDescriptor fd = (FieldDescriptor) descriptor;
-      if (fd.isExtension()) {
-        if (parent == null) {
-          path.add(com.google.protobuf.DescriptorProtos.FileDescriptorProto.EXTENSION_FIELD_NUMBER);
-        } else {
-          path.add(com.google.protobuf.DescriptorProtos.DescriptorProto.EXTENSION_FIELD_NUMBER);
-        }
-      } else {
-        path.add(com.google.protobuf.DescriptorProtos.DescriptorProto.FIELD_FIELD_NUMBER);
-      }
-      path.add(fd.getIndex());
-    } else if (descriptor instanceof EnumDescriptor) {
-      if (parent == null) {
-        path.add(com.google.protobuf.DescriptorProtos.FileDescriptorProto.ENUM_TYPE_FIELD_NUMBER);
-      } else {
-        path.add(com.google.protobuf.DescriptorProtos.DescriptorProto.ENUM_TYPE_FIELD_NUMBER);
-      }
-      path.add(((EnumDescriptor) descriptor).getIndex());
-    } else if (descriptor instanceof EnumValueDescriptor) {
-      path.add(com.google.protobuf.DescriptorProtos.EnumDescriptorProto.VALUE_FIELD_NUMBER);
-      path.add(((EnumValueDescriptor) descriptor).getIndex());
-    } else if (descriptor instanceof ServiceDescriptor) {
-      path.add(com.google.protobuf.DescriptorProtos.FileDescriptorProto.SERVICE_FIELD_NUMBER);
-      path.add(((ServiceDescriptor) descriptor).getIndex());
-    } else if (descriptor instanceof MethodDescriptor) {
-      path.add(com.google.protobuf.DescriptorProtos.ServiceDescriptorProto.METHOD_FIELD_NUMBER);
-      path.add(((MethodDescriptor) descriptor).getIndex());
-    }
+  private static SourceCodeInfo.Location getLocation(GenericDescriptor descriptor, Context context) {
+    return SourceLocationIndex.find(descriptor, context);
   }
 
   private static void writeDebugString(
-      Printer printer, FieldDescriptor field, Options options, boolean kdoc) {
-    String fieldComment = getFieldDefinition(field);
+      Printer printer, FieldDescriptor field, Context context, boolean kdoc) {
+    String fieldComment = getFieldDefinition(field, context);
 
     if (kdoc) {
       printer.emit(Map.of("def", escapeKdoc(fieldComment)), " * `$def$`\n");
@@ -298,7 +211,7 @@ public final class DocComment {
     }
   }
 
-  private static String getFieldDefinition(FieldDescriptor field) {
+  private static String getFieldDefinition(FieldDescriptor field, Context context) {
     if (field.isExtension()) {
       return "extend ." + field.getContainingType().getFullName() + " { ... }";
     }
@@ -316,16 +229,15 @@ public final class DocComment {
     } else if (field.isRequired()) {
       sb.append("required ");
     } else {
-      // Check syntax via toProto() string
-      String syntax = field.getFile().toProto().getSyntax();
-      if (syntax.isEmpty() || "proto2".equals(syntax)) {
+      FileFacts facts = context.getFileFacts(field.getFile());
+      if (facts.isProto2()) {
         if (field.getRealContainingOneof() == null) {
           sb.append("optional ");
         }
       } else if (field.toProto().hasProto3Optional()) {
         if (field.toProto()
             .getLabel() == com.google.protobuf.DescriptorProtos.FieldDescriptorProto.Label.LABEL_OPTIONAL) {
-          if ("proto3".equals(syntax)) {
+          if (facts.isProto3()) {
             if (field.toProto().getProto3Optional()) {
               sb.append("optional ");
             }
@@ -352,7 +264,7 @@ public final class DocComment {
       sb.append(" { ... }");
     } else {
       boolean hasOptions = false;
-      if (shouldPrintDefault(field)) {
+      if (shouldPrintDefault(field, context)) {
         sb.append(" [default = ");
         sb.append(formatDefaultValue(field));
         hasOptions = true;
@@ -393,7 +305,7 @@ public final class DocComment {
     }
   }
 
-  private static boolean shouldPrintDefault(FieldDescriptor field) {
+  private static boolean shouldPrintDefault(FieldDescriptor field, Context context) {
     if (field.isRepeated())
       return false;
     if (field.getType() == FieldDescriptor.Type.MESSAGE)
@@ -401,8 +313,7 @@ public final class DocComment {
     if (field.getType() == FieldDescriptor.Type.GROUP)
       return false;
 
-    String syntax = field.getFile().toProto().getSyntax();
-    if ("proto3".equals(syntax)) {
+    if (context.getFileFacts(field.getFile()).isProto3()) {
       return false;
     }
 
@@ -448,9 +359,9 @@ public final class DocComment {
   }
 
   public static void writeMessageDocComment(
-      Printer printer, Descriptor message, Options options, boolean kdoc) {
+      Printer printer, Descriptor message, Context context, boolean kdoc) {
     printer.emit("/**\n");
-    writeDocCommentBody(printer, message, options, kdoc);
+    writeDocCommentBody(printer, message, context, kdoc);
     if (kdoc) {
       printer.emit(Map.of("fullname", escapeKdoc(message.getFullName())),
           " * Protobuf type `$fullname$`\n" + " */\n");
@@ -461,9 +372,9 @@ public final class DocComment {
   }
 
   public static void writeMessageDocComment(
-      Printer printer, EnumDescriptor message, Options options, boolean kdoc) {
+      Printer printer, EnumDescriptor message, Context context, boolean kdoc) {
     printer.emit("/**\n");
-    writeDocCommentBody(printer, message, options, kdoc);
+    writeDocCommentBody(printer, message, context, kdoc);
     if (kdoc) {
       printer.emit(Map.of("fullname", escapeKdoc(message.getFullName())),
           " * Protobuf enum `$fullname$`\n" + " */\n");
@@ -474,9 +385,9 @@ public final class DocComment {
   }
 
   public static void writeMessageDocComment(
-      Printer printer, ServiceDescriptor message, Options options, boolean kdoc) {
+      Printer printer, ServiceDescriptor message, Context context, boolean kdoc) {
     printer.emit("/**\n");
-    writeDocCommentBody(printer, message, options, kdoc);
+    writeDocCommentBody(printer, message, context, kdoc);
     if (kdoc) {
       printer.emit(Map.of("fullname", escapeKdoc(message.getFullName())),
           " * Protobuf service `$fullname$`\n" + " */\n");
@@ -487,9 +398,9 @@ public final class DocComment {
   }
 
   public static void writeMethodDocComment(
-      Printer printer, com.google.protobuf.Descriptors.MethodDescriptor method, Options options) {
+      Printer printer, com.google.protobuf.Descriptors.MethodDescriptor method, Context context) {
     printer.emit("/**\n");
-    writeDocCommentBody(printer, method, options, false);
+    writeDocCommentBody(printer, method, context, false);
     String methodDef = "rpc " + method.getName() + "("
         + (method.toProto().getClientStreaming() ? "stream " : "")
         + "." + method.getInputType().getFullName() + ") returns ("
@@ -500,21 +411,21 @@ public final class DocComment {
   }
 
   public static void writeFieldDocComment(
-      Printer printer, FieldDescriptor field, Options options, boolean kdoc) {
+      Printer printer, FieldDescriptor field, Context context, boolean kdoc) {
     printer.emit("/**\n");
-    writeDocCommentBody(printer, field, options, kdoc);
-    writeDebugString(printer, field, options, kdoc);
+    writeDocCommentBody(printer, field, context, kdoc);
+    writeDebugString(printer, field, context, kdoc);
     printer.emit(" */\n");
   }
 
   public static void writeDeprecatedJavadoc(
-      Printer printer, FieldDescriptor field, Options options) {
+      Printer printer, FieldDescriptor field, Context context) {
     if (!field.getOptions().getDeprecated()) {
       return;
     }
     printer.emit(Map.of("name", field.getFullName()), " * @deprecated $name$ is deprecated.\n");
-    if (!options.isStripNonfunctionalCodegen()) {
-      SourceCodeInfo.Location location = getLocation(field);
+    if (!context.getOptions().isStripNonfunctionalCodegen()) {
+      SourceCodeInfo.Location location = getLocation(field, context);
       String startLine = "0";
       if (location != null && location.getSpanCount() > 0) {
         // Source locations use 0-based line numbers, matching C++ start_line
@@ -529,15 +440,15 @@ public final class DocComment {
       Printer printer,
       FieldDescriptor field,
       AccessorType type,
-      Options options,
+      Context context,
       boolean builder,
       boolean kdoc,
       boolean isPrivate) {
     printer.emit("/**\n");
-    writeDocCommentBody(printer, field, options, kdoc);
-    writeDebugString(printer, field, options, kdoc);
+    writeDocCommentBody(printer, field, context, kdoc);
+    writeDebugString(printer, field, context, kdoc);
     if (!kdoc && !isPrivate) {
-      writeDeprecatedJavadoc(printer, field, options);
+      writeDeprecatedJavadoc(printer, field, context);
     }
 
     String name = underscoresToCamelCase(field.getName().toLowerCase(), false);
@@ -625,48 +536,48 @@ public final class DocComment {
       Printer printer,
       FieldDescriptor field,
       AccessorType type,
-      Options options,
+      Context context,
       boolean builder) {
-    writeFieldAccessorDocComment(printer, field, type, options, builder, false, false);
+    writeFieldAccessorDocComment(printer, field, type, context, builder, false, false);
   }
 
   public static void writeFieldAccessorDocComment(
       Printer printer,
       FieldDescriptor field,
       AccessorType type,
-      Options options) {
-    writeFieldAccessorDocComment(printer, field, type, options, false, false, false);
+      Context context) {
+    writeFieldAccessorDocComment(printer, field, type, context, false, false, false);
   }
 
   public static void writeFieldEnumValueAccessorDocComment(
       Printer printer,
       FieldDescriptor field,
       AccessorType type,
-      Options options) {
-    writeFieldEnumValueAccessorDocComment(printer, field, type, options, false);
+      Context context) {
+    writeFieldEnumValueAccessorDocComment(printer, field, type, context, false);
   }
 
   public static void writeFieldEnumValueAccessorDocComment(
       Printer printer,
       FieldDescriptor field,
       AccessorType type,
-      Options options,
+      Context context,
       boolean builder) {
-    writeFieldEnumValueAccessorDocComment(printer, field, type, options, builder, false);
+    writeFieldEnumValueAccessorDocComment(printer, field, type, context, builder, false);
   }
 
   public static void writeFieldEnumValueAccessorDocComment(
       Printer printer,
       FieldDescriptor field,
       AccessorType type,
-      Options options,
+      Context context,
       boolean builder,
       boolean isPrivate) {
     printer.emit("/**\n");
-    writeDocCommentBody(printer, field, options, false);
-    writeDebugString(printer, field, options, false);
+    writeDocCommentBody(printer, field, context, false);
+    writeDebugString(printer, field, context, false);
     if (!isPrivate) {
-      writeDeprecatedJavadoc(printer, field, options);
+      writeDeprecatedJavadoc(printer, field, context);
     }
 
     String name = underscoresToCamelCase(field.getName().toLowerCase(), false);
@@ -726,31 +637,31 @@ public final class DocComment {
       Printer printer,
       FieldDescriptor field,
       AccessorType type,
-      Options options) {
-    writeFieldStringBytesAccessorDocComment(printer, field, type, options, false);
+      Context context) {
+    writeFieldStringBytesAccessorDocComment(printer, field, type, context, false);
   }
 
   public static void writeFieldStringBytesAccessorDocComment(
       Printer printer,
       FieldDescriptor field,
       AccessorType type,
-      Options options,
+      Context context,
       boolean builder) {
-    writeFieldStringBytesAccessorDocComment(printer, field, type, options, builder, false);
+    writeFieldStringBytesAccessorDocComment(printer, field, type, context, builder, false);
   }
 
   public static void writeFieldStringBytesAccessorDocComment(
       Printer printer,
       FieldDescriptor field,
       AccessorType type,
-      Options options,
+      Context context,
       boolean builder,
       boolean isPrivate) {
     printer.emit("/**\n");
-    writeDocCommentBody(printer, field, options, false);
-    writeDebugString(printer, field, options, false);
+    writeDocCommentBody(printer, field, context, false);
+    writeDebugString(printer, field, context, false);
     if (!isPrivate) {
-      writeDeprecatedJavadoc(printer, field, options);
+      writeDeprecatedJavadoc(printer, field, context);
     }
 
     String name = underscoresToCamelCase(field.getName().toLowerCase(), false);
@@ -818,7 +729,7 @@ public final class DocComment {
 
   public static void writeEnumValueDocComment(Printer printer, EnumValueDescriptor value, Context context) {
     printer.emit("/**\n");
-    writeDocCommentBody(printer, value, context.getOptions(), false); // Assuming no KDoc support in enum values for now
+    writeDocCommentBody(printer, value, context, false); // Assuming no KDoc support in enum values for now
     printer.emit(Map.of("def", escapeJavadoc(value.getName())), " * <code>$def$ = " + value.getNumber() + ";</code>\n");
     printer.emit(" */\n");
   }
@@ -0,0 +1,87 @@
+package com.rubberjam.protobuf.compiler.java;
+
+import com.google.protobuf.DescriptorProtos.Edition;
+import com.google.protobuf.DescriptorProtos.FileDescriptorProto;
+import com.google.protobuf.DescriptorProtos.FileOptions;
+import com.google.protobuf.Descriptors.FileDescriptor;
+import com.google.protobuf.JavaFeaturesProto;
+
+/**
+ * Facts about a .proto file that the generators consult for every field, enum
+ * and comment. Computed once per {@link FileDescriptor} and owned by the
+ * {@link Context} (see {@link Context#getFileFacts}), rather than re-derived
+ * from {@code file.toProto()} inside per-field loops.
+ */
+public final class FileFacts {
+
+  private final FileDescriptorProto proto;
+  private final String syntax;
+  private final Edition edition;
+  private final JavaFeaturesProto.JavaFeatures javaFeatures;
+  private final boolean javaMultipleFiles;
+  private final FileOptions.OptimizeMode optimizeFor;
+  private volatile SourceLocationIndex sourceLocations;
+
+  FileFacts(FileDescriptor file) {
+    this.proto = file.toProto();
+    this.syntax = proto.getSyntax();
+    this.edition = proto.getEdition();
+    FileOptions options = file.getOptions();
+    this.javaFeatures = options.getFeatures().getExtension(JavaFeaturesProto.java_);
+    this.javaMultipleFiles = options.getJavaMultipleFiles();
+    this.optimizeFor = options.getOptimizeFor();
+  }
+
+  public FileDescriptorProto getProto() {
+    return proto;
+  }
+
+  /** The syntax declared by the file; empty when the file has no syntax statement. */
+  public String getSyntax() {
+    return syntax;
+  }
+
+  public boolean isProto3() {
+    return "proto3".equals(syntax);
+  }
+
+  /** True for files declaring proto2 syntax, or no syntax at all. */
+  public boolean isProto2() {
+    return syntax.isEmpty() || "proto2".equals(syntax);
+  }
+
+  /** The edition declared by the file; unset for proto2 and proto3 files. */
+  public Edition getEdition() {
+    return edition;
+  }
+
+  /**
+   * The Java features set at file level. Fields and enums may still override
+   * them in their own options.
+   */
+  public JavaFeaturesProto.JavaFeatures getJavaFeatures() {
+    return javaFeatures;
+  }
+
+  public boolean isJavaMultipleFiles() {
+    return javaMultipleFiles;
+  }
+
+  public FileOptions.OptimizeMode getOptimizeFor() {
+    return optimizeFor;
+  }
+
+  SourceLocationIndex getSourceLocations() {
+    SourceLocationIndex result = sourceLocations;
+    if (result == null) {
+      synchronized (this) {
+        result = sourceLocations;
+        if (result == null) {
+          result = new SourceLocationIndex(proto.getSourceCodeInfo());
+          sourceLocations = result;
+        }
+      }
+    }
+    return result;
+  }
+}
@@ -6,10 +6,11 @@ import com.google.protobuf.Descriptors.EnumDescriptor;
 import com.google.protobuf.Descriptors.FieldDescriptor;
 import com.google.protobuf.Descriptors.FileDescriptor;
 import com.google.protobuf.Descriptors.ServiceDescriptor;
-import com.rubberjam.protobuf.compiler.java.full.ImmutableGeneratorFactory;
-import com.rubberjam.protobuf.compiler.java.lite.ImmutableLiteGeneratorFactory;
 import com.rubberjam.protobuf.io.Printer;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
 
 /**
  * Generates the outer class and its contents. Ported from java/file.h and
@@ -24,24 +25,14 @@ public class FileGenerator {
 	private final GeneratorFactory factory;
 
 	public FileGenerator(FileDescriptor file, Options options) {
-		// Initialize context
-		Context javaContext = new Context(file, options);
-		ClassNameResolver nameResolver = javaContext.getNameResolver();
+		this(file, options, new Context(file, options));
+	}
 
+	public FileGenerator(FileDescriptor file, Options options, Context context) {
 		// We only support immutable code generation for now as per the conversion order
-		// (Phase 8-9).
-		// Select the factory based on whether Lite runtime is required.
-		GeneratorFactory factory;
-		if (javaContext.enforceLite()) {
-			factory = new ImmutableLiteGeneratorFactory(javaContext);
-		} else {
-			factory = new ImmutableGeneratorFactory(javaContext);
-		}
-		this.file = file;
-		this.options = options;
-		this.context = javaContext;
-		this.nameResolver = context.getNameResolver();
-		this.factory = factory;
+		// (Phase 8-9). The context picks the Lite or full factory and memoizes the
+		// generators it creates, so every phase below reuses them.
+		this(file, options, context, context.getGeneratorFactory());
 	}
 
 	public FileGenerator(FileDescriptor file, Options options, Context context, GeneratorFactory factory) {
@@ -109,16 +100,20 @@ public class FileGenerator {
 
 		generateExtensionRegistrationCode(printer);
 
-		boolean multipleFiles = file.getOptions().getJavaMultipleFiles();
+		boolean multipleFiles = context.getFileFacts(file).isJavaMultipleFiles();
 
 		if (!multipleFiles) {
+			List<Consumer<Printer>> sections = new ArrayList<>();
 			for (EnumDescriptor enumType : file.getEnumTypes()) {
-				factory.newEnumGenerator(enumType).generate(printer);
+				sections.add(p -> factory.newEnumGenerator(enumType).generate(p));
 			}
 			for (Descriptor message : file.getMessageTypes()) {
-				factory.newMessageGenerator(message).generateInterface(printer);
-				factory.newMessageGenerator(message).generate(printer);
+				sections.add(p -> {
+					factory.newMessageGenerator(message).generateInterface(p);
+					factory.newMessageGenerator(message).generate(p);
+				});
 			}
+			printSections(printer, sections);
 			if (file.getOptions().getJavaGenericServices()) {
 				for (ServiceDescriptor service : file.getServices()) {
 					GeneratorFactory.ServiceGenerator serviceGen = factory.newServiceGenerator(service);
@@ -146,13 +141,55 @@ public class FileGenerator {
 		printer.print("}");
 	}
 
+	/**
+	 * Prints the given sections in order. With a message parallelism above one,
+	 * the sections are rendered concurrently into printer fragments which are
+	 * then appended in order, which gives the same output as printing them one
+	 * after another. That requires the printer to be at the beginning of a line
+	 * when the sections start, which is checked before anything is rendered,
+	 * and every section to end at the beginning of a line at the indentation it
+	 * started with, as the message and enum generators do. The rendering tasks
+	 * are forked into the caller's fork/join pool (the common pool outside of
+	 * one), so they share the threads of a {@code --jobs} run instead of adding
+	 * their own.
+	 */
+	private void printSections(Printer printer, List<Consumer<Printer>> sections) {
+		int parallelism = Math.min(options.getMessageParallelism(), sections.size());
+		if (parallelism <= 1 || options.isAnnotateCode() || !printer.isAtLineStart()) {
+			for (Consumer<Printer> section : sections) {
+				section.accept(printer);
+			}
+			return;
+		}
+
+		List<Printer> fragments = new ArrayList<>(sections.size());
+		for (int i = 0; i < sections.size(); i++) {
+			fragments.add(printer.newFragment());
+		}
+		List<ForkJoinTask<?>> tasks = new ArrayList<>(parallelism);
+		for (int t = 0; t < parallelism; t++) {
+			int first = t;
+			tasks.add(ForkJoinTask.adapt(() -> {
+				for (int i = first; i < sections.size(); i += parallelism) {
+					sections.get(i).accept(fragments.get(i));
+				}
+			}).fork());
+		}
+		for (ForkJoinTask<?> task : tasks) {
+			task.join();
+		}
+		for (Printer fragment : fragments) {
+			printer.appendFragment(fragment);
+		}
+	}
+
 	private void generateDescriptorInitializationCodeForImmutable(Printer printer) {
 		printer.print("public static com.google.protobuf.Descriptors.FileDescriptor\n" + "    getDescriptor() {\n"
 				+ "  return descriptor;\n" + "}\n" + "private static  com.google.protobuf.Descriptors.FileDescriptor\n"
 				+ "    descriptor;\n" + "static {\n");
 		printer.indent();
 
-		new SharedCodeGenerator(file, options).generateDescriptors(printer);
+		new SharedCodeGenerator(file, options, context).generateDescriptors(printer);
 
 		for (Descriptor message : file.getMessageTypes()) {
 			factory.newMessageGenerator(message).generateStaticVariableInitializers(printer);
@@ -0,0 +1,76 @@
+package com.rubberjam.protobuf.compiler.java;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import com.google.protobuf.Descriptors.Descriptor;
+import com.google.protobuf.Descriptors.EnumDescriptor;
+import com.google.protobuf.Descriptors.FieldDescriptor;
+import com.google.protobuf.Descriptors.ServiceDescriptor;
+
+/**
+ * A {@link GeneratorFactory} that creates at most one generator per descriptor
+ * and hands the same instance to every phase asking for it (interface, class
+ * body, static variables, initializers, extension registration), including the
+ * nested types reached through their containing message.
+ *
+ * <p>Generators only read their descriptor and {@link Context} after
+ * construction, so sharing them is safe, also when messages of one file are
+ * rendered concurrently.
+ */
+public final class GeneratorRegistry implements GeneratorFactory {
+
+  private final GeneratorFactory delegate;
+  private final Map<Descriptor, MessageGenerator> messageGenerators = new ConcurrentHashMap<>();
+  private final Map<EnumDescriptor, EnumGenerator> enumGenerators = new ConcurrentHashMap<>();
+  private final Map<FieldDescriptor, ExtensionGenerator> extensionGenerators =
+      new ConcurrentHashMap<>();
+  private final Map<ServiceDescriptor, ServiceGenerator> serviceGenerators =
+      new ConcurrentHashMap<>();
+
+  public GeneratorRegistry(GeneratorFactory delegate) {
+    this.delegate = delegate;
+  }
+
+  @Override
+  public MessageGenerator newMessageGenerator(Descriptor descriptor) {
+    return lookup(messageGenerators, descriptor, delegate::newMessageGenerator);
+  }
+
+  @Override
+  public EnumGenerator newEnumGenerator(EnumDescriptor descriptor) {
+    return lookup(enumGenerators, descriptor, delegate::newEnumGenerator);
+  }
+
+  @Override
+  public ExtensionGenerator newExtensionGenerator(FieldDescriptor descriptor) {
+    return lookup(extensionGenerators, descriptor, delegate::newExtensionGenerator);
+  }
+
+  @Override
+  public ServiceGenerator newServiceGenerator(ServiceDescriptor descriptor) {
+    return lookup(serviceGenerators, descriptor, delegate::newServiceGenerator);
+  }
+
+  /** Number of generators created so far, across all descriptor kinds. */
+  public int size() {
+    return messageGenerators.size() + enumGenerators.size() + extensionGenerators.size()
+        + serviceGenerators.size();
+  }
+
+  // Not computeIfAbsent: a generator's constructor may itself ask the registry
+  // for other generators, which ConcurrentHashMap does not allow from inside
+  // the mapping function.
+  private static <K, V> V lookup(Map<K, V> cache, K descriptor, Function<K, V> create) {
+    V generator = cache.get(descriptor);
+    if (generator == null) {
+      V created = create.apply(descriptor);
+      generator = cache.putIfAbsent(descriptor, created);
+      if (generator == null) {
+        generator = created;
+      }
+    }
+    return generator;
+  }
+}
@@ -25,30 +25,27 @@ public final class InternalHelpers
 	{
 	}
 
-	public static boolean supportUnknownEnumValue(FieldDescriptor field)
+	public static boolean supportUnknownEnumValue(FieldDescriptor field, Context context)
 	{
-		if (field.getFile() != null && field.getFile().toProto().getSyntax().equals("proto3"))
+		FileFacts facts = context.getFileFacts(field.getFile());
+		if (facts.isProto3())
 		{
 			return true;
 		}
-		if (field.getFile() != null && field.getFile().toProto().getSyntax().equals("proto2"))
-		{
-			return false;
-		}
-		if (field.getFile() != null && field.getFile().toProto().getSyntax().isEmpty())
+		if (facts.isProto2())
 		{
 			return false;
 		}
 		return !field.getOptions().getFeatures().getExtension(JavaFeaturesProto.java_).getLegacyClosedEnum();
 	}
 
-	public static boolean checkUtf8(FieldDescriptor descriptor)
+	public static boolean checkUtf8(FieldDescriptor descriptor, Context context)
 	{
 		if (descriptor.getType() != FieldDescriptor.Type.STRING)
 		{
 			return false;
 		}
-		if (descriptor.getFile() != null && descriptor.getFile().toProto().getSyntax().equals("proto3"))
+		if (context.getFileFacts(descriptor.getFile()).isProto3())
 		{
 			return true;
 		}
@@ -145,7 +142,7 @@ public final class InternalHelpers
 
 		vars.put("get_number_func", new Printer.PrinterValue(() ->
 		{
-			if (!descriptor.getFile().toProto().getSyntax().equals("proto3"))
+			if (!context.getFileFacts(descriptor.getFile()).isProto3())
 			{
 				// "is_closed" approximation: proto2 enums are closed, proto3
 				// are open.
@@ -269,7 +266,7 @@ public final class InternalHelpers
 						public final com.google.protobuf.Descriptors.EnumValueDescriptor
 						    getValueDescriptor() {
 						""");
-				if (!descriptor.getFile().toProto().getSyntax().equals("proto3"))
+				if (!context.getFileFacts(descriptor.getFile()).isProto3())
 				{
 					printer.emit("""
 							if (this == UNRECOGNIZED) {
@@ -326,7 +323,7 @@ public final class InternalHelpers
 								  }
 								""");
 
-				if (!descriptor.getFile().toProto().getSyntax().equals("proto3"))
+				if (!context.getFileFacts(descriptor.getFile()).isProto3())
 				{
 					printer.emit("  return UNRECOGNIZED;\n");
 				}
@@ -570,7 +567,7 @@ public final class InternalHelpers
 	}
 
 	// Only the lowest two bytes of the return value are used.
-	public static int getExperimentalJavaFieldType(FieldDescriptor field)
+	public static int getExperimentalJavaFieldType(FieldDescriptor field, Context context)
 	{
 		int result = Helpers.getJavaType(field).ordinal();
 
@@ -581,7 +578,7 @@ public final class InternalHelpers
 		}
 
 		// bit 1: whether the field requires UTF-8 validation.
-		if (checkUtf8(field))
+		if (checkUtf8(field, context))
 		{
 			result |= 0x200;
 		}
@@ -593,7 +590,7 @@ public final class InternalHelpers
 		}
 
 		// bit 3: whether the field is a closed enum.
-		if (field.getType() == FieldDescriptor.Type.ENUM && !supportUnknownEnumValue(field))
+		if (field.getType() == FieldDescriptor.Type.ENUM && !supportUnknownEnumValue(field, context))
 		{
 			result |= 0x800;
 		}
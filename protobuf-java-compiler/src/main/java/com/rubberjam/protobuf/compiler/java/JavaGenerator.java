@@ -7,12 +7,11 @@ import com.google.protobuf.Descriptors.FileDescriptor;
 import com.google.protobuf.Descriptors.ServiceDescriptor;
 import com.rubberjam.protobuf.compiler.CodeGenerator;
 import com.rubberjam.protobuf.compiler.GeneratorContext;
-import com.rubberjam.protobuf.compiler.java.full.ImmutableGeneratorFactory;
-import com.rubberjam.protobuf.compiler.java.lite.ImmutableLiteGeneratorFactory;
 import com.rubberjam.protobuf.io.Printer;
 import java.io.IOException;
 import java.io.OutputStream;
-import java.nio.charset.StandardCharsets;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
 
 /**
  * Generates Java code for a .proto file.
@@ -20,6 +19,11 @@ import java.nio.charset.StandardCharsets;
  */
 public class JavaGenerator extends CodeGenerator {
 
+  // Every file generated on a thread reuses that thread's printer, so its
+  // buffers are sized once rather than regrown for each output file.
+  private static final ThreadLocal<Printer> PRINTERS =
+      ThreadLocal.withInitial(() -> new Printer(new Printer.Options()));
+
   @Override
   public void generate(FileDescriptor file, String parameter, GeneratorContext context)
       throws GenerationException {
@@ -32,17 +36,13 @@ public class JavaGenerator extends CodeGenerator {
     ClassNameResolver nameResolver = javaContext.getNameResolver();
 
     // We only support immutable code generation for now as per the conversion order
-    // (Phase 8-9).
-    // Select the factory based on whether Lite runtime is required.
-    GeneratorFactory factory;
-    if (javaContext.enforceLite()) {
-      factory = new ImmutableLiteGeneratorFactory(javaContext);
-    } else {
-      factory = new ImmutableGeneratorFactory(javaContext);
-    }
+    // (Phase 8-9). The context selects the Lite or full factory.
+    GeneratorFactory factory = javaContext.getGeneratorFactory();
 
     try {
       generateFile(file, options, javaContext, nameResolver, factory, context);
+    } catch (UncheckedIOException e) {
+      throw new GenerationException(e.getCause());
     } catch (IOException e) {
       throw new GenerationException(e);
     }
@@ -62,13 +62,8 @@ public class JavaGenerator extends CodeGenerator {
     String outerClassname = nameResolver.getFileClassName(file, !options.isEnforceLite());
     String outerFilename = javaPackageDir + outerClassname + ".java";
 
-    Printer printer = new Printer(new Printer.Options());
     FileGenerator fileGenerator = new FileGenerator(file, options, javaContext, factory);
-    fileGenerator.generate(printer);
-
-    try (OutputStream output = outputContext.open(outerFilename)) {
-      output.write(printer.toString().getBytes(StandardCharsets.UTF_8));
-    }
+    print(outputContext, outerFilename, fileGenerator::generate);
 
     // Generate separate files for top-level messages, enums, and services if
     // java_multiple_files is true
@@ -92,13 +87,10 @@ public class JavaGenerator extends CodeGenerator {
     String className = nameResolver.getClassName(message, !javaContext.enforceLite());
     String filename = className.replace('.', '/') + ".java";
 
-    Printer printer = new Printer(new Printer.Options());
-    printPreamble(printer, message.getFile().getName(), javaPackage);
-    factory.newMessageGenerator(message).generate(printer);
-
-    try (OutputStream output = outputContext.open(filename)) {
-      output.write(printer.toString().getBytes(StandardCharsets.UTF_8));
-    }
+    print(outputContext, filename, printer -> {
+      printPreamble(printer, message.getFile().getName(), javaPackage);
+      factory.newMessageGenerator(message).generate(printer);
+    });
   }
 
   private void generateEnum(EnumDescriptor enumType, Context javaContext,
@@ -108,13 +100,10 @@ public class JavaGenerator extends CodeGenerator {
     String className = nameResolver.getClassName(enumType, !javaContext.enforceLite());
     String filename = className.replace('.', '/') + ".java";
 
-    Printer printer = new Printer(new Printer.Options());
-    printPreamble(printer, enumType.getFile().getName(), javaPackage);
-    factory.newEnumGenerator(enumType).generate(printer);
-
-    try (OutputStream output = outputContext.open(filename)) {
-      output.write(printer.toString().getBytes(StandardCharsets.UTF_8));
-    }
+    print(outputContext, filename, printer -> {
+      printPreamble(printer, enumType.getFile().getName(), javaPackage);
+      factory.newEnumGenerator(enumType).generate(printer);
+    });
   }
 
   private void generateService(ServiceDescriptor service, Context javaContext,
@@ -124,12 +113,40 @@ public class JavaGenerator extends CodeGenerator {
     String className = nameResolver.getClassName(service, !javaContext.enforceLite());
     String filename = className.replace('.', '/') + ".java";
 
-    Printer printer = new Printer(new Printer.Options());
-    printPreamble(printer, service.getFile().getName(), javaPackage);
-    factory.newServiceGenerator(service).generate(printer);
+    print(outputContext, filename, printer -> {
+      printPreamble(printer, service.getFile().getName(), javaPackage);
+      factory.newServiceGenerator(service).generate(printer);
+    });
+  }
+
+  /**
+   * Opens {@code filename} and prints it with this thread's printer. If
+   * printing fails the file is discarded rather than closed, so the context
+   * does not keep a partial file.
+   */
+  private static void print(GeneratorContext outputContext, String filename, Consumer<Printer> body)
+      throws IOException {
+    Printer printer = PRINTERS.get();
+    OutputStream output = outputContext.open(filename);
+    try {
+      printer.reset(output);
+      body.accept(printer);
+      printer.flush();
+    } catch (IOException | RuntimeException | Error e) {
+      discard(outputContext, output, e);
+      throw e;
+    } finally {
+      // Don't hold on to the stream, or to the variables of a failed run.
+      printer.reset();
+    }
+    output.close();
+  }
 
-    try (OutputStream output = outputContext.open(filename)) {
-      output.write(printer.toString().getBytes(StandardCharsets.UTF_8));
+  private static void discard(GeneratorContext outputContext, OutputStream output, Throwable failure) {
+    try {
+      outputContext.discard(output);
+    } catch (IOException e) {
+      failure.addSuppressed(e);
     }
   }
 
@@ -44,6 +44,14 @@ public class Options
 	// Used by protobuf itself and not supported for direct use by users.
 	private boolean bootstrap = false;
 
+	// Maximum number of top-level messages and enums of a file that are
+	// rendered concurrently. Not part of the C++ options.
+	private int messageParallelism = 1;
+
+	// The first invalid value found by fromParameter, reported by the
+	// generator; null if there is none.
+	private String parameterError;
+
 	public Options()
 	{
 		// Fields are initialized inline to match the C++ constructor
@@ -161,6 +169,25 @@ public class Options
 		this.bootstrap = bootstrap;
 	}
 
+	public int getMessageParallelism()
+	{
+		return messageParallelism;
+	}
+
+	public void setMessageParallelism(int messageParallelism)
+	{
+		this.messageParallelism = messageParallelism;
+	}
+
+	/**
+	 * Returns the error found in the parameter this instance was parsed from,
+	 * or null if it is valid.
+	 */
+	public String getParameterError()
+	{
+		return parameterError;
+	}
+
 	public boolean isOpensourceRuntime()
 	{
 		return true;
@@ -191,6 +218,23 @@ public class Options
 		options.setAnnotateCode(parsed.containsKey("annotate_code"));
 		options.setStripNonfunctionalCodegen(parsed.containsKey("experimental_strip_nonfunctional_codegen"));
 		options.setBootstrap(parsed.containsKey("bootstrap"));
+		if (parsed.get("experimental_message_parallelism") != null)
+		{
+			String value = parsed.get("experimental_message_parallelism");
+			try
+			{
+				options.setMessageParallelism(Integer.parseInt(value));
+			}
+			catch (NumberFormatException e)
+			{
+				options.setMessageParallelism(0);
+			}
+			if (options.getMessageParallelism() <= 0)
+			{
+				options.parameterError = "Invalid value for experimental_message_parallelism: \"" + value
+						+ "\". Expected a positive integer.";
+			}
+		}
 
 		return options;
 	}
@@ -17,9 +17,14 @@ public class SharedCodeGenerator {
   private final ClassNameResolver nameResolver;
 
   public SharedCodeGenerator(FileDescriptor file, Options options) {
+    this(file, options, new Context(file, options));
+  }
+
+  /** Uses the context the file generator already built for {@code file}. */
+  public SharedCodeGenerator(FileDescriptor file, Options options, Context context) {
     this.file = file;
     this.options = options;
-    this.context = new Context(file, options);
+    this.context = context;
     this.nameResolver = context.getNameResolver();
   }
 
@@ -62,9 +67,10 @@ public class SharedCodeGenerator {
   }
 
   private com.google.protobuf.DescriptorProtos.FileDescriptorProto rebuildDescriptorProto(com.google.protobuf.Descriptors.FileDescriptor file) {
-    com.google.protobuf.DescriptorProtos.FileDescriptorProto.Builder builder = file.toProto().toBuilder();
+    FileFacts facts = context.getFileFacts(file);
+    com.google.protobuf.DescriptorProtos.FileDescriptorProto.Builder builder = facts.getProto().toBuilder();
     builder.clearSourceCodeInfo();
-    if ("proto2".equals(file.toProto().getSyntax())) {
+    if ("proto2".equals(facts.getSyntax())) {
       builder.clearSyntax();
     }
 
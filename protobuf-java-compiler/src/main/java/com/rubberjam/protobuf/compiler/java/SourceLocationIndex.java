@@ -0,0 +1,153 @@
+package com.rubberjam.protobuf.compiler.java;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.google.protobuf.DescriptorProtos.DescriptorProto;
+import com.google.protobuf.DescriptorProtos.EnumDescriptorProto;
+import com.google.protobuf.DescriptorProtos.FileDescriptorProto;
+import com.google.protobuf.DescriptorProtos.ServiceDescriptorProto;
+import com.google.protobuf.DescriptorProtos.SourceCodeInfo;
+import com.google.protobuf.Descriptors.Descriptor;
+import com.google.protobuf.Descriptors.EnumDescriptor;
+import com.google.protobuf.Descriptors.EnumValueDescriptor;
+import com.google.protobuf.Descriptors.FieldDescriptor;
+import com.google.protobuf.Descriptors.FileDescriptor;
+import com.google.protobuf.Descriptors.GenericDescriptor;
+import com.google.protobuf.Descriptors.MethodDescriptor;
+import com.google.protobuf.Descriptors.ServiceDescriptor;
+
+/**
+ * Index of the {@code SourceCodeInfo} locations of a single file, keyed by
+ * location path. Built once per file (see {@link FileFacts}) so that looking up
+ * the comments of a descriptor does not scan every location in the file.
+ */
+final class SourceLocationIndex {
+
+  private final Map<Path, SourceCodeInfo.Location> locations;
+
+  SourceLocationIndex(SourceCodeInfo sourceCodeInfo) {
+    List<SourceCodeInfo.Location> locationList = sourceCodeInfo.getLocationList();
+    locations = new HashMap<>(locationList.size() * 4 / 3 + 1);
+    for (SourceCodeInfo.Location location : locationList) {
+      int[] path = new int[location.getPathCount()];
+      for (int i = 0; i < path.length; i++) {
+        path[i] = location.getPath(i);
+      }
+      // Like the linear scan this replaces, the first location for a path wins.
+      locations.putIfAbsent(new Path(path), location);
+    }
+  }
+
+  /** Returns the location recorded for the descriptor, or null if there is none. */
+  static SourceCodeInfo.Location find(GenericDescriptor descriptor, Context context) {
+    return context.getFileFacts(descriptor.getFile()).getSourceLocations().get(pathOf(descriptor));
+  }
+
+  SourceCodeInfo.Location get(int[] path) {
+    return locations.get(new Path(path));
+  }
+
+  /**
+   * Computes the {@code SourceCodeInfo} path of the descriptor, as documented on
+   * {@code SourceCodeInfo.Location.path} in descriptor.proto.
+   */
+  static int[] pathOf(GenericDescriptor descriptor) {
+    if (descriptor instanceof FileDescriptor) {
+      return new int[0];
+    }
+    int depth = 0;
+    for (GenericDescriptor d = descriptor; d != null; d = parentOf(d)) {
+      depth++;
+    }
+    int[] path = new int[depth * 2];
+    int pos = path.length;
+    for (GenericDescriptor d = descriptor; d != null; d = parentOf(d)) {
+      path[--pos] = indexOf(d);
+      path[--pos] = fieldNumberOf(d);
+    }
+    return path;
+  }
+
+  private static GenericDescriptor parentOf(GenericDescriptor descriptor) {
+    if (descriptor instanceof Descriptor) {
+      return ((Descriptor) descriptor).getContainingType();
+    } else if (descriptor instanceof FieldDescriptor) {
+      return ((FieldDescriptor) descriptor).getContainingType();
+    } else if (descriptor instanceof EnumDescriptor) {
+      return ((EnumDescriptor) descriptor).getContainingType();
+    } else if (descriptor instanceof EnumValueDescriptor) {
+      return ((EnumValueDescriptor) descriptor).getType();
+    } else if (descriptor instanceof MethodDescriptor) {
+      return ((MethodDescriptor) descriptor).getService();
+    }
+    return null;
+  }
+
+  private static int fieldNumberOf(GenericDescriptor descriptor) {
+    boolean topLevel = parentOf(descriptor) == null;
+    if (descriptor instanceof Descriptor) {
+      return topLevel
+          ? FileDescriptorProto.MESSAGE_TYPE_FIELD_NUMBER
+          : DescriptorProto.NESTED_TYPE_FIELD_NUMBER;
+    } else if (descriptor instanceof FieldDescriptor) {
+      if (!((FieldDescriptor) descriptor).isExtension()) {
+        return DescriptorProto.FIELD_FIELD_NUMBER;
+      }
+      return topLevel
+          ? FileDescriptorProto.EXTENSION_FIELD_NUMBER
+          : DescriptorProto.EXTENSION_FIELD_NUMBER;
+    } else if (descriptor instanceof EnumDescriptor) {
+      return topLevel
+          ? FileDescriptorProto.ENUM_TYPE_FIELD_NUMBER
+          : DescriptorProto.ENUM_TYPE_FIELD_NUMBER;
+    } else if (descriptor instanceof EnumValueDescriptor) {
+      return EnumDescriptorProto.VALUE_FIELD_NUMBER;
+    } else if (descriptor instanceof ServiceDescriptor) {
+      return FileDescriptorProto.SERVICE_FIELD_NUMBER;
+    } else if (descriptor instanceof MethodDescriptor) {
+      return ServiceDescriptorProto.METHOD_FIELD_NUMBER;
+    }
+    throw new IllegalArgumentException("Unsupported descriptor: " + descriptor.getFullName());
+  }
+
+  private static int indexOf(GenericDescriptor descriptor) {
+    if (descriptor instanceof Descriptor) {
+      return ((Descriptor) descriptor).getIndex();
+    } else if (descriptor instanceof FieldDescriptor) {
+      return ((FieldDescriptor) descriptor).getIndex();
+    } else if (descriptor instanceof EnumDescriptor) {
+      return ((EnumDescriptor) descriptor).getIndex();
+    } else if (descriptor instanceof EnumValueDescriptor) {
+      return ((EnumValueDescriptor) descriptor).getIndex();
+    } else if (descriptor instanceof ServiceDescriptor) {
+      return ((ServiceDescriptor) descriptor).getIndex();
+    } else if (descriptor instanceof MethodDescriptor) {
+      return ((MethodDescriptor) descriptor).getIndex();
+    }
+    throw new IllegalArgumentException("Unsupported descriptor: " + descriptor.getFullName());
+  }
+
+  // Packed location path used as the hash key.
+  private static final class Path {
+    private final int[] elements;
+    private final int hash;
+
+    Path(int[] elements) {
+      this.elements = elements;
+      this.hash = Arrays.hashCode(elements);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      return o instanceof Path && Arrays.equals(elements, ((Path) o).elements);
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+  }
+}
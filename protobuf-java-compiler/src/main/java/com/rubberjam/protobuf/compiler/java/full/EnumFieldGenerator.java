@@ -28,7 +28,7 @@ public class EnumFieldGenerator extends ImmutableFieldGenerator {
 
     // For unknown enum values support (usually true for proto3, false for proto2
     // unless legacy_closed_enum=false)
-    boolean supportUnknownEnumValue = InternalHelpers.supportUnknownEnumValue(descriptor);
+    boolean supportUnknownEnumValue = InternalHelpers.supportUnknownEnumValue(descriptor, context);
     variables.put("support_unknown_enum_value", supportUnknownEnumValue);
 
     String defaultNum = "0";
@@ -71,15 +71,15 @@ public class EnumFieldGenerator extends ImmutableFieldGenerator {
   public void generateInterfaceMembers(Printer printer) {
     if (Helpers.supportFieldPresence(descriptor)) {
       DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.HAZZER,
-          context.getOptions());
+          context);
       printer.emit(variables, "boolean has$capitalized_name$();\n");
     }
-    if (InternalHelpers.supportUnknownEnumValue(descriptor)) {
+    if (InternalHelpers.supportUnknownEnumValue(descriptor, context)) {
       DocComment.writeFieldEnumValueAccessorDocComment(printer, descriptor, DocComment.AccessorType.GETTER,
-          context.getOptions());
+          context);
       printer.emit(variables, "int get$capitalized_name$Value();\n");
     }
-    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.GETTER, context.getOptions());
+    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.GETTER, context);
     printer.emit(variables, "$type$ get$capitalized_name$();\n");
   }
 
@@ -87,7 +87,7 @@ public class EnumFieldGenerator extends ImmutableFieldGenerator {
   public void generateMembers(Printer printer) {
     if (Helpers.isRealOneof(descriptor)) {
       DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.HAZZER,
-          context.getOptions());
+          context);
       printer.emit(variables,
           "public boolean has$capitalized_name$() {\n" +
               "  return $oneof_name$Case_ == $number$;\n" +
@@ -97,7 +97,7 @@ public class EnumFieldGenerator extends ImmutableFieldGenerator {
 
       if (descriptor.hasPresence()) {
         DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.HAZZER,
-            context.getOptions());
+            context);
         printer.emit(variables,
             "@java.lang.Override public boolean has$capitalized_name$() {\n" +
                 "  return "
@@ -107,9 +107,9 @@ public class EnumFieldGenerator extends ImmutableFieldGenerator {
       }
     }
 
-    if (InternalHelpers.supportUnknownEnumValue(descriptor)) {
+    if (InternalHelpers.supportUnknownEnumValue(descriptor, context)) {
       DocComment.writeFieldEnumValueAccessorDocComment(printer, descriptor, DocComment.AccessorType.GETTER,
-          context.getOptions());
+          context);
       if (Helpers.isRealOneof(descriptor)) {
         printer.emit(variables,
             "public int get$capitalized_name$Value() {\n" +
@@ -127,7 +127,7 @@ public class EnumFieldGenerator extends ImmutableFieldGenerator {
     }
 
     DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.GETTER,
-        context.getOptions());
+        context);
     if (Helpers.isRealOneof(descriptor)) {
       printer.emit(variables,
           "public $type$ get$capitalized_name$() {\n" +
@@ -150,7 +150,7 @@ public class EnumFieldGenerator extends ImmutableFieldGenerator {
   @Override
   public void generateBuilderMembers(Printer printer) {
     if (Helpers.isRealOneof(descriptor)) {
-      DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.HAZZER, context.getOptions(),
+      DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.HAZZER, context,
           true);
       printer.emit(variables,
           "@java.lang.Override\n" +
@@ -162,7 +162,7 @@ public class EnumFieldGenerator extends ImmutableFieldGenerator {
 
       if (descriptor.hasPresence()) {
         DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.HAZZER,
-            context.getOptions(), true);
+            context, true);
         printer.emit(variables,
             "@java.lang.Override public boolean has$capitalized_name$() {\n" +
                 "  return " + Helpers.generateGetBit(builderBitIndex) + ";\n" +
@@ -170,9 +170,9 @@ public class EnumFieldGenerator extends ImmutableFieldGenerator {
       }
     }
 
-    if (InternalHelpers.supportUnknownEnumValue(descriptor)) {
+    if (InternalHelpers.supportUnknownEnumValue(descriptor, context)) {
       DocComment.writeFieldEnumValueAccessorDocComment(printer, descriptor, DocComment.AccessorType.GETTER,
-          context.getOptions(), true);
+          context, true);
       if (Helpers.isRealOneof(descriptor)) {
         printer.emit(variables,
             "@java.lang.Override\n" +
@@ -183,7 +183,7 @@ public class EnumFieldGenerator extends ImmutableFieldGenerator {
                 "  return $default_number$;\n" +
                 "}\n");
         DocComment.writeFieldEnumValueAccessorDocComment(printer, descriptor, DocComment.AccessorType.SETTER,
-            context.getOptions(), true);
+            context, true);
         printer.emit(variables,
             "public Builder set$capitalized_name$Value(int value) {\n" +
                 "  $oneof_name$Case_ = $number$;\n" +
@@ -197,7 +197,7 @@ public class EnumFieldGenerator extends ImmutableFieldGenerator {
                 "  return $name$_;\n" +
                 "}\n");
         DocComment.writeFieldEnumValueAccessorDocComment(printer, descriptor, DocComment.AccessorType.SETTER,
-            context.getOptions(), true);
+            context, true);
         printer.emit(variables,
             "public Builder set$capitalized_name$Value(int value) {\n" +
                 "  $name$_ = value;\n" +
@@ -206,7 +206,7 @@ public class EnumFieldGenerator extends ImmutableFieldGenerator {
                 "  return this;\n" +
                 "}\n");
       }
-      DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.GETTER, context.getOptions(),
+      DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.GETTER, context,
           true);
       if (Helpers.isRealOneof(descriptor)) {
         printer.emit(variables,
@@ -227,7 +227,7 @@ public class EnumFieldGenerator extends ImmutableFieldGenerator {
                 "  return result == null ? $unknown$ : result;\n" +
                 "}\n");
       }
-      DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.SETTER, context.getOptions(),
+      DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.SETTER, context,
           true);
       if (Helpers.isRealOneof(descriptor)) {
         printer.emit(variables,
@@ -249,7 +249,7 @@ public class EnumFieldGenerator extends ImmutableFieldGenerator {
                 "}\n");
       }
     } else {
-      DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.GETTER, context.getOptions(),
+      DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.GETTER, context,
           true);
       if (Helpers.isRealOneof(descriptor)) {
         printer.emit(variables,
@@ -263,7 +263,7 @@ public class EnumFieldGenerator extends ImmutableFieldGenerator {
                 "  return $default$;\n" +
                 "}\n");
         DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.SETTER,
-            context.getOptions(), true);
+            context, true);
         printer.emit(variables,
             "public Builder set$capitalized_name$($type$ value) {\n" +
                 "  if (value == null) { throw new NullPointerException(); }\n" +
@@ -280,7 +280,7 @@ public class EnumFieldGenerator extends ImmutableFieldGenerator {
                 "  return result == null ? $unknown$ : result;\n" +
                 "}\n");
         DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.SETTER,
-            context.getOptions(), true);
+            context, true);
         printer.emit(variables,
             "public Builder set$capitalized_name$($type$ value) {\n" +
                 "  if (value == null) { throw new NullPointerException(); }\n" +
@@ -292,7 +292,7 @@ public class EnumFieldGenerator extends ImmutableFieldGenerator {
       }
     }
 
-    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.CLEARER, context.getOptions(),
+    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.CLEARER, context,
         true);
     printer.emit(variables,
         "public Builder clear$capitalized_name$() {\n");
@@ -329,14 +329,14 @@ public class EnumFieldGenerator extends ImmutableFieldGenerator {
   @Override
   public void generateMergingCode(Printer printer) {
     if (Helpers.isRealOneof(descriptor)) {
-      if (InternalHelpers.supportUnknownEnumValue(descriptor)) {
+      if (InternalHelpers.supportUnknownEnumValue(descriptor, context)) {
         printer.emit(variables,
             "set$capitalized_name$Value(other.get$capitalized_name$Value());\n");
       } else {
         printer.emit(variables,
             "set$capitalized_name$(other.get$capitalized_name$());\n");
       }
-    } else if (InternalHelpers.supportUnknownEnumValue(descriptor)) {
+    } else if (InternalHelpers.supportUnknownEnumValue(descriptor, context)) {
       if (descriptor.hasPresence()) {
         printer.emit(variables,
             "if (other.has$capitalized_name$()) {\n" +
@@ -379,7 +379,7 @@ public class EnumFieldGenerator extends ImmutableFieldGenerator {
 
   @Override
   public void generateParsingCode(Printer printer) {
-    if (InternalHelpers.supportUnknownEnumValue(descriptor)) {
+    if (InternalHelpers.supportUnknownEnumValue(descriptor, context)) {
       printer.emit(variables,
           "int rawValue = input.readEnum();\n");
       if (Helpers.isRealOneof(descriptor)) {
@@ -476,7 +476,7 @@ public class EnumFieldGenerator extends ImmutableFieldGenerator {
       printer.indent();
     }
     if (Helpers.isRealOneof(descriptor)) {
-      if (InternalHelpers.supportUnknownEnumValue(descriptor)) {
+      if (InternalHelpers.supportUnknownEnumValue(descriptor, context)) {
         printer.emit(variables,
             "if (get$capitalized_name$Value()\n" +
                 "    != other.get$capitalized_name$Value()) return false;\n");
@@ -503,7 +503,7 @@ public class EnumFieldGenerator extends ImmutableFieldGenerator {
       printer.indent();
     }
     if (Helpers.isRealOneof(descriptor)) {
-      if (InternalHelpers.supportUnknownEnumValue(descriptor)) {
+      if (InternalHelpers.supportUnknownEnumValue(descriptor, context)) {
         printer.emit(variables,
             "hash = (37 * hash) + $constant_name$;\n" +
                 "hash = (53 * hash) + get$capitalized_name$Value();\n");
@@ -528,7 +528,7 @@ public class EnumFieldGenerator extends ImmutableFieldGenerator {
     int tag = (descriptor.getNumber() << 3) | com.google.protobuf.WireFormat.WIRETYPE_VARINT;
     printer.print("case " + tag + ": {\n");
     printer.indent();
-    if (InternalHelpers.supportUnknownEnumValue(descriptor)) {
+    if (InternalHelpers.supportUnknownEnumValue(descriptor, context)) {
       if (Helpers.isRealOneof(descriptor)) {
         printer.emit(variables,
             "int rawValue = input.readEnum();\n" +
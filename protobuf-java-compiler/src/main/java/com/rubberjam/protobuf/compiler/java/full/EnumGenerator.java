@@ -54,7 +54,7 @@ public class EnumGenerator extends GeneratorFactory.EnumGenerator {
 
   @Override
   public void generate(Printer printer) {
-    DocComment.writeMessageDocComment(printer, descriptor, new Options(), false);
+    DocComment.writeMessageDocComment(printer, descriptor, context, false);
 
     if (!context.getOptions().isOpensourceRuntime()) {
       printer.print("@com.google.protobuf.Internal.ProtoNonnullApi\n");
@@ -98,7 +98,7 @@ public class EnumGenerator extends GeneratorFactory.EnumGenerator {
     }
 
     // Check for open enum (proto3)
-    if ("proto3".equals(descriptor.getFile().toProto().getSyntax())) {
+    if (context.getFileFacts(descriptor.getFile()).isProto3()) {
       if (ordinalIsIndex) {
         printer.print("UNRECOGNIZED(-1),\n");
       } else {
@@ -130,7 +130,7 @@ public class EnumGenerator extends GeneratorFactory.EnumGenerator {
       vars.put("name", alias.value.getName());
       vars.put("canonical_name", alias.canonicalValue.getName());
       printer.print("/**\n");
-      DocComment.writeDocCommentBody(printer, alias.value, context.getOptions(), false);
+      DocComment.writeDocCommentBody(printer, alias.value, context, false);
       printer.print(vars, " * <code>$name$ = " + alias.value.getNumber()
           + (alias.value.getOptions().getDeprecated() ? " [deprecated = true]" : "") + ";</code>\n");
       printer.print(" */\n");
@@ -144,7 +144,7 @@ public class EnumGenerator extends GeneratorFactory.EnumGenerator {
       vars.put("deprecation", value.getOptions().getDeprecated() ? "@java.lang.Deprecated " : "");
 
       printer.print("/**\n");
-      DocComment.writeDocCommentBody(printer, value, context.getOptions(), false);
+      DocComment.writeDocCommentBody(printer, value, context, false);
       printer.print(vars,
           " * <code>$name$ = $number$" + (value.getOptions().getDeprecated() ? " [deprecated = true]" : "")
               + ";</code>\n" +
@@ -159,7 +159,7 @@ public class EnumGenerator extends GeneratorFactory.EnumGenerator {
     printer.print(
         "public final int getNumber() {\n");
 
-    if ("proto3".equals(descriptor.getFile().toProto().getSyntax())) {
+    if (context.getFileFacts(descriptor.getFile()).isProto3()) {
       if (ordinalIsIndex) {
         printer.print(
             "  if (this == UNRECOGNIZED) {\n" +
@@ -239,7 +239,7 @@ public class EnumGenerator extends GeneratorFactory.EnumGenerator {
           "public final com.google.protobuf.Descriptors.EnumValueDescriptor\n" +
               "    getValueDescriptor() {\n");
 
-      if ("proto3".equals(descriptor.getFile().toProto().getSyntax())) {
+      if (context.getFileFacts(descriptor.getFile()).isProto3()) {
         if (ordinalIsIndex) {
           printer.print(
               "  if (this == UNRECOGNIZED) {\n" +
@@ -310,7 +310,7 @@ public class EnumGenerator extends GeneratorFactory.EnumGenerator {
               "      \"EnumValueDescriptor is not for this type.\");\n" +
               "  }\n");
 
-      if ("proto3".equals(descriptor.getFile().toProto().getSyntax())) {
+      if (context.getFileFacts(descriptor.getFile()).isProto3()) {
         printer.print(
             "  if (desc.getIndex() == -1) {\n" +
                 "    return UNRECOGNIZED;\n" +
@@ -53,7 +53,7 @@ public class ImmutableExtensionGenerator extends ExtensionGenerator {
 
     printer.emit(vars, "public static final int $constant_name$ = $number$;\n");
 
-    com.rubberjam.protobuf.compiler.java.DocComment.writeFieldDocComment(printer, descriptor, context.getOptions(), false);
+    com.rubberjam.protobuf.compiler.java.DocComment.writeFieldDocComment(printer, descriptor, context, false);
 
     if (descriptor.getExtensionScope() == null) {
       printer.emit(vars,
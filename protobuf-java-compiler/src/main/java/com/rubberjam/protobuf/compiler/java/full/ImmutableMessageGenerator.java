@@ -54,7 +54,7 @@ public class ImmutableMessageGenerator extends GeneratorFactory.MessageGenerator
             vars.put("parent", Helpers.uniqueFileScopeIdentifier(descriptor.getContainingType()));
         }
 
-        boolean multipleFiles = descriptor.getFile().getOptions().getJavaMultipleFiles();
+        boolean multipleFiles = context.getFileFacts(descriptor.getFile()).isJavaMultipleFiles();
         vars.put("private", multipleFiles ? "" : "private ");
         vars.put("final", (bytecodeEstimate[0] <= GeneratorCommon.kMaxStaticSize) ? "final " : "");
 
@@ -66,7 +66,7 @@ public class ImmutableMessageGenerator extends GeneratorFactory.MessageGenerator
         generateFieldAccessorTable(printer, bytecodeEstimate);
 
         for (Descriptor nested : descriptor.getNestedTypes()) {
-            new ImmutableMessageGenerator(nested, context).generateStaticVariables(printer, bytecodeEstimate);
+            context.getGeneratorFactory().newMessageGenerator(nested).generateStaticVariables(printer, bytecodeEstimate);
         }
     }
 
@@ -96,7 +96,7 @@ public class ImmutableMessageGenerator extends GeneratorFactory.MessageGenerator
         bytecodeEstimate += generateFieldAccessorTableInitializer(printer);
 
         for (Descriptor nested : descriptor.getNestedTypes()) {
-            bytecodeEstimate += new ImmutableMessageGenerator(nested, context)
+            bytecodeEstimate += context.getGeneratorFactory().newMessageGenerator(nested)
                     .generateStaticVariableInitializers(printer);
         }
         return bytecodeEstimate;
@@ -105,7 +105,7 @@ public class ImmutableMessageGenerator extends GeneratorFactory.MessageGenerator
     private void generateFieldAccessorTable(Printer printer, int[] bytecodeEstimate) {
         Map<String, Object> vars = new HashMap<>();
         vars.put("identifier", Helpers.uniqueFileScopeIdentifier(descriptor));
-        boolean multipleFiles = descriptor.getFile().getOptions().getJavaMultipleFiles();
+        boolean multipleFiles = context.getFileFacts(descriptor.getFile()).isJavaMultipleFiles();
         vars.put("private", multipleFiles ? "" : "private ");
         vars.put("final", (bytecodeEstimate[0] <= GeneratorCommon.kMaxStaticSize) ? "final " : "");
         vars.put("ver", Helpers.getGeneratedCodeVersionSuffix());
@@ -195,7 +195,7 @@ public class ImmutableMessageGenerator extends GeneratorFactory.MessageGenerator
         vars.put("ver", Helpers.getGeneratedCodeVersionSuffix());
         vars.put("deprecation", descriptor.getOptions().getDeprecated() ? "@java.lang.Deprecated " : "");
 
-        DocComment.writeMessageDocComment(printer, descriptor, new com.rubberjam.protobuf.compiler.java.Options(),
+        DocComment.writeMessageDocComment(printer, descriptor, context,
                 false);
         if (Helpers.isOwnFile(descriptor, true)) {
             Helpers.maybePrintGeneratedAnnotation(context, printer, descriptor, true, null);
@@ -267,13 +267,13 @@ public class ImmutableMessageGenerator extends GeneratorFactory.MessageGenerator
         generateDescriptorMethods(printer);
 
         for (EnumDescriptor enumDesc : descriptor.getEnumTypes()) {
-            new EnumGenerator(enumDesc, true, context).generate(printer);
+            context.getGeneratorFactory().newEnumGenerator(enumDesc).generate(printer);
         }
 
         for (Descriptor nested : descriptor.getNestedTypes()) {
             if (nested.getOptions().getMapEntry())
                 continue;
-            ImmutableMessageGenerator messageGenerator = new ImmutableMessageGenerator(nested, context);
+            GeneratorFactory.MessageGenerator messageGenerator = context.getGeneratorFactory().newMessageGenerator(nested);
             messageGenerator.generateInterface(printer);
             messageGenerator.generate(printer);
         }
@@ -404,7 +404,7 @@ public class ImmutableMessageGenerator extends GeneratorFactory.MessageGenerator
                         "\n");
 
         for (FieldDescriptor ext : descriptor.getExtensions()) {
-            new ImmutableExtensionGenerator(ext, context).generate(printer);
+            context.getGeneratorFactory().newExtensionGenerator(ext).generate(printer);
         }
 
         printer.outdent();
@@ -414,10 +414,10 @@ public class ImmutableMessageGenerator extends GeneratorFactory.MessageGenerator
     @Override
     public void generateExtensionRegistrationCode(Printer printer) {
         for (FieldDescriptor ext : descriptor.getExtensions()) {
-            new ImmutableExtensionGenerator(ext, context).generateRegistrationCode(printer);
+            context.getGeneratorFactory().newExtensionGenerator(ext).generateRegistrationCode(printer);
         }
         for (Descriptor nested : descriptor.getNestedTypes()) {
-            new ImmutableMessageGenerator(nested, context).generateExtensionRegistrationCode(printer);
+            context.getGeneratorFactory().newMessageGenerator(nested).generateExtensionRegistrationCode(printer);
         }
     }
 
@@ -31,7 +31,7 @@ public class ImmutableServiceGenerator extends GeneratorFactory.ServiceGenerator
   public void generate(Printer printer) {
     boolean isOwnFile = Helpers.isOwnFile(descriptor, true);
 
-    DocComment.writeMessageDocComment(printer, descriptor, context.getOptions(), false);
+    DocComment.writeMessageDocComment(printer, descriptor, context, false);
 
     Map<String, Object> vars = new HashMap<>();
     vars.put("static", isOwnFile ? "" : "static");
@@ -135,7 +135,7 @@ public class ImmutableServiceGenerator extends GeneratorFactory.ServiceGenerator
 
   private void generateAbstractMethods(Printer printer) {
     for (MethodDescriptor method : descriptor.getMethods()) {
-      DocComment.writeMethodDocComment(printer, method, context.getOptions());
+      DocComment.writeMethodDocComment(printer, method, context);
       generateMethodSignature(printer, method, IsAbstract.IS_ABSTRACT);
       printer.print(";\n\n");
     }
@@ -53,7 +53,7 @@ public class MapFieldGenerator extends ImmutableFieldGenerator
 
     this.isEnumValue = valueJavaType == Helpers.JavaType.ENUM;
     this.isMessageValue = valueJavaType == Helpers.JavaType.MESSAGE;
-    this.supportUnknownEnumValue = isEnumValue && InternalHelpers.supportUnknownEnumValue(valueField);
+    this.supportUnknownEnumValue = isEnumValue && InternalHelpers.supportUnknownEnumValue(valueField, context);
     this.isNullableValue = isReferenceType(valueJavaType);
 
     variables.put("key_type", typeName(keyField, nameResolver, false));
@@ -155,10 +155,10 @@ public class MapFieldGenerator extends ImmutableFieldGenerator
   @Override
   public void generateInterfaceMembers(Printer printer)
   {
-    DocComment.writeFieldDocComment(printer, descriptor, context.getOptions(), false);
+    DocComment.writeFieldDocComment(printer, descriptor, context, false);
     printer.emit(variables, "int get$capitalized_name$Count();\n");
 
-    DocComment.writeFieldDocComment(printer, descriptor, context.getOptions(), false);
+    DocComment.writeFieldDocComment(printer, descriptor, context, false);
     printer.emit(variables,
         "boolean contains$capitalized_name$(\n" +
         "    $key_type$ key);\n");
@@ -173,12 +173,12 @@ public class MapFieldGenerator extends ImmutableFieldGenerator
           "java.util.Map<$boxed_key_type$, $value_enum_type$>\n" +
           "get$capitalized_name$();\n");
 
-      DocComment.writeFieldDocComment(printer, descriptor, context.getOptions(), false);
+      DocComment.writeFieldDocComment(printer, descriptor, context, false);
       printer.emit(variables,
           "java.util.Map<$boxed_key_type$, $value_enum_type$>\n" +
           "get$capitalized_name$Map();\n");
 
-      DocComment.writeFieldDocComment(printer, descriptor, context.getOptions(), false);
+      DocComment.writeFieldDocComment(printer, descriptor, context, false);
       emitNullableType(printer, (String) variables.get("value_enum_type"), "");
       printer.emit(variables,
           " get$capitalized_name$OrDefault(\n" +
@@ -187,7 +187,7 @@ public class MapFieldGenerator extends ImmutableFieldGenerator
       printer.emit(variables,
           "         defaultValue);\n");
 
-      DocComment.writeFieldDocComment(printer, descriptor, context.getOptions(), false);
+      DocComment.writeFieldDocComment(printer, descriptor, context, false);
       printer.emit(variables,
           "$value_enum_type$ get$capitalized_name$OrThrow(\n" +
           "    $key_type$ key);\n");
@@ -202,18 +202,18 @@ public class MapFieldGenerator extends ImmutableFieldGenerator
             "java.util.Map<$type_parameters$>\n" +
             "get$capitalized_name$Value();\n");
 
-        DocComment.writeFieldDocComment(printer, descriptor, context.getOptions(), false);
+        DocComment.writeFieldDocComment(printer, descriptor, context, false);
         printer.emit(variables,
             "java.util.Map<$type_parameters$>\n" +
             "get$capitalized_name$ValueMap();\n");
 
-        DocComment.writeFieldDocComment(printer, descriptor, context.getOptions(), false);
+        DocComment.writeFieldDocComment(printer, descriptor, context, false);
         printer.emit(variables,
             "int get$capitalized_name$ValueOrDefault(\n" +
             "    $key_type$ key,\n" +
             "    int defaultValue);\n");
 
-        DocComment.writeFieldDocComment(printer, descriptor, context.getOptions(), false);
+        DocComment.writeFieldDocComment(printer, descriptor, context, false);
         printer.emit(variables,
             "int get$capitalized_name$ValueOrThrow(\n" +
             "    $key_type$ key);\n");
@@ -229,12 +229,12 @@ public class MapFieldGenerator extends ImmutableFieldGenerator
           "java.util.Map<$type_parameters$>\n" +
           "get$capitalized_name$();\n");
 
-      DocComment.writeFieldDocComment(printer, descriptor, context.getOptions(), false);
+      DocComment.writeFieldDocComment(printer, descriptor, context, false);
       printer.emit(variables,
           "java.util.Map<$type_parameters$>\n" +
           "get$capitalized_name$Map();\n");
 
-      DocComment.writeFieldDocComment(printer, descriptor, context.getOptions(), false);
+      DocComment.writeFieldDocComment(printer, descriptor, context, false);
       if (isMessageValue)
       {
         printer.emit(variables,
@@ -266,7 +266,7 @@ public class MapFieldGenerator extends ImmutableFieldGenerator
         }
       }
 
-      DocComment.writeFieldDocComment(printer, descriptor, context.getOptions(), false);
+      DocComment.writeFieldDocComment(printer, descriptor, context, false);
       printer.emit(variables,
           "$value_type$ get$capitalized_name$OrThrow(\n" +
           "    $key_type$ key);\n");
@@ -366,7 +366,7 @@ public class MapFieldGenerator extends ImmutableFieldGenerator
         "  return this;\n" +
         "}\n");
 
-    DocComment.writeFieldDocComment(printer, descriptor, context.getOptions(), false);
+    DocComment.writeFieldDocComment(printer, descriptor, context, false);
     printer.emit(variables,
         "public Builder remove$capitalized_name$(\n" +
         "    $key_type$ key) {\n" +
@@ -390,7 +390,7 @@ public class MapFieldGenerator extends ImmutableFieldGenerator
           "       internalGetMutable$capitalized_name$().getMutableMap());\n" +
           "}\n");
 
-      DocComment.writeFieldDocComment(printer, descriptor, context.getOptions(), false);
+      DocComment.writeFieldDocComment(printer, descriptor, context, false);
       printer.emit(variables,
           "public Builder put$capitalized_name$(\n" +
           "    $key_type$ key,\n" +
@@ -403,7 +403,7 @@ public class MapFieldGenerator extends ImmutableFieldGenerator
           "  return this;\n" +
           "}\n");
 
-      DocComment.writeFieldDocComment(printer, descriptor, context.getOptions(), false);
+      DocComment.writeFieldDocComment(printer, descriptor, context, false);
       printer.emit(variables,
           "public Builder putAll$capitalized_name$(\n" +
           "    java.util.Map<$boxed_key_type$, $value_enum_type$> values) {\n" +
@@ -427,7 +427,7 @@ public class MapFieldGenerator extends ImmutableFieldGenerator
             "  return internalGetMutable$capitalized_name$().getMutableMap();\n" +
             "}\n");
 
-        DocComment.writeFieldDocComment(printer, descriptor, context.getOptions(), false);
+        DocComment.writeFieldDocComment(printer, descriptor, context, false);
         printer.emit(variables,
             "public Builder put$capitalized_name$Value(\n" +
             "    $key_type$ key,\n" +
@@ -440,7 +440,7 @@ public class MapFieldGenerator extends ImmutableFieldGenerator
             "  return this;\n" +
             "}\n");
 
-        DocComment.writeFieldDocComment(printer, descriptor, context.getOptions(), false);
+        DocComment.writeFieldDocComment(printer, descriptor, context, false);
         printer.emit(variables,
             "public Builder putAll$capitalized_name$Value(\n" +
             "    java.util.Map<$boxed_key_type$, $boxed_value_type$> values) {\n" +
@@ -464,7 +464,7 @@ public class MapFieldGenerator extends ImmutableFieldGenerator
           "  return internalGetMutable$capitalized_name$().getMutableMap();\n" +
           "}\n");
 
-      DocComment.writeFieldDocComment(printer, descriptor, context.getOptions(), false);
+      DocComment.writeFieldDocComment(printer, descriptor, context, false);
       printer.emit(variables,
           "public Builder put$capitalized_name$(\n" +
           "    $key_type$ key,\n" +
@@ -477,7 +477,7 @@ public class MapFieldGenerator extends ImmutableFieldGenerator
           "  return this;\n" +
           "}\n");
 
-      DocComment.writeFieldDocComment(printer, descriptor, context.getOptions(), false);
+      DocComment.writeFieldDocComment(printer, descriptor, context, false);
       printer.emit(variables,
           "public Builder putAll$capitalized_name$(\n" +
           "    java.util.Map<$type_parameters$> values) {\n" +
@@ -550,7 +550,7 @@ public class MapFieldGenerator extends ImmutableFieldGenerator
         "  return this;\n" +
         "}\n");
 
-    DocComment.writeFieldDocComment(printer, descriptor, context.getOptions(), false);
+    DocComment.writeFieldDocComment(printer, descriptor, context, false);
     printer.emit(variables,
         "public Builder remove$capitalized_name$(\n" +
         "    $key_type$ key) {\n" +
@@ -571,7 +571,7 @@ public class MapFieldGenerator extends ImmutableFieldGenerator
         "  return internalGetMutable$capitalized_name$().ensureMessageMap();\n" +
         "}\n");
 
-    DocComment.writeFieldDocComment(printer, descriptor, context.getOptions(), false);
+    DocComment.writeFieldDocComment(printer, descriptor, context, false);
     printer.emit(variables,
         "public Builder put$capitalized_name$(\n" +
         "    $key_type$ key,\n" +
@@ -584,7 +584,7 @@ public class MapFieldGenerator extends ImmutableFieldGenerator
         "  return this;\n" +
         "}\n");
 
-    DocComment.writeFieldDocComment(printer, descriptor, context.getOptions(), false);
+    DocComment.writeFieldDocComment(printer, descriptor, context, false);
     printer.emit(variables,
         "public Builder putAll$capitalized_name$(\n" +
         "    java.util.Map<$type_parameters$> values) {\n" +
@@ -599,7 +599,7 @@ public class MapFieldGenerator extends ImmutableFieldGenerator
         "  return this;\n" +
         "}\n");
 
-    DocComment.writeFieldDocComment(printer, descriptor, context.getOptions(), false);
+    DocComment.writeFieldDocComment(printer, descriptor, context, false);
     printer.emit(variables,
         "public $value_builder_type$ put$capitalized_name$BuilderIfAbsent(\n" +
         "    $key_type$ key) {\n" +
@@ -625,7 +625,7 @@ public class MapFieldGenerator extends ImmutableFieldGenerator
         "  return internalGet$capitalized_name$().getMap().size();\n" +
         "}\n");
 
-    DocComment.writeFieldDocComment(printer, descriptor, context.getOptions(), false);
+    DocComment.writeFieldDocComment(printer, descriptor, context, false);
     FieldDescriptor keyField = descriptor.getMessageType().findFieldByName("key");
     Helpers.JavaType keyType = Helpers.getJavaType(keyField);
 
@@ -651,7 +651,7 @@ public class MapFieldGenerator extends ImmutableFieldGenerator
           "  return get$capitalized_name$Map();\n" +
           "}\n");
 
-      DocComment.writeFieldDocComment(printer, descriptor, context.getOptions(), false);
+      DocComment.writeFieldDocComment(printer, descriptor, context, false);
       printer.emit(variables,
           "@java.lang.Override\n" +
           "public java.util.Map<$boxed_key_type$, $value_enum_type$>\n" +
@@ -660,7 +660,7 @@ public class MapFieldGenerator extends ImmutableFieldGenerator
           "      internalGet$capitalized_name$().getMap());" +
           "}\n");
 
-      DocComment.writeFieldDocComment(printer, descriptor, context.getOptions(), false);
+      DocComment.writeFieldDocComment(printer, descriptor, context, false);
       printer.print("@java.lang.Override\n");
       printer.print("public ");
       emitNullableType(printer, (String) variables.get("value_enum_type"), "");
@@ -678,7 +678,7 @@ public class MapFieldGenerator extends ImmutableFieldGenerator
           "         : defaultValue;\n" +
           "}\n");
 
-      DocComment.writeFieldDocComment(printer, descriptor, context.getOptions(), false);
+      DocComment.writeFieldDocComment(printer, descriptor, context, false);
       printer.emit(variables,
           "@java.lang.Override\n" +
           "public $value_enum_type$ get$capitalized_name$OrThrow(\n" +
@@ -705,7 +705,7 @@ public class MapFieldGenerator extends ImmutableFieldGenerator
             "  return get$capitalized_name$ValueMap();\n" +
             "}\n");
 
-        DocComment.writeFieldDocComment(printer, descriptor, context.getOptions(), false);
+        DocComment.writeFieldDocComment(printer, descriptor, context, false);
         printer.emit(variables,
             "@java.lang.Override\n" +
             "public java.util.Map<$boxed_key_type$, $boxed_value_type$>\n" +
@@ -713,7 +713,7 @@ public class MapFieldGenerator extends ImmutableFieldGenerator
             "  return internalGet$capitalized_name$().getMap();\n" +
             "}\n");
 
-        DocComment.writeFieldDocComment(printer, descriptor, context.getOptions(), false);
+        DocComment.writeFieldDocComment(printer, descriptor, context, false);
         printer.emit(variables,
             "@java.lang.Override\n" +
             "public int get$capitalized_name$ValueOrDefault(\n" +
@@ -725,7 +725,7 @@ public class MapFieldGenerator extends ImmutableFieldGenerator
             "  return map.containsKey(key) ? map.get(key) : defaultValue;\n" +
             "}\n");
 
-        DocComment.writeFieldDocComment(printer, descriptor, context.getOptions(), false);
+        DocComment.writeFieldDocComment(printer, descriptor, context, false);
         printer.emit(variables,
             "@java.lang.Override\n" +
             "public int get$capitalized_name$ValueOrThrow(\n" +
@@ -752,14 +752,14 @@ public class MapFieldGenerator extends ImmutableFieldGenerator
           "  return get$capitalized_name$Map();\n" +
           "}\n");
 
-      DocComment.writeFieldDocComment(printer, descriptor, context.getOptions(), false);
+      DocComment.writeFieldDocComment(printer, descriptor, context, false);
       printer.emit(variables,
           "@java.lang.Override\n" +
           "public java.util.Map<$type_parameters$> get$capitalized_name$Map() {\n" +
           "  return internalGet$capitalized_name$().getMap();\n" +
           "}\n");
 
-      DocComment.writeFieldDocComment(printer, descriptor, context.getOptions(), false);
+      DocComment.writeFieldDocComment(printer, descriptor, context, false);
       if (isNullableValue)
       {
         printer.print("@java.lang.Override\n");
@@ -791,7 +791,7 @@ public class MapFieldGenerator extends ImmutableFieldGenerator
             "}\n");
       }
 
-      DocComment.writeFieldDocComment(printer, descriptor, context.getOptions(), false);
+      DocComment.writeFieldDocComment(printer, descriptor, context, false);
       printer.emit(variables,
           "@java.lang.Override\n" +
           "public $value_type$ get$capitalized_name$OrThrow(\n" +
@@ -814,7 +814,7 @@ public class MapFieldGenerator extends ImmutableFieldGenerator
         "  return internalGet$capitalized_name$().ensureBuilderMap().size();\n" +
         "}\n");
 
-    DocComment.writeFieldDocComment(printer, descriptor, context.getOptions(), false);
+    DocComment.writeFieldDocComment(printer, descriptor, context, false);
     FieldDescriptor keyField = descriptor.getMessageType().findFieldByName("key");
     Helpers.JavaType keyType = Helpers.getJavaType(keyField);
 
@@ -837,14 +837,14 @@ public class MapFieldGenerator extends ImmutableFieldGenerator
         "  return get$capitalized_name$Map();\n" +
         "}\n");
 
-    DocComment.writeFieldDocComment(printer, descriptor, context.getOptions(), false);
+    DocComment.writeFieldDocComment(printer, descriptor, context, false);
     printer.emit(variables,
         "@java.lang.Override\n" +
         "public java.util.Map<$type_parameters$> get$capitalized_name$Map() {\n" +
         "  return internalGet$capitalized_name$().getImmutableMap();\n" +
         "}\n");
 
-    DocComment.writeFieldDocComment(printer, descriptor, context.getOptions(), false);
+    DocComment.writeFieldDocComment(printer, descriptor, context, false);
     printer.print("@java.lang.Override\n");
     printer.print("public ");
     emitNullableType(printer, (String) variables.get("value_type"), "");
@@ -860,7 +860,7 @@ public class MapFieldGenerator extends ImmutableFieldGenerator
         "  return map.containsKey(key) ? $name$Converter.build(map.get(key)) : defaultValue;\n" +
         "}\n");
 
-    DocComment.writeFieldDocComment(printer, descriptor, context.getOptions(), false);
+    DocComment.writeFieldDocComment(printer, descriptor, context, false);
     printer.emit(variables,
         "@java.lang.Override\n" +
         "public $value_type$ get$capitalized_name$OrThrow(\n" +
@@ -927,7 +927,7 @@ public class MapFieldGenerator extends ImmutableFieldGenerator
           "$set_has_field_bit_builder$\n");
       return;
     }
-    if (!InternalHelpers.supportUnknownEnumValue(valueField) && isEnumValue)
+    if (!InternalHelpers.supportUnknownEnumValue(valueField, context) && isEnumValue)
     {
       printer.emit(variables,
           "com.google.protobuf.ByteString bytes = input.readBytes();\n" +
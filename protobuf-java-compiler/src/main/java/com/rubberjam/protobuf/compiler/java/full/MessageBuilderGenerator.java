@@ -44,7 +44,7 @@ public class MessageBuilderGenerator {
         String deprecation = descriptor.getOptions().getDeprecated() ? "@java.lang.Deprecated " : "";
         vars.put("deprecation", deprecation);
 
-        DocComment.writeMessageDocComment(printer, descriptor, new com.rubberjam.protobuf.compiler.java.Options(),
+        DocComment.writeMessageDocComment(printer, descriptor, context,
                 false);
 
         String className = nameResolver.getImmutableClassName(descriptor);
@@ -42,13 +42,13 @@ public class MessageFieldGenerator extends ImmutableFieldGenerator {
 
   @Override
   public void generateInterfaceMembers(Printer printer) {
-    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.HAZZER, context.getOptions());
+    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.HAZZER, context);
     printer.emit(variables, "boolean has$capitalized_name$();\n");
 
-    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.GETTER, context.getOptions());
+    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.GETTER, context);
     printer.emit(variables, "$type$ get$capitalized_name$();\n");
 
-    DocComment.writeFieldDocComment(printer, descriptor, context.getOptions(), false);
+    DocComment.writeFieldDocComment(printer, descriptor, context, false);
     printer.emit(variables, "$type$OrBuilder get$capitalized_name$OrBuilder();\n");
   }
 
@@ -56,7 +56,7 @@ public class MessageFieldGenerator extends ImmutableFieldGenerator {
   public void generateMembers(Printer printer) {
     if (Helpers.isRealOneof(descriptor)) {
       DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.HAZZER,
-          context.getOptions());
+          context);
       printer.emit(variables,
           "@java.lang.Override\n" +
               "public boolean has$capitalized_name$() {\n" +
@@ -64,7 +64,7 @@ public class MessageFieldGenerator extends ImmutableFieldGenerator {
               "}\n");
 
       DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.GETTER,
-          context.getOptions());
+          context);
       printer.emit(variables,
           "@java.lang.Override\n" +
               "public $type$ get$capitalized_name$() {\n" +
@@ -74,7 +74,7 @@ public class MessageFieldGenerator extends ImmutableFieldGenerator {
               "  return $type$.getDefaultInstance();\n" +
               "}\n");
 
-      DocComment.writeFieldDocComment(printer, descriptor, context.getOptions(), false);
+      DocComment.writeFieldDocComment(printer, descriptor, context, false);
       printer.emit(variables,
           "@java.lang.Override\n" +
               "public $type$OrBuilder get$capitalized_name$OrBuilder() {\n" +
@@ -88,7 +88,7 @@ public class MessageFieldGenerator extends ImmutableFieldGenerator {
           "private $type$ $name$_;\n");
 
       DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.HAZZER,
-          context.getOptions());
+          context);
       if (Helpers.hasHasbit(descriptor)) {
         printer.emit(variables,
             "@java.lang.Override\n" +
@@ -104,14 +104,14 @@ public class MessageFieldGenerator extends ImmutableFieldGenerator {
       }
 
       DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.GETTER,
-          context.getOptions());
+          context);
       printer.emit(variables,
           "@java.lang.Override\n" +
               "public $type$ get$capitalized_name$() {\n" +
               "  return $name$_ == null ? $type$.getDefaultInstance() : $name$_;\n" +
               "}\n");
 
-      DocComment.writeFieldDocComment(printer, descriptor, context.getOptions(), false);
+      DocComment.writeFieldDocComment(printer, descriptor, context, false);
       printer.emit(variables,
           "@java.lang.Override\n" +
               "public $type$OrBuilder get$capitalized_name$OrBuilder() {\n" +
@@ -130,7 +130,7 @@ public class MessageFieldGenerator extends ImmutableFieldGenerator {
               "    $type$, $type$.Builder, $type$OrBuilder> $name$Builder_;\n");
 
       // has
-      DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.HAZZER, context.getOptions(),
+      DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.HAZZER, context,
           true);
       printer.emit(variables,
           "@java.lang.Override\n" +
@@ -139,7 +139,7 @@ public class MessageFieldGenerator extends ImmutableFieldGenerator {
               "}\n");
 
       // get
-      DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.GETTER, context.getOptions(),
+      DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.GETTER, context,
           true);
       printer.emit(variables,
           "@java.lang.Override\n" +
@@ -158,7 +158,7 @@ public class MessageFieldGenerator extends ImmutableFieldGenerator {
               "}\n");
 
       // set
-      DocComment.writeFieldDocComment(printer, descriptor, context.getOptions(), false);
+      DocComment.writeFieldDocComment(printer, descriptor, context, false);
       printer.emit(variables,
           "public Builder set$capitalized_name$($type$ value) {\n" +
               "  if ($name$Builder_ == null) {\n" +
@@ -175,7 +175,7 @@ public class MessageFieldGenerator extends ImmutableFieldGenerator {
               "}\n");
 
       // set builder
-      DocComment.writeFieldDocComment(printer, descriptor, context.getOptions(), false);
+      DocComment.writeFieldDocComment(printer, descriptor, context, false);
       printer.emit(variables,
           "public Builder set$capitalized_name$(\n" +
               "    $type$.Builder builderForValue) {\n" +
@@ -190,7 +190,7 @@ public class MessageFieldGenerator extends ImmutableFieldGenerator {
               "}\n");
 
       // merge
-      DocComment.writeFieldDocComment(printer, descriptor, context.getOptions(), false);
+      DocComment.writeFieldDocComment(printer, descriptor, context, false);
       printer.emit(variables, "public Builder merge$capitalized_name$($type$ value) {\n");
       printer.indent();
       printer.emit(variables, "if ($name$Builder_ == null) {\n");
@@ -219,7 +219,7 @@ public class MessageFieldGenerator extends ImmutableFieldGenerator {
       printer.print("}\n");
 
       // clear
-      DocComment.writeFieldDocComment(printer, descriptor, context.getOptions(), false);
+      DocComment.writeFieldDocComment(printer, descriptor, context, false);
       printer.emit(variables,
           "public Builder clear$capitalized_name$() {\n" +
               "  if ($name$Builder_ == null) {\n" +
@@ -239,14 +239,14 @@ public class MessageFieldGenerator extends ImmutableFieldGenerator {
               "}\n");
 
       // getBuilder
-      DocComment.writeFieldDocComment(printer, descriptor, context.getOptions(), false);
+      DocComment.writeFieldDocComment(printer, descriptor, context, false);
       printer.emit(variables,
           "public $type$.Builder get$capitalized_name$Builder() {\n" +
               "  return internalGet$capitalized_name$FieldBuilder().getBuilder();\n" +
               "}\n");
 
       // getOrBuilder
-      DocComment.writeFieldDocComment(printer, descriptor, context.getOptions(), false);
+      DocComment.writeFieldDocComment(printer, descriptor, context, false);
       printer.emit(variables,
           "@java.lang.Override\n" +
               "public $type$OrBuilder get$capitalized_name$OrBuilder() {\n" +
@@ -261,7 +261,7 @@ public class MessageFieldGenerator extends ImmutableFieldGenerator {
               "}\n");
 
       // getFieldBuilder (private)
-      DocComment.writeFieldDocComment(printer, descriptor, context.getOptions(), false);
+      DocComment.writeFieldDocComment(printer, descriptor, context, false);
       printer.emit(variables,
           "private com.google.protobuf.SingleFieldBuilder$ver$<\n" +
               "    $type$, $type$.Builder, $type$OrBuilder> \n" +
@@ -290,7 +290,7 @@ public class MessageFieldGenerator extends ImmutableFieldGenerator {
               "    $type$, $type$.Builder, $type$OrBuilder> $name$Builder_;\n");
 
       // has
-      DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.HAZZER, context.getOptions(),
+      DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.HAZZER, context,
           true);
       if (Helpers.hasHasbit(descriptor)) {
         printer.emit(variables,
@@ -305,7 +305,7 @@ public class MessageFieldGenerator extends ImmutableFieldGenerator {
       }
 
       // get
-      DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.GETTER, context.getOptions(),
+      DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.GETTER, context,
           true);
       printer.emit(variables,
           "public $type$ get$capitalized_name$() {\n" +
@@ -317,7 +317,7 @@ public class MessageFieldGenerator extends ImmutableFieldGenerator {
               "}\n");
 
       // set
-      DocComment.writeFieldDocComment(printer, descriptor, context.getOptions(), false);
+      DocComment.writeFieldDocComment(printer, descriptor, context, false);
       printer.emit(variables,
           "public Builder set$capitalized_name$($type$ value) {\n" +
               "  if ($name$Builder_ == null) {\n" +
@@ -334,7 +334,7 @@ public class MessageFieldGenerator extends ImmutableFieldGenerator {
               "}\n");
 
       // set builder
-      DocComment.writeFieldDocComment(printer, descriptor, context.getOptions(), false);
+      DocComment.writeFieldDocComment(printer, descriptor, context, false);
       printer.emit(variables,
           "public Builder set$capitalized_name$(\n" +
               "    $type$.Builder builderForValue) {\n" +
@@ -349,7 +349,7 @@ public class MessageFieldGenerator extends ImmutableFieldGenerator {
               "}\n");
 
       // merge
-      DocComment.writeFieldDocComment(printer, descriptor, context.getOptions(), false);
+      DocComment.writeFieldDocComment(printer, descriptor, context, false);
       printer.emit(variables, "public Builder merge$capitalized_name$($type$ value) {\n");
       printer.indent();
       printer.emit(variables, "if ($name$Builder_ == null) {\n");
@@ -380,7 +380,7 @@ public class MessageFieldGenerator extends ImmutableFieldGenerator {
       printer.print("}\n");
 
       // clear
-      DocComment.writeFieldDocComment(printer, descriptor, context.getOptions(), false);
+      DocComment.writeFieldDocComment(printer, descriptor, context, false);
       printer.emit(variables,
           "public Builder clear$capitalized_name$() {\n" +
               "  " + (Helpers.hasHasbit(descriptor) ? Helpers.generateClearBit(builderBitIndex) + ";\n" : "") +
@@ -394,7 +394,7 @@ public class MessageFieldGenerator extends ImmutableFieldGenerator {
               "}\n");
 
       // getBuilder
-      DocComment.writeFieldDocComment(printer, descriptor, context.getOptions(), false);
+      DocComment.writeFieldDocComment(printer, descriptor, context, false);
       printer.emit(variables,
           "public $type$.Builder get$capitalized_name$Builder() {\n" +
               "  " + (Helpers.hasHasbit(descriptor) ? Helpers.generateSetBit(builderBitIndex) + ";\n" : "") +
@@ -403,7 +403,7 @@ public class MessageFieldGenerator extends ImmutableFieldGenerator {
               "}\n");
 
       // getOrBuilder
-      DocComment.writeFieldDocComment(printer, descriptor, context.getOptions(), false);
+      DocComment.writeFieldDocComment(printer, descriptor, context, false);
       printer.emit(variables,
           "public $type$OrBuilder get$capitalized_name$OrBuilder() {\n" +
               "  if ($name$Builder_ != null) {\n" +
@@ -415,7 +415,7 @@ public class MessageFieldGenerator extends ImmutableFieldGenerator {
               "}\n");
 
       // getFieldBuilder (private)
-      DocComment.writeFieldDocComment(printer, descriptor, context.getOptions(), false);
+      DocComment.writeFieldDocComment(printer, descriptor, context, false);
       printer.emit(variables,
           "private com.google.protobuf.SingleFieldBuilder$ver$<\n" +
               "    $type$, $type$.Builder, $type$OrBuilder> \n" +
@@ -158,10 +158,10 @@ public class PrimitiveFieldGenerator extends ImmutableFieldGenerator {
   public void generateInterfaceMembers(Printer printer) {
     if (Helpers.supportFieldPresence(descriptor)) {
       DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.HAZZER,
-          context.getOptions());
+          context);
       printer.emit(variables, "$deprecation$boolean has$capitalized_name$();\n");
     }
-    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.GETTER, context.getOptions());
+    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.GETTER, context);
     printer.emit(variables, "$deprecation$$type$ get$capitalized_name$();\n");
   }
 
@@ -169,14 +169,14 @@ public class PrimitiveFieldGenerator extends ImmutableFieldGenerator {
   public void generateMembers(Printer printer) {
     if (Helpers.isRealOneof(descriptor)) {
       DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.HAZZER,
-          context.getOptions());
+          context);
       printer.emit(variables,
           "@java.lang.Override\n" +
               "public boolean has$capitalized_name$() {\n" +
               "  return $oneof_name$Case_ == $number$;\n" +
               "}\n");
       DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.GETTER,
-          context.getOptions());
+          context);
       printer.emit(variables,
           "@java.lang.Override\n" +
               "public $type$ get$capitalized_name$() {\n" +
@@ -189,14 +189,14 @@ public class PrimitiveFieldGenerator extends ImmutableFieldGenerator {
       printer.emit(variables, "private $type$ $name$_ = $default$;\n");
       if (Helpers.hasHasbit(descriptor)) {
         DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.HAZZER,
-            context.getOptions());
+            context);
         printer.emit(variables,
             "@java.lang.Override\n" +
                 "public boolean has$capitalized_name$() {\n" +
                 "  return " + Helpers.generateGetBit(messageBitIndex) + ";\n" +
                 "}\n");
         DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.GETTER,
-            context.getOptions());
+            context);
         printer.emit(variables,
             "@java.lang.Override\n" +
                 "public $type$ get$capitalized_name$() {\n" +
@@ -205,7 +205,7 @@ public class PrimitiveFieldGenerator extends ImmutableFieldGenerator {
       } else {
         // Proto3 implicit
         DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.GETTER,
-            context.getOptions());
+            context);
         printer.emit(variables,
             "@java.lang.Override\n" +
                 "public $type$ get$capitalized_name$() {\n" +
@@ -218,14 +218,14 @@ public class PrimitiveFieldGenerator extends ImmutableFieldGenerator {
   @Override
   public void generateBuilderMembers(Printer printer) {
     if (Helpers.isRealOneof(descriptor)) {
-      DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.HAZZER, context.getOptions(),
+      DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.HAZZER, context,
           true);
       printer.emit(variables,
           "public boolean has$capitalized_name$() {\n" +
               "  return $oneof_name$Case_ == $number$;\n" +
               "}\n");
 
-      DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.GETTER, context.getOptions(),
+      DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.GETTER, context,
           true);
       printer.emit(variables,
           "public $type$ get$capitalized_name$() {\n" +
@@ -235,7 +235,7 @@ public class PrimitiveFieldGenerator extends ImmutableFieldGenerator {
               "  return $default$;\n" +
               "}\n");
 
-      DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.SETTER, context.getOptions(),
+      DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.SETTER, context,
           true);
       printer.emit(variables,
           "public Builder set$capitalized_name$($type$ value) {\n" +
@@ -247,7 +247,7 @@ public class PrimitiveFieldGenerator extends ImmutableFieldGenerator {
               "}\n");
 
       DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.CLEARER,
-          context.getOptions(), true);
+          context, true);
       printer.emit(variables,
           "public Builder clear$capitalized_name$() {\n" +
               "  if ($oneof_name$Case_ == $number$) {\n" +
@@ -264,7 +264,7 @@ public class PrimitiveFieldGenerator extends ImmutableFieldGenerator {
         printer.emit(variables, "private $type$ $name$_ = $default_init$;\n");
       }
 
-      DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.HAZZER, context.getOptions(),
+      DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.HAZZER, context,
           true);
       printer.emit(variables,
           "@java.lang.Override\n" +
@@ -272,7 +272,7 @@ public class PrimitiveFieldGenerator extends ImmutableFieldGenerator {
               "  return " + Helpers.generateGetBit(builderBitIndex) + ";\n" +
               "}\n");
 
-      DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.GETTER, context.getOptions(),
+      DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.GETTER, context,
           true);
       printer.emit(variables,
           "@java.lang.Override\n" +
@@ -280,7 +280,7 @@ public class PrimitiveFieldGenerator extends ImmutableFieldGenerator {
               "  return $name$_;\n" +
               "}\n");
 
-      DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.SETTER, context.getOptions(),
+      DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.SETTER, context,
           true);
       printer.emit(variables,
           "public Builder set$capitalized_name$($type$ value) {\n" +
@@ -292,7 +292,7 @@ public class PrimitiveFieldGenerator extends ImmutableFieldGenerator {
               "}\n");
 
       DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.CLEARER,
-          context.getOptions(), true);
+          context, true);
       printer.emit(variables,
           "public Builder clear$capitalized_name$() {\n" +
               "  " + Helpers.generateClearBit(builderBitIndex) + ";\n" +
@@ -308,7 +308,7 @@ public class PrimitiveFieldGenerator extends ImmutableFieldGenerator {
         printer.emit(variables, "private $type$ $name$_ = $default$;\n");
       }
 
-      DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.GETTER, context.getOptions(),
+      DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.GETTER, context,
           true);
       printer.emit(variables,
           "@java.lang.Override\n" +
@@ -316,7 +316,7 @@ public class PrimitiveFieldGenerator extends ImmutableFieldGenerator {
               "  return $name$_;\n" +
               "}\n");
 
-      DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.SETTER, context.getOptions(),
+      DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.SETTER, context,
           true);
       printer.emit(variables,
           "public Builder set$capitalized_name$($type$ value) {\n" +
@@ -328,7 +328,7 @@ public class PrimitiveFieldGenerator extends ImmutableFieldGenerator {
               "}\n");
 
       DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.CLEARER,
-          context.getOptions(), true);
+          context, true);
       printer.emit(variables,
           "public Builder clear$capitalized_name$() {\n" +
               "  " + Helpers.generateClearBit(builderBitIndex) + ";\n" +
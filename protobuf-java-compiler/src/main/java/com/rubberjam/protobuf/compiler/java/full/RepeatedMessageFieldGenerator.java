@@ -42,21 +42,21 @@ public class RepeatedMessageFieldGenerator extends ImmutableFieldGenerator {
 
     @Override
     public void generateInterfaceMembers(Printer printer) {
-        DocComment.writeFieldDocComment(printer, descriptor, context.getOptions(), false);
+        DocComment.writeFieldDocComment(printer, descriptor, context, false);
         printer.emit(variables, "java.util.List<$type$> \n" +
                 "    get$capitalized_name$List();\n");
 
-        DocComment.writeFieldDocComment(printer, descriptor, context.getOptions(), false);
+        DocComment.writeFieldDocComment(printer, descriptor, context, false);
         printer.emit(variables, "$type$ get$capitalized_name$(int index);\n");
 
-        DocComment.writeFieldDocComment(printer, descriptor, context.getOptions(), false);
+        DocComment.writeFieldDocComment(printer, descriptor, context, false);
         printer.emit(variables, "int get$capitalized_name$Count();\n");
 
-        DocComment.writeFieldDocComment(printer, descriptor, context.getOptions(), false);
+        DocComment.writeFieldDocComment(printer, descriptor, context, false);
         printer.emit(variables, "java.util.List<? extends $type$OrBuilder> \n" +
                 "    get$capitalized_name$OrBuilderList();\n");
 
-        DocComment.writeFieldDocComment(printer, descriptor, context.getOptions(), false);
+        DocComment.writeFieldDocComment(printer, descriptor, context, false);
         printer.emit(variables, "$type$OrBuilder get$capitalized_name$OrBuilder(\n" +
                 "    int index);\n");
     }
@@ -67,14 +67,14 @@ public class RepeatedMessageFieldGenerator extends ImmutableFieldGenerator {
                 "@SuppressWarnings(\"serial\")\n" +
                         "private java.util.List<$type$> $name$_;\n");
 
-        DocComment.writeFieldDocComment(printer, descriptor, context.getOptions(), false);
+        DocComment.writeFieldDocComment(printer, descriptor, context, false);
         printer.emit(variables,
                 "@java.lang.Override\n" +
                         "public java.util.List<$type$> get$capitalized_name$List() {\n" +
                         "  return $name$_;\n" +
                         "}\n");
 
-        DocComment.writeFieldDocComment(printer, descriptor, context.getOptions(), false);
+        DocComment.writeFieldDocComment(printer, descriptor, context, false);
         printer.emit(variables,
                 "@java.lang.Override\n" +
                         "public java.util.List<? extends $type$OrBuilder> \n" +
@@ -82,21 +82,21 @@ public class RepeatedMessageFieldGenerator extends ImmutableFieldGenerator {
                         "  return $name$_;\n" +
                         "}\n");
 
-        DocComment.writeFieldDocComment(printer, descriptor, context.getOptions(), false);
+        DocComment.writeFieldDocComment(printer, descriptor, context, false);
         printer.emit(variables,
                 "@java.lang.Override\n" +
                         "public int get$capitalized_name$Count() {\n" +
                         "  return $name$_.size();\n" +
                         "}\n");
 
-        DocComment.writeFieldDocComment(printer, descriptor, context.getOptions(), false);
+        DocComment.writeFieldDocComment(printer, descriptor, context, false);
         printer.emit(variables,
                 "@java.lang.Override\n" +
                         "public $type$ get$capitalized_name$(int index) {\n" +
                         "  return $name$_.get(index);\n" +
                         "}\n");
 
-        DocComment.writeFieldDocComment(printer, descriptor, context.getOptions(), false);
+        DocComment.writeFieldDocComment(printer, descriptor, context, false);
         printer.emit(variables,
                 "@java.lang.Override\n" +
                         "public $type$OrBuilder get$capitalized_name$OrBuilder(\n" +
@@ -124,7 +124,7 @@ public class RepeatedMessageFieldGenerator extends ImmutableFieldGenerator {
                         "\n");
 
         // getList
-        DocComment.writeFieldDocComment(printer, descriptor, context.getOptions(), false);
+        DocComment.writeFieldDocComment(printer, descriptor, context, false);
         printer.emit(variables,
                 "public java.util.List<$type$> get$capitalized_name$List() {\n" +
                         "  if ($name$Builder_ == null) {\n" +
@@ -135,7 +135,7 @@ public class RepeatedMessageFieldGenerator extends ImmutableFieldGenerator {
                         "}\n");
 
         // getCount
-        DocComment.writeFieldDocComment(printer, descriptor, context.getOptions(), false);
+        DocComment.writeFieldDocComment(printer, descriptor, context, false);
         printer.emit(variables,
                 "public int get$capitalized_name$Count() {\n" +
                         "  if ($name$Builder_ == null) {\n" +
@@ -146,7 +146,7 @@ public class RepeatedMessageFieldGenerator extends ImmutableFieldGenerator {
                         "}\n");
 
         // get(index)
-        DocComment.writeFieldDocComment(printer, descriptor, context.getOptions(), false);
+        DocComment.writeFieldDocComment(printer, descriptor, context, false);
         printer.emit(variables,
                 "public $type$ get$capitalized_name$(int index) {\n" +
                         "  if ($name$Builder_ == null) {\n" +
@@ -157,7 +157,7 @@ public class RepeatedMessageFieldGenerator extends ImmutableFieldGenerator {
                         "}\n");
 
         // set
-        DocComment.writeFieldDocComment(printer, descriptor, context.getOptions(), false);
+        DocComment.writeFieldDocComment(printer, descriptor, context, false);
         printer.emit(variables,
                 "public Builder set$capitalized_name$(\n" +
                         "    int index, $type$ value) {\n" +
@@ -175,7 +175,7 @@ public class RepeatedMessageFieldGenerator extends ImmutableFieldGenerator {
                         "}\n");
 
         // set builder
-        DocComment.writeFieldDocComment(printer, descriptor, context.getOptions(), false);
+        DocComment.writeFieldDocComment(printer, descriptor, context, false);
         printer.emit(variables,
                 "public Builder set$capitalized_name$(\n" +
                         "    int index, $type$.Builder builderForValue) {\n" +
@@ -190,7 +190,7 @@ public class RepeatedMessageFieldGenerator extends ImmutableFieldGenerator {
                         "}\n");
 
         // add
-        DocComment.writeFieldDocComment(printer, descriptor, context.getOptions(), false);
+        DocComment.writeFieldDocComment(printer, descriptor, context, false);
         printer.emit(variables,
                 "public Builder add$capitalized_name$($type$ value) {\n" +
                         "  if ($name$Builder_ == null) {\n" +
@@ -207,7 +207,7 @@ public class RepeatedMessageFieldGenerator extends ImmutableFieldGenerator {
                         "}\n");
 
         // add(index)
-        DocComment.writeFieldDocComment(printer, descriptor, context.getOptions(), false);
+        DocComment.writeFieldDocComment(printer, descriptor, context, false);
         printer.emit(variables,
                 "public Builder add$capitalized_name$(\n" +
                         "    int index, $type$ value) {\n" +
@@ -225,7 +225,7 @@ public class RepeatedMessageFieldGenerator extends ImmutableFieldGenerator {
                         "}\n");
 
         // add builder
-        DocComment.writeFieldDocComment(printer, descriptor, context.getOptions(), false);
+        DocComment.writeFieldDocComment(printer, descriptor, context, false);
         printer.emit(variables,
                 "public Builder add$capitalized_name$(\n" +
                         "    $type$.Builder builderForValue) {\n" +
@@ -240,7 +240,7 @@ public class RepeatedMessageFieldGenerator extends ImmutableFieldGenerator {
                         "}\n");
 
         // add builder (index)
-        DocComment.writeFieldDocComment(printer, descriptor, context.getOptions(), false);
+        DocComment.writeFieldDocComment(printer, descriptor, context, false);
         printer.emit(variables,
                 "public Builder add$capitalized_name$(\n" +
                         "    int index, $type$.Builder builderForValue) {\n" +
@@ -255,7 +255,7 @@ public class RepeatedMessageFieldGenerator extends ImmutableFieldGenerator {
                         "}\n");
 
         // addAll
-        DocComment.writeFieldDocComment(printer, descriptor, context.getOptions(), false);
+        DocComment.writeFieldDocComment(printer, descriptor, context, false);
         printer.emit(variables,
                 "public Builder addAll$capitalized_name$(\n" +
                         "    java.lang.Iterable<? extends $type$> values) {\n" +
@@ -271,7 +271,7 @@ public class RepeatedMessageFieldGenerator extends ImmutableFieldGenerator {
                         "}\n");
 
         // clear
-        DocComment.writeFieldDocComment(printer, descriptor, context.getOptions(), false);
+        DocComment.writeFieldDocComment(printer, descriptor, context, false);
         printer.emit(variables,
                 "public Builder clear$capitalized_name$() {\n" +
                         "  if ($name$Builder_ == null) {\n" +
@@ -285,7 +285,7 @@ public class RepeatedMessageFieldGenerator extends ImmutableFieldGenerator {
                         "}\n");
 
         // remove
-        DocComment.writeFieldDocComment(printer, descriptor, context.getOptions(), false);
+        DocComment.writeFieldDocComment(printer, descriptor, context, false);
         printer.emit(variables,
                 "public Builder remove$capitalized_name$(int index) {\n" +
                         "  if ($name$Builder_ == null) {\n" +
@@ -299,7 +299,7 @@ public class RepeatedMessageFieldGenerator extends ImmutableFieldGenerator {
                         "}\n");
 
         // getBuilder
-        DocComment.writeFieldDocComment(printer, descriptor, context.getOptions(), false);
+        DocComment.writeFieldDocComment(printer, descriptor, context, false);
         printer.emit(variables,
                 "public $type$.Builder get$capitalized_name$Builder(\n" +
                         "    int index) {\n" +
@@ -307,7 +307,7 @@ public class RepeatedMessageFieldGenerator extends ImmutableFieldGenerator {
                         "}\n");
 
         // getOrBuilder
-        DocComment.writeFieldDocComment(printer, descriptor, context.getOptions(), false);
+        DocComment.writeFieldDocComment(printer, descriptor, context, false);
         printer.emit(variables,
                 "public $type$OrBuilder get$capitalized_name$OrBuilder(\n" +
                         "    int index) {\n" +
@@ -318,7 +318,7 @@ public class RepeatedMessageFieldGenerator extends ImmutableFieldGenerator {
                         "}\n");
 
         // getOrBuilderList
-        DocComment.writeFieldDocComment(printer, descriptor, context.getOptions(), false);
+        DocComment.writeFieldDocComment(printer, descriptor, context, false);
         printer.emit(variables,
                 "public java.util.List<? extends $type$OrBuilder> \n" +
                         "     get$capitalized_name$OrBuilderList() {\n" +
@@ -330,7 +330,7 @@ public class RepeatedMessageFieldGenerator extends ImmutableFieldGenerator {
                         "}\n");
 
         // addBuilder
-        DocComment.writeFieldDocComment(printer, descriptor, context.getOptions(), false);
+        DocComment.writeFieldDocComment(printer, descriptor, context, false);
         printer.emit(variables,
                 "public $type$.Builder add$capitalized_name$Builder() {\n" +
                         "  return internalGet$capitalized_name$FieldBuilder().addBuilder(\n" +
@@ -338,7 +338,7 @@ public class RepeatedMessageFieldGenerator extends ImmutableFieldGenerator {
                         "}\n");
 
         // addBuilder (index)
-        DocComment.writeFieldDocComment(printer, descriptor, context.getOptions(), false);
+        DocComment.writeFieldDocComment(printer, descriptor, context, false);
         printer.emit(variables,
                 "public $type$.Builder add$capitalized_name$Builder(\n" +
                         "    int index) {\n" +
@@ -347,7 +347,7 @@ public class RepeatedMessageFieldGenerator extends ImmutableFieldGenerator {
                         "}\n");
 
         // getBuilderList
-        DocComment.writeFieldDocComment(printer, descriptor, context.getOptions(), false);
+        DocComment.writeFieldDocComment(printer, descriptor, context, false);
         printer.emit(variables,
                 "public java.util.List<$type$.Builder> \n" +
                         "     get$capitalized_name$BuilderList() {\n" +
@@ -48,16 +48,16 @@ public class RepeatedPrimitiveFieldGenerator extends ImmutableFieldGenerator {
         @Override
         public void generateInterfaceMembers(Printer printer) {
                 DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_GETTER,
-                                context.getOptions());
+                                context);
                 printer.emit(variables, "java.util.List<$boxed_type$> get$capitalized_name$List();\n");
 
                 DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_COUNT,
-                                context.getOptions());
+                                context);
                 printer.emit(variables, "int get$capitalized_name$Count();\n");
 
                 DocComment.writeFieldAccessorDocComment(printer, descriptor,
                                 DocComment.AccessorType.LIST_INDEXED_GETTER,
-                                context.getOptions());
+                                context);
                 printer.emit(variables, "$type$ get$capitalized_name$(int index);\n");
         }
 
@@ -69,7 +69,7 @@ public class RepeatedPrimitiveFieldGenerator extends ImmutableFieldGenerator {
                                                 "    empty$list_type$List();\n");
 
                 DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_GETTER,
-                                context.getOptions());
+                                context);
                 printer.emit(variables,
                                 "@java.lang.Override\n" +
                                                 "public java.util.List<$boxed_type$>\n" +
@@ -78,7 +78,7 @@ public class RepeatedPrimitiveFieldGenerator extends ImmutableFieldGenerator {
                                                 "}\n");
 
                 DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_COUNT,
-                                context.getOptions());
+                                context);
                 printer.emit(variables,
                                 "public int get$capitalized_name$Count() {\n" +
                                                 "  return $name$_.size();\n" +
@@ -86,7 +86,7 @@ public class RepeatedPrimitiveFieldGenerator extends ImmutableFieldGenerator {
 
                 DocComment.writeFieldAccessorDocComment(printer, descriptor,
                                 DocComment.AccessorType.LIST_INDEXED_GETTER,
-                                context.getOptions());
+                                context);
                 printer.emit(variables,
                                 "public $type$ get$capitalized_name$(int index) {\n" +
                                                 "  return $name$_.get$list_type$(index);\n" +
@@ -119,7 +119,7 @@ public class RepeatedPrimitiveFieldGenerator extends ImmutableFieldGenerator {
                 }
 
                 DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_GETTER,
-                                context.getOptions(), true);
+                                context, true);
                 printer.emit(variables,
                                 "public java.util.List<$boxed_type$>\n" +
                                                 "    get$capitalized_name$List() {\n" +
@@ -128,7 +128,7 @@ public class RepeatedPrimitiveFieldGenerator extends ImmutableFieldGenerator {
                                                 "}\n");
 
                 DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_COUNT,
-                                context.getOptions(), true);
+                                context, true);
                 printer.emit(variables,
                                 "public int get$capitalized_name$Count() {\n" +
                                                 "  return $name$_.size();\n" +
@@ -136,7 +136,7 @@ public class RepeatedPrimitiveFieldGenerator extends ImmutableFieldGenerator {
 
                 DocComment.writeFieldAccessorDocComment(printer, descriptor,
                                 DocComment.AccessorType.LIST_INDEXED_GETTER,
-                                context.getOptions(), true);
+                                context, true);
                 printer.emit(variables,
                                 "public $type$ get$capitalized_name$(int index) {\n" +
                                                 "  return $name$_.get$list_type$(index);\n" +
@@ -144,7 +144,7 @@ public class RepeatedPrimitiveFieldGenerator extends ImmutableFieldGenerator {
 
                 DocComment.writeFieldAccessorDocComment(printer, descriptor,
                                 DocComment.AccessorType.LIST_INDEXED_SETTER,
-                                context.getOptions(), true);
+                                context, true);
                 printer.emit(variables,
                                 "public Builder set$capitalized_name$(\n" +
                                                 "    int index, $type$ value) {\n" +
@@ -157,7 +157,7 @@ public class RepeatedPrimitiveFieldGenerator extends ImmutableFieldGenerator {
                                                 "}\n");
 
                 DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_ADDER,
-                                context.getOptions(), true);
+                                context, true);
                 printer.emit(variables,
                                 "public Builder add$capitalized_name$($type$ value) {\n" +
                                                 "\n" +
@@ -169,7 +169,7 @@ public class RepeatedPrimitiveFieldGenerator extends ImmutableFieldGenerator {
                                                 "}\n");
 
                 DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_MULTI_ADDER,
-                                context.getOptions(), true);
+                                context, true);
                 printer.emit(variables,
                                 "public Builder addAll$capitalized_name$(\n" +
                                                 "    java.lang.Iterable<? extends $boxed_type$> values) {\n" +
@@ -182,7 +182,7 @@ public class RepeatedPrimitiveFieldGenerator extends ImmutableFieldGenerator {
                                                 "}\n");
 
                 DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.CLEARER,
-                                context.getOptions(), true);
+                                context, true);
                 printer.emit(variables,
                                 "public Builder clear$capitalized_name$() {\n" +
                                                 "  $name$_ = empty$list_type$List();\n" +
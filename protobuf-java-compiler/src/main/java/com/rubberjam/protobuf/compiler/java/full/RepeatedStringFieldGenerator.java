@@ -42,36 +42,36 @@ public class RepeatedStringFieldGenerator extends ImmutableFieldGenerator {
                 if (isString()) {
                         DocComment.writeFieldAccessorDocComment(printer, descriptor,
                                         DocComment.AccessorType.LIST_GETTER,
-                                        context.getOptions());
+                                        context);
                         printer.emit(variables, "java.util.List<java.lang.String>\n" +
                                         "    get$capitalized_name$List();\n");
 
                         DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_COUNT,
-                                        context.getOptions());
+                                        context);
                         printer.emit(variables, "int get$capitalized_name$Count();\n");
 
                         DocComment.writeFieldAccessorDocComment(printer, descriptor,
                                         DocComment.AccessorType.LIST_INDEXED_GETTER,
-                                        context.getOptions());
+                                        context);
                         printer.emit(variables, "java.lang.String get$capitalized_name$(int index);\n");
 
                         DocComment.writeFieldStringBytesAccessorDocComment(printer, descriptor,
-                                        DocComment.AccessorType.LIST_INDEXED_GETTER, context.getOptions());
+                                        DocComment.AccessorType.LIST_INDEXED_GETTER, context);
                         printer.emit(variables, "com.google.protobuf.ByteString\n" +
                                         "    get$capitalized_name$Bytes(int index);\n");
                 } else {
                         DocComment.writeFieldStringBytesAccessorDocComment(printer, descriptor,
                                         DocComment.AccessorType.LIST_GETTER,
-                                        context.getOptions());
+                                        context);
                         printer.emit(variables, "java.util.List<com.google.protobuf.ByteString>\n" +
                                         "    get$capitalized_name$List();\n");
 
                         DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_COUNT,
-                                        context.getOptions());
+                                        context);
                         printer.emit(variables, "int get$capitalized_name$Count();\n");
 
                         DocComment.writeFieldStringBytesAccessorDocComment(printer, descriptor,
-                                        DocComment.AccessorType.LIST_INDEXED_GETTER, context.getOptions());
+                                        DocComment.AccessorType.LIST_INDEXED_GETTER, context);
                         printer.emit(variables, "com.google.protobuf.ByteString get$capitalized_name$(int index);\n");
                 }
         }
@@ -86,27 +86,27 @@ public class RepeatedStringFieldGenerator extends ImmutableFieldGenerator {
 
                         DocComment.writeFieldAccessorDocComment(printer, descriptor,
                                         DocComment.AccessorType.LIST_GETTER,
-                                        context.getOptions());
+                                        context);
                         printer.emit(variables,
                                         "public com.google.protobuf.ProtocolStringList\n" +
                                                         "    get$capitalized_name$List() {\n" +
                                                         "  return $name$_;\n" +
                                                         "}\n");
                         DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_COUNT,
-                                        context.getOptions());
+                                        context);
                         printer.emit(variables,
                                         "public int get$capitalized_name$Count() {\n" +
                                                         "  return $name$_.size();\n" +
                                                         "}\n");
                         DocComment.writeFieldAccessorDocComment(printer, descriptor,
                                         DocComment.AccessorType.LIST_INDEXED_GETTER,
-                                        context.getOptions());
+                                        context);
                         printer.emit(variables,
                                         "public java.lang.String get$capitalized_name$(int index) {\n" +
                                                         "  return $name$_.get(index);\n" +
                                                         "}\n");
                         DocComment.writeFieldStringBytesAccessorDocComment(printer, descriptor,
-                                        DocComment.AccessorType.LIST_INDEXED_GETTER, context.getOptions());
+                                        DocComment.AccessorType.LIST_INDEXED_GETTER, context);
                         printer.emit(variables,
                                         "public com.google.protobuf.ByteString\n" +
                                                         "    get$capitalized_name$Bytes(int index) {\n" +
@@ -121,20 +121,20 @@ public class RepeatedStringFieldGenerator extends ImmutableFieldGenerator {
 
                         DocComment.writeFieldStringBytesAccessorDocComment(printer, descriptor,
                                         DocComment.AccessorType.LIST_GETTER,
-                                        context.getOptions());
+                                        context);
                         printer.emit(variables,
                                         "public java.util.List<com.google.protobuf.ByteString> get$capitalized_name$List() {\n"
                                                         +
                                                         "  return $name$_;\n" +
                                                         "}\n");
                         DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_COUNT,
-                                        context.getOptions());
+                                        context);
                         printer.emit(variables,
                                         "public int get$capitalized_name$Count() {\n" +
                                                         "  return $name$_.size();\n" +
                                                         "}\n");
                         DocComment.writeFieldStringBytesAccessorDocComment(printer, descriptor,
-                                        DocComment.AccessorType.LIST_INDEXED_GETTER, context.getOptions());
+                                        DocComment.AccessorType.LIST_INDEXED_GETTER, context);
                         printer.emit(variables,
                                         "public com.google.protobuf.ByteString get$capitalized_name$(int index) {\n" +
                                                         "  return $name$_.get(index);\n" +
@@ -158,7 +158,7 @@ public class RepeatedStringFieldGenerator extends ImmutableFieldGenerator {
 
                         DocComment.writeFieldAccessorDocComment(printer, descriptor,
                                         DocComment.AccessorType.LIST_GETTER,
-                                        context.getOptions(), true);
+                                        context, true);
                         printer.emit(variables,
                                         "public com.google.protobuf.ProtocolStringList\n" +
                                                         "    get$capitalized_name$List() {\n" +
@@ -166,20 +166,20 @@ public class RepeatedStringFieldGenerator extends ImmutableFieldGenerator {
                                                         "  return $name$_;\n" +
                                                         "}\n");
                         DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_COUNT,
-                                        context.getOptions(), true);
+                                        context, true);
                         printer.emit(variables,
                                         "public int get$capitalized_name$Count() {\n" +
                                                         "  return $name$_.size();\n" +
                                                         "}\n");
                         DocComment.writeFieldAccessorDocComment(printer, descriptor,
                                         DocComment.AccessorType.LIST_INDEXED_GETTER,
-                                        context.getOptions(), true);
+                                        context, true);
                         printer.emit(variables,
                                         "public java.lang.String get$capitalized_name$(int index) {\n" +
                                                         "  return $name$_.get(index);\n" +
                                                         "}\n");
                         DocComment.writeFieldStringBytesAccessorDocComment(printer, descriptor,
-                                        DocComment.AccessorType.LIST_INDEXED_GETTER, context.getOptions(), true);
+                                        DocComment.AccessorType.LIST_INDEXED_GETTER, context, true);
                         printer.emit(variables,
                                         "public com.google.protobuf.ByteString\n" +
                                                         "    get$capitalized_name$Bytes(int index) {\n" +
@@ -187,7 +187,7 @@ public class RepeatedStringFieldGenerator extends ImmutableFieldGenerator {
                                                         "}\n");
                         DocComment.writeFieldAccessorDocComment(printer, descriptor,
                                         DocComment.AccessorType.LIST_INDEXED_SETTER,
-                                        context.getOptions(), true);
+                                        context, true);
                         printer.emit(variables,
                                         "public Builder set$capitalized_name$(\n" +
                                                         "    int index, java.lang.String value) {\n" +
@@ -199,7 +199,7 @@ public class RepeatedStringFieldGenerator extends ImmutableFieldGenerator {
                                                         "  return this;\n" +
                                                         "}\n");
                         DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_ADDER,
-                                        context.getOptions(), true);
+                                        context, true);
                         printer.emit(variables,
                                         "public Builder add$capitalized_name$(\n" +
                                                         "    java.lang.String value) {\n" +
@@ -212,7 +212,7 @@ public class RepeatedStringFieldGenerator extends ImmutableFieldGenerator {
                                                         "}\n");
                         DocComment.writeFieldAccessorDocComment(printer, descriptor,
                                         DocComment.AccessorType.LIST_MULTI_ADDER,
-                                        context.getOptions(), true);
+                                        context, true);
                         printer.emit(variables,
                                         "public Builder addAll$capitalized_name$(\n" +
                                                         "    java.lang.Iterable<java.lang.String> values) {\n" +
@@ -224,7 +224,7 @@ public class RepeatedStringFieldGenerator extends ImmutableFieldGenerator {
                                                         "  return this;\n" +
                                                         "}\n");
                         DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.CLEARER,
-                                        context.getOptions(), true);
+                                        context, true);
                         printer.emit(variables,
                                         "public Builder clear$capitalized_name$() {\n" +
                                                         "  $name$_ =\n" +
@@ -235,12 +235,12 @@ public class RepeatedStringFieldGenerator extends ImmutableFieldGenerator {
                                                         "}\n");
                         DocComment.writeFieldStringBytesAccessorDocComment(printer, descriptor,
                                         DocComment.AccessorType.LIST_ADDER,
-                                        context.getOptions(), true);
+                                        context, true);
                         printer.emit(variables,
                                         "public Builder add$capitalized_name$Bytes(\n" +
                                                         "    com.google.protobuf.ByteString value) {\n" +
                                                         "  $null_check$\n" +
-                                                        (InternalHelpers.checkUtf8(descriptor)
+                                                        (InternalHelpers.checkUtf8(descriptor, context)
                                                                         ? "  checkByteStringIsUtf8(value);\n"
                                                                         : "")
                                                         +
@@ -264,26 +264,26 @@ public class RepeatedStringFieldGenerator extends ImmutableFieldGenerator {
 
                         DocComment.writeFieldStringBytesAccessorDocComment(printer, descriptor,
                                         DocComment.AccessorType.LIST_GETTER,
-                                        context.getOptions(), true);
+                                        context, true);
                         printer.emit(variables,
                                         "public java.util.List<com.google.protobuf.ByteString>\n" +
                                                         "    get$capitalized_name$List() {\n" +
                                                         "  return java.util.Collections.unmodifiableList($name$_);\n" +
                                                         "}\n");
                         DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_COUNT,
-                                        context.getOptions(), true);
+                                        context, true);
                         printer.emit(variables,
                                         "public int get$capitalized_name$Count() {\n" +
                                                         "  return $name$_.size();\n" +
                                                         "}\n");
                         DocComment.writeFieldStringBytesAccessorDocComment(printer, descriptor,
-                                        DocComment.AccessorType.LIST_INDEXED_GETTER, context.getOptions(), true);
+                                        DocComment.AccessorType.LIST_INDEXED_GETTER, context, true);
                         printer.emit(variables,
                                         "public com.google.protobuf.ByteString get$capitalized_name$(int index) {\n" +
                                                         "  return $name$_.get(index);\n" +
                                                         "}\n");
                         DocComment.writeFieldStringBytesAccessorDocComment(printer, descriptor,
-                                        DocComment.AccessorType.LIST_INDEXED_SETTER, context.getOptions(), true);
+                                        DocComment.AccessorType.LIST_INDEXED_SETTER, context, true);
                         printer.emit(variables,
                                         "public Builder set$capitalized_name$(\n" +
                                                         "    int index, com.google.protobuf.ByteString value) {\n" +
@@ -296,7 +296,7 @@ public class RepeatedStringFieldGenerator extends ImmutableFieldGenerator {
                                                         "}\n");
                         DocComment.writeFieldStringBytesAccessorDocComment(printer, descriptor,
                                         DocComment.AccessorType.LIST_ADDER,
-                                        context.getOptions(), true);
+                                        context, true);
                         printer.emit(variables,
                                         "public Builder add$capitalized_name$(\n" +
                                                         "    com.google.protobuf.ByteString value) {\n" +
@@ -308,7 +308,7 @@ public class RepeatedStringFieldGenerator extends ImmutableFieldGenerator {
                                                         "  return this;\n" +
                                                         "}\n");
                         DocComment.writeFieldStringBytesAccessorDocComment(printer, descriptor,
-                                        DocComment.AccessorType.LIST_MULTI_ADDER, context.getOptions(), true);
+                                        DocComment.AccessorType.LIST_MULTI_ADDER, context, true);
                         printer.emit(variables,
                                         "public Builder addAll$capitalized_name$(\n" +
                                                         "    java.lang.Iterable<? extends com.google.protobuf.ByteString> values) {\n"
@@ -321,7 +321,7 @@ public class RepeatedStringFieldGenerator extends ImmutableFieldGenerator {
                                                         "  return this;\n" +
                                                         "}\n");
                         DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.CLEARER,
-                                        context.getOptions(), true);
+                                        context, true);
                         printer.emit(variables,
                                         "public Builder clear$capitalized_name$() {\n" +
                                                         "  $name$_ = java.util.Collections.emptyList();\n" +
@@ -392,7 +392,7 @@ public class RepeatedStringFieldGenerator extends ImmutableFieldGenerator {
         @Override
         public void generateParsingCode(Printer printer) {
                 if (isString()) {
-                        if (InternalHelpers.checkUtf8(descriptor)) {
+                        if (InternalHelpers.checkUtf8(descriptor, context)) {
                                 printer.emit(variables,
                                                 "java.lang.String s = input.readStringRequireUtf8();\n" +
                                                                 "ensure$capitalized_name$IsMutable();\n" +
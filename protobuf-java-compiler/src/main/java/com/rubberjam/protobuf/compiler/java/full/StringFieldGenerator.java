@@ -50,15 +50,15 @@ public class StringFieldGenerator extends ImmutableFieldGenerator {
   public void generateInterfaceMembers(Printer printer) {
     if (Helpers.supportFieldPresence(descriptor)) {
       DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.HAZZER,
-          context.getOptions());
+          context);
       printer.emit(variables, "$deprecation$boolean has$capitalized_name$();\n");
     }
-    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.GETTER, context.getOptions());
+    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.GETTER, context);
     printer.emit(variables, "$deprecation$$type$ get$capitalized_name$();\n");
 
     if (Helpers.getJavaType(descriptor) == Helpers.JavaType.STRING) {
       DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.BYTES_GETTER,
-          context.getOptions());
+          context);
       printer.emit(variables,
           "$deprecation$com.google.protobuf.ByteString\n" +
               "    get$capitalized_name$Bytes();\n");
@@ -71,7 +71,7 @@ public class StringFieldGenerator extends ImmutableFieldGenerator {
 
     if (isRealOneof) {
       DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.HAZZER,
-          context.getOptions());
+          context);
       if (Helpers.getJavaType(descriptor) == Helpers.JavaType.STRING) {
         printer.emit(variables,
             "$deprecation$public boolean has$capitalized_name$() {\n" +
@@ -90,7 +90,7 @@ public class StringFieldGenerator extends ImmutableFieldGenerator {
 
       if (descriptor.hasPresence()) {
         DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.HAZZER,
-            context.getOptions());
+            context);
         printer.emit(variables,
             "@java.lang.Override\n" +
                 "$deprecation$public boolean has$capitalized_name$() {\n" +
@@ -103,7 +103,7 @@ public class StringFieldGenerator extends ImmutableFieldGenerator {
 
     if (Helpers.getJavaType(descriptor) == Helpers.JavaType.STRING) {
       DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.GETTER,
-          context.getOptions());
+          context);
       if (isRealOneof) {
         printer.emit(variables,
             "$deprecation$public java.lang.String get$capitalized_name$() {\n" +
@@ -117,7 +117,7 @@ public class StringFieldGenerator extends ImmutableFieldGenerator {
                 "    com.google.protobuf.ByteString bs = \n" +
                 "        (com.google.protobuf.ByteString) ref;\n" +
                 "    java.lang.String s = bs.toStringUtf8();\n" +
-                (InternalHelpers.checkUtf8(descriptor) ? "    if ($oneof_name$Case_ == $number$) {\n" +
+                (InternalHelpers.checkUtf8(descriptor, context) ? "    if ($oneof_name$Case_ == $number$) {\n" +
                     "      $oneof_name$_ = s;\n" +
                     "    }\n"
                     : "    if (bs.isValidUtf8() && ($oneof_name$Case_ == $number$)) {\n" +
@@ -128,7 +128,7 @@ public class StringFieldGenerator extends ImmutableFieldGenerator {
                 "  }\n" +
                 "}\n");
         DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.BYTES_GETTER,
-            context.getOptions());
+            context);
         printer.emit(variables,
             "$deprecation$public com.google.protobuf.ByteString\n" +
                 "    get$capitalized_name$Bytes() {\n" +
@@ -159,7 +159,7 @@ public class StringFieldGenerator extends ImmutableFieldGenerator {
                 "    com.google.protobuf.ByteString bs = \n" +
                 "        (com.google.protobuf.ByteString) ref;\n" +
                 "    java.lang.String s = bs.toStringUtf8();\n" +
-                (InternalHelpers.checkUtf8(descriptor) ? "    $name$_ = s;\n"
+                (InternalHelpers.checkUtf8(descriptor, context) ? "    $name$_ = s;\n"
                     : "    if (bs.isValidUtf8()) {\n" +
                         "      $name$_ = s;\n" +
                         "    }\n")
@@ -168,7 +168,7 @@ public class StringFieldGenerator extends ImmutableFieldGenerator {
                 "  }\n" +
                 "}\n");
         DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.BYTES_GETTER,
-            context.getOptions());
+            context);
         printer.emit(variables,
             "@java.lang.Override\n" +
                 "$deprecation$public com.google.protobuf.ByteString\n" +
@@ -187,7 +187,7 @@ public class StringFieldGenerator extends ImmutableFieldGenerator {
       }
     } else {
       DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.GETTER,
-          context.getOptions());
+          context);
       if (isRealOneof) {
         printer.emit(variables,
             "@java.lang.Override\n" +
@@ -212,7 +212,7 @@ public class StringFieldGenerator extends ImmutableFieldGenerator {
     boolean isRealOneof = Helpers.isRealOneof(descriptor);
 
     if (isRealOneof) {
-      DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.HAZZER, context.getOptions(),
+      DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.HAZZER, context,
           true);
       printer.emit(variables,
           "@java.lang.Override\n" +
@@ -225,7 +225,7 @@ public class StringFieldGenerator extends ImmutableFieldGenerator {
 
       if (descriptor.hasPresence()) {
         DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.HAZZER,
-            context.getOptions(), true);
+            context, true);
         printer.emit(variables,
             "$deprecation$public boolean has$capitalized_name$() {\n" +
                 "  return "
@@ -236,7 +236,7 @@ public class StringFieldGenerator extends ImmutableFieldGenerator {
     }
 
     if (Helpers.getJavaType(descriptor) == Helpers.JavaType.STRING) {
-      DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.GETTER, context.getOptions(),
+      DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.GETTER, context,
           true);
       if (isRealOneof) {
         printer.emit(variables,
@@ -251,7 +251,7 @@ public class StringFieldGenerator extends ImmutableFieldGenerator {
                 "        (com.google.protobuf.ByteString) ref;\n" +
                 "    java.lang.String s = bs.toStringUtf8();\n" +
                 "    if ($oneof_name$Case_ == $number$) {\n" +
-                (InternalHelpers.checkUtf8(descriptor) ? "      $oneof_name$_ = s;\n"
+                (InternalHelpers.checkUtf8(descriptor, context) ? "      $oneof_name$_ = s;\n"
                     : "      if (bs.isValidUtf8()) {\n" +
                         "        $oneof_name$_ = s;\n" +
                         "      }\n")
@@ -263,7 +263,7 @@ public class StringFieldGenerator extends ImmutableFieldGenerator {
                 "  }\n" +
                 "}\n");
         DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.BYTES_GETTER,
-            context.getOptions(), true);
+            context, true);
         printer.emit(variables,
             "@java.lang.Override\n" +
                 "$deprecation$public com.google.protobuf.ByteString\n" +
@@ -285,7 +285,7 @@ public class StringFieldGenerator extends ImmutableFieldGenerator {
                 "  }\n" +
                 "}\n");
         DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.SETTER,
-            context.getOptions(), true);
+            context, true);
         printer.emit(variables,
             "$deprecation$public Builder set$capitalized_name$(\n" +
                 "    java.lang.String value) {\n" +
@@ -296,7 +296,7 @@ public class StringFieldGenerator extends ImmutableFieldGenerator {
                 "  return this;\n" +
                 "}\n");
         DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.CLEARER,
-            context.getOptions(), true);
+            context, true);
         printer.emit(variables,
             "$deprecation$public Builder clear$capitalized_name$() {\n" +
                 "  if ($oneof_name$Case_ == $number$) {\n" +
@@ -307,12 +307,12 @@ public class StringFieldGenerator extends ImmutableFieldGenerator {
                 "  return this;\n" +
                 "}\n");
         DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.BYTES_SETTER,
-            context.getOptions(), true);
+            context, true);
         printer.emit(variables,
             "$deprecation$public Builder set$capitalized_name$Bytes(\n" +
                 "    com.google.protobuf.ByteString value) {\n" +
                 "  if (value == null) { throw new NullPointerException(); }\n" +
-                (InternalHelpers.checkUtf8(descriptor) ? "  checkByteStringIsUtf8(value);\n" : "") +
+                (InternalHelpers.checkUtf8(descriptor, context) ? "  checkByteStringIsUtf8(value);\n" : "") +
                 "  $oneof_name$Case_ = $number$;\n" +
                 "  $oneof_name$_ = value;\n" +
                 "  onChanged();\n" +
@@ -326,7 +326,7 @@ public class StringFieldGenerator extends ImmutableFieldGenerator {
                 "    com.google.protobuf.ByteString bs =\n" +
                 "        (com.google.protobuf.ByteString) ref;\n" +
                 "    java.lang.String s = bs.toStringUtf8();\n" +
-                (InternalHelpers.checkUtf8(descriptor) ? "    $name$_ = s;\n"
+                (InternalHelpers.checkUtf8(descriptor, context) ? "    $name$_ = s;\n"
                     : "    if (bs.isValidUtf8()) {\n" +
                         "      $name$_ = s;\n" +
                         "    }\n")
@@ -337,7 +337,7 @@ public class StringFieldGenerator extends ImmutableFieldGenerator {
                 "  }\n" +
                 "}\n");
         DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.BYTES_GETTER,
-            context.getOptions(), true);
+            context, true);
         printer.emit(variables,
             "$deprecation$public com.google.protobuf.ByteString\n" +
                 "    get$capitalized_name$Bytes() {\n" +
@@ -353,7 +353,7 @@ public class StringFieldGenerator extends ImmutableFieldGenerator {
                 "  }\n" +
                 "}\n");
         DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.SETTER,
-            context.getOptions(), true);
+            context, true);
         printer.emit(variables,
             "$deprecation$public Builder set$capitalized_name$(\n" +
                 "    java.lang.String value) {\n" +
@@ -364,7 +364,7 @@ public class StringFieldGenerator extends ImmutableFieldGenerator {
                 "  return this;\n" +
                 "}\n");
         DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.CLEARER,
-            context.getOptions(), true);
+            context, true);
         printer.emit(variables,
             "$deprecation$public Builder clear$capitalized_name$() {\n" +
                 "  $name$_ = getDefaultInstance().get$capitalized_name$();\n" +
@@ -373,12 +373,12 @@ public class StringFieldGenerator extends ImmutableFieldGenerator {
                 "  return this;\n" +
                 "}\n");
         DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.BYTES_SETTER,
-            context.getOptions(), true);
+            context, true);
         printer.emit(variables,
             "$deprecation$public Builder set$capitalized_name$Bytes(\n" +
                 "    com.google.protobuf.ByteString value) {\n" +
                 "  if (value == null) { throw new NullPointerException(); }\n" +
-                (InternalHelpers.checkUtf8(descriptor) ? "  checkByteStringIsUtf8(value);\n" : "") +
+                (InternalHelpers.checkUtf8(descriptor, context) ? "  checkByteStringIsUtf8(value);\n" : "") +
                 "  $name$_ = value;\n" +
                 "  " + Helpers.generateSetBit(builderBitIndex) + ";\n" +
                 "  onChanged();\n" +
@@ -386,7 +386,7 @@ public class StringFieldGenerator extends ImmutableFieldGenerator {
                 "}\n");
       }
     } else {
-      DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.GETTER, context.getOptions(),
+      DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.GETTER, context,
           true);
       if (Helpers.isRealOneof(descriptor)) {
         printer.emit(variables,
@@ -398,7 +398,7 @@ public class StringFieldGenerator extends ImmutableFieldGenerator {
                 "  return (com.google.protobuf.ByteString) $default$;\n" +
                 "}\n");
         DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.SETTER,
-            context.getOptions(), true);
+            context, true);
         printer.emit(variables,
             "$deprecation$public Builder set$capitalized_name$(com.google.protobuf.ByteString value) {\n" +
                 "  if (value == null) { throw new NullPointerException(); }\n" +
@@ -408,7 +408,7 @@ public class StringFieldGenerator extends ImmutableFieldGenerator {
                 "  return this;\n" +
                 "}\n");
         DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.CLEARER,
-            context.getOptions(), true);
+            context, true);
         printer.emit(variables,
             "$deprecation$public Builder clear$capitalized_name$() {\n" +
                 "  if ($oneof_name$Case_ == $number$) {\n" +
@@ -424,7 +424,7 @@ public class StringFieldGenerator extends ImmutableFieldGenerator {
                 "  return (com.google.protobuf.ByteString) $name$_;\n" +
                 "}\n");
         DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.SETTER,
-            context.getOptions(), true);
+            context, true);
         printer.emit(variables,
             "$deprecation$public Builder set$capitalized_name$(com.google.protobuf.ByteString value) {\n" +
                 "  if (value == null) { throw new NullPointerException(); }\n" +
@@ -434,7 +434,7 @@ public class StringFieldGenerator extends ImmutableFieldGenerator {
                 "  return this;\n" +
                 "}\n");
         DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.CLEARER,
-            context.getOptions(), true);
+            context, true);
         printer.emit(variables,
             "$deprecation$public Builder clear$capitalized_name$() {\n" +
                 "  $name$_ = $default$;\n" +
@@ -452,7 +452,7 @@ public class StringFieldGenerator extends ImmutableFieldGenerator {
     printer.indent();
     if (Helpers.isRealOneof(descriptor)) {
       if (Helpers.getJavaType(descriptor) == Helpers.JavaType.STRING) {
-        if (InternalHelpers.checkUtf8(descriptor)) {
+        if (InternalHelpers.checkUtf8(descriptor, context)) {
           printer.emit(variables,
               "java.lang.String s = input.readStringRequireUtf8();\n" +
                   "$oneof_name$Case_ = $number$;\n" +
@@ -471,7 +471,7 @@ public class StringFieldGenerator extends ImmutableFieldGenerator {
       }
     } else {
       if (Helpers.getJavaType(descriptor) == Helpers.JavaType.STRING) {
-        if (InternalHelpers.checkUtf8(descriptor)) {
+        if (InternalHelpers.checkUtf8(descriptor, context)) {
           printer.emit(variables,
               "$name$_ = input.readStringRequireUtf8();\n" +
                   Helpers.generateSetBit(builderBitIndex) + ";\n");
@@ -547,7 +547,7 @@ public class StringFieldGenerator extends ImmutableFieldGenerator {
   public void generateParsingCode(Printer printer) {
     if (Helpers.isRealOneof(descriptor)) {
       if (Helpers.getJavaType(descriptor) == Helpers.JavaType.STRING) {
-        if (InternalHelpers.checkUtf8(descriptor)) {
+        if (InternalHelpers.checkUtf8(descriptor, context)) {
           printer.emit(variables,
               "$oneof_name$_ = input.readStringRequireUtf8();\n" +
                   "$oneof_name$Case_ = $number$;\n");
@@ -563,7 +563,7 @@ public class StringFieldGenerator extends ImmutableFieldGenerator {
       }
     } else {
       if (Helpers.getJavaType(descriptor) == Helpers.JavaType.STRING) {
-        if (InternalHelpers.checkUtf8(descriptor)) {
+        if (InternalHelpers.checkUtf8(descriptor, context)) {
           printer.emit(variables,
               "$name$_ = input.readStringRequireUtf8();\n" +
                   (Helpers.hasHasbit(descriptor) ? Helpers.generateSetBit(builderBitIndex) + ";\n" : ""));
@@ -39,7 +39,7 @@ public class ImmutableEnumFieldLiteGenerator implements ImmutableFieldLiteGenera
     variables.put("deprecation", descriptor.getOptions().getDeprecated() ? "@java.lang.Deprecated " : "");
     variables.put("null_check", "if (value == null) {\n  throw new NullPointerException();\n}\n");
     variables.put("int_type", "int");
-    variables.put("is_closed_enum", !InternalHelpers.supportUnknownEnumValue(descriptor));
+    variables.put("is_closed_enum", !InternalHelpers.supportUnknownEnumValue(descriptor, context));
 
     if (InternalHelpers.hasHasbit(descriptor)) {
       variables.put("set_has_field_bit_message", Helpers.generateSetBit(messageBitIndex) + ";");
@@ -48,7 +48,7 @@ public class ImmutableEnumFieldLiteGenerator implements ImmutableFieldLiteGenera
     } else {
       variables.put("set_has_field_bit_message", "");
       variables.put("clear_has_field_bit_message", "");
-      if (InternalHelpers.supportUnknownEnumValue(descriptor)) {
+      if (InternalHelpers.supportUnknownEnumValue(descriptor, context)) {
         variables.put("is_field_present_message", variables.get("name") + "_ != " + variables.get("default") + ".getNumber()");
       } else {
         variables.put("is_field_present_message", variables.get("name") + "_ != " + variables.get("default"));
@@ -69,27 +69,27 @@ public class ImmutableEnumFieldLiteGenerator implements ImmutableFieldLiteGenera
   @Override
   public void generateInterfaceMembers(Printer printer) {
     if (descriptor.hasPresence()) {
-      DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.HAZZER, context.getOptions());
+      DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.HAZZER, context);
       printer.emit(variables, "$deprecation$boolean has$capitalized_name$();\n");
     }
-    if (InternalHelpers.supportUnknownEnumValue(descriptor)) {
-      DocComment.writeFieldEnumValueAccessorDocComment(printer, descriptor, DocComment.AccessorType.GETTER, context.getOptions());
+    if (InternalHelpers.supportUnknownEnumValue(descriptor, context)) {
+      DocComment.writeFieldEnumValueAccessorDocComment(printer, descriptor, DocComment.AccessorType.GETTER, context);
       printer.emit(variables, "$deprecation$int ${$get$capitalized_name$Value$}$();\n");
     }
-    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.GETTER, context.getOptions());
+    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.GETTER, context);
     printer.emit(variables, "$deprecation$$type$ ${$get$capitalized_name$$}$();\n");
   }
 
   @Override
   public void generateMembers(Printer printer) {
-    if (InternalHelpers.supportUnknownEnumValue(descriptor)) {
+    if (InternalHelpers.supportUnknownEnumValue(descriptor, context)) {
       printer.emit(variables, "private int $name$_;\n");
     } else {
       printer.emit(variables, "private $type$ $name$_;\n");
     }
 
     if (descriptor.hasPresence()) {
-      DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.HAZZER, context.getOptions());
+      DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.HAZZER, context);
       printer.emit(variables,
           "@java.lang.Override\n" +
           "$deprecation$public boolean ${$has$capitalized_name$$}$() {\n" +
@@ -98,8 +98,8 @@ public class ImmutableEnumFieldLiteGenerator implements ImmutableFieldLiteGenera
       printer.annotate("{", "}", descriptor);
     }
 
-    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.GETTER, context.getOptions());
-    if (InternalHelpers.supportUnknownEnumValue(descriptor)) {
+    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.GETTER, context);
+    if (InternalHelpers.supportUnknownEnumValue(descriptor, context)) {
       printer.emit(variables,
           "@java.lang.Override\n" +
           "$deprecation$public $type$ ${$get$capitalized_name$$}$() {\n" +
@@ -115,7 +115,7 @@ public class ImmutableEnumFieldLiteGenerator implements ImmutableFieldLiteGenera
     }
     printer.annotate("{", "}", descriptor);
 
-    if (InternalHelpers.supportUnknownEnumValue(descriptor)) {
+    if (InternalHelpers.supportUnknownEnumValue(descriptor, context)) {
       printer.emit(variables,
           "private void set$capitalized_name$($type$ value) {\n" +
           "$null_check$" + // We check null for open enums too? C++ says yes.
@@ -138,12 +138,12 @@ public class ImmutableEnumFieldLiteGenerator implements ImmutableFieldLiteGenera
     }
 
     DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.CLEARER,
-        context.getOptions(), false, false, true);
+        context, false, false, true);
     printer.emit(variables,
         "private void clear$capitalized_name$() {\n" +
         "  $clear_has_field_bit_message$\n");
 
-    if (InternalHelpers.supportUnknownEnumValue(descriptor)) {
+    if (InternalHelpers.supportUnknownEnumValue(descriptor, context)) {
         printer.emit(variables, "  $name$_ = $default$.getNumber();\n");
     } else {
         printer.emit(variables, "  $name$_ = $default$;\n");
@@ -154,7 +154,7 @@ public class ImmutableEnumFieldLiteGenerator implements ImmutableFieldLiteGenera
   @Override
   public void generateBuilderMembers(Printer printer) {
     if (descriptor.hasPresence()) {
-      DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.HAZZER, context.getOptions());
+      DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.HAZZER, context);
       printer.emit(variables,
           "@java.lang.Override\n" +
           "$deprecation$public boolean ${$has$capitalized_name$$}$() {\n" +
@@ -163,7 +163,7 @@ public class ImmutableEnumFieldLiteGenerator implements ImmutableFieldLiteGenera
       printer.annotate("{", "}", descriptor);
     }
 
-    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.GETTER, context.getOptions());
+    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.GETTER, context);
     printer.emit(variables,
         "@java.lang.Override\n" +
         "$deprecation$public $type$ ${$get$capitalized_name$$}$() {\n" +
@@ -172,7 +172,7 @@ public class ImmutableEnumFieldLiteGenerator implements ImmutableFieldLiteGenera
     printer.annotate("{", "}", descriptor);
 
     DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.SETTER,
-        context.getOptions(), true);
+        context, true);
     printer.emit(variables,
         "$deprecation$public Builder ${$set$capitalized_name$$}$($type$ value) {\n" +
         "  copyOnWrite();\n" +
@@ -181,7 +181,7 @@ public class ImmutableEnumFieldLiteGenerator implements ImmutableFieldLiteGenera
         "}\n");
     printer.annotate("{", "}", descriptor);
 
-    if (InternalHelpers.supportUnknownEnumValue(descriptor)) {
+    if (InternalHelpers.supportUnknownEnumValue(descriptor, context)) {
         printer.emit(variables,
             "$deprecation$public int ${$get$capitalized_name$Value$}$() {\n" +
             "  return instance.get$capitalized_name$Value();\n" +
@@ -198,7 +198,7 @@ public class ImmutableEnumFieldLiteGenerator implements ImmutableFieldLiteGenera
     }
 
     DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.CLEARER,
-        context.getOptions(), true);
+        context, true);
     printer.emit(variables,
         "$deprecation$public Builder ${$clear$capitalized_name$$}$() {\n" +
         "  copyOnWrite();\n" +
@@ -211,7 +211,7 @@ public class ImmutableEnumFieldLiteGenerator implements ImmutableFieldLiteGenera
   @Override
   public void generateFieldInfo(Printer printer, List<Integer> output) {
     Helpers.writeIntToUtf16CharSequence(descriptor.getNumber(), output);
-    Helpers.writeIntToUtf16CharSequence(InternalHelpers.getExperimentalJavaFieldType(descriptor), output);
+    Helpers.writeIntToUtf16CharSequence(InternalHelpers.getExperimentalJavaFieldType(descriptor, context), output);
     if (InternalHelpers.hasHasbit(descriptor)) {
       Helpers.writeIntToUtf16CharSequence(messageBitIndex, output);
     }
@@ -221,7 +221,7 @@ public class ImmutableEnumFieldLiteGenerator implements ImmutableFieldLiteGenera
   @Override
   public void generateInitializationCode(Printer printer) {
     if (!Helpers.isDefaultValueJavaDefault(descriptor)) {
-      if (InternalHelpers.supportUnknownEnumValue(descriptor)) {
+      if (InternalHelpers.supportUnknownEnumValue(descriptor, context)) {
           printer.emit(variables, "$name$_ = $default$.getNumber();\n");
       } else {
           printer.emit(variables, "$name$_ = $default$;\n");
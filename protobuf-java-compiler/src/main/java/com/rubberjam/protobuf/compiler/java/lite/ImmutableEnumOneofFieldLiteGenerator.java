@@ -20,7 +20,7 @@ public class ImmutableEnumOneofFieldLiteGenerator extends ImmutableEnumFieldLite
   @Override
   public void generateMembers(Printer printer) {
     if (descriptor.hasPresence()) {
-      DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.HAZZER, context.getOptions());
+      DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.HAZZER, context);
       printer.emit(variables,
           "@java.lang.Override\n" +
           "$deprecation$public boolean ${$has$capitalized_name$$}$() {\n" +
@@ -29,8 +29,8 @@ public class ImmutableEnumOneofFieldLiteGenerator extends ImmutableEnumFieldLite
       printer.annotate("{", "}", descriptor);
     }
 
-    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.GETTER, context.getOptions());
-    if (InternalHelpers.supportUnknownEnumValue(descriptor)) {
+    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.GETTER, context);
+    if (InternalHelpers.supportUnknownEnumValue(descriptor, context)) {
       printer.emit(variables,
           "@java.lang.Override\n" +
           "$deprecation$public $type$ ${$get$capitalized_name$$}$() {\n" +
@@ -52,7 +52,7 @@ public class ImmutableEnumOneofFieldLiteGenerator extends ImmutableEnumFieldLite
     }
     printer.annotate("{", "}", descriptor);
 
-    if (InternalHelpers.supportUnknownEnumValue(descriptor)) {
+    if (InternalHelpers.supportUnknownEnumValue(descriptor, context)) {
       printer.emit(variables,
           "private void set$capitalized_name$($type$ value) {\n" +
           "$null_check$" +
@@ -74,7 +74,7 @@ public class ImmutableEnumOneofFieldLiteGenerator extends ImmutableEnumFieldLite
     }
 
     DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.CLEARER,
-        context.getOptions(), false, false, true);
+        context, false, false, true);
     printer.emit(variables,
         "private void clear$capitalized_name$() {\n" +
         "  if ($has_oneof_case_message$) {\n" +
@@ -87,7 +87,7 @@ public class ImmutableEnumOneofFieldLiteGenerator extends ImmutableEnumFieldLite
   @Override
   public void generateBuilderMembers(Printer printer) {
     if (descriptor.hasPresence()) {
-      DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.HAZZER, context.getOptions());
+      DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.HAZZER, context);
       printer.emit(variables,
           "@java.lang.Override\n" +
           "$deprecation$public boolean ${$has$capitalized_name$$}$() {\n" +
@@ -96,7 +96,7 @@ public class ImmutableEnumOneofFieldLiteGenerator extends ImmutableEnumFieldLite
       printer.annotate("{", "}", descriptor);
     }
 
-    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.GETTER, context.getOptions());
+    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.GETTER, context);
     printer.emit(variables,
         "@java.lang.Override\n" +
         "$deprecation$public $type$ ${$get$capitalized_name$$}$() {\n" +
@@ -105,7 +105,7 @@ public class ImmutableEnumOneofFieldLiteGenerator extends ImmutableEnumFieldLite
     printer.annotate("{", "}", descriptor);
 
     DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.SETTER,
-        context.getOptions(), true);
+        context, true);
     printer.emit(variables,
         "$deprecation$public Builder ${$set$capitalized_name$$}$($type$ value) {\n" +
         "  copyOnWrite();\n" +
@@ -114,7 +114,7 @@ public class ImmutableEnumOneofFieldLiteGenerator extends ImmutableEnumFieldLite
         "}\n");
     printer.annotate("{", "}", descriptor);
 
-    if (InternalHelpers.supportUnknownEnumValue(descriptor)) {
+    if (InternalHelpers.supportUnknownEnumValue(descriptor, context)) {
         printer.emit(variables,
             "$deprecation$public int ${$get$capitalized_name$Value$}$() {\n" +
             "  return instance.get$capitalized_name$Value();\n" +
@@ -131,7 +131,7 @@ public class ImmutableEnumOneofFieldLiteGenerator extends ImmutableEnumFieldLite
     }
 
     DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.CLEARER,
-        context.getOptions(), true);
+        context, true);
     printer.emit(variables,
         "$deprecation$public Builder ${$clear$capitalized_name$$}$() {\n" +
         "  copyOnWrite();\n" +
@@ -144,7 +144,7 @@ public class ImmutableEnumOneofFieldLiteGenerator extends ImmutableEnumFieldLite
   @Override
   public void generateFieldInfo(Printer printer, List<Integer> output) {
     Helpers.writeIntToUtf16CharSequence(descriptor.getNumber(), output);
-    Helpers.writeIntToUtf16CharSequence(InternalHelpers.getExperimentalJavaFieldType(descriptor), output);
+    Helpers.writeIntToUtf16CharSequence(InternalHelpers.getExperimentalJavaFieldType(descriptor, context), output);
     Helpers.writeIntToUtf16CharSequence(descriptor.getContainingOneof().getIndex(), output);
   }
 }
@@ -64,38 +64,38 @@ public class ImmutableMapFieldLiteGenerator implements ImmutableFieldLiteGenerat
 
   @Override
   public void generateInterfaceMembers(Printer printer) {
-     DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_COUNT, context.getOptions());
+     DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_COUNT, context);
      printer.emit(variables,
          "int ${$get$capitalized_name$Count$}$();\n");
      // printer.annotate("{", "}", descriptor);
 
-     DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.HAZZER, context.getOptions());
+     DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.HAZZER, context);
      printer.emit(variables,
          "boolean ${$contains$capitalized_name$$}$(\n" +
          "    $key_type$ key);\n");
      // printer.annotate("{", "}", descriptor);
 
-     DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_GETTER, context.getOptions());
+     DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_GETTER, context);
      printer.emit(variables,
          "@java.lang.Deprecated\n" +
          "java.util.Map<$key_type$, $value_type$>\n" +
          "    ${$get$capitalized_name$$}$();\n");
      // printer.annotate("{", "}", descriptor);
 
-     DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_GETTER, context.getOptions());
+     DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_GETTER, context);
      printer.emit(variables,
          "java.util.Map<$key_type$, $value_type$>\n" +
          "    ${$get$capitalized_name$Map$}$();\n");
      // printer.annotate("{", "}", descriptor);
 
-     DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_INDEXED_GETTER, context.getOptions());
+     DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_INDEXED_GETTER, context);
      printer.emit(variables,
          "$value_type$ ${$get$capitalized_name$OrDefault$}$(\n" +
          "    $key_type$ key,\n" +
          "    $value_type$ defaultValue);\n");
      // printer.annotate("{", "}", descriptor);
 
-     DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_INDEXED_GETTER, context.getOptions());
+     DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_INDEXED_GETTER, context);
      printer.emit(variables,
          "$value_type$ ${$get$capitalized_name$OrThrow$}$(\n" +
          "    $key_type$ key);\n");
@@ -132,7 +132,7 @@ public class ImmutableMapFieldLiteGenerator implements ImmutableFieldLiteGenerat
          "  return $name$_;\n" +
          "}\n");
 
-     DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_COUNT, context.getOptions());
+     DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_COUNT, context);
      printer.emit(variables,
          "@java.lang.Override\n" +
          "public int ${$get$capitalized_name$Count$}$() {\n" +
@@ -140,7 +140,7 @@ public class ImmutableMapFieldLiteGenerator implements ImmutableFieldLiteGenerat
          "}\n");
      // printer.annotate("{", "}", descriptor);
 
-     DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.HAZZER, context.getOptions());
+     DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.HAZZER, context);
      printer.emit(variables,
          "@java.lang.Override\n" +
          "public boolean ${$contains$capitalized_name$$}$(\n" +
@@ -150,7 +150,7 @@ public class ImmutableMapFieldLiteGenerator implements ImmutableFieldLiteGenerat
          "}\n");
      // printer.annotate("{", "}", descriptor);
 
-     DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_GETTER, context.getOptions());
+     DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_GETTER, context);
      printer.emit(variables,
          "@java.lang.Override\n" +
          "@java.lang.Deprecated\n" +
@@ -159,7 +159,7 @@ public class ImmutableMapFieldLiteGenerator implements ImmutableFieldLiteGenerat
          "}\n");
      // printer.annotate("{", "}", descriptor);
 
-     DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_GETTER, context.getOptions());
+     DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_GETTER, context);
      printer.emit(variables,
          "@java.lang.Override\n" +
          "public java.util.Map<$key_type$, $value_type$> ${$get$capitalized_name$Map$}$() {\n" +
@@ -168,7 +168,7 @@ public class ImmutableMapFieldLiteGenerator implements ImmutableFieldLiteGenerat
          "}\n");
      // printer.annotate("{", "}", descriptor);
 
-     DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_INDEXED_GETTER, context.getOptions());
+     DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_INDEXED_GETTER, context);
      printer.emit(variables,
          "@java.lang.Override\n" +
          "public $value_type$ ${$get$capitalized_name$OrDefault$}$(\n" +
@@ -181,7 +181,7 @@ public class ImmutableMapFieldLiteGenerator implements ImmutableFieldLiteGenerat
          "}\n");
      // printer.annotate("{", "}", descriptor);
 
-     DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_INDEXED_GETTER, context.getOptions());
+     DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_INDEXED_GETTER, context);
      printer.emit(variables,
          "@java.lang.Override\n" +
          "public $value_type$ ${$get$capitalized_name$OrThrow$}$(\n" +
@@ -206,7 +206,7 @@ public class ImmutableMapFieldLiteGenerator implements ImmutableFieldLiteGenerat
 
   @Override
   public void generateBuilderMembers(Printer printer) {
-     DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_COUNT, context.getOptions());
+     DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_COUNT, context);
      printer.emit(variables,
          "@java.lang.Override\n" +
          "public int ${$get$capitalized_name$Count$}$() {\n" +
@@ -214,7 +214,7 @@ public class ImmutableMapFieldLiteGenerator implements ImmutableFieldLiteGenerat
          "}\n");
      // printer.annotate("{", "}", descriptor);
 
-     DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.HAZZER, context.getOptions());
+     DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.HAZZER, context);
      printer.emit(variables,
          "@java.lang.Override\n" +
          "public boolean ${$contains$capitalized_name$$}$(\n" +
@@ -224,7 +224,7 @@ public class ImmutableMapFieldLiteGenerator implements ImmutableFieldLiteGenerat
          "}\n");
      // printer.annotate("{", "}", descriptor);
 
-     DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_GETTER, context.getOptions());
+     DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_GETTER, context);
      printer.emit(variables,
          "@java.lang.Override\n" +
          "@java.lang.Deprecated\n" +
@@ -233,7 +233,7 @@ public class ImmutableMapFieldLiteGenerator implements ImmutableFieldLiteGenerat
          "}\n");
      // printer.annotate("{", "}", descriptor);
 
-     DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_GETTER, context.getOptions());
+     DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_GETTER, context);
      printer.emit(variables,
          "@java.lang.Override\n" +
          "public java.util.Map<$key_type$, $value_type$> ${$get$capitalized_name$Map$}$() {\n" +
@@ -242,7 +242,7 @@ public class ImmutableMapFieldLiteGenerator implements ImmutableFieldLiteGenerat
          "}\n");
      // printer.annotate("{", "}", descriptor);
 
-     DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_INDEXED_GETTER, context.getOptions());
+     DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_INDEXED_GETTER, context);
      printer.emit(variables,
          "@java.lang.Override\n" +
          "public $value_type$ ${$get$capitalized_name$OrDefault$}$(\n" +
@@ -255,7 +255,7 @@ public class ImmutableMapFieldLiteGenerator implements ImmutableFieldLiteGenerat
          "}\n");
      // printer.annotate("{", "}", descriptor);
 
-     DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_INDEXED_GETTER, context.getOptions());
+     DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_INDEXED_GETTER, context);
      printer.emit(variables,
          "@java.lang.Override\n" +
          "public $value_type$ ${$get$capitalized_name$OrThrow$}$(\n" +
@@ -270,7 +270,7 @@ public class ImmutableMapFieldLiteGenerator implements ImmutableFieldLiteGenerat
          "}\n");
      // printer.annotate("{", "}", descriptor);
 
-     DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.MAP_ENTRY_ADDER, context.getOptions());
+     DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.MAP_ENTRY_ADDER, context);
      printer.emit(variables,
          "public Builder ${$put$capitalized_name$$}$(\n" +
          "    $key_type$ key,\n" +
@@ -283,7 +283,7 @@ public class ImmutableMapFieldLiteGenerator implements ImmutableFieldLiteGenerat
          "}\n");
      // printer.annotate("{", "}", descriptor);
 
-     DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.MAP_MULTI_ADDER, context.getOptions());
+     DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.MAP_MULTI_ADDER, context);
      printer.emit(variables,
          "public Builder ${$putAll$capitalized_name$$}$(\n" +
          "    java.util.Map<$key_type$, $value_type$> values) {\n" +
@@ -293,7 +293,7 @@ public class ImmutableMapFieldLiteGenerator implements ImmutableFieldLiteGenerat
          "}\n");
      // printer.annotate("{", "}", descriptor);
 
-     DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.CLEARER, context.getOptions());
+     DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.CLEARER, context);
      printer.emit(variables,
          "public Builder ${$clear$capitalized_name$$}$() {\n" +
          "  copyOnWrite();\n" +
@@ -302,7 +302,7 @@ public class ImmutableMapFieldLiteGenerator implements ImmutableFieldLiteGenerat
          "}\n");
      // printer.annotate("{", "}", descriptor);
 
-     DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.MAP_ENTRY_REMOVER, context.getOptions());
+     DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.MAP_ENTRY_REMOVER, context);
      printer.emit(variables,
          "public Builder ${$remove$capitalized_name$$}$(\n" +
          "    $key_type$ key) {\n" +
@@ -317,7 +317,7 @@ public class ImmutableMapFieldLiteGenerator implements ImmutableFieldLiteGenerat
   @Override
   public void generateFieldInfo(Printer printer, List<Integer> output) {
     Helpers.writeIntToUtf16CharSequence(descriptor.getNumber(), output);
-    Helpers.writeIntToUtf16CharSequence(InternalHelpers.getExperimentalJavaFieldType(descriptor), output);
+    Helpers.writeIntToUtf16CharSequence(InternalHelpers.getExperimentalJavaFieldType(descriptor, context), output);
     printer.emit(variables, "\"$name$_\",\n");
     printer.emit(variables, "$default_entry$,\n");
   }
@@ -61,13 +61,13 @@ public class ImmutableMessageFieldLiteGenerator implements ImmutableFieldLiteGen
 
   @Override
   public void generateInterfaceMembers(Printer printer) {
-    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.HAZZER, context.getOptions());
+    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.HAZZER, context);
     printer.emit(variables, "$deprecation$boolean has$capitalized_name$();\n");
 
-    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.GETTER, context.getOptions());
+    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.GETTER, context);
     printer.emit(variables, "$deprecation$$type$ ${$get$capitalized_name$$}$();\n");
 
-    DocComment.writeFieldDocComment(printer, descriptor, context.getOptions(), false);
+    DocComment.writeFieldDocComment(printer, descriptor, context, false);
     printer.emit(variables, "$deprecation$$type$OrBuilder get$capitalized_name$OrBuilder();\n");
   }
 
@@ -75,7 +75,7 @@ public class ImmutableMessageFieldLiteGenerator implements ImmutableFieldLiteGen
   public void generateMembers(Printer printer) {
     printer.emit(variables, "private $field_type$ $name$_;\n");
 
-    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.HAZZER, context.getOptions());
+    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.HAZZER, context);
     printer.emit(variables,
         "@java.lang.Override\n" +
         "$deprecation$public boolean ${$has$capitalized_name$$}$() {\n" +
@@ -83,7 +83,7 @@ public class ImmutableMessageFieldLiteGenerator implements ImmutableFieldLiteGen
         "}\n");
     // printer.annotate("{", "}", descriptor);
 
-    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.GETTER, context.getOptions());
+    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.GETTER, context);
     printer.emit(variables,
         "@java.lang.Override\n" +
         "$deprecation$public $type$ ${$get$capitalized_name$$}$() {\n" +
@@ -92,7 +92,7 @@ public class ImmutableMessageFieldLiteGenerator implements ImmutableFieldLiteGen
     // printer.annotate("{", "}", descriptor);
 
     DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.SETTER,
-        context.getOptions(), false, false, true);
+        context, false, false, true);
     printer.emit(variables,
         "private void set$capitalized_name$($type$ value) {\n" +
         "$null_check$" +
@@ -101,7 +101,7 @@ public class ImmutableMessageFieldLiteGenerator implements ImmutableFieldLiteGen
         "  }\n");
 
     DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.SETTER,
-        context.getOptions(), false, false, true);
+        context, false, false, true);
     printer.emit(variables,
         "private void merge$capitalized_name$($type$ value) {\n" +
         "$null_check$" +
@@ -116,7 +116,7 @@ public class ImmutableMessageFieldLiteGenerator implements ImmutableFieldLiteGen
         "}\n");
 
     DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.CLEARER,
-        context.getOptions(), false, false, true);
+        context, false, false, true);
     printer.emit(variables,
         "private void clear$capitalized_name$() {\n" +
         "  $name$_ = null;\n" +
@@ -126,7 +126,7 @@ public class ImmutableMessageFieldLiteGenerator implements ImmutableFieldLiteGen
 
   @Override
   public void generateBuilderMembers(Printer printer) {
-    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.HAZZER, context.getOptions());
+    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.HAZZER, context);
     printer.emit(variables,
         "@java.lang.Override\n" +
         "$deprecation$public boolean ${$has$capitalized_name$$}$() {\n" +
@@ -134,7 +134,7 @@ public class ImmutableMessageFieldLiteGenerator implements ImmutableFieldLiteGen
         "}\n");
     // printer.annotate("{", "}", descriptor);
 
-    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.GETTER, context.getOptions());
+    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.GETTER, context);
     printer.emit(variables,
         "@java.lang.Override\n" +
         "$deprecation$public $type$ ${$get$capitalized_name$$}$() {\n" +
@@ -143,7 +143,7 @@ public class ImmutableMessageFieldLiteGenerator implements ImmutableFieldLiteGen
     // printer.annotate("{", "}", descriptor);
 
     DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.SETTER,
-        context.getOptions(), true);
+        context, true);
     printer.emit(variables,
         "$deprecation$public Builder ${$set$capitalized_name$$}$($type$ value) {\n" +
         "  copyOnWrite();\n" +
@@ -153,7 +153,7 @@ public class ImmutableMessageFieldLiteGenerator implements ImmutableFieldLiteGen
     // printer.annotate("{", "}", descriptor);
 
     DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.SETTER,
-        context.getOptions(), true);
+        context, true);
     printer.emit(variables,
         "$deprecation$public Builder ${$set$capitalized_name$$}$(\n" +
         "    $type$.Builder builderForValue) {\n" +
@@ -164,7 +164,7 @@ public class ImmutableMessageFieldLiteGenerator implements ImmutableFieldLiteGen
     // printer.annotate("{", "}", descriptor);
 
     DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.SETTER,
-        context.getOptions(), true);
+        context, true);
     printer.emit(variables,
         "$deprecation$public Builder ${$merge$capitalized_name$$}$($type$ value) {\n" +
         "  copyOnWrite();\n" +
@@ -174,7 +174,7 @@ public class ImmutableMessageFieldLiteGenerator implements ImmutableFieldLiteGen
     // printer.annotate("{", "}", descriptor);
 
     DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.CLEARER,
-        context.getOptions(), true);
+        context, true);
     printer.emit(variables,
         "$deprecation$public Builder ${$clear$capitalized_name$$}$() {\n" +
         "  copyOnWrite();\n" +
@@ -187,7 +187,7 @@ public class ImmutableMessageFieldLiteGenerator implements ImmutableFieldLiteGen
   @Override
   public void generateFieldInfo(Printer printer, List<Integer> output) {
     Helpers.writeIntToUtf16CharSequence(descriptor.getNumber(), output);
-    Helpers.writeIntToUtf16CharSequence(InternalHelpers.getExperimentalJavaFieldType(descriptor), output);
+    Helpers.writeIntToUtf16CharSequence(InternalHelpers.getExperimentalJavaFieldType(descriptor, context), output);
     if (InternalHelpers.hasHasbit(descriptor)) {
       Helpers.writeIntToUtf16CharSequence(messageBitIndex, output);
     }
@@ -73,7 +73,7 @@ public class ImmutableMessageLiteGenerator extends GeneratorFactory.MessageGener
     vars.put("visibility", "public");
     vars.put("static", " static ");
 
-    DocComment.writeMessageDocComment(printer, descriptor, context.getOptions(), false);
+    DocComment.writeMessageDocComment(printer, descriptor, context, false);
     vars.put("full_name", descriptor.getFullName());
     printer.emit(vars,
         "$visibility$$static$final class $classname$ extends\n" +
@@ -149,12 +149,12 @@ public class ImmutableMessageLiteGenerator extends GeneratorFactory.MessageGener
 
     // Nested types
     for (EnumDescriptor enumDesc : descriptor.getEnumTypes()) {
-      new com.rubberjam.protobuf.compiler.java.full.EnumGenerator(enumDesc, true, context).generate(printer);
+      context.getGeneratorFactory().newEnumGenerator(enumDesc).generate(printer);
     }
 
     for (Descriptor nested : descriptor.getNestedTypes()) {
       if (nested.getOptions().getMapEntry()) continue;
-      ImmutableMessageLiteGenerator messageGenerator = new ImmutableMessageLiteGenerator(nested, context);
+      GeneratorFactory.MessageGenerator messageGenerator = context.getGeneratorFactory().newMessageGenerator(nested);
       messageGenerator.generateInterface(printer);
       messageGenerator.generate(printer);
     }
@@ -285,10 +285,10 @@ public class ImmutableMessageLiteGenerator extends GeneratorFactory.MessageGener
   @Override
   public void generateExtensionRegistrationCode(Printer printer) {
     for (FieldDescriptor ext : descriptor.getExtensions()) {
-      new ImmutableExtensionLiteGenerator(ext, context).generateRegistrationCode(printer);
+      context.getGeneratorFactory().newExtensionGenerator(ext).generateRegistrationCode(printer);
     }
     for (Descriptor nested : descriptor.getNestedTypes()) {
-      new ImmutableMessageLiteGenerator(nested, context).generateExtensionRegistrationCode(printer);
+      context.getGeneratorFactory().newMessageGenerator(nested).generateExtensionRegistrationCode(printer);
     }
   }
 
@@ -20,7 +20,7 @@ public class ImmutableMessageOneofFieldLiteGenerator extends ImmutableMessageFie
   @Override
   public void generateMembers(Printer printer) {
     if (descriptor.hasPresence()) {
-      DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.HAZZER, context.getOptions());
+      DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.HAZZER, context);
       printer.emit(variables,
           "@java.lang.Override\n" +
           "$deprecation$public boolean ${$has$capitalized_name$$}$() {\n" +
@@ -29,7 +29,7 @@ public class ImmutableMessageOneofFieldLiteGenerator extends ImmutableMessageFie
       // printer.annotate("{", "}", descriptor);
     }
 
-    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.GETTER, context.getOptions());
+    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.GETTER, context);
     printer.emit(variables,
         "@java.lang.Override\n" +
         "$deprecation$public $type$ ${$get$capitalized_name$$}$() {\n" +
@@ -41,7 +41,7 @@ public class ImmutableMessageOneofFieldLiteGenerator extends ImmutableMessageFie
     // printer.annotate("{", "}", descriptor);
 
     DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.SETTER,
-        context.getOptions(), false, false, true);
+        context, false, false, true);
     printer.emit(variables,
         "private void set$capitalized_name$($type$ value) {\n" +
         "$null_check$" +
@@ -50,7 +50,7 @@ public class ImmutableMessageOneofFieldLiteGenerator extends ImmutableMessageFie
         "}\n");
 
     DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.SETTER,
-        context.getOptions(), false, false, true);
+        context, false, false, true);
     printer.emit(variables,
         "private void merge$capitalized_name$($type$ value) {\n" +
         "$null_check$" +
@@ -65,7 +65,7 @@ public class ImmutableMessageOneofFieldLiteGenerator extends ImmutableMessageFie
         "}\n");
 
     DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.CLEARER,
-        context.getOptions(), false, false, true);
+        context, false, false, true);
     printer.emit(variables,
         "private void clear$capitalized_name$() {\n" +
         "  if ($has_oneof_case_message$) {\n" +
@@ -78,7 +78,7 @@ public class ImmutableMessageOneofFieldLiteGenerator extends ImmutableMessageFie
   @Override
   public void generateBuilderMembers(Printer printer) {
     if (descriptor.hasPresence()) {
-      DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.HAZZER, context.getOptions());
+      DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.HAZZER, context);
       printer.emit(variables,
           "@java.lang.Override\n" +
           "$deprecation$public boolean ${$has$capitalized_name$$}$() {\n" +
@@ -87,7 +87,7 @@ public class ImmutableMessageOneofFieldLiteGenerator extends ImmutableMessageFie
       // printer.annotate("{", "}", descriptor);
     }
 
-    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.GETTER, context.getOptions());
+    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.GETTER, context);
     printer.emit(variables,
         "@java.lang.Override\n" +
         "$deprecation$public $type$ ${$get$capitalized_name$$}$() {\n" +
@@ -96,7 +96,7 @@ public class ImmutableMessageOneofFieldLiteGenerator extends ImmutableMessageFie
     // printer.annotate("{", "}", descriptor);
 
     DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.SETTER,
-        context.getOptions(), true);
+        context, true);
     printer.emit(variables,
         "$deprecation$public Builder ${$set$capitalized_name$$}$($type$ value) {\n" +
         "  copyOnWrite();\n" +
@@ -106,7 +106,7 @@ public class ImmutableMessageOneofFieldLiteGenerator extends ImmutableMessageFie
     // printer.annotate("{", "}", descriptor);
 
     DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.SETTER,
-        context.getOptions(), true);
+        context, true);
     printer.emit(variables,
         "$deprecation$public Builder ${$set$capitalized_name$$}$(\n" +
         "    $type$.Builder builderForValue) {\n" +
@@ -117,7 +117,7 @@ public class ImmutableMessageOneofFieldLiteGenerator extends ImmutableMessageFie
     // printer.annotate("{", "}", descriptor);
 
     DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.SETTER,
-        context.getOptions(), true);
+        context, true);
     printer.emit(variables,
         "$deprecation$public Builder ${$merge$capitalized_name$$}$($type$ value) {\n" +
         "  copyOnWrite();\n" +
@@ -127,7 +127,7 @@ public class ImmutableMessageOneofFieldLiteGenerator extends ImmutableMessageFie
     // printer.annotate("{", "}", descriptor);
 
     DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.CLEARER,
-        context.getOptions(), true);
+        context, true);
     printer.emit(variables,
         "$deprecation$public Builder ${$clear$capitalized_name$$}$() {\n" +
         "  copyOnWrite();\n" +
@@ -140,7 +140,7 @@ public class ImmutableMessageOneofFieldLiteGenerator extends ImmutableMessageFie
   @Override
   public void generateFieldInfo(Printer printer, List<Integer> output) {
     Helpers.writeIntToUtf16CharSequence(descriptor.getNumber(), output);
-    Helpers.writeIntToUtf16CharSequence(InternalHelpers.getExperimentalJavaFieldType(descriptor), output);
+    Helpers.writeIntToUtf16CharSequence(InternalHelpers.getExperimentalJavaFieldType(descriptor, context), output);
     Helpers.writeIntToUtf16CharSequence(descriptor.getContainingOneof().getIndex(), output);
   }
 }
@@ -58,10 +58,10 @@ public class ImmutablePrimitiveFieldLiteGenerator implements ImmutableFieldLiteG
   @Override
   public void generateInterfaceMembers(Printer printer) {
     if (descriptor.hasPresence()) {
-      DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.HAZZER, context.getOptions());
+      DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.HAZZER, context);
       printer.emit(variables, "$deprecation$boolean has$capitalized_name$();\n");
     }
-    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.GETTER, context.getOptions());
+    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.GETTER, context);
     printer.emit(variables,
         "$deprecation$$type$ ${$get$capitalized_name$$}$();\n");
   }
@@ -70,7 +70,7 @@ public class ImmutablePrimitiveFieldLiteGenerator implements ImmutableFieldLiteG
   public void generateMembers(Printer printer) {
     printer.emit(variables, "private $type$ $name$_;\n");
 
-    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.GETTER, context.getOptions());
+    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.GETTER, context);
     printer.emit(variables,
         "@java.lang.Override\n" +
         "public $type$ ${$get$capitalized_name$$}$() {\n" +
@@ -79,7 +79,7 @@ public class ImmutablePrimitiveFieldLiteGenerator implements ImmutableFieldLiteG
     // printer.annotate("{", "}", descriptor);
 
     DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.SETTER,
-        context.getOptions(), false, false, true);
+        context, false, false, true);
     printer.emit(variables,
         "private void set$capitalized_name$($type$ value) {\n" +
         // (descriptor.getType() == FieldDescriptor.Type.STRING) ? "$null_check$" : "" + // primitives don't need null check
@@ -88,7 +88,7 @@ public class ImmutablePrimitiveFieldLiteGenerator implements ImmutableFieldLiteG
         "}\n");
 
     DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.CLEARER,
-        context.getOptions(), false, false, true);
+        context, false, false, true);
     printer.emit(variables,
         "private void clear$capitalized_name$() {\n" +
         //"  $clear_has_bit_message$\n" +
@@ -98,7 +98,7 @@ public class ImmutablePrimitiveFieldLiteGenerator implements ImmutableFieldLiteG
 
   @Override
   public void generateBuilderMembers(Printer printer) {
-    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.GETTER, context.getOptions());
+    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.GETTER, context);
     printer.emit(variables,
         "@java.lang.Override\n" +
         "public $type$ ${$get$capitalized_name$$}$() {\n" +
@@ -107,7 +107,7 @@ public class ImmutablePrimitiveFieldLiteGenerator implements ImmutableFieldLiteG
     // printer.annotate("{", "}", descriptor);
 
     DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.SETTER,
-        context.getOptions(), true);
+        context, true);
     printer.emit(variables,
         "public Builder ${$set$capitalized_name$$}$($type$ value) {\n" +
         "  copyOnWrite();\n" +
@@ -117,7 +117,7 @@ public class ImmutablePrimitiveFieldLiteGenerator implements ImmutableFieldLiteG
     // printer.annotate("{", "}", descriptor);
 
     DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.CLEARER,
-        context.getOptions(), true);
+        context, true);
     printer.emit(variables,
         "public Builder ${$clear$capitalized_name$$}$() {\n" +
         "  copyOnWrite();\n" +
@@ -130,7 +130,7 @@ public class ImmutablePrimitiveFieldLiteGenerator implements ImmutableFieldLiteG
   @Override
   public void generateFieldInfo(Printer printer, List<Integer> output) {
     Helpers.writeIntToUtf16CharSequence(descriptor.getNumber(), output);
-    Helpers.writeIntToUtf16CharSequence(InternalHelpers.getExperimentalJavaFieldType(descriptor), output);
+    Helpers.writeIntToUtf16CharSequence(InternalHelpers.getExperimentalJavaFieldType(descriptor, context), output);
     if (descriptor.hasPresence()) {
          Helpers.writeIntToUtf16CharSequence(messageBitIndex, output);
     }
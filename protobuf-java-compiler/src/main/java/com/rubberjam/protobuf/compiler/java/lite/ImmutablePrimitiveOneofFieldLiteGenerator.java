@@ -20,7 +20,7 @@ public class ImmutablePrimitiveOneofFieldLiteGenerator extends ImmutablePrimitiv
   @Override
   public void generateMembers(Printer printer) {
     if (descriptor.hasPresence()) {
-      DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.HAZZER, context.getOptions());
+      DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.HAZZER, context);
       printer.emit(variables,
           "@java.lang.Override\n" +
           "$deprecation$public boolean ${$has$capitalized_name$$}$() {\n" +
@@ -29,7 +29,7 @@ public class ImmutablePrimitiveOneofFieldLiteGenerator extends ImmutablePrimitiv
       // printer.annotate("{", "}", descriptor);
     }
 
-    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.GETTER, context.getOptions());
+    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.GETTER, context);
     printer.emit(variables,
         "@java.lang.Override\n" +
         "$deprecation$public $type$ ${$get$capitalized_name$$}$() {\n" +
@@ -41,7 +41,7 @@ public class ImmutablePrimitiveOneofFieldLiteGenerator extends ImmutablePrimitiv
     // printer.annotate("{", "}", descriptor);
 
     DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.SETTER,
-        context.getOptions(), false, false, true);
+        context, false, false, true);
     printer.emit(variables,
         "private void set$capitalized_name$($type$ value) {\n" +
         "  $set_oneof_case_message$;\n" +
@@ -49,7 +49,7 @@ public class ImmutablePrimitiveOneofFieldLiteGenerator extends ImmutablePrimitiv
         "}\n");
 
     DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.CLEARER,
-        context.getOptions(), false, false, true);
+        context, false, false, true);
     printer.emit(variables,
         "private void clear$capitalized_name$() {\n" +
         "  if ($has_oneof_case_message$) {\n" +
@@ -62,7 +62,7 @@ public class ImmutablePrimitiveOneofFieldLiteGenerator extends ImmutablePrimitiv
   @Override
   public void generateBuilderMembers(Printer printer) {
     if (descriptor.hasPresence()) {
-      DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.HAZZER, context.getOptions());
+      DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.HAZZER, context);
       printer.emit(variables,
           "@java.lang.Override\n" +
           "$deprecation$public boolean ${$has$capitalized_name$$}$() {\n" +
@@ -71,7 +71,7 @@ public class ImmutablePrimitiveOneofFieldLiteGenerator extends ImmutablePrimitiv
       // printer.annotate("{", "}", descriptor);
     }
 
-    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.GETTER, context.getOptions());
+    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.GETTER, context);
     printer.emit(variables,
         "@java.lang.Override\n" +
         "$deprecation$public $type$ ${$get$capitalized_name$$}$() {\n" +
@@ -80,7 +80,7 @@ public class ImmutablePrimitiveOneofFieldLiteGenerator extends ImmutablePrimitiv
     // printer.annotate("{", "}", descriptor);
 
     DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.SETTER,
-        context.getOptions(), true);
+        context, true);
     printer.emit(variables,
         "$deprecation$public Builder ${$set$capitalized_name$$}$($type$ value) {\n" +
         "  copyOnWrite();\n" +
@@ -90,7 +90,7 @@ public class ImmutablePrimitiveOneofFieldLiteGenerator extends ImmutablePrimitiv
     // printer.annotate("{", "}", descriptor);
 
     DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.CLEARER,
-        context.getOptions(), true);
+        context, true);
     printer.emit(variables,
         "$deprecation$public Builder ${$clear$capitalized_name$$}$() {\n" +
         "  copyOnWrite();\n" +
@@ -103,7 +103,7 @@ public class ImmutablePrimitiveOneofFieldLiteGenerator extends ImmutablePrimitiv
   @Override
   public void generateFieldInfo(Printer printer, List<Integer> output) {
     Helpers.writeIntToUtf16CharSequence(descriptor.getNumber(), output);
-    Helpers.writeIntToUtf16CharSequence(InternalHelpers.getExperimentalJavaFieldType(descriptor), output);
+    Helpers.writeIntToUtf16CharSequence(InternalHelpers.getExperimentalJavaFieldType(descriptor, context), output);
     Helpers.writeIntToUtf16CharSequence(descriptor.getContainingOneof().getIndex(), output);
   }
 }
@@ -59,14 +59,14 @@ public class ImmutableStringFieldLiteGenerator implements ImmutableFieldLiteGene
   @Override
   public void generateInterfaceMembers(Printer printer) {
     if (descriptor.hasPresence()) {
-      DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.HAZZER, context.getOptions());
+      DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.HAZZER, context);
       printer.emit(variables, "$deprecation$boolean has$capitalized_name$();\n");
     }
-    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.GETTER, context.getOptions());
+    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.GETTER, context);
     printer.emit(variables, "$deprecation$java.lang.String ${$get$capitalized_name$$}$();\n");
     printer.annotate("{", "}", descriptor);
 
-    DocComment.writeFieldStringBytesAccessorDocComment(printer, descriptor, DocComment.AccessorType.GETTER, context.getOptions());
+    DocComment.writeFieldStringBytesAccessorDocComment(printer, descriptor, DocComment.AccessorType.GETTER, context);
     printer.emit(variables,
         "$deprecation$com.google.protobuf.ByteString\n" +
         "    ${$get$capitalized_name$Bytes$}$();\n");
@@ -77,7 +77,7 @@ public class ImmutableStringFieldLiteGenerator implements ImmutableFieldLiteGene
     printer.emit(variables, "private java.lang.String $name$_;\n");
 
     if (descriptor.hasPresence()) {
-      DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.HAZZER, context.getOptions());
+      DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.HAZZER, context);
       printer.emit(variables,
           "@java.lang.Override\n" +
           "$deprecation$public boolean ${$has$capitalized_name$$}$() {\n" +
@@ -86,7 +86,7 @@ public class ImmutableStringFieldLiteGenerator implements ImmutableFieldLiteGene
       printer.annotate("{", "}", descriptor);
     }
 
-    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.GETTER, context.getOptions());
+    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.GETTER, context);
     printer.emit(variables,
         "@java.lang.Override\n" +
         "$deprecation$public java.lang.String ${$get$capitalized_name$$}$() {\n" +
@@ -94,7 +94,7 @@ public class ImmutableStringFieldLiteGenerator implements ImmutableFieldLiteGene
         "}\n");
     printer.annotate("{", "}", descriptor);
 
-    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.GETTER, context.getOptions());
+    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.GETTER, context);
     printer.emit(variables,
         "@java.lang.Override\n" +
         "$deprecation$public com.google.protobuf.ByteString\n" +
@@ -104,7 +104,7 @@ public class ImmutableStringFieldLiteGenerator implements ImmutableFieldLiteGene
     printer.annotate("{", "}", descriptor);
 
     DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.SETTER,
-        context.getOptions(), false, false, true);
+        context, false, false, true);
     printer.emit(variables,
         "private void set$capitalized_name$(\n" +
         "    java.lang.String value) {\n" +
@@ -114,7 +114,7 @@ public class ImmutableStringFieldLiteGenerator implements ImmutableFieldLiteGene
         "}\n");
 
     DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.CLEARER,
-        context.getOptions(), false, false, true);
+        context, false, false, true);
     printer.emit(variables,
         "private void clear$capitalized_name$() {\n" +
         "  $clear_has_field_bit_message$\n" +
@@ -122,7 +122,7 @@ public class ImmutableStringFieldLiteGenerator implements ImmutableFieldLiteGene
         "}\n");
 
     DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.SETTER,
-        context.getOptions(), false, false, true);
+        context, false, false, true);
     printer.emit(variables,
         "private void set$capitalized_name$Bytes(\n" +
         "    com.google.protobuf.ByteString value) {\n" +
@@ -135,7 +135,7 @@ public class ImmutableStringFieldLiteGenerator implements ImmutableFieldLiteGene
   @Override
   public void generateBuilderMembers(Printer printer) {
     if (descriptor.hasPresence()) {
-      DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.HAZZER, context.getOptions());
+      DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.HAZZER, context);
       printer.emit(variables,
           "@java.lang.Override\n" +
           "$deprecation$public boolean ${$has$capitalized_name$$}$() {\n" +
@@ -144,7 +144,7 @@ public class ImmutableStringFieldLiteGenerator implements ImmutableFieldLiteGene
       printer.annotate("{", "}", descriptor);
     }
 
-    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.GETTER, context.getOptions());
+    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.GETTER, context);
     printer.emit(variables,
         "@java.lang.Override\n" +
         "$deprecation$public java.lang.String ${$get$capitalized_name$$}$() {\n" +
@@ -152,7 +152,7 @@ public class ImmutableStringFieldLiteGenerator implements ImmutableFieldLiteGene
         "}\n");
     printer.annotate("{", "}", descriptor);
 
-    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.GETTER, context.getOptions());
+    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.GETTER, context);
     printer.emit(variables,
         "@java.lang.Override\n" +
         "$deprecation$public com.google.protobuf.ByteString\n" +
@@ -162,7 +162,7 @@ public class ImmutableStringFieldLiteGenerator implements ImmutableFieldLiteGene
     printer.annotate("{", "}", descriptor);
 
     DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.SETTER,
-        context.getOptions(), true);
+        context, true);
     printer.emit(variables,
         "$deprecation$public Builder ${$set$capitalized_name$$}$(\n" +
         "    java.lang.String value) {\n" +
@@ -173,7 +173,7 @@ public class ImmutableStringFieldLiteGenerator implements ImmutableFieldLiteGene
     printer.annotate("{", "}", descriptor);
 
     DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.CLEARER,
-        context.getOptions(), true);
+        context, true);
     printer.emit(variables,
         "$deprecation$public Builder ${$clear$capitalized_name$$}$() {\n" +
         "  copyOnWrite();\n" +
@@ -183,7 +183,7 @@ public class ImmutableStringFieldLiteGenerator implements ImmutableFieldLiteGene
     printer.annotate("{", "}", descriptor);
 
     DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.SETTER,
-        context.getOptions(), true);
+        context, true);
     printer.emit(variables,
         "$deprecation$public Builder ${$set$capitalized_name$Bytes$}$(\n" +
         "    com.google.protobuf.ByteString value) {\n" +
@@ -197,7 +197,7 @@ public class ImmutableStringFieldLiteGenerator implements ImmutableFieldLiteGene
   @Override
   public void generateFieldInfo(Printer printer, List<Integer> output) {
     Helpers.writeIntToUtf16CharSequence(descriptor.getNumber(), output);
-    Helpers.writeIntToUtf16CharSequence(InternalHelpers.getExperimentalJavaFieldType(descriptor), output);
+    Helpers.writeIntToUtf16CharSequence(InternalHelpers.getExperimentalJavaFieldType(descriptor, context), output);
     if (InternalHelpers.hasHasbit(descriptor)) {
       Helpers.writeIntToUtf16CharSequence(messageBitIndex, output);
     }
@@ -20,7 +20,7 @@ public class ImmutableStringOneofFieldLiteGenerator extends ImmutableStringField
   @Override
   public void generateMembers(Printer printer) {
     if (descriptor.hasPresence()) {
-      DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.HAZZER, context.getOptions());
+      DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.HAZZER, context);
       printer.emit(variables,
           "@java.lang.Override\n" +
           "$deprecation$public boolean ${$has$capitalized_name$$}$() {\n" +
@@ -29,7 +29,7 @@ public class ImmutableStringOneofFieldLiteGenerator extends ImmutableStringField
       printer.annotate("{", "}", descriptor);
     }
 
-    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.GETTER, context.getOptions());
+    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.GETTER, context);
     printer.emit(variables,
         "@java.lang.Override\n" +
         "$deprecation$public java.lang.String ${$get$capitalized_name$$}$() {\n" +
@@ -41,7 +41,7 @@ public class ImmutableStringOneofFieldLiteGenerator extends ImmutableStringField
         "}\n");
     printer.annotate("{", "}", descriptor);
 
-    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.GETTER, context.getOptions());
+    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.GETTER, context);
     printer.emit(variables,
         "@java.lang.Override\n" +
         "$deprecation$public com.google.protobuf.ByteString\n" +
@@ -55,7 +55,7 @@ public class ImmutableStringOneofFieldLiteGenerator extends ImmutableStringField
     printer.annotate("{", "}", descriptor);
 
     DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.SETTER,
-        context.getOptions(), false, false, true);
+        context, false, false, true);
     printer.emit(variables,
         "private void set$capitalized_name$(\n" +
         "    java.lang.String value) {\n" +
@@ -65,7 +65,7 @@ public class ImmutableStringOneofFieldLiteGenerator extends ImmutableStringField
         "}\n");
 
     DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.CLEARER,
-        context.getOptions(), false, false, true);
+        context, false, false, true);
     printer.emit(variables,
         "private void clear$capitalized_name$() {\n" +
         "  if ($has_oneof_case_message$) {\n" +
@@ -75,7 +75,7 @@ public class ImmutableStringOneofFieldLiteGenerator extends ImmutableStringField
         "}\n");
 
     DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.SETTER,
-        context.getOptions(), false, false, true);
+        context, false, false, true);
     printer.emit(variables,
         "private void set$capitalized_name$Bytes(\n" +
         "    com.google.protobuf.ByteString value) {\n" +
@@ -88,7 +88,7 @@ public class ImmutableStringOneofFieldLiteGenerator extends ImmutableStringField
   @Override
   public void generateBuilderMembers(Printer printer) {
     if (descriptor.hasPresence()) {
-      DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.HAZZER, context.getOptions());
+      DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.HAZZER, context);
       printer.emit(variables,
           "@java.lang.Override\n" +
           "$deprecation$public boolean ${$has$capitalized_name$$}$() {\n" +
@@ -97,7 +97,7 @@ public class ImmutableStringOneofFieldLiteGenerator extends ImmutableStringField
       printer.annotate("{", "}", descriptor);
     }
 
-    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.GETTER, context.getOptions());
+    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.GETTER, context);
     printer.emit(variables,
         "@java.lang.Override\n" +
         "$deprecation$public java.lang.String ${$get$capitalized_name$$}$() {\n" +
@@ -105,7 +105,7 @@ public class ImmutableStringOneofFieldLiteGenerator extends ImmutableStringField
         "}\n");
     printer.annotate("{", "}", descriptor);
 
-    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.GETTER, context.getOptions());
+    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.GETTER, context);
     printer.emit(variables,
         "@java.lang.Override\n" +
         "$deprecation$public com.google.protobuf.ByteString\n" +
@@ -115,7 +115,7 @@ public class ImmutableStringOneofFieldLiteGenerator extends ImmutableStringField
     printer.annotate("{", "}", descriptor);
 
     DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.SETTER,
-        context.getOptions(), true);
+        context, true);
     printer.emit(variables,
         "$deprecation$public Builder ${$set$capitalized_name$$}$(\n" +
         "    java.lang.String value) {\n" +
@@ -126,7 +126,7 @@ public class ImmutableStringOneofFieldLiteGenerator extends ImmutableStringField
     printer.annotate("{", "}", descriptor);
 
     DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.CLEARER,
-        context.getOptions(), true);
+        context, true);
     printer.emit(variables,
         "$deprecation$public Builder ${$clear$capitalized_name$$}$() {\n" +
         "  copyOnWrite();\n" +
@@ -136,7 +136,7 @@ public class ImmutableStringOneofFieldLiteGenerator extends ImmutableStringField
     printer.annotate("{", "}", descriptor);
 
     DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.SETTER,
-        context.getOptions(), true);
+        context, true);
     printer.emit(variables,
         "$deprecation$public Builder ${$set$capitalized_name$Bytes$}$(\n" +
         "    com.google.protobuf.ByteString value) {\n" +
@@ -150,7 +150,7 @@ public class ImmutableStringOneofFieldLiteGenerator extends ImmutableStringField
   @Override
   public void generateFieldInfo(Printer printer, List<Integer> output) {
     Helpers.writeIntToUtf16CharSequence(descriptor.getNumber(), output);
-    Helpers.writeIntToUtf16CharSequence(InternalHelpers.getExperimentalJavaFieldType(descriptor), output);
+    Helpers.writeIntToUtf16CharSequence(InternalHelpers.getExperimentalJavaFieldType(descriptor, context), output);
     Helpers.writeIntToUtf16CharSequence(descriptor.getContainingOneof().getIndex(), output);
   }
 }
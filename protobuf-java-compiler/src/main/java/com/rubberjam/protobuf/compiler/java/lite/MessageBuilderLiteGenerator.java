@@ -32,7 +32,7 @@ public class MessageBuilderLiteGenerator {
     vars.put("visibility", Helpers.isOwnFile(descriptor, true) ? "public" : "private");
     vars.put("static", Helpers.isOwnFile(descriptor, true) ? " " : " static ");
 
-    DocComment.writeMessageDocComment(printer, descriptor, context.getOptions(), false);
+    DocComment.writeMessageDocComment(printer, descriptor, context, false);
     printer.emit(vars,
         "$visibility$$static$final class Builder extends\n" +
         "    com.google.protobuf.GeneratedMessageLite.Builder<\n" +
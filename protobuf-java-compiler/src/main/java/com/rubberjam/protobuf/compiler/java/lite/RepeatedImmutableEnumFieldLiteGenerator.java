@@ -37,7 +37,7 @@ public class RepeatedImmutableEnumFieldLiteGenerator implements ImmutableFieldLi
     variables.put("deprecation", descriptor.getOptions().getDeprecated() ? "@java.lang.Deprecated " : "");
     variables.put("null_check", "if (value == null) {\n  throw new NullPointerException();\n}\n");
     variables.put("int_type", "int");
-    variables.put("is_closed_enum", !InternalHelpers.supportUnknownEnumValue(descriptor));
+    variables.put("is_closed_enum", !InternalHelpers.supportUnknownEnumValue(descriptor, context));
 
     variables.put("empty_list", "emptyIntList()");
     variables.put("make_name_unmodifiable", variables.get("name") + "_.makeImmutable()");
@@ -47,7 +47,7 @@ public class RepeatedImmutableEnumFieldLiteGenerator implements ImmutableFieldLi
     variables.put("visit_type", "Int");
     variables.put("visit_type_list", "visitIntList");
 
-    if (InternalHelpers.supportUnknownEnumValue(descriptor)) {
+    if (InternalHelpers.supportUnknownEnumValue(descriptor, context)) {
         variables.put("field_list_type", "com.google.protobuf.Internal.IntList");
     } else {
         variables.put("field_list_type", "com.google.protobuf.Internal.ProtobufList<" + type + ">");
@@ -69,28 +69,28 @@ public class RepeatedImmutableEnumFieldLiteGenerator implements ImmutableFieldLi
 
   @Override
   public void generateInterfaceMembers(Printer printer) {
-    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_GETTER, context.getOptions());
+    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_GETTER, context);
     printer.emit(variables,
         "$deprecation$java.util.List<$boxed_type$> ${$get$capitalized_name$List$}$();\n");
     // printer.annotate("{", "}", descriptor);
 
-    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_COUNT, context.getOptions());
+    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_COUNT, context);
     printer.emit(variables,
         "$deprecation$int ${$get$capitalized_name$Count$}$();\n");
     // printer.annotate("{", "}", descriptor);
 
-    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_INDEXED_GETTER, context.getOptions());
+    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_INDEXED_GETTER, context);
     printer.emit(variables,
         "$deprecation$$type$ ${$get$capitalized_name$$}$(int index);\n");
     // printer.annotate("{", "}", descriptor);
 
-    if (InternalHelpers.supportUnknownEnumValue(descriptor)) {
-      DocComment.writeFieldEnumValueAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_GETTER, context.getOptions());
+    if (InternalHelpers.supportUnknownEnumValue(descriptor, context)) {
+      DocComment.writeFieldEnumValueAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_GETTER, context);
       printer.emit(variables,
           "$deprecation$java.util.List<java.lang.Integer>\n" +
           "${$get$capitalized_name$ValueList$}$();\n");
 
-      DocComment.writeFieldEnumValueAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_INDEXED_GETTER, context.getOptions());
+      DocComment.writeFieldEnumValueAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_INDEXED_GETTER, context);
       printer.emit(variables,
           "$deprecation$int ${$get$capitalized_name$Value$}$(int index);\n");
       // printer.annotate("{", "}", descriptor);
@@ -101,8 +101,8 @@ public class RepeatedImmutableEnumFieldLiteGenerator implements ImmutableFieldLi
   public void generateMembers(Printer printer) {
     printer.emit(variables, "private $field_list_type$ $name$_;\n");
 
-    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_GETTER, context.getOptions());
-    if (InternalHelpers.supportUnknownEnumValue(descriptor)) {
+    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_GETTER, context);
+    if (InternalHelpers.supportUnknownEnumValue(descriptor, context)) {
         printer.emit(variables,
             "@java.lang.Override\n" +
             "$deprecation$public java.util.List<$boxed_type$>\n" +
@@ -119,7 +119,7 @@ public class RepeatedImmutableEnumFieldLiteGenerator implements ImmutableFieldLi
     }
     // printer.annotate("{", "}", descriptor);
 
-    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_COUNT, context.getOptions());
+    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_COUNT, context);
     printer.emit(variables,
         "@java.lang.Override\n" +
         "$deprecation$public int ${$get$capitalized_name$Count$}$() {\n" +
@@ -127,8 +127,8 @@ public class RepeatedImmutableEnumFieldLiteGenerator implements ImmutableFieldLi
         "}\n");
     // printer.annotate("{", "}", descriptor);
 
-    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_INDEXED_GETTER, context.getOptions());
-    if (InternalHelpers.supportUnknownEnumValue(descriptor)) {
+    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_INDEXED_GETTER, context);
+    if (InternalHelpers.supportUnknownEnumValue(descriptor, context)) {
         printer.emit(variables,
             "@java.lang.Override\n" +
             "$deprecation$public $type$ ${$get$capitalized_name$$}$(int index) {\n" +
@@ -143,8 +143,8 @@ public class RepeatedImmutableEnumFieldLiteGenerator implements ImmutableFieldLi
     }
     // printer.annotate("{", "}", descriptor);
 
-    if (InternalHelpers.supportUnknownEnumValue(descriptor)) {
-        DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_GETTER, context.getOptions());
+    if (InternalHelpers.supportUnknownEnumValue(descriptor, context)) {
+        DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_GETTER, context);
         printer.emit(variables,
             "@java.lang.Override\n" +
             "$deprecation$public java.util.List<java.lang.Integer>\n" +
@@ -153,7 +153,7 @@ public class RepeatedImmutableEnumFieldLiteGenerator implements ImmutableFieldLi
             "}\n");
         // printer.annotate("{", "}", descriptor);
 
-        DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_INDEXED_GETTER, context.getOptions());
+        DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_INDEXED_GETTER, context);
         printer.emit(variables,
             "@java.lang.Override\n" +
             "$deprecation$public int ${$get$capitalized_name$Value$}$(int index) {\n" +
@@ -162,7 +162,7 @@ public class RepeatedImmutableEnumFieldLiteGenerator implements ImmutableFieldLi
         // printer.annotate("{", "}", descriptor);
     }
 
-    if (InternalHelpers.supportUnknownEnumValue(descriptor)) {
+    if (InternalHelpers.supportUnknownEnumValue(descriptor, context)) {
         printer.print(variables,
             "private static final com.google.protobuf.Internal.ListAdapter.Converter<\n" +
             "    java.lang.Integer, $boxed_type$> $name$_converter_ =\n" +
@@ -190,13 +190,13 @@ public class RepeatedImmutableEnumFieldLiteGenerator implements ImmutableFieldLi
         "}\n");
 
     DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_INDEXED_SETTER,
-        context.getOptions(), false, false, true);
+        context, false, false, true);
     printer.emit(variables,
         "private void set$capitalized_name$(\n" +
         "    int index, $type$ value) {\n" +
         "$null_check$" +
         "  ensure$capitalized_name$IsMutable();\n");
-    if (InternalHelpers.supportUnknownEnumValue(descriptor)) {
+    if (InternalHelpers.supportUnknownEnumValue(descriptor, context)) {
         printer.emit(variables, "  $name$_.setInt(index, value.getNumber());\n");
     } else {
         printer.emit(variables, "  $name$_.set(index, value);\n");
@@ -204,12 +204,12 @@ public class RepeatedImmutableEnumFieldLiteGenerator implements ImmutableFieldLi
     printer.emit(variables, "}\n");
 
     DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_ADDER,
-        context.getOptions(), false, false, true);
+        context, false, false, true);
     printer.emit(variables,
         "private void add$capitalized_name$($type$ value) {\n" +
         "$null_check$" +
         "  ensure$capitalized_name$IsMutable();\n");
-    if (InternalHelpers.supportUnknownEnumValue(descriptor)) {
+    if (InternalHelpers.supportUnknownEnumValue(descriptor, context)) {
         printer.emit(variables, "  $name$_.addInt(value.getNumber());\n");
     } else {
         printer.emit(variables, "  $name$_.add(value);\n");
@@ -217,12 +217,12 @@ public class RepeatedImmutableEnumFieldLiteGenerator implements ImmutableFieldLi
     printer.emit(variables, "}\n");
 
     DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_MULTI_ADDER,
-        context.getOptions(), false, false, true);
+        context, false, false, true);
     printer.emit(variables,
         "private void addAll$capitalized_name$(\n" +
         "    java.lang.Iterable<? extends $boxed_type$> values) {\n" +
         "  ensure$capitalized_name$IsMutable();\n");
-    if (InternalHelpers.supportUnknownEnumValue(descriptor)) {
+    if (InternalHelpers.supportUnknownEnumValue(descriptor, context)) {
         printer.emit(variables,
             "  for ($boxed_type$ value : values) {\n" +
             "    $name$_.addInt(value.getNumber());\n" +
@@ -235,15 +235,15 @@ public class RepeatedImmutableEnumFieldLiteGenerator implements ImmutableFieldLi
     printer.emit(variables, "}\n");
 
     DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.CLEARER,
-        context.getOptions(), false, false, true);
+        context, false, false, true);
     printer.emit(variables,
         "private void clear$capitalized_name$() {\n" +
         "  $name$_ = $empty_list$;\n" +
         "}\n");
 
-    if (InternalHelpers.supportUnknownEnumValue(descriptor)) {
+    if (InternalHelpers.supportUnknownEnumValue(descriptor, context)) {
         DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_INDEXED_SETTER,
-            context.getOptions(), false, false, true);
+            context, false, false, true);
         printer.emit(variables,
             "private void set$capitalized_name$Value(\n" +
             "    int index, int value) {\n" +
@@ -252,7 +252,7 @@ public class RepeatedImmutableEnumFieldLiteGenerator implements ImmutableFieldLi
             "}\n");
 
         DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_ADDER,
-            context.getOptions(), false, false, true);
+            context, false, false, true);
         printer.emit(variables,
             "private void add$capitalized_name$Value(int value) {\n" +
             "  ensure$capitalized_name$IsMutable();\n" +
@@ -260,7 +260,7 @@ public class RepeatedImmutableEnumFieldLiteGenerator implements ImmutableFieldLi
             "}\n");
 
         DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_MULTI_ADDER,
-            context.getOptions(), false, false, true);
+            context, false, false, true);
         printer.emit(variables,
             "private void addAll$capitalized_name$Value(\n" +
             "    java.lang.Iterable<java.lang.Integer> values) {\n" +
@@ -274,8 +274,8 @@ public class RepeatedImmutableEnumFieldLiteGenerator implements ImmutableFieldLi
 
   @Override
   public void generateBuilderMembers(Printer printer) {
-    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_GETTER, context.getOptions());
-    if (InternalHelpers.supportUnknownEnumValue(descriptor)) {
+    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_GETTER, context);
+    if (InternalHelpers.supportUnknownEnumValue(descriptor, context)) {
         printer.emit(variables,
             "@java.lang.Override\n" +
             "$deprecation$public java.util.List<$boxed_type$> ${$get$capitalized_name$List$}$() {\n" +
@@ -292,7 +292,7 @@ public class RepeatedImmutableEnumFieldLiteGenerator implements ImmutableFieldLi
     }
     // printer.annotate("{", "}", descriptor);
 
-    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_COUNT, context.getOptions());
+    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_COUNT, context);
     printer.emit(variables,
         "@java.lang.Override\n" +
         "$deprecation$public int ${$get$capitalized_name$Count$}$() {\n" +
@@ -300,8 +300,8 @@ public class RepeatedImmutableEnumFieldLiteGenerator implements ImmutableFieldLi
         "}\n");
     // printer.annotate("{", "}", descriptor);
 
-    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_INDEXED_GETTER, context.getOptions());
-    if (InternalHelpers.supportUnknownEnumValue(descriptor)) {
+    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_INDEXED_GETTER, context);
+    if (InternalHelpers.supportUnknownEnumValue(descriptor, context)) {
         printer.emit(variables,
             "@java.lang.Override\n" +
             "$deprecation$public $type$ ${$get$capitalized_name$$}$(int index) {\n" +
@@ -317,7 +317,7 @@ public class RepeatedImmutableEnumFieldLiteGenerator implements ImmutableFieldLi
     // printer.annotate("{", "}", descriptor);
 
     DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.SETTER,
-        context.getOptions(), true);
+        context, true);
     printer.emit(variables,
         "$deprecation$public Builder ${$set$capitalized_name$$}$(\n" +
         "    int index, $type$ value) {\n" +
@@ -328,7 +328,7 @@ public class RepeatedImmutableEnumFieldLiteGenerator implements ImmutableFieldLi
     // printer.annotate("{", "}", descriptor);
 
     DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_ADDER,
-        context.getOptions(), true);
+        context, true);
     printer.emit(variables,
         "$deprecation$public Builder ${$add$capitalized_name$$}$($type$ value) {\n" +
         "  copyOnWrite();\n" +
@@ -338,7 +338,7 @@ public class RepeatedImmutableEnumFieldLiteGenerator implements ImmutableFieldLi
     // printer.annotate("{", "}", descriptor);
 
     DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_MULTI_ADDER,
-        context.getOptions(), true);
+        context, true);
     printer.emit(variables,
         "$deprecation$public Builder ${$addAll$capitalized_name$$}$(\n" +
         "    java.lang.Iterable<? extends $boxed_type$> values) {\n" +
@@ -349,7 +349,7 @@ public class RepeatedImmutableEnumFieldLiteGenerator implements ImmutableFieldLi
     // printer.annotate("{", "}", descriptor);
 
     DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.CLEARER,
-        context.getOptions(), true);
+        context, true);
     printer.emit(variables,
         "$deprecation$public Builder ${$clear$capitalized_name$$}$() {\n" +
         "  copyOnWrite();\n" +
@@ -358,8 +358,8 @@ public class RepeatedImmutableEnumFieldLiteGenerator implements ImmutableFieldLi
         "}\n");
     // printer.annotate("{", "}", descriptor);
 
-    if (InternalHelpers.supportUnknownEnumValue(descriptor)) {
-        DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_GETTER, context.getOptions());
+    if (InternalHelpers.supportUnknownEnumValue(descriptor, context)) {
+        DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_GETTER, context);
         printer.emit(variables,
             "@java.lang.Override\n" +
             "$deprecation$public java.util.List<java.lang.Integer>\n" +
@@ -369,7 +369,7 @@ public class RepeatedImmutableEnumFieldLiteGenerator implements ImmutableFieldLi
             "}\n");
         // printer.annotate("{", "}", descriptor);
 
-        DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_INDEXED_GETTER, context.getOptions());
+        DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_INDEXED_GETTER, context);
         printer.emit(variables,
             "@java.lang.Override\n" +
             "$deprecation$public int ${$get$capitalized_name$Value$}$(int index) {\n" +
@@ -378,7 +378,7 @@ public class RepeatedImmutableEnumFieldLiteGenerator implements ImmutableFieldLi
         // printer.annotate("{", "}", descriptor);
 
         DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.SETTER,
-            context.getOptions(), true);
+            context, true);
         printer.emit(variables,
             "$deprecation$public Builder ${$set$capitalized_name$Value$}$(\n" +
             "    int index, int value) {\n" +
@@ -389,7 +389,7 @@ public class RepeatedImmutableEnumFieldLiteGenerator implements ImmutableFieldLi
         // printer.annotate("{", "}", descriptor);
 
         DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_ADDER,
-            context.getOptions(), true);
+            context, true);
         printer.emit(variables,
             "$deprecation$public Builder ${$add$capitalized_name$Value$}$(int value) {\n" +
             "  copyOnWrite();\n" +
@@ -399,7 +399,7 @@ public class RepeatedImmutableEnumFieldLiteGenerator implements ImmutableFieldLi
         // printer.annotate("{", "}", descriptor);
 
         DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_MULTI_ADDER,
-            context.getOptions(), true);
+            context, true);
         printer.emit(variables,
             "$deprecation$public Builder ${$addAll$capitalized_name$Value$}$(\n" +
             "    java.lang.Iterable<java.lang.Integer> values) {\n" +
@@ -414,7 +414,7 @@ public class RepeatedImmutableEnumFieldLiteGenerator implements ImmutableFieldLi
   @Override
   public void generateFieldInfo(Printer printer, List<Integer> output) {
     Helpers.writeIntToUtf16CharSequence(descriptor.getNumber(), output);
-    Helpers.writeIntToUtf16CharSequence(InternalHelpers.getExperimentalJavaFieldType(descriptor), output);
+    Helpers.writeIntToUtf16CharSequence(InternalHelpers.getExperimentalJavaFieldType(descriptor, context), output);
     printer.emit(variables, "\"$name$_\",\n");
   }
 
@@ -57,25 +57,25 @@ public class RepeatedImmutableMessageFieldLiteGenerator implements ImmutableFiel
 
   @Override
   public void generateInterfaceMembers(Printer printer) {
-    DocComment.writeFieldDocComment(printer, descriptor, context.getOptions(), false);
+    DocComment.writeFieldDocComment(printer, descriptor, context, false);
     printer.emit(variables,
         "$deprecation$java.util.List<$type$> \n" +
         "    ${$get$capitalized_name$List$}$();\n");
 
-    DocComment.writeFieldDocComment(printer, descriptor, context.getOptions(), false);
+    DocComment.writeFieldDocComment(printer, descriptor, context, false);
     printer.emit(variables,
         "$deprecation$$type$ ${$get$capitalized_name$$}$(int index);\n");
 
-    DocComment.writeFieldDocComment(printer, descriptor, context.getOptions(), false);
+    DocComment.writeFieldDocComment(printer, descriptor, context, false);
     printer.emit(variables,
         "$deprecation$int ${$get$capitalized_name$Count$}$();\n");
 
-    DocComment.writeFieldDocComment(printer, descriptor, context.getOptions(), false);
+    DocComment.writeFieldDocComment(printer, descriptor, context, false);
     printer.emit(variables,
         "$deprecation$java.util.List<? extends $type$OrBuilder> \n" +
         "    ${$get$capitalized_name$OrBuilderList$}$();\n");
 
-    DocComment.writeFieldDocComment(printer, descriptor, context.getOptions(), false);
+    DocComment.writeFieldDocComment(printer, descriptor, context, false);
     printer.emit(variables,
         "$deprecation$$type$OrBuilder ${$get$capitalized_name$OrBuilder$}$(\n" +
         "    int index);\n");
@@ -85,7 +85,7 @@ public class RepeatedImmutableMessageFieldLiteGenerator implements ImmutableFiel
   public void generateMembers(Printer printer) {
     printer.emit(variables, "private $field_list_type$ $name$_;\n");
 
-    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_GETTER, context.getOptions());
+    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_GETTER, context);
     printer.emit(variables,
         "@java.lang.Override\n" +
         "$deprecation$public java.util.List<$type$> ${$get$capitalized_name$List$}$() {\n" +
@@ -93,7 +93,7 @@ public class RepeatedImmutableMessageFieldLiteGenerator implements ImmutableFiel
         "}\n");
     // printer.annotate("{", "}", descriptor);
 
-    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_GETTER, context.getOptions());
+    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_GETTER, context);
     printer.emit(variables,
         "public java.util.List<? extends $type$OrBuilder> \n" +
         "    ${$get$capitalized_name$OrBuilderList$}$() {\n" +
@@ -101,7 +101,7 @@ public class RepeatedImmutableMessageFieldLiteGenerator implements ImmutableFiel
         "}\n");
     // printer.annotate("{", "}", descriptor);
 
-    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_COUNT, context.getOptions());
+    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_COUNT, context);
     printer.emit(variables,
         "@java.lang.Override\n" +
         "$deprecation$public int ${$get$capitalized_name$Count$}$() {\n" +
@@ -109,7 +109,7 @@ public class RepeatedImmutableMessageFieldLiteGenerator implements ImmutableFiel
         "}\n");
     // printer.annotate("{", "}", descriptor);
 
-    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_INDEXED_GETTER, context.getOptions());
+    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_INDEXED_GETTER, context);
     printer.emit(variables,
         "@java.lang.Override\n" +
         "$deprecation$public $type$ ${$get$capitalized_name$$}$(int index) {\n" +
@@ -117,7 +117,7 @@ public class RepeatedImmutableMessageFieldLiteGenerator implements ImmutableFiel
         "}\n");
     // printer.annotate("{", "}", descriptor);
 
-    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_INDEXED_GETTER, context.getOptions());
+    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_INDEXED_GETTER, context);
     printer.emit(variables,
         "public $type$OrBuilder ${$get$capitalized_name$OrBuilder$}$(int index) {\n" +
         "  return $name$_.get(index);\n" +
@@ -134,7 +134,7 @@ public class RepeatedImmutableMessageFieldLiteGenerator implements ImmutableFiel
         "}\n");
 
     DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_INDEXED_SETTER,
-        context.getOptions(), false, false, true);
+        context, false, false, true);
     printer.emit(variables,
         "private void set$capitalized_name$(\n" +
         "    int index, $type$ value) {\n" +
@@ -144,7 +144,7 @@ public class RepeatedImmutableMessageFieldLiteGenerator implements ImmutableFiel
         "}\n");
 
     DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_ADDER,
-        context.getOptions(), false, false, true);
+        context, false, false, true);
     printer.emit(variables,
         "private void add$capitalized_name$($type$ value) {\n" +
         "$null_check$" +
@@ -153,7 +153,7 @@ public class RepeatedImmutableMessageFieldLiteGenerator implements ImmutableFiel
         "}\n");
 
     DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_ADDER,
-        context.getOptions(), false, false, true);
+        context, false, false, true);
     printer.emit(variables,
         "private void add$capitalized_name$(\n" +
         "    int index, $type$ value) {\n" +
@@ -163,7 +163,7 @@ public class RepeatedImmutableMessageFieldLiteGenerator implements ImmutableFiel
         "}\n");
 
     DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_MULTI_ADDER,
-        context.getOptions(), false, false, true);
+        context, false, false, true);
     printer.emit(variables,
         "private void addAll$capitalized_name$(\n" +
         "    java.lang.Iterable<? extends $type$> values) {\n" +
@@ -173,14 +173,14 @@ public class RepeatedImmutableMessageFieldLiteGenerator implements ImmutableFiel
         "}\n");
 
     DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.CLEARER,
-        context.getOptions(), false, false, true);
+        context, false, false, true);
     printer.emit(variables,
         "private void clear$capitalized_name$() {\n" +
         "  $name$_ = $empty_list$;\n" +
         "}\n");
 
     DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_INDEXED_SETTER,
-        context.getOptions(), false, false, true);
+        context, false, false, true);
     printer.emit(variables,
         "private void remove$capitalized_name$(int index) {\n" +
         "  ensure$capitalized_name$IsMutable();\n" +
@@ -190,7 +190,7 @@ public class RepeatedImmutableMessageFieldLiteGenerator implements ImmutableFiel
 
   @Override
   public void generateBuilderMembers(Printer printer) {
-    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_GETTER, context.getOptions());
+    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_GETTER, context);
     printer.emit(variables,
         "@java.lang.Override\n" +
         "$deprecation$public java.util.List<$type$> ${$get$capitalized_name$List$}$() {\n" +
@@ -199,7 +199,7 @@ public class RepeatedImmutableMessageFieldLiteGenerator implements ImmutableFiel
         "}\n");
     // printer.annotate("{", "}", descriptor);
 
-    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_COUNT, context.getOptions());
+    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_COUNT, context);
     printer.emit(variables,
         "@java.lang.Override\n" +
         "$deprecation$public int ${$get$capitalized_name$Count$}$() {\n" +
@@ -207,7 +207,7 @@ public class RepeatedImmutableMessageFieldLiteGenerator implements ImmutableFiel
         "}\n");
     // printer.annotate("{", "}", descriptor);
 
-    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_INDEXED_GETTER, context.getOptions());
+    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_INDEXED_GETTER, context);
     printer.emit(variables,
         "@java.lang.Override\n" +
         "$deprecation$public $type$ ${$get$capitalized_name$$}$(int index) {\n" +
@@ -216,7 +216,7 @@ public class RepeatedImmutableMessageFieldLiteGenerator implements ImmutableFiel
     // printer.annotate("{", "}", descriptor);
 
     DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.SETTER,
-        context.getOptions(), true);
+        context, true);
     printer.emit(variables,
         "$deprecation$public Builder ${$set$capitalized_name$$}$(\n" +
         "    int index, $type$ value) {\n" +
@@ -227,7 +227,7 @@ public class RepeatedImmutableMessageFieldLiteGenerator implements ImmutableFiel
     // printer.annotate("{", "}", descriptor);
 
     DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.SETTER,
-        context.getOptions(), true);
+        context, true);
     printer.emit(variables,
         "$deprecation$public Builder ${$set$capitalized_name$$}$(\n" +
         "    int index, $type$.Builder builderForValue) {\n" +
@@ -239,7 +239,7 @@ public class RepeatedImmutableMessageFieldLiteGenerator implements ImmutableFiel
     // printer.annotate("{", "}", descriptor);
 
     DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_ADDER,
-        context.getOptions(), true);
+        context, true);
     printer.emit(variables,
         "$deprecation$public Builder ${$add$capitalized_name$$}$($type$ value) {\n" +
         "  copyOnWrite();\n" +
@@ -249,7 +249,7 @@ public class RepeatedImmutableMessageFieldLiteGenerator implements ImmutableFiel
     // printer.annotate("{", "}", descriptor);
 
     DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_ADDER,
-        context.getOptions(), true);
+        context, true);
     printer.emit(variables,
         "$deprecation$public Builder ${$add$capitalized_name$$}$(\n" +
         "    int index, $type$ value) {\n" +
@@ -260,7 +260,7 @@ public class RepeatedImmutableMessageFieldLiteGenerator implements ImmutableFiel
     // printer.annotate("{", "}", descriptor);
 
     DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_ADDER,
-        context.getOptions(), true);
+        context, true);
     printer.emit(variables,
         "$deprecation$public Builder ${$add$capitalized_name$$}$(\n" +
         "    $type$.Builder builderForValue) {\n" +
@@ -271,7 +271,7 @@ public class RepeatedImmutableMessageFieldLiteGenerator implements ImmutableFiel
     // printer.annotate("{", "}", descriptor);
 
     DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_ADDER,
-        context.getOptions(), true);
+        context, true);
     printer.emit(variables,
         "$deprecation$public Builder ${$add$capitalized_name$$}$(\n" +
         "    int index, $type$.Builder builderForValue) {\n" +
@@ -283,7 +283,7 @@ public class RepeatedImmutableMessageFieldLiteGenerator implements ImmutableFiel
     // printer.annotate("{", "}", descriptor);
 
     DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_MULTI_ADDER,
-        context.getOptions(), true);
+        context, true);
     printer.emit(variables,
         "$deprecation$public Builder ${$addAll$capitalized_name$$}$(\n" +
         "    java.lang.Iterable<? extends $type$> values) {\n" +
@@ -294,7 +294,7 @@ public class RepeatedImmutableMessageFieldLiteGenerator implements ImmutableFiel
     // printer.annotate("{", "}", descriptor);
 
     DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.CLEARER,
-        context.getOptions(), true);
+        context, true);
     printer.emit(variables,
         "$deprecation$public Builder ${$clear$capitalized_name$$}$() {\n" +
         "  copyOnWrite();\n" +
@@ -304,7 +304,7 @@ public class RepeatedImmutableMessageFieldLiteGenerator implements ImmutableFiel
     // printer.annotate("{", "}", descriptor);
 
     DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_INDEXED_SETTER,
-        context.getOptions(), true);
+        context, true);
     printer.emit(variables,
         "$deprecation$public Builder ${$remove$capitalized_name$$}$(int index) {\n" +
         "  copyOnWrite();\n" +
@@ -317,7 +317,7 @@ public class RepeatedImmutableMessageFieldLiteGenerator implements ImmutableFiel
   @Override
   public void generateFieldInfo(Printer printer, List<Integer> output) {
     Helpers.writeIntToUtf16CharSequence(descriptor.getNumber(), output);
-    Helpers.writeIntToUtf16CharSequence(InternalHelpers.getExperimentalJavaFieldType(descriptor), output);
+    Helpers.writeIntToUtf16CharSequence(InternalHelpers.getExperimentalJavaFieldType(descriptor, context), output);
     printer.emit(variables, "\"$name$_\",\n");
   }
 
@@ -82,17 +82,17 @@ public class RepeatedImmutablePrimitiveFieldLiteGenerator implements ImmutableFi
 
   @Override
   public void generateInterfaceMembers(Printer printer) {
-    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_GETTER, context.getOptions());
+    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_GETTER, context);
     printer.emit(variables,
         "java.util.List<$boxed_type$> $repeated_get$();\n");
     // printer.annotate("{", "}", descriptor);
 
-    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_COUNT, context.getOptions());
+    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_COUNT, context);
     printer.emit(variables,
         "int $repeated_count$();\n");
     // printer.annotate("{", "}", descriptor);
 
-    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_INDEXED_GETTER, context.getOptions());
+    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_INDEXED_GETTER, context);
     printer.emit(variables,
         "$type$ $repeated_get_index$(int index);\n");
     // printer.annotate("{", "}", descriptor);
@@ -102,7 +102,7 @@ public class RepeatedImmutablePrimitiveFieldLiteGenerator implements ImmutableFi
   public void generateMembers(Printer printer) {
     printer.emit(variables, "private $list_type$ $name$_;\n");
 
-    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_GETTER, context.getOptions());
+    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_GETTER, context);
     printer.emit(variables,
         "@java.lang.Override\n" +
         "public java.util.List<$boxed_type$> $repeated_get$() {\n" +
@@ -110,7 +110,7 @@ public class RepeatedImmutablePrimitiveFieldLiteGenerator implements ImmutableFi
         "}\n");
     // printer.annotate("{", "}", descriptor);
 
-    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_COUNT, context.getOptions());
+    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_COUNT, context);
     printer.emit(variables,
         "@java.lang.Override\n" +
         "public int $repeated_count$() {\n" +
@@ -118,7 +118,7 @@ public class RepeatedImmutablePrimitiveFieldLiteGenerator implements ImmutableFi
         "}\n");
     // printer.annotate("{", "}", descriptor);
 
-    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_INDEXED_GETTER, context.getOptions());
+    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_INDEXED_GETTER, context);
     printer.emit(variables,
         "@java.lang.Override\n" +
         "public $type$ $repeated_get_index$(int index) {\n" +
@@ -135,7 +135,7 @@ public class RepeatedImmutablePrimitiveFieldLiteGenerator implements ImmutableFi
         "}\n");
 
     DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_INDEXED_SETTER,
-        context.getOptions(), false, false, true);
+        context, false, false, true);
     printer.emit(variables,
         "private void set$capitalized_name$(\n" +
         "    int index, $type$ value) {\n" +
@@ -144,7 +144,7 @@ public class RepeatedImmutablePrimitiveFieldLiteGenerator implements ImmutableFi
         "}\n");
 
     DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_ADDER,
-        context.getOptions(), false, false, true);
+        context, false, false, true);
     printer.emit(variables,
         "private void add$capitalized_name$($type$ value) {\n" +
         "  ensure$capitalized_name$IsMutable();\n" +
@@ -152,7 +152,7 @@ public class RepeatedImmutablePrimitiveFieldLiteGenerator implements ImmutableFi
         "}\n");
 
     DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_MULTI_ADDER,
-        context.getOptions(), false, false, true);
+        context, false, false, true);
     printer.emit(variables,
         "private void addAll$capitalized_name$(\n" +
         "    java.lang.Iterable<? extends $boxed_type$> values) {\n" +
@@ -162,7 +162,7 @@ public class RepeatedImmutablePrimitiveFieldLiteGenerator implements ImmutableFi
         "}\n");
 
     DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.CLEARER,
-        context.getOptions(), false, false, true);
+        context, false, false, true);
     printer.emit(variables,
         "private void clear$capitalized_name$() {\n" +
         "  $name$_ = $empty_list$;\n" +
@@ -171,7 +171,7 @@ public class RepeatedImmutablePrimitiveFieldLiteGenerator implements ImmutableFi
 
   @Override
   public void generateBuilderMembers(Printer printer) {
-    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_GETTER, context.getOptions());
+    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_GETTER, context);
     printer.emit(variables,
         "@java.lang.Override\n" +
         "public java.util.List<$boxed_type$> $repeated_get$() {\n" +
@@ -180,7 +180,7 @@ public class RepeatedImmutablePrimitiveFieldLiteGenerator implements ImmutableFi
         "}\n");
     // printer.annotate("{", "}", descriptor);
 
-    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_COUNT, context.getOptions());
+    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_COUNT, context);
     printer.emit(variables,
         "@java.lang.Override\n" +
         "public int $repeated_count$() {\n" +
@@ -188,7 +188,7 @@ public class RepeatedImmutablePrimitiveFieldLiteGenerator implements ImmutableFi
         "}\n");
     // printer.annotate("{", "}", descriptor);
 
-    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_INDEXED_GETTER, context.getOptions());
+    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_INDEXED_GETTER, context);
     printer.emit(variables,
         "@java.lang.Override\n" +
         "public $type$ $repeated_get_index$(int index) {\n" +
@@ -197,7 +197,7 @@ public class RepeatedImmutablePrimitiveFieldLiteGenerator implements ImmutableFi
     // printer.annotate("{", "}", descriptor);
 
     DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.SETTER,
-        context.getOptions(), true);
+        context, true);
     printer.emit(variables,
         "public Builder set$capitalized_name$(\n" +
         "    int index, $type$ value) {\n" +
@@ -208,7 +208,7 @@ public class RepeatedImmutablePrimitiveFieldLiteGenerator implements ImmutableFi
     // printer.annotate("{", "}", descriptor);
 
     DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_ADDER,
-        context.getOptions(), true);
+        context, true);
     printer.emit(variables,
         "public Builder add$capitalized_name$($type$ value) {\n" +
         "  copyOnWrite();\n" +
@@ -218,7 +218,7 @@ public class RepeatedImmutablePrimitiveFieldLiteGenerator implements ImmutableFi
     // printer.annotate("{", "}", descriptor);
 
     DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_MULTI_ADDER,
-        context.getOptions(), true);
+        context, true);
     printer.emit(variables,
         "public Builder addAll$capitalized_name$(\n" +
         "    java.lang.Iterable<? extends $boxed_type$> values) {\n" +
@@ -229,7 +229,7 @@ public class RepeatedImmutablePrimitiveFieldLiteGenerator implements ImmutableFi
     // printer.annotate("{", "}", descriptor);
 
     DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.CLEARER,
-        context.getOptions(), true);
+        context, true);
     printer.emit(variables,
         "public Builder clear$capitalized_name$() {\n" +
         "  copyOnWrite();\n" +
@@ -242,7 +242,7 @@ public class RepeatedImmutablePrimitiveFieldLiteGenerator implements ImmutableFi
   @Override
   public void generateFieldInfo(Printer printer, List<Integer> output) {
     Helpers.writeIntToUtf16CharSequence(descriptor.getNumber(), output);
-    Helpers.writeIntToUtf16CharSequence(InternalHelpers.getExperimentalJavaFieldType(descriptor), output);
+    Helpers.writeIntToUtf16CharSequence(InternalHelpers.getExperimentalJavaFieldType(descriptor, context), output);
     printer.emit(variables, "\"$name$_\",\n");
   }
 
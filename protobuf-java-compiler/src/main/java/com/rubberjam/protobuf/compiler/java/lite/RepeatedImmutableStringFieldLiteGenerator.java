@@ -56,23 +56,23 @@ public class RepeatedImmutableStringFieldLiteGenerator implements ImmutableField
 
   @Override
   public void generateInterfaceMembers(Printer printer) {
-    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_GETTER, context.getOptions());
+    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_GETTER, context);
     printer.emit(variables,
         "$deprecation$java.util.List<java.lang.String>\n" +
         "    ${$get$capitalized_name$List$}$();\n");
     // printer.annotate("{", "}", descriptor);
 
-    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_COUNT, context.getOptions());
+    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_COUNT, context);
     printer.emit(variables,
         "$deprecation$int ${$get$capitalized_name$Count$}$();\n");
     // printer.annotate("{", "}", descriptor);
 
-    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_INDEXED_GETTER, context.getOptions());
+    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_INDEXED_GETTER, context);
     printer.emit(variables,
         "$deprecation$java.lang.String ${$get$capitalized_name$$}$(int index);\n");
     // printer.annotate("{", "}", descriptor);
 
-    DocComment.writeFieldStringBytesAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_INDEXED_GETTER, context.getOptions());
+    DocComment.writeFieldStringBytesAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_INDEXED_GETTER, context);
     printer.emit(variables,
         "$deprecation$com.google.protobuf.ByteString\n" +
         "    ${$get$capitalized_name$Bytes$}$(int index);\n");
@@ -83,7 +83,7 @@ public class RepeatedImmutableStringFieldLiteGenerator implements ImmutableField
   public void generateMembers(Printer printer) {
     printer.emit(variables, "private $field_list_type$ $name$_;\n");
 
-    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_GETTER, context.getOptions());
+    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_GETTER, context);
     printer.emit(variables,
         "@java.lang.Override\n" +
         "$deprecation$public java.util.List<java.lang.String> ${$get$capitalized_name$List$}$() {\n" +
@@ -91,7 +91,7 @@ public class RepeatedImmutableStringFieldLiteGenerator implements ImmutableField
         "}\n");
     // printer.annotate("{", "}", descriptor);
 
-    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_COUNT, context.getOptions());
+    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_COUNT, context);
     printer.emit(variables,
         "@java.lang.Override\n" +
         "$deprecation$public int ${$get$capitalized_name$Count$}$() {\n" +
@@ -99,7 +99,7 @@ public class RepeatedImmutableStringFieldLiteGenerator implements ImmutableField
         "}\n");
     // printer.annotate("{", "}", descriptor);
 
-    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_INDEXED_GETTER, context.getOptions());
+    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_INDEXED_GETTER, context);
     printer.emit(variables,
         "@java.lang.Override\n" +
         "$deprecation$public java.lang.String ${$get$capitalized_name$$}$(int index) {\n" +
@@ -107,7 +107,7 @@ public class RepeatedImmutableStringFieldLiteGenerator implements ImmutableField
         "}\n");
     // printer.annotate("{", "}", descriptor);
 
-    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_INDEXED_GETTER, context.getOptions());
+    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_INDEXED_GETTER, context);
     printer.emit(variables,
         "@java.lang.Override\n" +
         "$deprecation$public com.google.protobuf.ByteString\n" +
@@ -131,7 +131,7 @@ public class RepeatedImmutableStringFieldLiteGenerator implements ImmutableField
         "}\n");
 
     DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_INDEXED_SETTER,
-        context.getOptions(), false, false, true);
+        context, false, false, true);
     printer.emit(variables,
         "private void set$capitalized_name$(\n" +
         "    int index, java.lang.String value) {\n" +
@@ -141,7 +141,7 @@ public class RepeatedImmutableStringFieldLiteGenerator implements ImmutableField
         "}\n");
 
     DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_ADDER,
-        context.getOptions(), false, false, true);
+        context, false, false, true);
     printer.emit(variables,
         "private void add$capitalized_name$(java.lang.String value) {\n" +
         "$null_check$" +
@@ -150,7 +150,7 @@ public class RepeatedImmutableStringFieldLiteGenerator implements ImmutableField
         "}\n");
 
     DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_MULTI_ADDER,
-        context.getOptions(), false, false, true);
+        context, false, false, true);
     printer.emit(variables,
         "private void addAll$capitalized_name$(\n" +
         "    java.lang.Iterable<java.lang.String> values) {\n" +
@@ -160,14 +160,14 @@ public class RepeatedImmutableStringFieldLiteGenerator implements ImmutableField
         "}\n");
 
     DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.CLEARER,
-        context.getOptions(), false, false, true);
+        context, false, false, true);
     printer.emit(variables,
         "private void clear$capitalized_name$() {\n" +
         "  $name$_ = $empty_list$;\n" +
         "}\n");
 
     DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_ADDER,
-        context.getOptions(), false, false, true);
+        context, false, false, true);
     printer.emit(variables,
         "private void add$capitalized_name$Bytes(\n" +
         "    com.google.protobuf.ByteString value) {\n" +
@@ -179,7 +179,7 @@ public class RepeatedImmutableStringFieldLiteGenerator implements ImmutableField
 
   @Override
   public void generateBuilderMembers(Printer printer) {
-    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_GETTER, context.getOptions());
+    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_GETTER, context);
     printer.emit(variables,
         "@java.lang.Override\n" +
         "$deprecation$public java.util.List<java.lang.String> ${$get$capitalized_name$List$}$() {\n" +
@@ -188,7 +188,7 @@ public class RepeatedImmutableStringFieldLiteGenerator implements ImmutableField
         "}\n");
     // printer.annotate("{", "}", descriptor);
 
-    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_COUNT, context.getOptions());
+    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_COUNT, context);
     printer.emit(variables,
         "@java.lang.Override\n" +
         "$deprecation$public int ${$get$capitalized_name$Count$}$() {\n" +
@@ -196,7 +196,7 @@ public class RepeatedImmutableStringFieldLiteGenerator implements ImmutableField
         "}\n");
     // printer.annotate("{", "}", descriptor);
 
-    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_INDEXED_GETTER, context.getOptions());
+    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_INDEXED_GETTER, context);
     printer.emit(variables,
         "@java.lang.Override\n" +
         "$deprecation$public java.lang.String ${$get$capitalized_name$$}$(int index) {\n" +
@@ -204,7 +204,7 @@ public class RepeatedImmutableStringFieldLiteGenerator implements ImmutableField
         "}\n");
     // printer.annotate("{", "}", descriptor);
 
-    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_INDEXED_GETTER, context.getOptions());
+    DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_INDEXED_GETTER, context);
     printer.emit(variables,
         "@java.lang.Override\n" +
         "$deprecation$public com.google.protobuf.ByteString\n" +
@@ -214,7 +214,7 @@ public class RepeatedImmutableStringFieldLiteGenerator implements ImmutableField
     // printer.annotate("{", "}", descriptor);
 
     DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.SETTER,
-        context.getOptions(), true);
+        context, true);
     printer.emit(variables,
         "$deprecation$public Builder ${$set$capitalized_name$$}$(\n" +
         "    int index, java.lang.String value) {\n" +
@@ -225,7 +225,7 @@ public class RepeatedImmutableStringFieldLiteGenerator implements ImmutableField
     // printer.annotate("{", "}", descriptor);
 
     DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_ADDER,
-        context.getOptions(), true);
+        context, true);
     printer.emit(variables,
         "$deprecation$public Builder ${$add$capitalized_name$$}$(java.lang.String value) {\n" +
         "  copyOnWrite();\n" +
@@ -235,7 +235,7 @@ public class RepeatedImmutableStringFieldLiteGenerator implements ImmutableField
     // printer.annotate("{", "}", descriptor);
 
     DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_MULTI_ADDER,
-        context.getOptions(), true);
+        context, true);
     printer.emit(variables,
         "$deprecation$public Builder ${$addAll$capitalized_name$$}$(\n" +
         "    java.lang.Iterable<java.lang.String> values) {\n" +
@@ -246,7 +246,7 @@ public class RepeatedImmutableStringFieldLiteGenerator implements ImmutableField
     // printer.annotate("{", "}", descriptor);
 
     DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.CLEARER,
-        context.getOptions(), true);
+        context, true);
     printer.emit(variables,
         "$deprecation$public Builder ${$clear$capitalized_name$$}$() {\n" +
         "  copyOnWrite();\n" +
@@ -256,7 +256,7 @@ public class RepeatedImmutableStringFieldLiteGenerator implements ImmutableField
     // printer.annotate("{", "}", descriptor);
 
     DocComment.writeFieldAccessorDocComment(printer, descriptor, DocComment.AccessorType.LIST_ADDER,
-        context.getOptions(), true);
+        context, true);
     printer.emit(variables,
         "$deprecation$public Builder ${$add$capitalized_name$Bytes$}$(\n" +
         "    com.google.protobuf.ByteString value) {\n" +
@@ -270,7 +270,7 @@ public class RepeatedImmutableStringFieldLiteGenerator implements ImmutableField
   @Override
   public void generateFieldInfo(Printer printer, List<Integer> output) {
     Helpers.writeIntToUtf16CharSequence(descriptor.getNumber(), output);
-    Helpers.writeIntToUtf16CharSequence(InternalHelpers.getExperimentalJavaFieldType(descriptor), output);
+    Helpers.writeIntToUtf16CharSequence(InternalHelpers.getExperimentalJavaFieldType(descriptor, context), output);
     printer.emit(variables, "\"$name$_\",\n");
   }
 
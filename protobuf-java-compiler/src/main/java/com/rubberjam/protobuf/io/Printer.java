@@ -1,8 +1,17 @@
 package com.rubberjam.protobuf.io;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BooleanSupplier;
-import java.util.regex.Pattern;
 
 public class Printer
 {
@@ -49,6 +58,7 @@ public class Printer
 	{
 		final List<Chunk> chunks = new ArrayList<>();
 		int indent;
+		boolean pureMarkers;
 
 		boolean isPureMarker()
 		{
@@ -65,12 +75,61 @@ public class Printer
 		}
 	}
 
+	// Formats are shared through the template cache, so they must not be
+	// modified once tokenized.
 	private static class Format
 	{
 		final List<Line> lines = new ArrayList<>();
 		boolean isRawString = false;
 	}
 
+	// Everything tokenizeFormat() depends on besides the format string itself.
+	private static final class TemplateKey
+	{
+		final String format;
+		final char delimiter;
+		final boolean stripRawStringIndentation;
+		final String ignoredCommentStart;
+		final boolean atStartOfLine;
+		final int hash;
+
+		TemplateKey(String format, Options options, boolean atStartOfLine)
+		{
+			this.format = format;
+			this.delimiter = options.variableDelimiter;
+			this.stripRawStringIndentation = options.stripRawStringIndentation;
+			this.ignoredCommentStart = options.ignoredCommentStart;
+			this.atStartOfLine = atStartOfLine;
+			this.hash = Objects.hash(format, delimiter, stripRawStringIndentation, ignoredCommentStart, atStartOfLine);
+		}
+
+		@Override
+		public boolean equals(Object o)
+		{
+			if (this == o) return true;
+			if (!(o instanceof TemplateKey)) return false;
+			TemplateKey other = (TemplateKey) o;
+			return hash == other.hash
+					&& delimiter == other.delimiter
+					&& stripRawStringIndentation == other.stripRawStringIndentation
+					&& atStartOfLine == other.atStartOfLine
+					&& format.equals(other.format)
+					&& Objects.equals(ignoredCommentStart, other.ignoredCommentStart);
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return hash;
+		}
+	}
+
+	// Generators emit the same few hundred templates over and over, so their
+	// tokenized form is shared by all printers. Templates built at runtime can
+	// make this grow without bound, so it is simply dropped once it gets large.
+	private static final int MAX_CACHED_TEMPLATES = 4096;
+	private static final Map<TemplateKey, Format> templateCache = new ConcurrentHashMap<>();
+
 	public static class PrinterValue
 	{
 		String text;
@@ -131,9 +190,21 @@ public class Printer
 
 	// --- State Management ---
 	private final Options options;
-	private final StringBuilder buffer = new StringBuilder();
-	private final Deque<Map<String, PrinterValue>> varStack = new ArrayDeque<>();
-	private final Deque<Map<String, AnnotationRecord>> annotationStack = new ArrayDeque<>();
+	// Text not yet handed to the sink. Without a sink this is all the output;
+	// with one it starts at flushedChars and always holds the current line.
+	// The sink is either writer or stream, or neither. The buffers are kept
+	// across reset() so a reused printer does not grow them again.
+	private StringBuilder buffer = new StringBuilder();
+	private Writer writer;
+	private OutputStream stream;
+	private CharsetEncoder encoder;
+	private ByteBuffer encoded;
+	private char[] flushChars;
+	private int flushedChars = 0;
+	// The maps passed to emit() and friends, innermost last. They are used as
+	// given; values are interpreted when substituted, and AnnotationRecord
+	// values are only visible to annotation lookups.
+	private final ArrayList<Map<String, ?>> scopes = new ArrayList<>();
 	private final Map<String, int[]> substitutions = new HashMap<>();
 
 	private int currentIndent = 0;
@@ -142,77 +213,119 @@ public class Printer
 	private boolean atStartOfLine = true;
 	private boolean pendingIndent = true;
 	private boolean skipNextNewline = false;
+	// Whether the current line has anything but spaces on it.
+	private boolean lineHasText = false;
+	// Indentation a fragment started at, or -1 if this is not a fragment.
+	private int fragmentIndent = -1;
+
+	// Completed lines are handed to the sink once this much text is buffered.
+	private static final int FLUSH_THRESHOLD = 8192;
+	private static final String SPACES = " ".repeat(64);
+	// reset() drops a buffer that has grown past this many chars rather than
+	// keeping it around for the next output.
+	private static final int MAX_RETAINED_CAPACITY = 1 << 20;
 
 	public Printer(Options options)
 	{
 		this.options = options;
-		varStack.push(new HashMap<>());
-		annotationStack.push(new HashMap<>());
 	}
 
-	// --- Scoping API ---
+	/**
+	 * Creates a printer that writes its output to {@code output} as UTF-8
+	 * while printing, instead of keeping all of it in memory. Only the
+	 * current line and a few kilobytes of completed lines are held back;
+	 * call {@link #flush} when done to write the rest. The stream is not
+	 * closed.
+	 */
+	public Printer(Options options, OutputStream output)
+	{
+		this.options = options;
+		this.stream = output;
+	}
 
-	public AutoCloseable withVars(Map<String, Object> vars)
+	/**
+	 * Creates a printer that writes its output to {@code output} while
+	 * printing. See {@link #Printer(Options, OutputStream)}.
+	 */
+	public Printer(Options options, Writer output)
 	{
-		Map<String, PrinterValue> varFrame = new HashMap<>();
-		Map<String, AnnotationRecord> annotFrame = new HashMap<>();
+		this.options = options;
+		this.writer = output;
+	}
 
-		vars.forEach((k, v) ->
+	/**
+	 * Discards all output and state, returning this printer to how it was
+	 * when created without a sink. Its buffers are kept, so a printer reused
+	 * for many outputs only grows them once. A fragment starts again at its
+	 * original indentation.
+	 */
+	public void reset()
+	{
+		if (buffer.capacity() > MAX_RETAINED_CAPACITY)
 		{
-			if (v instanceof AnnotationRecord)
-			{
-				annotFrame.put(k, (AnnotationRecord) v);
-			}
-			else if (v instanceof PrinterValue)
-			{
-				varFrame.put(k, (PrinterValue) v);
-			}
-			else if (v instanceof BooleanSupplier)
-			{
-				varFrame.put(k, new PrinterValue((BooleanSupplier) v));
-			}
-			else
-			{
-				varFrame.put(k, new PrinterValue(String.valueOf(v)));
-			}
-		});
-
-		varStack.push(varFrame);
-		annotationStack.push(annotFrame);
-		return () ->
+			buffer = new StringBuilder();
+		}
+		buffer.setLength(0);
+		writer = null;
+		stream = null;
+		flushedChars = 0;
+		if (encoder != null)
 		{
-			varStack.pop();
-			annotationStack.pop();
-		};
+			// A sink that threw mid-encode leaves both in the middle of a write.
+			encoder.reset();
+			encoded.clear();
+		}
+		scopes.clear();
+		substitutions.clear();
+		currentIndent = Math.max(fragmentIndent, 0);
+		bytesWritten = 0;
+		lastNewlineBytes = 0;
+		atStartOfLine = true;
+		pendingIndent = true;
+		skipNextNewline = false;
+		lineHasText = false;
 	}
 
-	public void pushVars(Map<String, Object> vars)
+	/**
+	 * Like {@link #reset()}, but the printer then writes to {@code output} as
+	 * if created with {@link #Printer(Options, OutputStream)}.
+	 */
+	public void reset(OutputStream output)
 	{
-		Map<String, PrinterValue> varFrame = new HashMap<>();
-		Map<String, AnnotationRecord> annotFrame = new HashMap<>();
+		reset();
+		stream = output;
+	}
 
-		vars.forEach((k, v) ->
-		{
-			if (v instanceof AnnotationRecord)
-			{
-				annotFrame.put(k, (AnnotationRecord) v);
-			}
-			else if (v instanceof PrinterValue)
-			{
-				varFrame.put(k, (PrinterValue) v);
-			}
-			else if (v instanceof BooleanSupplier)
-			{
-				varFrame.put(k, new PrinterValue((BooleanSupplier) v));
-			}
-			else
-			{
-				varFrame.put(k, new PrinterValue(String.valueOf(v)));
-			}
-		});
+	/**
+	 * Like {@link #reset()}, but the printer then writes to {@code output} as
+	 * if created with {@link #Printer(Options, Writer)}.
+	 */
+	public void reset(Writer output)
+	{
+		reset();
+		writer = output;
+	}
+
+	// --- Scoping API ---
+
+	/**
+	 * Makes {@code vars} visible until the returned scope is closed. The map
+	 * is not copied, so it must not change while the scope is open.
+	 */
+	public AutoCloseable withVars(Map<String, Object> vars)
+	{
+		scopes.add(vars);
+		return this::popScope;
+	}
+
+	public void pushVars(Map<String, Object> vars)
+	{
+		scopes.add(new HashMap<>(vars));
+	}
 
-		varStack.push(varFrame);
-		annotationStack.push(annotFrame);
+	private void popScope()
+	{
+		scopes.remove(scopes.size() - 1);
 	}
 
 	public AutoCloseable withIndent()
@@ -226,7 +339,7 @@ public class Printer
 		if (!atStartOfLine)
 		{
 			int lineLength = bytesWritten - lastNewlineBytes;
-			if (lineLength > 0 && lineLength == currentIndent)
+			if (lineLength > 0 && lineLength == currentIndent && currentLineBuffered())
 			{
 				boolean allSpaces = true;
 				for (int i = 0; i < lineLength; i++)
@@ -255,7 +368,7 @@ public class Printer
 		if (!atStartOfLine)
 		{
 			int lineLength = bytesWritten - lastNewlineBytes;
-			if (lineLength > 0 && lineLength > currentIndent)
+			if (lineLength > 0 && lineLength > currentIndent && currentLineBuffered())
 			{
 				// Check if the line contains only spaces
 				boolean allSpaces = true;
@@ -282,6 +395,169 @@ public class Printer
 		}
 	}
 
+	// --- Fragments ---
+
+	/**
+	 * Returns an empty printer with the same options that starts at this
+	 * printer's current indentation, at the beginning of a line. Text rendered
+	 * into it, possibly on another thread, can be added back to this printer
+	 * with {@link #appendFragment}. The fragment does not see this printer's
+	 * variables.
+	 */
+	public Printer newFragment()
+	{
+		if (options.annotationCollector != null)
+		{
+			throw new IllegalStateException("Fragments cannot be used with an annotation collector");
+		}
+		Printer fragment = new Printer(options);
+		fragment.currentIndent = currentIndent;
+		fragment.fragmentIndent = currentIndent;
+		return fragment;
+	}
+
+	/**
+	 * Returns true if this printer is at the beginning of a line, with
+	 * nothing pending that would change how the next line starts. Fragments
+	 * created now can then be added back with {@link #appendFragment}.
+	 */
+	public boolean isAtLineStart()
+	{
+		return atStartOfLine && pendingIndent && !skipNextNewline && bytesWritten == lastNewlineBytes;
+	}
+
+	/**
+	 * Appends the output of a printer created by {@link #newFragment}, leaving
+	 * this printer in the state the fragment ended in. The result is the same
+	 * as having rendered the fragment's text directly into this printer,
+	 * which requires this printer to be {@linkplain #isAtLineStart at the
+	 * beginning of a line} at the fragment's starting indentation. Fragments
+	 * appended one after another therefore each have to end where they
+	 * started.
+	 *
+	 * @throws IllegalStateException
+	 *             if this printer is not where the fragment started; nothing
+	 *             is appended.
+	 */
+	public void appendFragment(Printer fragment)
+	{
+		if (fragment.fragmentIndent < 0)
+		{
+			throw new IllegalArgumentException("Printer was not created by newFragment()");
+		}
+		if (!isAtLineStart() || currentIndent != fragment.fragmentIndent)
+		{
+			throw new IllegalStateException("Fragment started at the beginning of a line at indent "
+					+ fragment.fragmentIndent + ", but the printer is at indent " + currentIndent
+					+ (isAtLineStart() ? "" : " in the middle of a line"));
+		}
+		int offset = bytesWritten;
+		buffer.append(fragment.buffer);
+		bytesWritten += fragment.bytesWritten;
+		lastNewlineBytes = offset + fragment.lastNewlineBytes;
+		atStartOfLine = fragment.atStartOfLine;
+		pendingIndent = fragment.pendingIndent;
+		skipNextNewline = fragment.skipNextNewline;
+		lineHasText = fragment.lineHasText;
+		currentIndent = fragment.currentIndent;
+		flushCompletedLines();
+	}
+
+	// --- Output ---
+
+	/**
+	 * Writes everything printed so far to the sink and flushes it. Does
+	 * nothing for a printer without a sink. Printing may continue afterwards,
+	 * but whitespace already written out on the current line can no longer
+	 * be trimmed.
+	 */
+	public void flush() throws IOException
+	{
+		if (writer != null)
+		{
+			writeToSink(buffer.length(), true);
+			writer.flush();
+		}
+		else if (stream != null)
+		{
+			writeToSink(buffer.length(), true);
+			stream.flush();
+		}
+	}
+
+	private boolean currentLineBuffered()
+	{
+		return lastNewlineBytes >= flushedChars;
+	}
+
+	private void flushCompletedLines()
+	{
+		int completed = lastNewlineBytes - flushedChars;
+		if ((writer != null || stream != null) && completed >= FLUSH_THRESHOLD)
+		{
+			try
+			{
+				writeToSink(completed, false);
+			}
+			catch (IOException e)
+			{
+				throw new UncheckedIOException(e);
+			}
+		}
+	}
+
+	// Writes the first length chars of the buffer to the sink. Unless
+	// endOfInput is set, they end with a newline, so no surrogate pair is
+	// ever split across two writes.
+	private void writeToSink(int length, boolean endOfInput) throws IOException
+	{
+		if (flushChars == null || flushChars.length < length)
+		{
+			flushChars = new char[Math.max(length, FLUSH_THRESHOLD * 2)];
+		}
+		buffer.getChars(0, length, flushChars, 0);
+		if (writer != null)
+		{
+			writer.write(flushChars, 0, length);
+		}
+		else
+		{
+			encode(CharBuffer.wrap(flushChars, 0, length), endOfInput);
+		}
+		buffer.delete(0, length);
+		flushedChars += length;
+	}
+
+	private void encode(CharBuffer chars, boolean endOfInput) throws IOException
+	{
+		if (encoder == null)
+		{
+			encoder = StandardCharsets.UTF_8.newEncoder()
+					.onMalformedInput(CodingErrorAction.REPLACE)
+					.onUnmappableCharacter(CodingErrorAction.REPLACE);
+			encoded = ByteBuffer.allocate(FLUSH_THRESHOLD);
+		}
+		while (encoder.encode(chars, encoded, endOfInput).isOverflow())
+		{
+			drainEncoded();
+		}
+		if (endOfInput)
+		{
+			while (encoder.flush(encoded).isOverflow())
+			{
+				drainEncoded();
+			}
+			encoder.reset();
+		}
+		drainEncoded();
+	}
+
+	private void drainEncoded() throws IOException
+	{
+		stream.write(encoded.array(), 0, encoded.position());
+		encoded.clear();
+	}
+
 	// --- Emission API ---
 
 	public void emit(String formatStr)
@@ -304,9 +580,10 @@ public class Printer
 
 	public void emit(Map<String, Object> vars, String formatStr)
 	{
-		try (AutoCloseable scope = withVars(vars))
+		scopes.add(vars);
+		try
 		{
-			Format fmt = tokenizeFormat(formatStr);
+			Format fmt = compileFormat(formatStr);
 			int baseIndent = currentIndent;
 			Deque<AnnotationRecordEntry> annotRecords = new ArrayDeque<>();
 
@@ -325,7 +602,7 @@ public class Printer
 			for (int i = 0; i < fmt.lines.size(); i++)
 			{
 				Line line = fmt.lines.get(i);
-				boolean isPure = isPureMarkers(line);
+				boolean isPure = line.pureMarkers;
 				// Emit newline for every line after the first.
 				if (i > 0)
 				{
@@ -359,7 +636,7 @@ public class Printer
 			}
 			currentIndent = baseIndent;
 		}
-		catch (NoSuchElementException e)
+		catch (NoSuchElementException | UncheckedIOException e)
 		{
 			throw e;
 		}
@@ -367,6 +644,10 @@ public class Printer
 		{
 			throw new RuntimeException(e);
 		}
+		finally
+		{
+			popScope();
+		}
 	}
 
 	/**
@@ -386,21 +667,22 @@ public class Printer
 	public void writeNoIndent(String data)
 	{
 		pendingIndent = false;
-		for (char c : data.toCharArray())
+		int pos = 0;
+		while (pos < data.length())
 		{
-			buffer.append(c);
-			bytesWritten++;
-			if (c == '\n')
+			int newline = data.indexOf('\n', pos);
+			int end = newline < 0 ? data.length() : newline;
+			if (end > pos)
 			{
-				atStartOfLine = true;
-				lastNewlineBytes = bytesWritten;
-				pendingIndent = true;
+				appendText(data, pos, end);
+				pendingIndent = false;
 			}
-			else
+			if (newline < 0)
 			{
-				atStartOfLine = false;
-				pendingIndent = false;
+				break;
 			}
+			appendNewline();
+			pos = newline + 1;
 		}
 	}
 
@@ -466,55 +748,97 @@ public class Printer
 						"_start and _end variables must match, but got " + recordEntry.varName + " and " + actualVar + ", respectively");
 			}
 
-			AnnotationRecord record = lookupAnnotation(actualVar);
-			if (record != null && options.annotationCollector != null)
+			AnnotationRecord record = options.annotationCollector != null ? lookupAnnotation(actualVar) : null;
+			if (record != null)
 			{
 				options.annotationCollector.addAnnotation(recordEntry.position, bytesWritten, record.filePath, record.path, record.semantic);
 			}
 		}
 		else
 		{
-			processStandardVariable(varName, line, chunkIdx);
+			return processStandardVariable(varName, line, chunkIdx);
 		}
 
 		return chunkIdx;
 	}
 
-	private void processStandardVariable(String varName, Line line, int chunkIdx)
+	private int processStandardVariable(String varName, Line line, int chunkIdx)
 	{
-		PrinterValue sub = lookupVar(varName);
+		Object value = lookupVar(varName);
+		if (value instanceof BooleanSupplier)
+		{
+			value = new PrinterValue((BooleanSupplier) value);
+		}
 		int start = bytesWritten;
 		boolean shouldConsume = false;
-		if (sub.callback != null)
+		String consume = null;
+		if (value instanceof PrinterValue)
 		{
-			shouldConsume = sub.callback.getAsBoolean();
+			PrinterValue sub = (PrinterValue) value;
+			if (sub.callback != null)
+			{
+				shouldConsume = sub.callback.getAsBoolean();
+			}
+			else
+			{
+				writeRaw(sub.text);
+			}
+			consume = sub.consumeAfter;
 		}
 		else
 		{
-			writeRaw(sub.text);
+			writeRaw(String.valueOf(value));
 		}
 
-		String consume = sub.consumeAfter;
 		if (consume == null && shouldConsume)
 		{
 			consume = ";";
 		}
 
+		Chunk consumed = null;
 		if (consume != null && chunkIdx + 1 < line.chunks.size())
 		{
 			Chunk next = line.chunks.get(chunkIdx + 1);
 			if (!next.isVar && !next.text.isEmpty() && consume.indexOf(next.text.charAt(0)) != -1)
 			{
-				line.chunks.set(chunkIdx + 1, new Chunk(next.text.substring(1), false));
+				consumed = next;
+			}
+		}
+
+		if (options.annotationCollector != null)
+		{
+			AnnotationRecord record = lookupAnnotation(varName);
+			if (record != null)
+			{
+				options.annotationCollector.addAnnotation(start, bytesWritten, record.filePath, record.path, record.semantic);
 			}
+			substitutions.put(varName, new int[] { start, bytesWritten });
 		}
 
-		AnnotationRecord record = lookupAnnotation(varName);
-		if (record != null && options.annotationCollector != null)
+		if (consumed == null)
 		{
-			options.annotationCollector.addAnnotation(start, bytesWritten, record.filePath, record.path, record.semantic);
+			return chunkIdx;
+		}
+		// The format may be shared, so write the rest of the next chunk here
+		// rather than editing it.
+		writeRaw(consumed.text.substring(1));
+		return chunkIdx + 1;
+	}
+
+	private Format compileFormat(String formatString)
+	{
+		TemplateKey key = new TemplateKey(formatString, options, atStartOfLine);
+		Format format = templateCache.get(key);
+		if (format == null)
+		{
+			format = tokenizeFormat(formatString);
+			if (templateCache.size() >= MAX_CACHED_TEMPLATES)
+			{
+				templateCache.clear();
+			}
+			templateCache.put(key, format);
 		}
-		substitutions.put(varName, new int[] { start, bytesWritten });
+		return format;
 	}
 
 	private Format tokenizeFormat(String formatString)
@@ -522,8 +846,7 @@ public class Printer
 		Format format = new Format();
 		String processing = formatString;
 		int rawStringIndent = 0;
-
-		Pattern delimiterPattern = Pattern.compile(Pattern.quote(String.valueOf(options.variableDelimiter)));
+		char delimiter = options.variableDelimiter;
 
 		// Raw String Detection Logic:
 		// Only strip indentation if the string starts with an explicit newline.
@@ -624,17 +947,20 @@ public class Printer
 				line.indent = 0;
 			}
 
-			String[] parts = delimiterPattern.split(lineText, -1);
 			boolean isVar = false;
-
-			for (String p : parts)
+			int partStart = 0;
+			while (partStart >= 0)
 			{
+				int partEnd = lineText.indexOf(delimiter, partStart);
+				String p = partEnd < 0 ? lineText.substring(partStart) : lineText.substring(partStart, partEnd);
+				partStart = partEnd < 0 ? -1 : partEnd + 1;
+
 				if (!line.chunks.isEmpty() && !isVar)
 				{
 					Chunk lastChunk = line.chunks.get(line.chunks.size() - 1);
 					if (lastChunk.isVar && (lastChunk.text.equals("_start") || lastChunk.text.equals("_end")))
 					{
-						String newText = lastChunk.text + options.variableDelimiter + p;
+						String newText = lastChunk.text + delimiter + p;
 						line.chunks.set(line.chunks.size() - 1, new Chunk(newText, true));
 						continue;
 					}
@@ -646,6 +972,7 @@ public class Printer
 				}
 				isVar = !isVar;
 			}
+			line.pureMarkers = isPureMarkers(line);
 			format.lines.add(line);
 		}
 		return format;
@@ -655,55 +982,68 @@ public class Printer
 	{
 		if (currentIndent > 0)
 		{
-			String spaces = " ".repeat(currentIndent);
-			buffer.append(spaces);
-			bytesWritten += spaces.length();
+			for (int remaining = currentIndent; remaining > 0; remaining -= SPACES.length())
+			{
+				buffer.append(SPACES, 0, Math.min(remaining, SPACES.length()));
+			}
+			bytesWritten += currentIndent;
 		}
 		atStartOfLine = false;
 	}
 
 	private void writeRaw(String data)
 	{
-		for (char c : data.toCharArray())
+		int pos = 0;
+		while (pos < data.length())
 		{
-			if (c == '\n')
-			{
-				trimTrailingWhitespaceOnCurrentLine();
-				buffer.append(c);
-				bytesWritten++;
-				atStartOfLine = true;
-				lastNewlineBytes = bytesWritten;
-				pendingIndent = true;
-			}
-			else
+			int newline = data.indexOf('\n', pos);
+			int end = newline < 0 ? data.length() : newline;
+			if (end > pos)
 			{
 				if (pendingIndent)
 				{
 					writeIndent();
 					pendingIndent = false;
 				}
-				buffer.append(c);
-				bytesWritten++;
-				atStartOfLine = false;
+				appendText(data, pos, end);
 			}
+			if (newline < 0)
+			{
+				break;
+			}
+			trimTrailingWhitespaceOnCurrentLine();
+			appendNewline();
+			pos = newline + 1;
 		}
 	}
 
-	private void trimTrailingWhitespaceOnCurrentLine()
+	// Appends text that contains no newlines.
+	private void appendText(String data, int start, int end)
 	{
-		int lineStart = lastNewlineBytes;
-		int lineLength = bytesWritten - lineStart;
-		if (lineLength <= 0) return;
-		boolean allSpaces = true;
-		for (int i = 0; i < lineLength; i++)
+		buffer.append(data, start, end);
+		bytesWritten += end - start;
+		atStartOfLine = false;
+		for (int i = start; !lineHasText && i < end; i++)
 		{
-			if (buffer.charAt(buffer.length() - lineLength + i) != ' ')
-			{
-				allSpaces = false;
-				break;
-			}
+			lineHasText = data.charAt(i) != ' ';
 		}
-		if (allSpaces)
+	}
+
+	private void appendNewline()
+	{
+		buffer.append('\n');
+		bytesWritten++;
+		atStartOfLine = true;
+		lastNewlineBytes = bytesWritten;
+		pendingIndent = true;
+		lineHasText = false;
+		flushCompletedLines();
+	}
+
+	private void trimTrailingWhitespaceOnCurrentLine()
+	{
+		int lineLength = bytesWritten - lastNewlineBytes;
+		if (lineLength > 0 && !lineHasText && currentLineBuffered())
 		{
 			buffer.setLength(buffer.length() - lineLength);
 			bytesWritten -= lineLength;
@@ -734,13 +1074,15 @@ public class Printer
 		return hasMarkers;
 	}
 
-	private PrinterValue lookupVar(String var)
+	private Object lookupVar(String var)
 	{
-		for (Map<String, PrinterValue> frame : varStack)
+		for (int i = scopes.size() - 1; i >= 0; i--)
 		{
-			if (frame.containsKey(var))
+			Map<String, ?> scope = scopes.get(i);
+			Object value = scope.get(var);
+			if (value == null ? scope.containsKey(var) : !(value instanceof AnnotationRecord))
 			{
-				return frame.get(var);
+				return value;
 			}
 		}
 		throw new NoSuchElementException("Undefined variable: " + var);
@@ -748,16 +1090,21 @@ public class Printer
 
 	private AnnotationRecord lookupAnnotation(String var)
 	{
-		for (Map<String, AnnotationRecord> frame : annotationStack)
+		for (int i = scopes.size() - 1; i >= 0; i--)
 		{
-			if (frame.containsKey(var))
+			Object value = scopes.get(i).get(var);
+			if (value instanceof AnnotationRecord)
 			{
-				return frame.get(var);
+				return (AnnotationRecord) value;
 			}
 		}
 		return null;
 	}
 
+	/**
+	 * Returns the printed text. For a printer with a sink, this is only the
+	 * part not yet written to it.
+	 */
 	@Override
 	public String toString()
 	{
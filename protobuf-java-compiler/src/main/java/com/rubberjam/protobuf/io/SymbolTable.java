@@ -0,0 +1,92 @@
+package com.rubberjam.protobuf.io;
+
+/**
+ * Canonical strings for the identifiers and numbers of one input. A name is
+ * looked up straight from the tokenizer's scratch buffer, so a name that was
+ * seen before costs no allocation.
+ *
+ * The table starts out with the keywords of the .proto language as string
+ * literals. A keyword token is therefore the same instance as the literal the
+ * parser compares it against, and {@code String.equals} returns on its
+ * identity check.
+ */
+final class SymbolTable
+{
+	private static final String[] KEYWORDS = {
+			"syntax", "edition", "import", "weak", "public", "package", "option",
+			"message", "enum", "service", "rpc", "returns", "stream", "extend",
+			"extensions", "reserved", "to", "max", "map", "oneof", "optional",
+			"required", "repeated", "group", "default", "json_name", "true", "false",
+			"inf", "nan", "double", "float", "int32", "int64", "uint32", "uint64",
+			"sint32", "sint64", "fixed32", "fixed64", "sfixed32", "sfixed64", "bool",
+			"string", "bytes" };
+
+	private String[] entries = new String[256];
+	private int size;
+
+	SymbolTable()
+	{
+		for (String keyword : KEYWORDS)
+		{
+			intern(keyword);
+		}
+	}
+
+	/**
+	 * Returns the canonical string with the contents of {@code text}, adding
+	 * one if this is the first time it is seen.
+	 */
+	String intern(CharSequence text)
+	{
+		int length = text.length();
+		int hash = 0;
+		for (int i = 0; i < length; i++)
+		{
+			hash = 31 * hash + text.charAt(i);
+		}
+
+		int mask = entries.length - 1;
+		int index = (hash ^ (hash >>> 16)) & mask;
+		while (true)
+		{
+			String entry = entries[index];
+			if (entry == null)
+			{
+				break;
+			}
+			if (entry.hashCode() == hash && entry.contentEquals(text))
+			{
+				return entry;
+			}
+			index = (index + 1) & mask;
+		}
+
+		String symbol = text.toString();
+		entries[index] = symbol;
+		if (++size * 2 > entries.length)
+		{
+			rehash();
+		}
+		return symbol;
+	}
+
+	private void rehash()
+	{
+		String[] old = entries;
+		entries = new String[old.length * 2];
+		int mask = entries.length - 1;
+		for (String entry : old)
+		{
+			if (entry != null)
+			{
+				int hash = entry.hashCode();
+				int index = (hash ^ (hash >>> 16)) & mask;
+				while (entries[index] != null)
+				{
+					index = (index + 1) & mask;
+				}
+				entries[index] = entry;
+			}
+		}
+	}
+}
@@ -44,6 +44,15 @@ public class Tokenizer
 		public int line;
 		public int column;
 		public int endColumn;
+		/**
+		 * The value of an INTEGER token as an unsigned 64-bit integer, decoded
+		 * while the token is read. Only meaningful if {@link #intValueValid}.
+		 */
+		public long intValue;
+		/** Whether an INTEGER token is a well-formed literal that fits in 64 bits. */
+		public boolean intValueValid;
+		/** The value of a FLOAT token, decoded while the token is read. */
+		public double floatValue;
 		public String leadingComments;
 		public String trailingComments;
 		public java.util.List<String> leadingDetachedComments;
@@ -69,6 +78,21 @@ public class Tokenizer
 
 
 
+		void clear()
+		{
+			type = null;
+			text = null;
+			line = 0;
+			column = 0;
+			endColumn = 0;
+			intValue = 0;
+			intValueValid = false;
+			floatValue = 0;
+			leadingComments = null;
+			trailingComments = null;
+			leadingDetachedComments = null;
+		}
+
 		@Override
 		public String toString()
 		{
@@ -83,15 +107,42 @@ public class Tokenizer
 		}
 	}
 
+	private static final int BUFFER_SIZE = 8192;
+
+	// Token text for the ASCII symbols. These are the interned literals, so they
+	// are the same instances as the "{", ";" ... the parser compares against.
+	private static final String[] SYMBOLS = new String[128];
+	static
+	{
+		for (char c = 0; c < SYMBOLS.length; c++)
+		{
+			SYMBOLS[c] = String.valueOf(c).intern();
+		}
+	}
+
 	private final Reader input;
+	private final CharSequence source;
+	private int sourcePos;
 	private final ErrorCollector errorCollector;
 
+	// Characters not yet consumed are buffer[bufferPos..bufferLimit).
+	private final char[] buffer;
+	private int bufferPos;
+	private int bufferLimit;
+
 	private char currentChar;
 	private int line;
 	private int column;
 	private boolean atEnd = false;
 
 	private Token currentToken = new Token();
+
+	// Identifiers and numbers are collected in scratch and shared through
+	// symbols, so repeated names do not allocate a new String each time.
+	private final SymbolTable symbols = new SymbolTable();
+	private final StringBuilder scratch = new StringBuilder();
+	private final StringBuilder trailingScratch = new StringBuilder();
+	private final StringBuilder leadingScratch = new StringBuilder();
 	private Token previousToken = new Token();
 
 	/**
@@ -105,7 +156,9 @@ public class Tokenizer
 	public Tokenizer(Reader input, ErrorCollector errorCollector)
 	{
 		this.input = input;
+		this.source = null;
 		this.errorCollector = errorCollector;
+		this.buffer = new char[BUFFER_SIZE];
 		this.line = 0;
 		this.column = 0;
 		this.currentToken.type = TokenType.START;
@@ -116,7 +169,31 @@ public class Tokenizer
 	}
 
 	/**
-	 * The current token.
+	 * Constructs a new Tokenizer over text that is already in memory, such as a
+	 * whole file read up front or a {@link java.nio.CharBuffer} decoded from a
+	 * memory-mapped file. The text is scanned in place of reading a
+	 * {@link Reader}.
+	 *
+	 * @param input
+	 *            The text to tokenize.
+	 * @param errorCollector
+	 *            The error collector to report errors to.
+	 */
+	public Tokenizer(CharSequence input, ErrorCollector errorCollector)
+	{
+		this.input = null;
+		this.source = input;
+		this.errorCollector = errorCollector;
+		this.buffer = new char[BUFFER_SIZE];
+		this.line = 0;
+		this.column = 0;
+		this.currentToken.type = TokenType.START;
+		nextChar();
+	}
+
+	/**
+	 * The current token. The tokenizer reuses its two token objects, so the
+	 * returned token is only valid until the next call to {@link #next()}.
 	 */
 	public Token current()
 	{
@@ -124,7 +201,7 @@ public class Tokenizer
 	}
 
 	/**
-	 * The previous token.
+	 * The previous token, valid until the next call to {@link #next()}.
 	 */
 	public Token previous()
 	{
@@ -138,13 +215,16 @@ public class Tokenizer
 	 */
 	public boolean next()
 	{
+		Token recycled = previousToken;
 		previousToken = currentToken;
-		currentToken = new Token();
+		currentToken = recycled;
+		currentToken.clear();
 
 		// Phase 1: Check for trailing comments on the same line as previous token
 		if (previousToken.type != TokenType.START)
 		{
-			StringBuilder trailingComments = new StringBuilder();
+			StringBuilder trailingComments = trailingScratch;
+			trailingComments.setLength(0);
 			while (true)
 			{
 				// Skip horizontal whitespace only
@@ -278,7 +358,8 @@ public class Tokenizer
 		}
 
 		// Phase 2: Leading comments for current token
-		StringBuilder leadingComments = new StringBuilder();
+		StringBuilder leadingComments = leadingScratch;
+		leadingComments.setLength(0);
 		while (true)
 		{
 			// Skip any whitespace (including newlines)
@@ -344,36 +425,54 @@ public class Tokenizer
 
 		if (Character.isLetter(currentChar) || currentChar == '_')
 		{
-			StringBuilder sb = new StringBuilder();
+			StringBuilder sb = scratch;
+			sb.setLength(0);
 			while (Character.isLetterOrDigit(currentChar) || currentChar == '_')
 			{
 				sb.append(currentChar);
 				nextChar();
 			}
-			currentToken.text = sb.toString();
+			currentToken.text = symbols.intern(sb);
 			currentToken.type = TokenType.IDENTIFIER;
 		}
 		else if (Character.isDigit(currentChar))
 		{
-			StringBuilder sb = new StringBuilder();
+			StringBuilder sb = scratch;
+			sb.setLength(0);
+			// Integers are decoded as their digits are read, so that the parser
+			// does not have to parse the text again.
+			long value = 0;
+			boolean valid = true;
+			int radix = 10;
 			if (currentChar == '0') {
 				sb.append(currentChar);
 				nextChar();
 				if (currentChar == 'x' || currentChar == 'X') {
 					sb.append(currentChar);
 					nextChar();
+					valid = isHexDigit(currentChar);
 					while (isHexDigit(currentChar)) {
+						int digit = Character.digit(currentChar, 16);
+						valid &= fits(value, 16, digit);
+						value = (value << 4) + digit;
 						sb.append(currentChar);
 						nextChar();
 					}
 					currentToken.type = TokenType.INTEGER;
-					currentToken.text = sb.toString();
+					currentToken.text = symbols.intern(sb);
+					currentToken.intValue = value;
+					currentToken.intValueValid = valid;
 					return true;
 				}
+				// A leading zero makes the literal octal.
+				radix = 8;
 			}
 
 			while (Character.isDigit(currentChar))
 			{
+				int digit = Character.digit(currentChar, 10);
+				valid &= digit < radix && fits(value, radix, digit);
+				value = value * radix + digit;
 				sb.append(currentChar);
 				nextChar();
 			}
@@ -406,7 +505,16 @@ public class Tokenizer
 			}
 
 			currentToken.type = isFloat ? TokenType.FLOAT : TokenType.INTEGER;
-			currentToken.text = sb.toString();
+			currentToken.text = symbols.intern(sb);
+			if (isFloat)
+			{
+				currentToken.floatValue = parseFloat(currentToken.text);
+			}
+			else
+			{
+				currentToken.intValue = value;
+				currentToken.intValueValid = valid;
+			}
 		}
 		else if (currentChar == '.')
 		{
@@ -414,7 +522,9 @@ public class Tokenizer
 			nextChar();
 			if (Character.isDigit(currentChar))
 			{
-				StringBuilder sb = new StringBuilder(".");
+				StringBuilder sb = scratch;
+				sb.setLength(0);
+				sb.append('.');
 				while (Character.isDigit(currentChar))
 				{
 					sb.append(currentChar);
@@ -434,6 +544,7 @@ public class Tokenizer
 				}
 				currentToken.type = TokenType.FLOAT;
 				currentToken.text = sb.toString();
+				currentToken.floatValue = parseFloat(currentToken.text);
 			}
 			else
 			{
@@ -445,7 +556,8 @@ public class Tokenizer
 		{
 			char delimiter = currentChar;
 			nextChar();
-			StringBuilder sb = new StringBuilder();
+			StringBuilder sb = scratch;
+			sb.setLength(0);
 			while (currentChar != delimiter && !atEnd)
 			{
 				if (currentChar == '\\')
@@ -568,7 +680,7 @@ public class Tokenizer
 		}
 		else
 		{
-			currentToken.text = String.valueOf(currentChar);
+			currentToken.text = currentChar < SYMBOLS.length ? SYMBOLS[currentChar] : String.valueOf(currentChar);
 			currentToken.type = TokenType.SYMBOL;
 			nextChar();
 		}
@@ -646,35 +758,110 @@ public class Tokenizer
 		return (c >= '0' && c <= '9') || (c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F');
 	}
 
-	private void nextChar()
+	// Whether value * radix + digit still fits in an unsigned 64-bit integer.
+	private static boolean fits(long value, int radix, int digit)
+	{
+		switch (radix)
+		{
+			case 16:
+				return (value >>> 60) == 0;
+			case 8:
+				return (value >>> 61) == 0;
+			default:
+				// 0x1999999999999999 * 10 + 5 is the largest unsigned 64-bit value.
+				return Long.compareUnsigned(value, 0x1999999999999999L) < 0
+						|| (value == 0x1999999999999999L && digit <= 5);
+		}
+	}
+
+	private double parseFloat(String text)
 	{
 		try
 		{
-			int c = input.read();
-			if (c == -1)
+			return Double.parseDouble(text);
+		}
+		catch (NumberFormatException e)
+		{
+			// An exponent without digits, such as "1e".
+			errorCollector.recordError(line, column, "\"e\" must be followed by exponent.");
+			return 0;
+		}
+	}
+
+	private void nextChar()
+	{
+		if (bufferPos == bufferLimit && !refill())
+		{
+			atEnd = true;
+			currentChar = '\0';
+			return;
+		}
+		currentChar = buffer[bufferPos++];
+		if (currentChar == '\n')
+		{
+			line++;
+			column = 0;
+		}
+		else
+		{
+			column++;
+		}
+	}
+
+	/**
+	 * Reads the next block of characters into the buffer.
+	 *
+	 * @return false at the end of the input or on a read error.
+	 */
+	private boolean refill()
+	{
+		if (source != null)
+		{
+			int n = Math.min(buffer.length, source.length() - sourcePos);
+			if (n <= 0)
 			{
-				atEnd = true;
-				currentChar = '\0';
+				return false;
+			}
+			if (source instanceof String)
+			{
+				((String) source).getChars(sourcePos, sourcePos + n, buffer, 0);
 			}
 			else
 			{
-				currentChar = (char) c;
-				if (currentChar == '\n')
-				{
-					line++;
-					column = 0;
-				}
-				else
+				for (int i = 0; i < n; i++)
 				{
-					column++;
+					buffer[i] = source.charAt(sourcePos + i);
 				}
 			}
+			sourcePos += n;
+			bufferPos = 0;
+			bufferLimit = n;
+			return true;
+		}
+		if (input == null)
+		{
+			return false;
+		}
+		try
+		{
+			int n;
+			do
+			{
+				n = input.read(buffer, 0, buffer.length);
+			}
+			while (n == 0);
+			if (n < 0)
+			{
+				return false;
+			}
+			bufferPos = 0;
+			bufferLimit = n;
+			return true;
 		}
 		catch (IOException e)
 		{
 			errorCollector.recordError(line, column, "Error reading from input: " + e.getMessage());
-			atEnd = true;
-			currentChar = '\0';
+			return false;
 		}
 	}
 }
@@ -27,6 +27,11 @@ import com.rubberjam.protobuf.io.Tokenizer;
 
 public abstract class AbstractProtoParityTest {
 	protected void verifyParity(String protoFileName, String expectedJavaFileName) throws Exception {
+		verifyParity(protoFileName, expectedJavaFileName, "");
+	}
+
+	protected void verifyParity(String protoFileName, String expectedJavaFileName, String parameter)
+			throws Exception {
 		// Read the proto file
 		String protoContent = readProtoFile(protoFileName);
 		assertNotNull("Proto file not found: " + protoFileName, protoContent);
@@ -38,7 +43,7 @@ public abstract class AbstractProtoParityTest {
 		GeneratedJavaFile generated = RuntimeJavaGenerator.generateJavaSource(
 				fileDescriptorProto,
 				Collections.emptyMap(), // No dependencies for these test files
-				"" // Empty parameter for default options
+				parameter
 		);
 
 		assertNotNull("Generated Java file should not be null", generated);
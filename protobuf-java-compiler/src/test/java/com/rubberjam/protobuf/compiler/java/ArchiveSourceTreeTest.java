@@ -0,0 +1,78 @@
+package com.rubberjam.protobuf.compiler.java;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.protobuf.Descriptors.FileDescriptor;
+import com.rubberjam.protobuf.compiler.ArchiveSourceTree;
+import com.rubberjam.protobuf.compiler.Importer;
+
+public class ArchiveSourceTreeTest {
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private File createArchive(String name, String... entries) throws Exception {
+        File archive = new File(tempFolder.getRoot(), name);
+        try (ZipOutputStream zip = new ZipOutputStream(new FileOutputStream(archive))) {
+            for (int i = 0; i < entries.length; i += 2) {
+                zip.putNextEntry(new ZipEntry(entries[i]));
+                zip.write(entries[i + 1].getBytes(StandardCharsets.UTF_8));
+                zip.closeEntry();
+            }
+        }
+        return archive;
+    }
+
+    @Test
+    public void testImportFromArchives() throws Exception {
+        File common = createArchive("common.jar",
+            "common/money.proto", "syntax = \"proto2\";\npackage common;\nmessage Money {}\n",
+            "META-INF/MANIFEST.MF", "Manifest-Version: 1.0\n");
+        File shadowed = createArchive("shadowed.zip",
+            "common/money.proto", "syntax = \"proto2\";\npackage shadowed;\n",
+            "order.proto", "syntax = \"proto2\";\nimport \"deps/common/money.proto\";\n"
+                + "message Order { optional common.Money total = 1; }\n");
+
+        List<String> errors = new ArrayList<>();
+        try (ArchiveSourceTree sourceTree = new ArchiveSourceTree()) {
+            sourceTree.addArchive("deps", common);
+            sourceTree.addArchive("deps", shadowed);
+            sourceTree.addArchive(shadowed);
+            assertEquals(4, sourceTree.size());
+
+            Importer importer = new Importer(sourceTree, new Importer.MultiFileErrorCollector() {
+                @Override
+                public void recordError(String filename, int line, int column, String message) {
+                    errors.add(filename + ": " + message);
+                }
+
+                @Override
+                public void recordWarning(String filename, int line, int column, String message) {
+                    errors.add(filename + ": " + message);
+                }
+            });
+            FileDescriptor order = importer.importFile("order.proto");
+
+            assertTrue(errors.toString(), errors.isEmpty());
+            assertEquals("common", order.getDependencies().get(0).getPackage());
+            assertNull(sourceTree.open("deps/META-INF/MANIFEST.MF"));
+            assertEquals("File not found: deps/META-INF/MANIFEST.MF", sourceTree.getLastErrorMessage());
+            assertEquals("syntax = \"proto2\";\npackage shadowed;\n",
+                StandardCharsets.UTF_8.decode(sourceTree.read("common/money.proto")).toString());
+        }
+    }
+}
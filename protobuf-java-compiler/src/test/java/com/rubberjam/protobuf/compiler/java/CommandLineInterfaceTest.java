@@ -1,5 +1,6 @@
 package com.rubberjam.protobuf.compiler.java;
 
+import com.google.protobuf.DescriptorProtos.FileDescriptorProto;
 import com.google.protobuf.Descriptors.FileDescriptor;
 import com.rubberjam.protobuf.compiler.CodeGenerator;
 import com.rubberjam.protobuf.compiler.CommandLineInterface;
@@ -8,8 +9,16 @@ import com.rubberjam.protobuf.compiler.CodeGenerator.GenerationException;
 
 import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
@@ -100,15 +109,212 @@ public class CommandLineInterfaceTest {
     Assert.assertTrue("Generated file should exist", generated.exists());
   }
 
+  @Test
+  public void testFailedGenerationKeepsPreviousOutput() throws Exception {
+    File root = tempFolder.newFolder("protos");
+    Files.write(new File(root, "a.proto").toPath(), "syntax = \"proto2\";\n".getBytes(StandardCharsets.UTF_8));
+    File outDir = tempFolder.newFolder("out");
+    File previous = new File(outDir, "partial.txt");
+    Files.write(previous.toPath(), "previous".getBytes(StandardCharsets.UTF_8));
+
+    CommandLineInterface cli = new CommandLineInterface();
+    cli.registerGenerator("test", new FailingCodeGenerator(), "Failing generator");
+    Assert.assertEquals(1, cli.run(new String[] {
+        "--test_out=" + outDir.getAbsolutePath(),
+        "--proto_path=" + root.getAbsolutePath(),
+        "a.proto"
+    }));
+
+    Assert.assertEquals("previous", new String(Files.readAllBytes(previous.toPath()), StandardCharsets.UTF_8));
+    Assert.assertEquals("done", new String(Files.readAllBytes(new File(outDir, "done.txt").toPath()), StandardCharsets.UTF_8));
+    Assert.assertEquals(2, outDir.list().length);
+  }
+
+  @Test
+  public void testParallelJobsKeepFileOrder() throws Exception {
+    List<FileDescriptor> files = new ArrayList<>();
+    for (int i = 0; i < 8; i++) {
+      files.add(FileDescriptor.buildFrom(
+          FileDescriptorProto.newBuilder().setName("file" + i + ".proto").build(),
+          new FileDescriptor[0]));
+    }
+    List<String> opened = new ArrayList<>();
+    GeneratorContext context = filename -> {
+      opened.add(filename);
+      return new ByteArrayOutputStream();
+    };
+
+    new MockCodeGenerator().generateAll(files, "", context, 4);
+
+    List<String> expected = new ArrayList<>();
+    for (FileDescriptor file : files) {
+      expected.add(file.getName() + ".txt");
+    }
+    Assert.assertEquals(expected, opened);
+  }
+
+  @Test
+  public void testInvalidJobs() {
+    CommandLineInterface cli = new CommandLineInterface();
+    int exitCode = cli.run(new String[] {"--jobs=0", "--java_out=.", "test.proto"});
+    Assert.assertEquals(1, exitCode);
+    Assert.assertTrue(errContent.toString().contains("Invalid value for --jobs"));
+  }
+
+  @Test
+  public void testIncrementalSkipsUnchangedFiles() throws Exception {
+    File root = tempFolder.newFolder("protos");
+    File outDir = tempFolder.newFolder("out");
+    Files.write(new File(root, "a.proto").toPath(),
+        "syntax = \"proto2\";\nmessage A {}\n".getBytes(StandardCharsets.UTF_8));
+    Files.write(new File(root, "b.proto").toPath(),
+        "syntax = \"proto2\";\nimport \"a.proto\";\nmessage B { optional A a = 1; }\n".getBytes(StandardCharsets.UTF_8));
+    String[] args = {
+        "--incremental",
+        "--test_out=" + outDir.getAbsolutePath(),
+        "--proto_path=" + root.getAbsolutePath(),
+        "a.proto", "b.proto"
+    };
+
+    MockCodeGenerator first = new MockCodeGenerator();
+    CommandLineInterface cli = new CommandLineInterface();
+    cli.registerGenerator("test", first, "Test generator");
+    Assert.assertEquals(0, cli.run(args));
+    Assert.assertEquals(2, first.generatedCount);
+    File generated = new File(outDir, "b.proto.txt");
+    Assert.assertTrue(generated.setLastModified(1000000L));
+
+    MockCodeGenerator second = new MockCodeGenerator();
+    cli = new CommandLineInterface();
+    cli.registerGenerator("test", second, "Test generator");
+    Assert.assertEquals(0, cli.run(args));
+    Assert.assertEquals(0, second.generatedCount);
+
+    // Changing an import regenerates the importing file, but its unchanged output is not rewritten.
+    Files.write(new File(root, "a.proto").toPath(),
+        "syntax = \"proto2\";\nmessage A { optional int32 x = 1; }\n".getBytes(StandardCharsets.UTF_8));
+    MockCodeGenerator third = new MockCodeGenerator();
+    cli = new CommandLineInterface();
+    cli.registerGenerator("test", third, "Test generator");
+    Assert.assertEquals(0, cli.run(args));
+    Assert.assertEquals(2, third.generatedCount);
+    Assert.assertEquals(1000000L, generated.lastModified());
+
+    // Another invocation into the same directory keeps the outputs of the files it leaves out.
+    String[] onlyB = {
+        "--incremental",
+        "--test_out=" + outDir.getAbsolutePath(),
+        "--proto_path=" + root.getAbsolutePath(),
+        "b.proto"
+    };
+    MockCodeGenerator fourth = new MockCodeGenerator();
+    cli = new CommandLineInterface();
+    cli.registerGenerator("test", fourth, "Test generator");
+    Assert.assertEquals(0, cli.run(onlyB));
+    Assert.assertEquals(0, fourth.generatedCount);
+    Assert.assertTrue(new File(outDir, "a.proto.txt").isFile());
+    Assert.assertTrue(generated.isFile());
+
+    // A file deleted from the source tree loses its outputs.
+    Files.write(new File(root, "c.proto").toPath(),
+        "syntax = \"proto2\";\nmessage C {}\n".getBytes(StandardCharsets.UTF_8));
+    cli = new CommandLineInterface();
+    cli.registerGenerator("test", new MockCodeGenerator(), "Test generator");
+    Assert.assertEquals(0, cli.run(new String[] {
+        "--incremental",
+        "--test_out=" + outDir.getAbsolutePath(),
+        "--proto_path=" + root.getAbsolutePath(),
+        "c.proto"
+    }));
+    Assert.assertTrue(new File(outDir, "c.proto.txt").isFile());
+    Assert.assertTrue(new File(root, "c.proto").delete());
+    cli = new CommandLineInterface();
+    cli.registerGenerator("test", new MockCodeGenerator(), "Test generator");
+    Assert.assertEquals(0, cli.run(onlyB));
+    Assert.assertFalse(new File(outDir, "c.proto.txt").exists());
+    Assert.assertTrue(new File(outDir, "a.proto.txt").isFile());
+    Assert.assertTrue(generated.isFile());
+  }
+
+  @Test
+  public void testProtoPathSearchesArchivesInOrder() throws Exception {
+    File dir = tempFolder.newFolder("protos");
+    Files.write(new File(dir, "main.proto").toPath(),
+        "syntax = \"proto2\";\nimport \"dep.proto\";\n".getBytes(StandardCharsets.UTF_8));
+    File jar = new File(tempFolder.getRoot(), "deps.jar");
+    try (ZipOutputStream zip = new ZipOutputStream(new FileOutputStream(jar))) {
+      zip.putNextEntry(new ZipEntry("dep.proto"));
+      zip.write("syntax = \"proto2\";\npackage fromjar;\n".getBytes(StandardCharsets.UTF_8));
+      zip.closeEntry();
+    }
+    File later = tempFolder.newFolder("later");
+    Files.write(new File(later, "dep.proto").toPath(),
+        "syntax = \"proto2\";\npackage fromdir;\n".getBytes(StandardCharsets.UTF_8));
+
+    MockCodeGenerator mockGen = new MockCodeGenerator();
+    CommandLineInterface cli = new CommandLineInterface();
+    cli.registerGenerator("test", mockGen, "Test generator");
+    int exitCode = cli.run(new String[] {
+        "--test_out=" + tempFolder.newFolder("out").getAbsolutePath(),
+        "-I" + dir.getAbsolutePath(),
+        "-I" + jar.getAbsolutePath(),
+        "-I" + later.getAbsolutePath(),
+        "main.proto"
+    });
+
+    Assert.assertEquals(errContent.toString(), 0, exitCode);
+    Assert.assertEquals("fromjar", mockGen.generatedFile.getDependencies().get(0).getPackage());
+  }
+
+  @Test
+  public void testValidateOnly() throws Exception {
+    File root = tempFolder.newFolder("protos");
+    Files.write(new File(root, "good.proto").toPath(),
+        "syntax = \"proto2\";\nmessage Good { optional int32 x = 1; }\n".getBytes(StandardCharsets.UTF_8));
+    Files.write(new File(root, "bad.proto").toPath(),
+        "syntax = \"proto2\";\nmessage Bad { optional int32 = 1; optional Missing y = 2; }\n".getBytes(StandardCharsets.UTF_8));
+
+    CommandLineInterface cli = new CommandLineInterface();
+    Assert.assertEquals(errContent.toString(), 0, cli.run(new String[] {
+        "--validate_only", "--proto_path=" + root.getAbsolutePath(), "good.proto"}));
+
+    cli = new CommandLineInterface();
+    Assert.assertEquals(1, cli.run(new String[] {
+        "--validate_only", "--max_errors=1", "--proto_path=" + root.getAbsolutePath(), "bad.proto"}));
+    Assert.assertTrue(errContent.toString(), errContent.toString().contains("bad.proto:1:30: Expected identifier."));
+    Assert.assertTrue(errContent.toString(), errContent.toString().contains("Too many errors"));
+  }
+
+  // Writes one file, then fails halfway through a second one.
+  private static class FailingCodeGenerator extends CodeGenerator {
+    @Override
+    public void generate(FileDescriptor file, String parameter, GeneratorContext generatorContext)
+        throws GenerationException {
+      try {
+        OutputStream done = generatorContext.open("done.txt");
+        done.write("done".getBytes(StandardCharsets.UTF_8));
+        done.close();
+        OutputStream partial = generatorContext.open("partial.txt");
+        partial.write("half".getBytes(StandardCharsets.UTF_8));
+        generatorContext.discard(partial);
+      } catch (IOException e) {
+        throw new GenerationException(e);
+      }
+      throw new GenerationException("failed");
+    }
+  }
+
   private static class MockCodeGenerator extends CodeGenerator {
     boolean wasCalled = false;
     FileDescriptor generatedFile;
+    int generatedCount;
 
     @Override
     public void generate(FileDescriptor file, String parameter, GeneratorContext generatorContext)
         throws GenerationException {
        wasCalled = true;
        generatedFile = file;
+       generatedCount++;
        try {
            java.io.OutputStream out = generatorContext.open(file.getName() + ".txt");
            out.write("generated".getBytes());
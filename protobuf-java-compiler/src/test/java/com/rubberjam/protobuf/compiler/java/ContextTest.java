@@ -1,11 +1,18 @@
 package com.rubberjam.protobuf.compiler.java;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import org.junit.Test;
 
+import com.google.protobuf.DescriptorProtos.DescriptorProto;
+import com.google.protobuf.DescriptorProtos.FieldDescriptorProto;
 import com.google.protobuf.DescriptorProtos.FileDescriptorProto;
+import com.google.protobuf.Descriptors.Descriptor;
 import com.google.protobuf.Descriptors.FileDescriptor;
 import com.rubberjam.protobuf.compiler.java.Context;
 import com.rubberjam.protobuf.compiler.java.Options;
@@ -35,4 +42,57 @@ public class ContextTest {
     assertNotNull(context.getNameResolver());
     assertNotNull(context.getFieldGeneratorInfo(file.getMessageTypes().get(0).getFields().get(0)));
   }
+
+  @Test
+  public void testFileFacts() throws Exception {
+    FileDescriptor proto2 = FileDescriptor.buildFrom(
+        FileDescriptorProto.newBuilder().setName("a.proto").build(), new FileDescriptor[0]);
+    FileDescriptor proto3 = FileDescriptor.buildFrom(
+        FileDescriptorProto.newBuilder().setName("b.proto").setSyntax("proto3").build(),
+        new FileDescriptor[0]);
+    Context context = new Context(proto2, new Options());
+
+    assertTrue(context.getFileFacts(proto2).isProto2());
+    assertFalse(context.getFileFacts(proto2).isProto3());
+    assertTrue(context.getFileFacts(proto3).isProto3());
+    assertFalse(context.getFileFacts(proto3).isProto2());
+    assertSame(context.getFileFacts(proto3), context.getFileFacts(proto3));
+    assertNotSame(context.getFileFacts(proto3),
+        new Context(proto2, new Options()).getFileFacts(proto3));
+  }
+
+  @Test
+  public void testFieldConflictsInLargeMessage() throws Exception {
+    // 10k fields: the conflict check has to stay close to linear for this to be fast.
+    DescriptorProto.Builder message = DescriptorProto.newBuilder().setName("Telemetry");
+    for (int i = 1; i <= 10000; i++) {
+      message.addField(FieldDescriptorProto.newBuilder()
+          .setName("metric_" + i)
+          .setNumber(i)
+          .setType(FieldDescriptorProto.Type.TYPE_INT64)
+          .setLabel(i == 7 ? FieldDescriptorProto.Label.LABEL_REPEATED
+              : FieldDescriptorProto.Label.LABEL_OPTIONAL));
+    }
+    message.addField(FieldDescriptorProto.newBuilder()
+        .setName("metric_7_count")
+        .setNumber(10001)
+        .setType(FieldDescriptorProto.Type.TYPE_INT32));
+    FileDescriptor file = FileDescriptor.buildFrom(
+        FileDescriptorProto.newBuilder().setName("telemetry.proto").addMessageType(message).build(),
+        new FileDescriptor[0]);
+    Descriptor telemetry = file.getMessageTypes().get(0);
+
+    Context context = new Context(file, new Options());
+
+    assertEquals("metric1", context.getFieldGeneratorInfo(telemetry.getFields().get(0)).name);
+    FieldCommon.FieldGeneratorInfo repeated =
+        context.getFieldGeneratorInfo(telemetry.findFieldByName("metric_7"));
+    FieldCommon.FieldGeneratorInfo count =
+        context.getFieldGeneratorInfo(telemetry.findFieldByName("metric_7_count"));
+    assertEquals("metric77", repeated.name);
+    assertEquals("Metric7Count10001", count.capitalizedName);
+    assertEquals("both repeated field \"metric_7\" and singular field \"metric_7_count\""
+        + " generate the method \"getMetric7Count()\"", repeated.disambiguatedReason);
+    assertEquals(repeated.disambiguatedReason, count.disambiguatedReason);
+  }
 }
@@ -1,10 +1,16 @@
 package com.rubberjam.protobuf.compiler.java;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
 import org.junit.Test;
 
+import com.google.protobuf.DescriptorProtos.DescriptorProto;
+import com.google.protobuf.DescriptorProtos.FileDescriptorProto;
 import com.google.protobuf.Descriptors.Descriptor;
 import com.google.protobuf.Descriptors.EnumDescriptor;
 import com.google.protobuf.Descriptors.FieldDescriptor;
+import com.google.protobuf.Descriptors.FileDescriptor;
 import com.google.protobuf.Descriptors.ServiceDescriptor;
 import com.rubberjam.protobuf.compiler.java.GeneratorFactory;
 import com.rubberjam.protobuf.io.Printer;
@@ -21,4 +27,26 @@ public class GeneratorFactoryTest {
         @Override public ServiceGenerator newServiceGenerator(ServiceDescriptor descriptor) { return null; }
     };
   }
+
+  @Test
+  public void testRegistryCreatesEachGeneratorOnce() throws Exception {
+    FileDescriptor file = FileDescriptor.buildFrom(
+        FileDescriptorProto.newBuilder()
+            .setName("registry.proto")
+            .addMessageType(DescriptorProto.newBuilder()
+                .setName("Outer")
+                .addNestedType(DescriptorProto.newBuilder().setName("Inner")))
+            .build(),
+        new FileDescriptor[0]);
+    Context context = new Context(file, new Options());
+    GeneratorFactory generators = context.getGeneratorFactory();
+    Descriptor outer = file.getMessageTypes().get(0);
+
+    assertSame(generators.newMessageGenerator(outer), generators.newMessageGenerator(outer));
+    assertEquals(1, ((GeneratorRegistry) generators).size());
+
+    // Generating the outer message reaches the nested one through the same registry.
+    generators.newMessageGenerator(outer).generate(new Printer(new Printer.Options()));
+    assertEquals(2, ((GeneratorRegistry) generators).size());
+  }
 }
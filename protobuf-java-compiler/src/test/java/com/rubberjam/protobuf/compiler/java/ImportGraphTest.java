@@ -0,0 +1,84 @@
+package com.rubberjam.protobuf.compiler.java;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.protobuf.DescriptorProtos.DescriptorProto;
+import com.google.protobuf.DescriptorProtos.FileDescriptorProto;
+import com.google.protobuf.Descriptors.FileDescriptor;
+import com.rubberjam.protobuf.compiler.ImportGraph;
+
+public class ImportGraphTest {
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private static FileDescriptor file(String name, String message, FileDescriptor... dependencies)
+            throws Exception {
+        FileDescriptorProto.Builder proto = FileDescriptorProto.newBuilder()
+            .setName(name)
+            .addMessageType(DescriptorProto.newBuilder().setName(message));
+        for (FileDescriptor dependency : dependencies) {
+            proto.addDependency(dependency.getName());
+        }
+        return FileDescriptor.buildFrom(proto.build(), dependencies);
+    }
+
+    @Test
+    public void testChangedLeafAffectsOnlyItsDependents() throws Exception {
+        FileDescriptor money = file("common/money.proto", "Money");
+        FileDescriptor user = file("common/user.proto", "User");
+        FileDescriptor order = file("order.proto", "Order", money, user);
+        FileDescriptor invoice = file("invoice.proto", "Invoice", order);
+        FileDescriptor profile = file("profile.proto", "Profile", user);
+        List<FileDescriptor> files = Arrays.asList(invoice, profile, order);
+        ImportGraph before = ImportGraph.of(files);
+
+        File saved = new File(tempFolder.getRoot(), "graph");
+        before.save(saved.toPath());
+        ImportGraph loaded = ImportGraph.load(saved.toPath());
+        assertEquals(before.getFiles(), loaded.getFiles());
+        assertEquals(Arrays.asList("common/money.proto", "common/user.proto"), loaded.getImports("order.proto"));
+        assertEquals(Collections.emptyList(), ImportGraph.of(files).affected(files, loaded));
+
+        FileDescriptor newMoney = file("common/money.proto", "Amount");
+        FileDescriptor newOrder = file("order.proto", "Order", newMoney, user);
+        FileDescriptor newInvoice = file("invoice.proto", "Invoice", newOrder);
+        files = Arrays.asList(newInvoice, profile, newOrder);
+        ImportGraph after = ImportGraph.of(files);
+
+        assertEquals(Collections.singleton("common/money.proto"), after.changedSince(loaded));
+        assertEquals(Collections.singleton("order.proto"), after.getImporters("common/money.proto"));
+        assertEquals(Arrays.asList(newInvoice, newOrder), after.affected(files, loaded));
+        assertEquals(files, after.affected(files, ImportGraph.empty()));
+    }
+
+    @Test
+    public void testGraphOfAnotherCompilerBuildLoadsEmpty() throws Exception {
+        FileDescriptor money = file("common/money.proto", "Money");
+        File saved = new File(tempFolder.getRoot(), "graph");
+        ImportGraph.of(Arrays.asList(money)).save(saved.toPath());
+        List<String> lines = Files.readAllLines(saved.toPath());
+        assertEquals(1, ImportGraph.load(saved.toPath()).getFiles().size());
+
+        lines.set(1, "compiler\tsome-other-build");
+        Files.write(saved.toPath(), lines);
+        assertTrue(ImportGraph.load(saved.toPath()).getFiles().isEmpty());
+    }
+
+    @Test
+    public void testLoadMissingFile() throws Exception {
+        File missing = new File(tempFolder.getRoot(), "missing");
+        assertTrue(ImportGraph.load(missing.toPath()).getFiles().isEmpty());
+    }
+}
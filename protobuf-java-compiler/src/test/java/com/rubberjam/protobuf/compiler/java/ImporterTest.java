@@ -2,7 +2,9 @@ package com.rubberjam.protobuf.compiler.java;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.assertFalse;
 
@@ -10,6 +12,7 @@ import java.io.File;
 import java.io.FileOutputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import org.junit.Rule;
@@ -17,7 +20,9 @@ import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
 
 import com.google.protobuf.Descriptors.FileDescriptor;
+import com.rubberjam.protobuf.compiler.DescriptorPool;
 import com.rubberjam.protobuf.compiler.Importer;
+import com.rubberjam.protobuf.compiler.ParseCache;
 import com.rubberjam.protobuf.compiler.Importer.MultiFileErrorCollector;
 
 public class ImporterTest {
@@ -144,4 +149,264 @@ public class ImporterTest {
         assertNull(sourceTree.open("../foo.proto"));
         assertTrue(sourceTree.getLastErrorMessage().contains("Invalid filename"));
     }
+
+    @Test
+    public void testImportFilesInParallel() throws Exception {
+        File root = tempFolder.newFolder("root");
+        createProtoFile(root, "base.proto",
+            "syntax = \"proto2\";\n" +
+            "package com.example;\n" +
+            "message Base {}\n");
+        createProtoFile(root, "left.proto",
+            "syntax = \"proto2\";\n" +
+            "package com.example;\n" +
+            "import \"base.proto\";\n" +
+            "message Left { optional Base base = 1; }\n");
+        createProtoFile(root, "right.proto",
+            "syntax = \"proto2\";\n" +
+            "package com.example;\n" +
+            "import public \"base.proto\";\n" +
+            "message Right { optional Base base = 1; }\n");
+        createProtoFile(root, "top.proto",
+            "syntax = \"proto2\";\n" +
+            "package com.example;\n" +
+            "import \"left.proto\";\n" +
+            "import \"right.proto\";\n" +
+            "message Top { optional Left left = 1; optional Right right = 2; }\n");
+
+        Importer.DiskSourceTree sourceTree = new Importer.DiskSourceTree();
+        sourceTree.mapPath("", root.getAbsolutePath());
+        TestErrorCollector collector = new TestErrorCollector();
+        Importer importer = new Importer(sourceTree, collector);
+
+        List<FileDescriptor> files = importer.importFiles(Arrays.asList("top.proto", "left.proto"), 4);
+
+        assertFalse(collector.errors.toString(), collector.hasErrors());
+        assertEquals(2, files.size());
+        assertEquals("top.proto", files.get(0).getName());
+        assertSame(files.get(1), files.get(0).getDependencies().get(0));
+        assertSame(files.get(0).getDependencies().get(0).getDependencies().get(0),
+            files.get(0).getDependencies().get(1).getDependencies().get(0));
+        assertSame(files.get(1), importer.importFile("left.proto"));
+    }
+
+    @Test
+    public void testImportFilesInParallelReportsErrorsInOrder() throws Exception {
+        File root = tempFolder.newFolder("root");
+        createProtoFile(root, "a.proto",
+            "syntax = \"proto2\";\n" +
+            "import \"b.proto\";\n" +
+            "import \"missing.proto\";\n");
+        createProtoFile(root, "b.proto",
+            "syntax = \"proto2\";\n" +
+            "import \"a.proto\";\n");
+        createProtoFile(root, "c.proto",
+            "syntax = \"proto2\";\n" +
+            "import \"missing.proto\";\n");
+
+        Importer.DiskSourceTree sourceTree = new Importer.DiskSourceTree();
+        sourceTree.mapPath("", root.getAbsolutePath());
+
+        for (int run = 0; run < 5; run++) {
+            TestErrorCollector collector = new TestErrorCollector();
+            Importer importer = new Importer(sourceTree, collector);
+
+            assertNull(importer.importFiles(Arrays.asList("a.proto", "c.proto"), 4));
+            assertEquals(Arrays.asList(
+                "a.proto:-1:-1: File recursively imports itself: a.proto",
+                "missing.proto:-1:-1: File not found: missing.proto"), collector.errors);
+        }
+    }
+
+    @Test
+    public void testImportFilesScansHeaderImports() throws Exception {
+        File root = tempFolder.newFolder("root");
+        createProtoFile(root, "sub/dep.proto",
+            "syntax = \"proto2\";\n" +
+            "message Dep {}\n");
+        createProtoFile(root, "late.proto",
+            "syntax = \"proto2\";\n" +
+            "message Late {}\n");
+        createProtoFile(root, "top.proto",
+            "syntax = \"proto2\";\n" +
+            "import \"sub/\" \"dep.proto\";\n" +
+            "message Top { optional Dep dep = 1; }\n" +
+            "import \"late.proto\";\n");
+
+        Importer.DiskSourceTree disk = new Importer.DiskSourceTree();
+        disk.mapPath("", root.getAbsolutePath());
+        List<String> reads = new ArrayList<>();
+        Importer.SourceTree sourceTree = new Importer.SourceTree() {
+            @Override
+            public java.io.InputStream open(String filename) {
+                reads.add(filename);
+                return disk.open(filename);
+            }
+
+            @Override
+            public String getLastErrorMessage() {
+                return disk.getLastErrorMessage();
+            }
+        };
+        TestErrorCollector collector = new TestErrorCollector();
+        Importer importer = new Importer(sourceTree, collector);
+
+        List<FileDescriptor> files = importer.importFiles(Arrays.asList("top.proto"), 4);
+
+        assertFalse(collector.errors.toString(), collector.hasErrors());
+        assertEquals(Arrays.asList("sub/dep.proto", "late.proto"),
+            Arrays.asList(files.get(0).getDependencies().get(0).getName(),
+                files.get(0).getDependencies().get(1).getName()));
+        assertEquals(Arrays.asList("top.proto", "sub/dep.proto", "late.proto"), reads);
+    }
+
+    @Test
+    public void testDescriptorPoolSharesUnchangedFiles() throws Exception {
+        File root = tempFolder.newFolder("root");
+        createProtoFile(root, "bar.proto",
+            "syntax = \"proto2\";\n" +
+            "message Bar {}\n");
+        createProtoFile(root, "foo.proto",
+            "syntax = \"proto2\";\n" +
+            "import \"bar.proto\";\n" +
+            "message Foo { optional Bar bar = 1; }\n");
+
+        Importer.DiskSourceTree sourceTree = new Importer.DiskSourceTree();
+        sourceTree.mapPath("", root.getAbsolutePath());
+        TestErrorCollector collector = new TestErrorCollector();
+        DescriptorPool pool = new DescriptorPool();
+
+        FileDescriptor foo;
+        try (Importer importer = new Importer(sourceTree, collector, pool)) {
+            foo = importer.importFile("foo.proto");
+        }
+        assertEquals(2, pool.size());
+        try (Importer importer = new Importer(sourceTree, collector, pool)) {
+            assertSame(foo, importer.importFiles(Arrays.asList("foo.proto"), 4).get(0));
+        }
+
+        // An edited file is parsed again; its unchanged import is still shared.
+        createProtoFile(root, "foo.proto",
+            "syntax = \"proto2\";\n" +
+            "import \"bar.proto\";\n" +
+            "message Foo { optional Bar bar = 2; }\n");
+        FileDescriptor edited;
+        try (Importer importer = new Importer(sourceTree, collector, pool)) {
+            edited = importer.importFile("foo.proto");
+        }
+        assertNotSame(foo, edited);
+        assertSame(foo.getDependencies().get(0), edited.getDependencies().get(0));
+        assertEquals("the old foo.proto is dropped", 2, pool.size());
+        assertEquals(2, edited.getMessageTypes().get(0).getFields().get(0).getNumber());
+
+        // A file whose import changed is built again, even though its own text did not.
+        createProtoFile(root, "bar.proto",
+            "syntax = \"proto2\";\n" +
+            "message Bar { optional int32 x = 1; }\n");
+        try (Importer importer = new Importer(sourceTree, collector, pool)) {
+            FileDescriptor rebuilt = importer.importFile("foo.proto");
+            assertNotSame(edited, rebuilt);
+            assertEquals(1, rebuilt.getDependencies().get(0).getMessageTypes().get(0).getFields().size());
+        }
+        assertEquals(2, pool.size());
+        assertFalse(collector.errors.toString(), collector.hasErrors());
+    }
+
+    @Test
+    public void testDescriptorPoolReplaysParseMessages() throws Exception {
+        File root = tempFolder.newFolder("root");
+        createProtoFile(root, "bar.proto",
+            "syntax = \"proto2\";\n" +
+            "option java_outer_classname = \"Bar\\qOuter\";\n" +
+            "message Bar {}\n");
+        Importer.DiskSourceTree sourceTree = new Importer.DiskSourceTree();
+        sourceTree.mapPath("", root.getAbsolutePath());
+        DescriptorPool pool = new DescriptorPool();
+
+        TestErrorCollector parsed = new TestErrorCollector();
+        FileDescriptor bar;
+        try (Importer importer = new Importer(sourceTree, parsed, pool)) {
+            bar = importer.importFile("bar.proto");
+        }
+        assertEquals(1, parsed.errors.size());
+
+        for (int parallelism : new int[] {1, 4}) {
+            TestErrorCollector pooled = new TestErrorCollector();
+            try (Importer importer = new Importer(sourceTree, pooled, pool)) {
+                assertSame(bar, importer.importFiles(Arrays.asList("bar.proto"), parallelism).get(0));
+            }
+            assertEquals(parsed.errors, pooled.errors);
+        }
+    }
+
+    @Test
+    public void testParseCacheSkipsParsingUnchangedFiles() throws Exception {
+        File root = tempFolder.newFolder("root");
+        File cacheDir = new File(tempFolder.getRoot(), "cache");
+        createProtoFile(root, "bar.proto",
+            "syntax = \"proto2\";\n" +
+            "// Bar.\n" +
+            "message Bar {}\n" +
+            "option java_outer_classname = \"Bar\\qOuter\";\n");
+        createProtoFile(root, "foo.proto",
+            "syntax = \"proto2\";\n" +
+            "import \"bar.proto\";\n" +
+            "message Foo { optional Bar bar = 1; }\n");
+
+        Importer.DiskSourceTree sourceTree = new Importer.DiskSourceTree();
+        sourceTree.mapPath("", root.getAbsolutePath());
+        TestErrorCollector collector = new TestErrorCollector();
+
+        ParseCache first = new ParseCache(cacheDir.toPath());
+        Importer importer = new Importer(sourceTree, collector);
+        importer.setParseCache(first);
+        FileDescriptor parsed = importer.importFile("foo.proto");
+        assertEquals(0, first.getHitCount());
+        assertEquals(2, first.getMissCount());
+        List<String> parseErrors = new ArrayList<>(collector.errors);
+        assertEquals(1, parseErrors.size());
+        collector.errors.clear();
+
+        createProtoFile(root, "foo.proto",
+            "syntax = \"proto2\";\n" +
+            "import \"bar.proto\";\n" +
+            "message Foo { optional Bar bar = 2; }\n");
+        ParseCache second = new ParseCache(cacheDir.toPath());
+        importer = new Importer(sourceTree, collector);
+        importer.setParseCache(second);
+        FileDescriptor cached = importer.importFiles(Arrays.asList("foo.proto"), 2).get(0);
+        assertEquals(1, second.getHitCount());
+        assertEquals(1, second.getMissCount());
+        assertEquals(2, cached.getMessageTypes().get(0).getFields().get(0).getNumber());
+        assertEquals(parsed.getDependencies().get(0).toProto(), cached.getDependencies().get(0).toProto());
+        assertTrue(cached.getDependencies().get(0).toProto().hasSourceCodeInfo());
+        // The cached bar.proto reports what its parse did.
+        assertEquals(parseErrors, collector.errors);
+    }
+
+    @Test
+    public void testDiskSourceTreeSearchesRootsInOrder() throws Exception {
+        File first = tempFolder.newFolder("first");
+        File second = tempFolder.newFolder("second");
+        StringBuilder large = new StringBuilder("syntax = \"proto2\";\n");
+        for (int i = 0; large.length() < 100 * 1024; i++) {
+            large.append("message M").append(i).append(" { optional string value = 1; }\n");
+        }
+        createProtoFile(second, "big.proto", large.toString());
+        createProtoFile(first, "dup.proto", "syntax = \"proto2\";\npackage first;\n");
+        createProtoFile(second, "dup.proto", "syntax = \"proto2\";\npackage second;\n");
+
+        Importer.DiskSourceTree sourceTree = new Importer.DiskSourceTree();
+        sourceTree.mapPath("", first.getAbsolutePath());
+        sourceTree.mapPath("", second.getAbsolutePath());
+        TestErrorCollector collector = new TestErrorCollector();
+        Importer importer = new Importer(sourceTree, collector);
+
+        assertEquals("first", importer.importFile("dup.proto").getPackage());
+        assertTrue(importer.importFile("big.proto").getMessageTypes().size() > 1000);
+        assertNull(sourceTree.open("missing.proto"));
+        assertNull(sourceTree.open("missing.proto"));
+        assertEquals("File not found: missing.proto", sourceTree.getLastErrorMessage());
+        assertFalse(collector.errors.toString(), collector.hasErrors());
+    }
 }
@@ -0,0 +1,71 @@
+package com.rubberjam.protobuf.compiler.java;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayOutputStream;
+
+import org.junit.Test;
+
+import com.google.protobuf.DescriptorProtos.FileDescriptorProto;
+import com.google.protobuf.Descriptors.FileDescriptor;
+import com.rubberjam.protobuf.compiler.CodeGenerator.GenerationException;
+import com.rubberjam.protobuf.compiler.JavaCodeGenerator;
+
+/**
+ * Checks that rendering top-level messages and enums concurrently produces the
+ * same output as the serial generator.
+ */
+public class ParallelMessageParityTest extends AbstractProtoParityTest
+{
+	private static final String PARAMETER = "experimental_message_parallelism=4";
+
+	@Test
+	public void testNested() throws Exception
+	{
+		verifyParity("comprehensive_test_nested.proto", "ComprehensiveTestNested.java", PARAMETER);
+	}
+
+	@Test
+	public void testV2() throws Exception
+	{
+		verifyParity("comprehensive_test_v2.proto", "ComprehensiveTestV2.java", PARAMETER);
+	}
+
+	@Test
+	public void testV3() throws Exception
+	{
+		verifyParity("comprehensive_test_v3.proto", "ComprehensiveTestV3.java", PARAMETER);
+	}
+
+	@Test
+	public void testEdgeCasesLite() throws Exception
+	{
+		verifyParity("comprehensive_test_edge_cases_lite_runtime.proto",
+				"ComprehensiveTestEdgeCasesLite.java", PARAMETER);
+	}
+
+	@Test
+	public void testParallelismParameter() throws Exception
+	{
+		assertEquals(4, Options.fromParameter(PARAMETER).getMessageParallelism());
+		assertNull(Options.fromParameter(PARAMETER).getParameterError());
+		FileDescriptor file = FileDescriptor.buildFrom(
+				FileDescriptorProto.newBuilder().setName("test.proto").build(), new FileDescriptor[0]);
+		for (String value : new String[] { "abc", "0", "-2" })
+		{
+			try
+			{
+				new JavaCodeGenerator().generate(file, "experimental_message_parallelism=" + value,
+						filename -> new ByteArrayOutputStream());
+				fail("Expected GenerationException for " + value);
+			}
+			catch (GenerationException e)
+			{
+				assertEquals("Invalid value for experimental_message_parallelism: \"" + value
+						+ "\". Expected a positive integer.", e.getMessage());
+			}
+		}
+	}
+}
@@ -933,6 +933,25 @@ public class ParserTest {
         assertEquals("MyMapEntry", entry.getName());
     }
 
+    @Test(timeout = 10000)
+    public void testMapWithForwardReferencedEnumValue() {
+        FileDescriptorProto file = parseExpectingSuccess(
+            "message TestMessage {\n" +
+            "  map<string, Foo> enum_map = 1;\n" +
+            "  map<string, Bar> msg_map = 2;\n" +
+            "  enum Foo { A = 0; }\n" +
+            "}\n" +
+            "message Bar {}\n");
+
+        DescriptorProto msg = file.getMessageType(0);
+        FieldDescriptorProto enumValue = msg.getNestedType(0).getField(1);
+        assertEquals(FieldDescriptorProto.Type.TYPE_ENUM, enumValue.getType());
+        assertEquals("Foo", enumValue.getTypeName());
+        FieldDescriptorProto msgValue = msg.getNestedType(1).getField(1);
+        assertEquals(FieldDescriptorProto.Type.TYPE_MESSAGE, msgValue.getType());
+        assertEquals("Bar", msgValue.getTypeName());
+    }
+
     @Test(timeout = 10000)
     public void testFieldJsonName() {
         FileDescriptorProto file = parseExpectingSuccess(
@@ -944,6 +963,64 @@ public class ParserTest {
         assertTrue(field.hasOptions());
     }
 
+    @Test(timeout = 10000)
+    public void testParseWithoutSourceLocations() {
+        String input =
+            "// A message.\n" +
+            "message TestMessage {\n" +
+            "  optional string foo = 1;  // A field.\n" +
+            "  enum Kind { A = 0; }\n" +
+            "}\n";
+        FileDescriptorProto withLocations = parseExpectingSuccess(input);
+        assertTrue(withLocations.getSourceCodeInfo().getLocationCount() > 0);
+
+        Tokenizer tokenizer = new Tokenizer(new StringReader(input), new TestErrorCollector());
+        Parser parser = new Parser();
+        parser.setRecordSourceLocations(false);
+        FileDescriptorProto.Builder file = FileDescriptorProto.newBuilder();
+        assertTrue(parser.parse(tokenizer, file));
+        assertFalse(file.hasSourceCodeInfo());
+        assertEquals(withLocations.toBuilder().clearSourceCodeInfo().build(), file.build());
+    }
+
+    @Test(timeout = 10000)
+    public void testErrorRecoverySkipsToEndOfStatement() {
+        TestErrorCollector errors = new TestErrorCollector();
+        Tokenizer tokenizer = new Tokenizer(new StringReader(
+            "message Broken {\n" +
+            "  optional int32 = 1 [default = 2, deprecated = true];\n" +
+            "  optional .pkg.Type ok = 2;\n" +
+            "  option = { a: { b: 1 } }\n" +
+            "}\n" +
+            "message Next { optional string name = 1; }\n"), errors);
+        Parser parser = new Parser();
+        parser.setErrorCollector(errors);
+        FileDescriptorProto.Builder file = FileDescriptorProto.newBuilder();
+
+        assertFalse(parser.parse(tokenizer, file));
+        assertEquals(errors.getErrorText(), 2, errors.getErrors().size());
+        assertEquals(".pkg.Type", file.getMessageType(0).getField(1).getTypeName());
+        assertEquals("Next", file.getMessageType(1).getName());
+        assertEquals("name", file.getMessageType(1).getField(0).getName());
+    }
+
+    @Test(timeout = 10000)
+    public void testMaxErrors() {
+        StringBuilder input = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            input.append("message M").append(i).append(" { optional int32 = 1; }\n");
+        }
+        TestErrorCollector errors = new TestErrorCollector();
+        Parser parser = new Parser();
+        parser.setErrorCollector(errors);
+        parser.setMaxErrors(3);
+
+        assertFalse(parser.parse(new Tokenizer(new StringReader(input.toString()), errors),
+            FileDescriptorProto.newBuilder()));
+        assertEquals(4, errors.getErrors().size());
+        assertTrue(errors.getErrors().get(3).endsWith("Too many errors; skipping the rest of the file."));
+    }
+
     @Test(timeout = 10000)
     public void testEmptyFileWithSyntax() {
         FileDescriptorProto file = parseExpectingSuccess("syntax = \"proto3\";\n");
@@ -3,6 +3,10 @@ package com.rubberjam.protobuf.compiler.java;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+
 import org.junit.Test;
 
 import com.google.protobuf.DescriptorProtos.DescriptorProto;
@@ -87,4 +91,47 @@ public class RuntimeJavaGeneratorTest
 			throw e;
 		}
 	}
+
+	@Test
+	public void testConflictingFieldWarnedOncePerFile() throws Exception
+	{
+		DescriptorProto message = DescriptorProto.newBuilder()
+				.setName("Counter")
+				.addField(FieldDescriptorProto.newBuilder()
+						.setName("item")
+						.setNumber(1)
+						.setLabel(FieldDescriptorProto.Label.LABEL_REPEATED)
+						.setType(FieldDescriptorProto.Type.TYPE_INT32)
+						.build())
+				.addField(FieldDescriptorProto.newBuilder()
+						.setName("item_count")
+						.setNumber(2)
+						.setLabel(FieldDescriptorProto.Label.LABEL_OPTIONAL)
+						.setType(FieldDescriptorProto.Type.TYPE_INT32)
+						.build())
+				.build();
+
+		FileDescriptorProto fileProto = FileDescriptorProto.newBuilder()
+				.setName("conflict_test.proto")
+				.setPackage("com.example")
+				.addMessageType(message)
+				.build();
+
+		ByteArrayOutputStream err = new ByteArrayOutputStream();
+		PrintStream originalErr = System.err;
+		System.setErr(new PrintStream(err, true, "UTF-8"));
+		try
+		{
+			RuntimeJavaGenerator.generateJavaSource(fileProto, null, "");
+		}
+		finally
+		{
+			System.setErr(originalErr);
+		}
+
+		String warnings = err.toString(StandardCharsets.UTF_8.name());
+		String warning = "WARNING: field \"com.example.Counter.item\" is conflicting";
+		assertTrue(warnings, warnings.contains(warning));
+		assertEquals(warnings, warnings.indexOf(warning), warnings.lastIndexOf(warning));
+	}
 }
@@ -0,0 +1,74 @@
+package com.rubberjam.protobuf.compiler.java;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.StringReader;
+
+import org.junit.Test;
+
+import com.google.protobuf.DescriptorProtos.FileDescriptorProto;
+import com.google.protobuf.Descriptors.Descriptor;
+import com.google.protobuf.Descriptors.EnumDescriptor;
+import com.google.protobuf.Descriptors.FileDescriptor;
+import com.google.protobuf.Descriptors.MethodDescriptor;
+import com.rubberjam.protobuf.compiler.Parser;
+import com.rubberjam.protobuf.io.Tokenizer;
+
+public class SourceLocationIndexTest {
+
+  private static FileDescriptor parse(String input) throws Exception {
+    Tokenizer tokenizer = new Tokenizer(new StringReader(input), (line, column, message) -> {
+      throw new AssertionError(line + ":" + column + ": " + message);
+    });
+    FileDescriptorProto.Builder file = FileDescriptorProto.newBuilder();
+    assertTrue(new Parser().parse(tokenizer, file));
+    file.setName("test.proto");
+    return FileDescriptor.buildFrom(file.build(), new FileDescriptor[0]);
+  }
+
+  @Test
+  public void testPathOf() throws Exception {
+    FileDescriptor file = parse(
+        "syntax = \"proto2\";\n"
+        + "message Outer {\n"
+        + "  message Inner { optional int32 a = 1; }\n"
+        + "  enum Kind { UNKNOWN = 0; }\n"
+        + "}\n"
+        + "service Svc { rpc Call(Outer) returns (Outer); }\n");
+    Descriptor outer = file.getMessageTypes().get(0);
+    Descriptor inner = outer.getNestedTypes().get(0);
+    EnumDescriptor kind = outer.getEnumTypes().get(0);
+    MethodDescriptor call = file.getServices().get(0).getMethods().get(0);
+
+    assertArrayEquals(new int[] {4, 0}, SourceLocationIndex.pathOf(outer));
+    assertArrayEquals(new int[] {4, 0, 3, 0, 2, 0},
+        SourceLocationIndex.pathOf(inner.getFields().get(0)));
+    assertArrayEquals(new int[] {4, 0, 4, 0, 2, 0},
+        SourceLocationIndex.pathOf(kind.getValues().get(0)));
+    assertArrayEquals(new int[] {6, 0, 2, 0}, SourceLocationIndex.pathOf(call));
+    assertArrayEquals(new int[0], SourceLocationIndex.pathOf(file));
+  }
+
+  @Test
+  public void testFindReturnsComments() throws Exception {
+    FileDescriptor file = parse(
+        "syntax = \"proto2\";\n"
+        + "// Leading for Foo.\n"
+        + "message Foo {\n"
+        + "  optional int32 bar = 1;  // Trailing for bar.\n"
+        + "}\n");
+    Descriptor foo = file.getMessageTypes().get(0);
+    Context context = new Context(file, new Options());
+
+    assertNotNull(SourceLocationIndex.find(foo, context));
+    assertEquals("Leading for Foo.", SourceLocationIndex.find(foo, context).getLeadingComments().trim());
+    assertEquals("Trailing for bar.",
+        SourceLocationIndex.find(foo.getFields().get(0), context).getTrailingComments().trim());
+    assertSame(context.getFileFacts(file).getSourceLocations(),
+        context.getFileFacts(file).getSourceLocations());
+  }
+}
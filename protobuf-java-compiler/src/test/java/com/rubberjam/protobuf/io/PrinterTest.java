@@ -223,6 +223,47 @@ public class PrinterTest
 				printer.toString());
 	}
 
+	@Test
+	public void testCachedTemplateIsNotChangedByConsumeAfter()
+	{
+		Printer.PrinterValue val = new Printer.PrinterValue("x");
+		val.consumeAfter = ";";
+		String template = "[$var$;]\n";
+
+		printer.emit(Map.of("var", val), template);
+		printer.emit(Map.of("var", "y"), template);
+		printer.emit(Map.of("var", val), template);
+
+		assertEquals("[x]\n[y;]\n[x]\n", printer.toString());
+	}
+
+	@Test
+	public void testInnerScopesShadowOuterOnes()
+	{
+		Map<String, Object> vars = new java.util.HashMap<>();
+		vars.put("a", "outer");
+		vars.put("c", "c");
+		vars.put("b", (BooleanSupplier) () ->
+		{
+			printer.emit(Map.of("a", "inner"), "$a$ $c$");
+			return false;
+		});
+
+		printer.emit(vars, "$a$ [$b$] $a$\n");
+
+		assertEquals("outer [inner c] outer\n", printer.toString());
+	}
+
+	@Test
+	public void testWhitespaceOnlyLinesAreTrimmed()
+	{
+		printer.emit(Map.of("a", "", "b", "  "), "  $a$ $b$\n");
+		printer.emit(Map.of("a", " x", "b", "  "), "  $a$ $b$\n");
+		printer.emitRaw("   \nend\n");
+
+		assertEquals("\n   x   \n\nend\n", printer.toString());
+	}
+
 	@Test
 	public void testEmitWithIndentAndIgnoredComment() throws Exception
 	{
@@ -457,4 +498,149 @@ public class PrinterTest
 						"}\n",
 				printer.toString());
 	}
-}
\ No newline at end of file
+
+	@Test
+	public void testStreamingMatchesBufferedPrinting() throws Exception
+	{
+		java.io.ByteArrayOutputStream out = new java.io.ByteArrayOutputStream();
+		Printer buffered = new Printer(new Printer.Options());
+		Printer streaming = new Printer(new Printer.Options(), out);
+		for (Printer p : List.of(buffered, streaming))
+		{
+			for (int i = 0; i < 2000; i++)
+			{
+				p.emit(Map.of("name", "caf\u00e9_" + i), "class $name$ {\n");
+				p.indent();
+				// Whitespace-only lines are trimmed even when they start after
+				// a flush.
+				p.emit("  \nint \ud83d\ude00;\n");
+				p.outdent();
+				p.emit("}\n");
+			}
+			p.emit("last line");
+		}
+		streaming.flush();
+
+		assertEquals(buffered.toString(), out.toString(java.nio.charset.StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void testResetPrinterMatchesNewOne() throws Exception
+	{
+		Printer reused = new Printer(new Printer.Options());
+		reused.pushVars(Map.of("stale", "x"));
+		reused.indent();
+		reused.emit("left   ");
+
+		for (String name : List.of("first", "second"))
+		{
+			java.io.ByteArrayOutputStream out = new java.io.ByteArrayOutputStream();
+			reused.reset(out);
+			reused.emit(Map.of("name", name), "class $name$ {\n  é \n}\n");
+			reused.flush();
+			assertEquals("class " + name + " {\n  é \n}\n", out.toString(java.nio.charset.StandardCharsets.UTF_8));
+		}
+
+		reused.reset();
+		reused.emit("in memory\n");
+		assertEquals("in memory\n", reused.toString());
+		try
+		{
+			reused.emit("$stale$");
+			fail();
+		}
+		catch (NoSuchElementException expected)
+		{
+		}
+	}
+
+	@Test
+	public void testResetAfterFailedSink() throws Exception
+	{
+		java.io.OutputStream failing = new java.io.OutputStream()
+		{
+			@Override
+			public void write(int b) throws java.io.IOException
+			{
+				throw new java.io.IOException("disk full");
+			}
+
+			@Override
+			public void write(byte[] b, int off, int len) throws java.io.IOException
+			{
+				throw new java.io.IOException("disk full");
+			}
+		};
+		Printer reused = new Printer(new Printer.Options(), failing);
+		try
+		{
+			for (int i = 0; i < 2000; i++)
+			{
+				reused.emit("caf\u00e9 \ud83d\ude00 " + i + "\n");
+			}
+			reused.flush();
+			fail();
+		}
+		catch (java.io.UncheckedIOException | java.io.IOException expected)
+		{
+		}
+
+		java.io.ByteArrayOutputStream out = new java.io.ByteArrayOutputStream();
+		reused.reset(out);
+		reused.emit("class caf\u00e9 {}\n");
+		reused.flush();
+		assertEquals("class caf\u00e9 {}\n", out.toString(java.nio.charset.StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void testFragmentsMatchDirectPrinting()
+	{
+		Printer direct = new Printer(new Printer.Options());
+		Printer stitched = new Printer(new Printer.Options());
+		for (Printer p : List.of(direct, stitched))
+		{
+			p.emit("class Outer {\n");
+			p.indent();
+		}
+
+		Printer first = stitched.newFragment();
+		Printer second = stitched.newFragment();
+		for (Printer p : List.of(direct, first))
+		{
+			p.emit("class A {\n  int a;\n}\n");
+		}
+		for (Printer p : List.of(direct, second))
+		{
+			p.emit(Map.of("name", "B"), "class $name$ {}\n\n");
+		}
+		stitched.appendFragment(first);
+		stitched.appendFragment(second);
+
+		for (Printer p : List.of(direct, stitched))
+		{
+			p.outdent();
+			p.emit("}\n");
+		}
+		assertEquals(direct.toString(), stitched.toString());
+	}
+
+	@Test
+	public void testFragmentRejectedMidLine()
+	{
+		Printer p = new Printer(new Printer.Options());
+		Printer fragment = p.newFragment();
+		fragment.emit("text\n");
+		p.emit("partial line");
+
+		assertFalse(p.isAtLineStart());
+		try
+		{
+			p.appendFragment(fragment);
+			fail();
+		}
+		catch (IllegalStateException expected)
+		{
+		}
+		assertEquals("partial line", p.toString());
+	}
+}
@@ -1,8 +1,11 @@
 package com.rubberjam.protobuf.io;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
+import java.io.IOException;
+import java.io.Reader;
 import java.io.StringReader;
 import java.util.ArrayList;
 import java.util.List;
@@ -96,4 +99,71 @@ public class TokenizerTest {
         assertToken(t, Tokenizer.TokenType.SYMBOL, "-");
         assertToken(t, Tokenizer.TokenType.FLOAT, "1.2e-3");
     }
+
+    @Test
+    public void testNumericValuesAreDecoded() {
+        Tokenizer t = createTokenizer(
+            "123 0x1A 012 0 18446744073709551615 18446744073709551616 0xFFFFFFFFFFFFFFFF 0x10000000000000000 09 0x"
+            + " 1.5 .25 2e3");
+        long[] values = {123, 0x1A, 012, 0, -1L, 0, -1L, 0, 0, 0};
+        boolean[] valid = {true, true, true, true, true, false, true, false, false, false};
+        for (int i = 0; i < values.length; i++) {
+            assertTrue(t.next());
+            assertEquals(t.current().text, Tokenizer.TokenType.INTEGER, t.current().type);
+            assertEquals(t.current().text, valid[i], t.current().intValueValid);
+            if (valid[i]) {
+                assertEquals(t.current().text, values[i], t.current().intValue);
+            }
+        }
+        for (double value : new double[] {1.5, .25, 2e3}) {
+            assertTrue(t.next());
+            assertEquals(Tokenizer.TokenType.FLOAT, t.current().type);
+            assertEquals(value, t.current().floatValue, 0);
+        }
+    }
+
+    @Test
+    public void testReaderAndInMemoryInputAgree() {
+        StringBuilder input = new StringBuilder();
+        for (int i = 0; i < 2000; i++) {
+            input.append("optional int32 field_").append(i).append(" = ").append(i + 1).append(";\n");
+        }
+        // Hands out at most 7 characters per read, so the tokenizer refills many times.
+        Reader trickle = new StringReader(input.toString()) {
+            @Override
+            public int read(char[] cbuf, int off, int len) throws IOException {
+                return super.read(cbuf, off, Math.min(len, 7));
+            }
+        };
+        Tokenizer fromReader = new Tokenizer(trickle, new TestErrorCollector());
+        Tokenizer inMemory = new Tokenizer(input, new TestErrorCollector());
+
+        int tokens = 0;
+        while (fromReader.next()) {
+            assertTrue(inMemory.next());
+            assertEquals(inMemory.current().type, fromReader.current().type);
+            assertEquals(inMemory.current().text, fromReader.current().text);
+            assertEquals(inMemory.current().line, fromReader.current().line);
+            assertEquals(inMemory.current().column, fromReader.current().column);
+            tokens++;
+        }
+        assertEquals(false, inMemory.next());
+        assertEquals(2000 * 6, tokens);
+    }
+
+    @Test
+    public void testIdentifiersAreInterned() {
+        Tokenizer t = createTokenizer("message Foo { optional Foo foo = 1; }");
+        assertTrue(t.next());
+        assertSame("message", t.current().text);
+        assertTrue(t.next());
+        String foo = t.current().text;
+        assertTrue(t.next());
+        assertSame("{", t.current().text);
+        assertTrue(t.next());
+        assertSame("optional", t.current().text);
+        assertTrue(t.next());
+        assertSame(foo, t.current().text);
+        assertEquals("Foo", foo);
+    }
 }